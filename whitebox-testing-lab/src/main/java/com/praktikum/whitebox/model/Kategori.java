@@ -9,6 +9,7 @@ public class Kategori {
     private String nama;
     private String deskripsi;
     private boolean aktif;
+    private String kodeInduk; // Kode kategori induk, null untuk kategori puncak
 
     // Constructor Default
     public Kategori() {
@@ -23,6 +24,12 @@ public class Kategori {
         this.aktif = true; // Kategori baru defaultnya aktif
     }
 
+    // Constructor untuk subkategori
+    public Kategori(String kode, String nama, String deskripsi, String kodeInduk) {
+        this(kode, nama, deskripsi);
+        this.kodeInduk = kodeInduk;
+    }
+
     // --- Getters and Setters ---
 
     public String getKode() {
@@ -57,6 +64,14 @@ public class Kategori {
         this.aktif = aktif;
     }
 
+    public String getKodeInduk() {
+        return kodeInduk;
+    }
+
+    public void setKodeInduk(String kodeInduk) {
+        this.kodeInduk = kodeInduk;
+    }
+
     // --- Utility Methods (equals, hashCode, toString) ---
 
     @Override
@@ -1,9 +1,22 @@
 package com.praktikum.whitebox.model;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.Objects;
 
 public class Produk {
 
+    // Akses atomik ke field stok untuk mode stok konkuren
+    private static final VarHandle STOK;
+
+    static {
+        try {
+            STOK = MethodHandles.lookup().findVarHandle(Produk.class, "stok", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     // Fields (Atribut)
     private String kode;
     private String nama;
@@ -12,6 +25,7 @@ public class Produk {
     private int stok;
     private int stokMinimum;
     private boolean aktif;
+    private boolean stokKonkuren; // Lihat aktifkanStokKonkuren()
 
     // Constructor Default
     public Produk() {
@@ -29,6 +43,18 @@ public class Produk {
         this.aktif = true; // Produk baru defaultnya aktif
     }
 
+    // Constructor salinan
+    public Produk(Produk lain) {
+        this.kode = lain.kode;
+        this.nama = lain.nama;
+        this.kategori = lain.kategori;
+        this.harga = lain.harga;
+        this.stok = lain.getStok(); // Lewat getter agar mode konkuren terbaca volatile
+        this.stokMinimum = lain.stokMinimum;
+        this.aktif = lain.aktif;
+        this.stokKonkuren = lain.stokKonkuren;
+    }
+
     // --- Getters and Setters ---
 
     public String getKode() {
@@ -64,11 +90,15 @@ public class Produk {
     }
 
     public int getStok() {
-        return stok;
+        return stokKonkuren ? (int) STOK.getVolatile(this) : stok;
     }
 
     public void setStok(int stok) {
-        this.stok = stok;
+        if (stokKonkuren) {
+            STOK.setVolatile(this, stok);
+        } else {
+            this.stok = stok;
+        }
     }
 
     public int getStokMinimum() {
@@ -87,31 +117,47 @@ public class Produk {
         this.aktif = aktif;
     }
 
+    /**
+     * Mengaktifkan mode stok konkuren: kurangiStok dan tambahStok memakai operasi atomik
+     * (CAS) sehingga aman dipanggil bersamaan oleh banyak thread pada instance yang sama.
+     * Harus dipanggil sebelum instance dibagikan ke thread lain; tanpa mode ini stok
+     * diakses sebagai field biasa seperti semula.
+     */
+    public void aktifkanStokKonkuren() {
+        this.stokKonkuren = true;
+    }
+
+    public boolean isStokKonkuren() {
+        return stokKonkuren;
+    }
+
     // --- Business Logic Methods ---
 
     /**
      * Mengecek apakah stok produk sudah habis (sama dengan 0).
      */
     public boolean isStokHabis() {
-        return stok == 0;
+        return getStok() == 0;
     }
 
     /**
      * Mengecek apakah stok produk menipis (lebih dari 0 dan kurang dari atau sama dengan stokMinimum).
      */
     public boolean isStokMenipis() {
-        return stok > 0 && stok <= stokMinimum;
+        int stokSaatIni = getStok(); // Dibaca sekali agar kedua perbandingan memakai nilai yang sama
+        return stokSaatIni > 0 && stokSaatIni <= stokMinimum;
     }
 
     /**
      * Mengecek apakah stok produk aman (lebih dari stokMinimum).
      */
     public boolean isStokAman() {
-        return stok > stokMinimum;
+        return getStok() > stokMinimum;
     }
 
     /**
-     * Mengurangi stok produk.
+     * Mengurangi stok produk. Dalam mode stok konkuren, pengecekan dan pengurangan
+     * terjadi secara atomik: stok tidak pernah menjadi negatif walaupun dipanggil bersamaan.
      * @param jumlah Jumlah yang akan dikurangi.
      * @throws IllegalArgumentException jika jumlah tidak positif atau stok tidak mencukupi.
      */
@@ -119,6 +165,16 @@ public class Produk {
         if (jumlah <= 0) {
             throw new IllegalArgumentException("Jumlah harus positif");
         }
+        if (stokKonkuren) {
+            int sekarang;
+            do {
+                sekarang = (int) STOK.getVolatile(this);
+                if (jumlah > sekarang) {
+                    throw new IllegalArgumentException("Stok tidak mencukupi");
+                }
+            } while (!STOK.compareAndSet(this, sekarang, sekarang - jumlah));
+            return;
+        }
         if (jumlah > stok) {
             throw new IllegalArgumentException("Stok tidak mencukupi");
         }
@@ -134,6 +190,10 @@ public class Produk {
         if (jumlah <= 0) {
             throw new IllegalArgumentException("Jumlah harus positif");
         }
+        if (stokKonkuren) {
+            STOK.getAndAdd(this, jumlah);
+            return;
+        }
         this.stok += jumlah;
     }
 
@@ -174,7 +234,7 @@ public class Produk {
                 ", nama='" + nama + '\'' +
                 ", kategori='" + kategori + '\'' +
                 ", harga=" + harga +
-                ", stok=" + stok +
+                ", stok=" + getStok() +
                 ", stokMinimum=" + stokMinimum +
                 ", aktif=" + aktif +
                 '}';
@@ -0,0 +1,73 @@
+package com.praktikum.whitebox.model;
+
+/**
+ * Tipe pelanggan beserta persentase diskon tambahan yang melekat padanya.
+ * Tipe di-resolve sekali dari String di batas API, sehingga perhitungan
+ * diskon selanjutnya tidak perlu lagi membandingkan String.
+ */
+public enum TipePelanggan {
+
+    PREMIUM(0.10),  // 10% tambahan
+    REGULER(0.05),  // 5% tambahan
+    BARU(0.02),     // 2% tambahan
+    LAINNYA(0.0);   // Tipe tidak dikenal, tanpa diskon tambahan
+
+    // Tabel hash sempurna: huruf pertama (A-Z) dari tiap tipe yang dikenal sudah unik
+    private static final TipePelanggan[] TABEL_HURUF_AWAL = new TipePelanggan[26];
+
+    static {
+        for (TipePelanggan tipe : values()) {
+            if (tipe != LAINNYA) {
+                TABEL_HURUF_AWAL[tipe.name().charAt(0) - 'A'] = tipe;
+            }
+        }
+    }
+
+    private final double persentaseDiskon;
+
+    TipePelanggan(double persentaseDiskon) {
+        this.persentaseDiskon = persentaseDiskon;
+    }
+
+    /**
+     * @return Persentase diskon tambahan untuk tipe ini (dalam bentuk desimal).
+     */
+    public double getPersentaseDiskon() {
+        return persentaseDiskon;
+    }
+
+    /**
+     * Me-resolve tipe pelanggan dari String tanpa membedakan huruf besar/kecil.
+     * Cukup satu lookup tabel berdasarkan huruf pertama dan satu perbandingan.
+     * @param tipePelanggan Tipe pelanggan dalam bentuk String (boleh null).
+     * @return Tipe yang cocok, atau LAINNYA jika tidak dikenal.
+     */
+    public static TipePelanggan dari(String tipePelanggan) {
+        if (tipePelanggan == null || tipePelanggan.isEmpty()) {
+            return LAINNYA;
+        }
+        int indeks = Character.toUpperCase(tipePelanggan.charAt(0)) - 'A';
+        if (indeks < 0 || indeks >= TABEL_HURUF_AWAL.length) {
+            return LAINNYA;
+        }
+        TipePelanggan kandidat = TABEL_HURUF_AWAL[indeks];
+        if (kandidat != null && kandidat.name().equalsIgnoreCase(tipePelanggan)) {
+            return kandidat;
+        }
+        return LAINNYA;
+    }
+
+    /**
+     * Sama seperti {@link #dari(String)}, tetapi menolak tipe yang tidak dikenal.
+     * @param tipePelanggan Tipe pelanggan dalam bentuk String.
+     * @return Tipe yang cocok.
+     * @throws IllegalArgumentException jika tipe pelanggan tidak dikenal.
+     */
+    public static TipePelanggan dariKetat(String tipePelanggan) {
+        TipePelanggan tipe = dari(tipePelanggan);
+        if (tipe == LAINNYA && !LAINNYA.name().equalsIgnoreCase(tipePelanggan)) {
+            throw new IllegalArgumentException("Tipe pelanggan tidak dikenal: " + tipePelanggan);
+        }
+        return tipe;
+    }
+}
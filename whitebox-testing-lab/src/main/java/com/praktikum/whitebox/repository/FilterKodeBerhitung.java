@@ -0,0 +1,106 @@
+package com.praktikum.whitebox.repository;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counting Bloom filter untuk kode produk: menjawab "pasti tidak ada" atau "mungkin ada".
+ * <p>
+ * Setiap kode menaikkan 4 penghitung 4-bit (16 penghitung dikemas dalam satu long),
+ * sehingga penghapusan cukup menurunkan penghitung yang sama. Penghitung yang mencapai 15
+ * dianggap jenuh dan tidak pernah diturunkan lagi; akibatnya hanya false positive yang
+ * bertambah, tidak pernah false negative. Dengan sekitar 10 penghitung per kode, peluang
+ * false positive kira-kira 1%.
+ * <p>
+ * Thread-safe (CAS per long). Pemanggil bertanggung jawab menaikkan penghitung sebelum kode
+ * terlihat di penyimpanan, dan menurunkannya hanya untuk kode yang memang pernah ditambahkan.
+ */
+class FilterKodeBerhitung {
+
+    static final int PENGHITUNG_PER_KODE = 10;
+    private static final int JUMLAH_HASH = 4;
+    private static final int JENUH = 0xF;
+
+    private final AtomicLongArray kata;
+    private final int mask;
+
+    /**
+     * @param perkiraanJumlah Perkiraan jumlah kode yang tersimpan bersamaan.
+     */
+    FilterKodeBerhitung(int perkiraanJumlah) {
+        long jumlahPenghitung = Math.max(64L, (long) Math.max(1, perkiraanJumlah) * PENGHITUNG_PER_KODE);
+        int pangkatDua = (int) Math.min(1L << 30, Long.highestOneBit(jumlahPenghitung - 1) << 1);
+        this.kata = new AtomicLongArray(pangkatDua / 16);
+        this.mask = pangkatDua - 1;
+    }
+
+    void tambah(String kode) {
+        long h = hash(kode);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32) | 1; // Ganjil, sehingga keempat posisi selalu berbeda
+        for (int i = 0; i < JUMLAH_HASH; i++) {
+            ubah((h1 + i * h2) & mask, 1);
+        }
+    }
+
+    void kurangi(String kode) {
+        long h = hash(kode);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32) | 1;
+        for (int i = 0; i < JUMLAH_HASH; i++) {
+            ubah((h1 + i * h2) & mask, -1);
+        }
+    }
+
+    /**
+     * @return false jika kode pasti tidak pernah ditambahkan (atau sudah dikurangi kembali).
+     */
+    boolean mungkinAda(String kode) {
+        long h = hash(kode);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32) | 1;
+        for (int i = 0; i < JUMLAH_HASH; i++) {
+            int posisi = (h1 + i * h2) & mask;
+            if (((kata.get(posisi >>> 4) >>> ((posisi & 15) << 2)) & JENUH) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Jumlah penghitung 4-bit.
+     */
+    int jumlahPenghitung() {
+        return mask + 1;
+    }
+
+    private void ubah(int posisi, int delta) {
+        int indeks = posisi >>> 4;
+        int geser = (posisi & 15) << 2;
+        while (true) {
+            long lama = kata.get(indeks);
+            long nilai = (lama >>> geser) & JENUH;
+            if (nilai == JENUH || (delta < 0 && nilai == 0)) {
+                return; // Jenuh tetap jenuh; tidak pernah turun di bawah nol
+            }
+            if (kata.compareAndSet(indeks, lama, lama + ((long) delta << geser))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * FNV-1a 64-bit atas karakter kode, lalu diaduk agar bit atas dan bawah sama-sama acak.
+     */
+    private static long hash(String kode) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < kode.length(); i++) {
+            h ^= kode.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,479 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Kategori;
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.util.ValidationUtils;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pohon kategori (induk/anak) dengan agregasi produk per subtree.
+ * <p>
+ * Kategori diberi nomor urut Euler tour (preorder): seluruh subtree suatu kategori menempati
+ * rentang posisi [masuk, keluar] yang bersebelahan. Jumlah stok dan nilai persediaan per
+ * kategori disimpan di dua Fenwick tree yang diindeks posisi tersebut, sehingga total
+ * subtree adalah satu query rentang O(log k), dan daftar produk subtree adalah gabungan
+ * produk kategori pada satu rentang posisi. Produk terhubung ke kategori lewat id kategori
+ * (bukan posisi), sehingga memindahkan subtree hanya menomori ulang kategori dan membangun
+ * ulang Fenwick tree dalam O(k), tanpa menyentuh produk sama sekali (k = jumlah kategori).
+ * <p>
+ * Didaftarkan sebagai {@link PendengarPerubahan} pada repository agar mengikuti perubahan
+ * produk; produk yang sudah ada sebelumnya dimuat dengan {@link #muat(RepositoryProduk)}.
+ * Setiap perubahan hanya dimasukkan ke antrean tanpa mengunci, sehingga jalur tulis
+ * repository tidak pernah menunggu hierarki. Antrean diterapkan oleh {@link #proses()}
+ * (manual, atau thread latar belakang setelah {@link #mulai()}) dan selalu diterapkan lebih
+ * dulu oleh setiap query, sehingga hasil query mencakup semua perubahan yang sudah diberitahukan.
+ * <p>
+ * Produk.kategori dicocokkan dengan nama atau kode kategori tanpa membedakan huruf
+ * besar/kecil; produk yang kategorinya belum terdaftar dikelompokkan menurut nama
+ * kategorinya dan ikut terhubung begitu kategorinya ditambahkan. Kategori yang ditambahkan
+ * disalin, sehingga objek milik pemanggil tidak pernah diubah. Selain antrean, semua
+ * struktur disinkronkan pada objek ini.
+ */
+public class HierarkiKategori implements PendengarPerubahan, AutoCloseable {
+
+    public static final long INTERVAL_PROSES_DEFAULT_MILLIS = 100;
+
+    private record Tertunda(String kode, Produk produk) {
+    }
+
+    /**
+     * Kontribusi terakhir satu produk ke agregat.
+     */
+    private static final class Catatan {
+        int idKategori; // -1 jika kategorinya belum terdaftar
+        String kunciTanpaKategori; // Kunci di tanpaKategori selama idKategori = -1
+        long stok;
+        double nilai;
+    }
+
+    // Data per kategori, diindeks id (urutan penambahan)
+    private final List<Kategori> kategori = new ArrayList<>();
+    private final List<List<Integer>> anak = new ArrayList<>();
+    private int[] induk = new int[16];
+    private long[] stokKategori = new long[16];
+    private double[] nilaiKategori = new double[16];
+    private final List<Map<String, Produk>> produkKategori = new ArrayList<>();
+    private final Map<String, Integer> idMenurutKode = new HashMap<>();
+    private final Map<String, Integer> idMenurutNama = new HashMap<>();
+
+    // Euler tour: posisi[id] = masuk, akhirSubtree[id] = keluar, idPada[posisi] = id
+    private int[] posisi = new int[0];
+    private int[] akhirSubtree = new int[0];
+    private int[] idPada = new int[0];
+    private long[] fenwickStok = new long[1];
+    private double[] fenwickNilai = new double[1];
+
+    private final Map<String, Catatan> catatanProduk = new HashMap<>();
+    // Produk yang kategorinya belum terdaftar, dikelompokkan menurut Produk.kategori (huruf kecil)
+    private final Map<String, Map<String, Produk>> tanpaKategori = new HashMap<>();
+    private int jumlahTanpaKategori;
+
+    private final long intervalProsesMillis;
+    private final ConcurrentLinkedQueue<Tertunda> antrean = new ConcurrentLinkedQueue<>();
+    private ScheduledExecutorService pemroses;
+
+    public HierarkiKategori() {
+        this(INTERVAL_PROSES_DEFAULT_MILLIS);
+    }
+
+    /**
+     * @param intervalProsesMillis Jeda pemrosesan antrean setelah {@link #mulai()}.
+     * @throws IllegalArgumentException jika interval tidak positif.
+     */
+    public HierarkiKategori(long intervalProsesMillis) {
+        if (intervalProsesMillis <= 0) {
+            throw new IllegalArgumentException("Interval proses harus positif");
+        }
+        this.intervalProsesMillis = intervalProsesMillis;
+    }
+
+    /**
+     * Menambahkan kategori. Induk (getKodeInduk) harus sudah terdaftar, atau null untuk
+     * kategori puncak.
+     * @throws IllegalArgumentException jika kategori tidak valid, kodenya sudah terdaftar,
+     *         atau induknya belum terdaftar.
+     */
+    public synchronized void tambahKategori(Kategori baru) {
+        if (!ValidationUtils.isValidKategori(baru)) {
+            throw new IllegalArgumentException("Kategori tidak valid");
+        }
+        String kunciKode = baru.getKode().toLowerCase();
+        if (idMenurutKode.containsKey(kunciKode)) {
+            throw new IllegalArgumentException("Kode kategori sudah terdaftar: " + baru.getKode());
+        }
+        int idInduk = -1;
+        if (baru.getKodeInduk() != null) {
+            idInduk = cariId(baru.getKodeInduk());
+            if (idInduk < 0) {
+                throw new IllegalArgumentException("Kategori induk tidak ditemukan: " + baru.getKodeInduk());
+            }
+        }
+        proses();
+
+        int id = kategori.size();
+        if (id == induk.length) {
+            induk = Arrays.copyOf(induk, id * 2);
+            stokKategori = Arrays.copyOf(stokKategori, id * 2);
+            nilaiKategori = Arrays.copyOf(nilaiKategori, id * 2);
+        }
+        kategori.add(salin(baru));
+        anak.add(new ArrayList<>());
+        produkKategori.add(new HashMap<>());
+        induk[id] = idInduk;
+        if (idInduk >= 0) {
+            anak.get(idInduk).add(id);
+        }
+        idMenurutKode.put(kunciKode, id);
+        idMenurutNama.putIfAbsent(baru.getNama().toLowerCase(), id);
+
+        // Produk yang menunggu kategori ini, hanya dari kelompok nama dan kode kategori ini
+        hubungkanMenunggu(id, baru.getNama().toLowerCase());
+        hubungkanMenunggu(id, kunciKode);
+        nomoriUlang();
+    }
+
+    /**
+     * Memindahkan kategori beserta seluruh subtree-nya ke induk lain. Biaya O(k) untuk
+     * k kategori, tidak bergantung pada jumlah produk.
+     * @param kode Kode kategori yang dipindah.
+     * @param kodeIndukBaru Kode induk baru, atau null untuk menjadi kategori puncak.
+     * @throws IllegalArgumentException jika kategori/induk tidak ditemukan, atau induk baru
+     *         berada di dalam subtree kategori itu sendiri.
+     */
+    public synchronized void pindahkan(String kode, String kodeIndukBaru) {
+        int id = cariId(kode);
+        if (id < 0) {
+            throw new IllegalArgumentException("Kategori tidak ditemukan: " + kode);
+        }
+        int idIndukBaru = -1;
+        if (kodeIndukBaru != null) {
+            idIndukBaru = cariId(kodeIndukBaru);
+            if (idIndukBaru < 0) {
+                throw new IllegalArgumentException("Kategori induk tidak ditemukan: " + kodeIndukBaru);
+            }
+            if (posisi[idIndukBaru] >= posisi[id] && posisi[idIndukBaru] <= akhirSubtree[id]) {
+                throw new IllegalArgumentException("Kategori tidak bisa dipindah ke dalam subtree-nya sendiri");
+            }
+        }
+        if (induk[id] >= 0) {
+            anak.get(induk[id]).remove(Integer.valueOf(id));
+        }
+        induk[id] = idIndukBaru;
+        if (idIndukBaru >= 0) {
+            anak.get(idIndukBaru).add(id);
+        }
+        // Hanya salinan internal yang diubah, bukan objek yang diberikan ke tambahKategori
+        kategori.get(id).setKodeInduk(kodeIndukBaru == null ? null : kategori.get(idIndukBaru).getKode());
+        nomoriUlang();
+    }
+
+    /**
+     * Memuat produk yang sudah ada di repository (misalnya sebelum didaftarkan sebagai pendengar).
+     */
+    public synchronized void muat(RepositoryProduk repositoryProduk) {
+        proses();
+        repositoryProduk.telusuriSemua(produk -> perbarui(produk.getKode(), produk));
+    }
+
+    /**
+     * Memasukkan perubahan ke antrean tanpa mengunci; diterapkan oleh {@link #proses()}.
+     */
+    @Override
+    public void diubah(JenisPerubahan jenis, String kode, Produk produk) {
+        antrean.offer(new Tertunda(kode, jenis == JenisPerubahan.HAPUS ? null : produk));
+    }
+
+    /**
+     * Menjalankan pemrosesan antrean otomatis di satu thread daemon.
+     */
+    public synchronized void mulai() {
+        if (pemroses != null) {
+            return;
+        }
+        pemroses = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "hierarki-kategori");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pemroses.scheduleWithFixedDelay(this::proses, intervalProsesMillis, intervalProsesMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Menerapkan semua perubahan produk yang menunggu di antrean ke agregat.
+     * @return Jumlah perubahan yang diterapkan.
+     */
+    public synchronized int proses() {
+        int jumlah = 0;
+        Tertunda tertunda;
+        while ((tertunda = antrean.poll()) != null) {
+            perbarui(tertunda.kode(), tertunda.produk());
+            jumlah++;
+        }
+        return jumlah;
+    }
+
+    /**
+     * @return Jumlah perubahan yang belum diterapkan.
+     */
+    public int getJumlahTertunda() {
+        return antrean.size();
+    }
+
+    /**
+     * Menghentikan pemrosesan otomatis. Antrean yang tersisa tetap diterapkan oleh query atau proses().
+     */
+    @Override
+    public synchronized void close() {
+        if (pemroses != null) {
+            pemroses.shutdownNow();
+            pemroses = null;
+        }
+    }
+
+    /**
+     * @return Semua produk di kategori ini dan seluruh turunannya, kosong jika kategori tidak ditemukan.
+     */
+    public synchronized List<Produk> cariProdukSubtree(String kodeKategori) {
+        proses();
+        List<Produk> hasil = new ArrayList<>();
+        int id = cariId(kodeKategori);
+        if (id < 0) {
+            return hasil;
+        }
+        for (int p = posisi[id]; p <= akhirSubtree[id]; p++) {
+            hasil.addAll(produkKategori.get(idPada[p]).values());
+        }
+        return hasil;
+    }
+
+    /**
+     * @return Total stok semua produk di subtree, 0 jika kategori tidak ditemukan.
+     */
+    public synchronized long totalStokSubtree(String kodeKategori) {
+        proses();
+        int id = cariId(kodeKategori);
+        if (id < 0) {
+            return 0;
+        }
+        return jumlahStok(akhirSubtree[id]) - jumlahStok(posisi[id] - 1);
+    }
+
+    /**
+     * @return Total nilai persediaan (harga * stok) semua produk di subtree, 0 jika kategori tidak ditemukan.
+     */
+    public synchronized double nilaiPersediaanSubtree(String kodeKategori) {
+        proses();
+        int id = cariId(kodeKategori);
+        if (id < 0) {
+            return 0;
+        }
+        return jumlahNilai(akhirSubtree[id]) - jumlahNilai(posisi[id] - 1);
+    }
+
+    /**
+     * @return Kode anak langsung kategori ini, sesuai urutan penambahan/pemindahan.
+     */
+    public synchronized List<String> getKodeAnak(String kodeKategori) {
+        List<String> hasil = new ArrayList<>();
+        int id = cariId(kodeKategori);
+        if (id >= 0) {
+            for (int idAnak : anak.get(id)) {
+                hasil.add(kategori.get(idAnak).getKode());
+            }
+        }
+        return hasil;
+    }
+
+    /**
+     * @return Jumlah produk yang kategorinya belum terdaftar di hierarki.
+     */
+    public synchronized int getJumlahProdukTanpaKategori() {
+        proses();
+        return jumlahTanpaKategori;
+    }
+
+    private void perbarui(String kode, Produk produk) {
+        Catatan catatan = catatanProduk.get(kode);
+        if (catatan != null) {
+            // Tarik kontribusi lama
+            if (catatan.idKategori >= 0) {
+                ubahAgregat(catatan.idKategori, -catatan.stok, -catatan.nilai);
+                produkKategori.get(catatan.idKategori).remove(kode);
+            } else {
+                hapusTanpaKategori(catatan.kunciTanpaKategori, kode);
+            }
+        }
+        if (produk == null) {
+            catatanProduk.remove(kode);
+            return;
+        }
+        if (catatan == null) {
+            catatan = new Catatan();
+            catatanProduk.put(kode, catatan);
+        }
+        catatan.stok = produk.getStok();
+        catatan.nilai = produk.getHarga() * catatan.stok;
+        catatan.idKategori = cariIdProduk(produk);
+        if (catatan.idKategori >= 0) {
+            catatan.kunciTanpaKategori = null;
+            ubahAgregat(catatan.idKategori, catatan.stok, catatan.nilai);
+            produkKategori.get(catatan.idKategori).put(kode, produk);
+        } else {
+            String kunci = produk.getKategori() == null ? "" : produk.getKategori().toLowerCase();
+            catatan.kunciTanpaKategori = kunci;
+            if (tanpaKategori.computeIfAbsent(kunci, k -> new LinkedHashMap<>()).put(kode, produk) == null) {
+                jumlahTanpaKategori++;
+            }
+        }
+    }
+
+    private void hapusTanpaKategori(String kunci, String kode) {
+        Map<String, Produk> kelompok = tanpaKategori.get(kunci);
+        if (kelompok != null && kelompok.remove(kode) != null) {
+            jumlahTanpaKategori--;
+            if (kelompok.isEmpty()) {
+                tanpaKategori.remove(kunci);
+            }
+        }
+    }
+
+    /**
+     * Menghubungkan produk yang menunggu di satu kelompok tanpa kategori ke kategori id,
+     * jika pencocokan nama/kode produk itu memang jatuh ke kategori tersebut.
+     */
+    private void hubungkanMenunggu(int id, String kunci) {
+        Map<String, Produk> kelompok = tanpaKategori.get(kunci);
+        if (kelompok == null) {
+            return;
+        }
+        List<Produk> menunggu = new ArrayList<>();
+        for (Produk produk : kelompok.values()) {
+            if (cariIdProduk(produk) == id) {
+                menunggu.add(produk);
+            }
+        }
+        for (Produk produk : menunggu) {
+            hapusTanpaKategori(kunci, produk.getKode());
+            Catatan catatan = catatanProduk.get(produk.getKode());
+            catatan.idKategori = id;
+            catatan.kunciTanpaKategori = null;
+            produkKategori.get(id).put(produk.getKode(), produk);
+            stokKategori[id] += catatan.stok;
+            nilaiKategori[id] += catatan.nilai;
+        }
+    }
+
+    private static Kategori salin(Kategori asli) {
+        Kategori salinan = new Kategori(asli.getKode(), asli.getNama(), asli.getDeskripsi(), asli.getKodeInduk());
+        salinan.setAktif(asli.isAktif());
+        return salinan;
+    }
+
+    private int cariId(String kode) {
+        if (kode == null) {
+            return -1;
+        }
+        Integer id = idMenurutKode.get(kode.toLowerCase());
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Produk.kategori berisi nama kategori; kode kategori juga diterima.
+     */
+    private int cariIdProduk(Produk produk) {
+        String nama = produk.getKategori();
+        if (nama == null) {
+            return -1;
+        }
+        String kunci = nama.toLowerCase();
+        Integer id = idMenurutNama.get(kunci);
+        if (id == null) {
+            id = idMenurutKode.get(kunci);
+        }
+        return id == null ? -1 : id;
+    }
+
+    private void ubahAgregat(int id, long deltaStok, double deltaNilai) {
+        stokKategori[id] += deltaStok;
+        nilaiKategori[id] += deltaNilai;
+        for (int i = posisi[id] + 1; i < fenwickStok.length; i += i & -i) {
+            fenwickStok[i] += deltaStok;
+            fenwickNilai[i] += deltaNilai;
+        }
+    }
+
+    private long jumlahStok(int sampaiPosisi) {
+        long total = 0;
+        for (int i = sampaiPosisi + 1; i > 0; i -= i & -i) {
+            total += fenwickStok[i];
+        }
+        return total;
+    }
+
+    private double jumlahNilai(int sampaiPosisi) {
+        double total = 0;
+        for (int i = sampaiPosisi + 1; i > 0; i -= i & -i) {
+            total += fenwickNilai[i];
+        }
+        return total;
+    }
+
+    /**
+     * Menghitung ulang Euler tour (preorder iteratif) dan membangun ulang Fenwick tree dalam O(k).
+     */
+    private void nomoriUlang() {
+        int jumlah = kategori.size();
+        posisi = new int[jumlah];
+        akhirSubtree = new int[jumlah];
+        idPada = new int[jumlah];
+        int[] tumpukan = new int[jumlah];
+        int[] indeksAnak = new int[jumlah];
+        int berikutnya = 0;
+        for (int akar = 0; akar < jumlah; akar++) {
+            if (induk[akar] >= 0) {
+                continue;
+            }
+            int puncak = 0;
+            tumpukan[puncak++] = akar;
+            posisi[akar] = berikutnya;
+            idPada[berikutnya++] = akar;
+            indeksAnak[akar] = 0;
+            while (puncak > 0) {
+                int id = tumpukan[puncak - 1];
+                List<Integer> daftarAnak = anak.get(id);
+                if (indeksAnak[id] < daftarAnak.size()) {
+                    int idAnak = daftarAnak.get(indeksAnak[id]++);
+                    posisi[idAnak] = berikutnya;
+                    idPada[berikutnya++] = idAnak;
+                    indeksAnak[idAnak] = 0;
+                    tumpukan[puncak++] = idAnak;
+                } else {
+                    akhirSubtree[id] = berikutnya - 1;
+                    puncak--;
+                }
+            }
+        }
+
+        fenwickStok = new long[jumlah + 1];
+        fenwickNilai = new double[jumlah + 1];
+        for (int p = 0; p < jumlah; p++) {
+            fenwickStok[p + 1] += stokKategori[idPada[p]];
+            fenwickNilai[p + 1] += nilaiKategori[idPada[p]];
+            int indukFenwick = (p + 1) + ((p + 1) & -(p + 1));
+            if (indukFenwick <= jumlah) {
+                fenwickStok[indukFenwick] += fenwickStok[p + 1];
+                fenwickNilai[indukFenwick] += fenwickNilai[p + 1];
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Indeks terurut atas harga, selisih stok terhadap stokMinimum, dan nilai persediaan
+ * (harga * stok), berbasis ConcurrentSkipListSet.
+ * <p>
+ * Dipasang sebagai {@link PendengarPerubahan} sehingga setiap simpan, updateStok, dan
+ * hapus memperbarui ketiga indeks secara inkremental dalam O(log n). Karena pendengar
+ * dipanggil di dalam kunci entri repository, pembaruan untuk satu kode tidak pernah
+ * saling mendahului. Pembacaan tidak mengunci dan bersifat weakly consistent, seperti
+ * iterasi ConcurrentHashMap: produk yang sedang diubah bisa sesaat tidak terlihat.
+ */
+final class IndeksTerurutProduk implements PendengarPerubahan {
+
+    /**
+     * Satu entri indeks, diurutkan berdasarkan nilai lalu kode.
+     */
+    private static final class Entri implements Comparable<Entri> {
+        final double nilai;
+        final String kode;
+        final Produk produk;
+
+        Entri(double nilai, String kode, Produk produk) {
+            this.nilai = nilai;
+            this.kode = kode;
+            this.produk = produk;
+        }
+
+        @Override
+        public int compareTo(Entri lain) {
+            int hasil = Double.compare(nilai, lain.nilai);
+            return hasil != 0 ? hasil : kode.compareTo(lain.kode);
+        }
+    }
+
+    private final ConcurrentSkipListSet<Entri> perHarga = new ConcurrentSkipListSet<>();
+    private final ConcurrentSkipListSet<Entri> perSelisihStok = new ConcurrentSkipListSet<>();
+    // Disimpan dengan nilai negatif agar iterasi menaik menghasilkan nilai terbesar lebih dulu
+    private final ConcurrentSkipListSet<Entri> perNilaiPersediaanTurun = new ConcurrentSkipListSet<>();
+    // Entri yang sedang terpasang per kode, untuk mencabut nilai lama saat produk berubah
+    private final ConcurrentHashMap<String, Entri[]> terpasang = new ConcurrentHashMap<>();
+
+    @Override
+    public void diubah(JenisPerubahan jenis, String kode, Produk produk) {
+        perbarui(kode, jenis == JenisPerubahan.HAPUS ? null : produk);
+    }
+
+    /**
+     * Memasang nilai terbaru produk ke semua indeks, menggantikan nilai sebelumnya.
+     * @param produk Produk terbaru, atau null jika produk dihapus.
+     */
+    void perbarui(String kode, Produk produk) {
+        Entri[] lama = produk == null ? terpasang.remove(kode) : null;
+        if (produk != null) {
+            Entri[] baru = {
+                    new Entri(produk.getHarga(), kode, produk),
+                    new Entri(produk.getStok() - produk.getStokMinimum(), kode, produk),
+                    new Entri(0.0 - produk.getHarga() * produk.getStok(), kode, produk)
+            };
+            lama = terpasang.put(kode, baru);
+            if (lama != null) {
+                cabut(lama);
+            }
+            perHarga.add(baru[0]);
+            perSelisihStok.add(baru[1]);
+            perNilaiPersediaanTurun.add(baru[2]);
+        } else if (lama != null) {
+            cabut(lama);
+        }
+    }
+
+    List<Produk> rentangHarga(double hargaMin, double hargaMaks) {
+        List<Produk> hasil = new ArrayList<>();
+        if (hargaMin > hargaMaks) {
+            return hasil;
+        }
+        // Kode "" adalah kode terkecil, sehingga batas bawah mencakup semua produk berharga hargaMin
+        for (Entri entri : perHarga.subSet(new Entri(hargaMin, "", null), true,
+                new Entri(Math.nextUp(hargaMaks), "", null), false)) {
+            hasil.add(entri.produk);
+        }
+        return hasil;
+    }
+
+    List<Produk> stokTerendahRelatif(int jumlah) {
+        return ambilAwal(perSelisihStok, jumlah);
+    }
+
+    List<Produk> nilaiPersediaanTertinggi(int jumlah) {
+        return ambilAwal(perNilaiPersediaanTurun, jumlah);
+    }
+
+    private void cabut(Entri[] entri) {
+        perHarga.remove(entri[0]);
+        perSelisihStok.remove(entri[1]);
+        perNilaiPersediaanTurun.remove(entri[2]);
+    }
+
+    private static List<Produk> ambilAwal(ConcurrentSkipListSet<Entri> indeks, int jumlah) {
+        List<Produk> hasil = new ArrayList<>(Math.max(0, Math.min(jumlah, 1024)));
+        Iterator<Entri> iterator = indeks.iterator();
+        while (hasil.size() < jumlah && iterator.hasNext()) {
+            hasil.add(iterator.next().produk);
+        }
+        return hasil;
+    }
+}
@@ -0,0 +1,25 @@
+package com.praktikum.whitebox.repository;
+
+/**
+ * Jenis perubahan data produk yang dilaporkan repository.
+ */
+public enum JenisPerubahan {
+    SISIP,  // Produk baru disimpan
+    UBAH,   // Produk yang sudah ada disimpan ulang
+    STOK,   // Hanya stok yang berubah (updateStok)
+    HAPUS;  // Produk dihapus
+
+    private static final JenisPerubahan[] SEMUA = values();
+
+    /**
+     * @param kode Nilai ordinal.
+     * @return Jenis perubahan dengan ordinal tersebut.
+     * @throws IllegalArgumentException jika kode tidak dikenal.
+     */
+    static JenisPerubahan dariKode(int kode) {
+        if (kode < 0 || kode >= SEMUA.length) {
+            throw new IllegalArgumentException("Jenis perubahan tidak dikenal: " + kode);
+        }
+        return SEMUA[kode];
+    }
+}
@@ -0,0 +1,22 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+
+/**
+ * Pendengar yang dipanggil repository setiap kali data produk berubah.
+ * <p>
+ * Dipanggil secara sinkron oleh thread yang melakukan perubahan, saat perubahan untuk
+ * kode tersebut sedang dikunci. Karena itu urutan panggilan untuk satu kode sama dengan
+ * urutan perubahannya, tetapi implementasi harus cepat, tidak boleh memblokir, dan tidak
+ * boleh memanggil balik repository.
+ */
+@FunctionalInterface
+public interface PendengarPerubahan {
+
+    /**
+     * @param jenis Jenis perubahan.
+     * @param kode Kode produk yang berubah.
+     * @param produk Keadaan produk setelah perubahan, atau null untuk HAPUS.
+     */
+    void diubah(JenisPerubahan jenis, String kode, Produk produk);
+}
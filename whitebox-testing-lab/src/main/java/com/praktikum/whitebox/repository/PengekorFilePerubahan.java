@@ -0,0 +1,103 @@
+package com.praktikum.whitebox.repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pembaca file umpan perubahan yang ditulis oleh {@link UmpanPerubahanProduk} di proses
+ * (JVM) lain, untuk replika yang berjalan di luar proses primer.
+ * <p>
+ * File hanya dibuka untuk dibaca. Entri yang belum lengkap di ujung file (masih ditulis
+ * primer) dianggap belum ada. Pembacaan berurutan melanjutkan dari posisi terakhir, jadi
+ * setiap entri hanya dibaca sekali; membaca mundur memindai ulang dari awal file.
+ */
+public class PengekorFilePerubahan implements SumberPerubahan, AutoCloseable {
+
+    private final FileChannel channel;
+
+    // Kursor pembacaan: posisi file dan urutan entri berikutnya
+    private long posisiBaca;
+    private long urutanBaca;
+
+    // Kursor penghitung untuk getUrutanTersalur, hanya melompati entri
+    private long posisiHitung;
+    private long urutanHitung;
+
+    /**
+     * @param file File umpan perubahan milik primer.
+     * @throws IOException jika file tidak dapat dibuka.
+     */
+    public PengekorFilePerubahan(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    }
+
+    /**
+     * @throws IllegalArgumentException jika dariUrutan negatif atau maksimum tidak positif.
+     * @throws UncheckedIOException jika pembacaan file gagal atau urutan di file rusak.
+     */
+    @Override
+    public synchronized List<PerubahanProduk> baca(long dariUrutan, int maksimum) {
+        if (dariUrutan < 0 || maksimum <= 0) {
+            throw new IllegalArgumentException("Urutan tidak boleh negatif dan maksimum harus positif");
+        }
+        if (dariUrutan < urutanBaca) {
+            posisiBaca = 0;
+            urutanBaca = 0;
+        }
+        List<PerubahanProduk> hasil = new ArrayList<>();
+        try {
+            long ukuranFile = channel.size();
+            UmpanPerubahanProduk.PembacaFile pembaca = new UmpanPerubahanProduk.PembacaFile(channel, posisiBaca);
+            while (hasil.size() < maksimum && pembaca.adaEntriLengkap(ukuranFile)) {
+                if (urutanBaca < dariUrutan) {
+                    pembaca.lewati();
+                } else {
+                    PerubahanProduk perubahan = pembaca.berikutnya();
+                    if (perubahan.getUrutan() != urutanBaca) {
+                        throw new IOException("Urutan umpan perubahan rusak pada posisi " + posisiBaca);
+                    }
+                    hasil.add(perubahan);
+                }
+                urutanBaca++;
+                posisiBaca = pembaca.posisiEntri();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return hasil;
+    }
+
+    /**
+     * @return Jumlah entri lengkap yang saat ini ada di file.
+     * @throws UncheckedIOException jika pembacaan file gagal.
+     */
+    @Override
+    public synchronized long getUrutanTersalur() {
+        if (urutanHitung < urutanBaca) {
+            posisiHitung = posisiBaca;
+            urutanHitung = urutanBaca;
+        }
+        try {
+            long ukuranFile = channel.size();
+            UmpanPerubahanProduk.PembacaFile pembaca = new UmpanPerubahanProduk.PembacaFile(channel, posisiHitung);
+            while (pembaca.adaEntriLengkap(ukuranFile)) {
+                pembaca.lewati();
+                urutanHitung++;
+            }
+            posisiHitung = pembaca.posisiEntri();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return urutanHitung;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+}
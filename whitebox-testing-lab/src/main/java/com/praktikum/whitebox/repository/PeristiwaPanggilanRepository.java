@@ -0,0 +1,54 @@
+package com.praktikum.whitebox.repository;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Event JDK Flight Recorder untuk satu panggilan RepositoryProduk yang lewat
+ * {@link RepositoryProdukTerpantau}. Durasi event adalah latensi panggilan.
+ * Nama pengaturan JFR: {@code com.praktikum.whitebox.PanggilanRepository}.
+ */
+@Name("com.praktikum.whitebox.PanggilanRepository")
+@Label("Panggilan Repository")
+@Category({"Whitebox", "Repository"})
+@Description("Satu panggilan method RepositoryProduk")
+@StackTrace(false)
+final class PeristiwaPanggilanRepository extends Event {
+
+    @Label("Operasi")
+    String operasi;
+
+    @Label("Kode Produk")
+    String kode;
+
+    @Label("Berhasil")
+    boolean berhasil;
+
+    private static final EventType TIPE = EventType.getEventType(PeristiwaPanggilanRepository.class);
+
+    /**
+     * @return Event baru yang sudah mulai menghitung durasi, atau null jika tidak aktif.
+     */
+    static PeristiwaPanggilanRepository mulai() {
+        if (!TIPE.isEnabled()) {
+            return null;
+        }
+        PeristiwaPanggilanRepository peristiwa = new PeristiwaPanggilanRepository();
+        peristiwa.begin();
+        return peristiwa;
+    }
+
+    static void selesai(PeristiwaPanggilanRepository peristiwa, String operasi, String kode, boolean berhasil) {
+        if (peristiwa != null && peristiwa.shouldCommit()) {
+            peristiwa.operasi = operasi;
+            peristiwa.kode = kode;
+            peristiwa.berhasil = berhasil;
+            peristiwa.commit();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+
+/**
+ * Satu entri umpan perubahan produk, bernomor urut global.
+ * <p>
+ * Untuk SISIP dan UBAH, entri membawa salinan produk setelah perubahan.
+ * Untuk STOK hanya stok baru yang dibawa, dan untuk HAPUS hanya kodenya.
+ */
+public final class PerubahanProduk {
+
+    private final long urutan;
+    private final JenisPerubahan jenis;
+    private final String kode;
+    private final Produk produk;
+    private final int stok;
+
+    PerubahanProduk(long urutan, JenisPerubahan jenis, String kode, Produk produk, int stok) {
+        this.urutan = urutan;
+        this.jenis = jenis;
+        this.kode = kode;
+        this.produk = produk;
+        this.stok = stok;
+    }
+
+    public long getUrutan() {
+        return urutan;
+    }
+
+    public JenisPerubahan getJenis() {
+        return jenis;
+    }
+
+    public String getKode() {
+        return kode;
+    }
+
+    /**
+     * @return Salinan produk setelah perubahan (SISIP/UBAH), atau null untuk STOK dan HAPUS.
+     */
+    public Produk getProduk() {
+        return produk == null ? null : new Produk(produk);
+    }
+
+    /**
+     * Produk asli entri ini, untuk dipakai di dalam paket tanpa membuat salinan.
+     */
+    Produk produkTanpaSalinan() {
+        return produk;
+    }
+
+    /**
+     * @return Stok setelah perubahan, atau 0 untuk HAPUS.
+     */
+    public int getStok() {
+        return stok;
+    }
+
+    @Override
+    public String toString() {
+        return "PerubahanProduk{" +
+                "urutan=" + urutan +
+                ", jenis=" + jenis +
+                ", kode='" + kode + '\'' +
+                ", stok=" + stok +
+                '}';
+    }
+}
@@ -0,0 +1,289 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Replika baca-saja dari repository primer, dibangun dengan menerapkan umpan perubahan
+ * primer secara berurutan.
+ * <p>
+ * Primer cukup mendaftarkan {@link UmpanPerubahanProduk} sebagai pendengar sejak awal.
+ * Replika di proses yang sama membaca umpan itu langsung; replika di JVM lain membaca file
+ * umpan yang sama lewat {@link PengekorFilePerubahan}. Setiap entri diterapkan berurutan
+ * ke penyimpanan lokal (RepositoryProdukInMemory dengan indeks terurut),
+ * sehingga replika selalu mencerminkan keadaan primer pada suatu titik urutan tertentu.
+ * <p>
+ * Jika umpan dipasang setelah primer sudah berisi, replika dimulai dengan
+ * {@link #muatAwal(RepositoryProduk)}: isi primer disalin, lalu riwayat umpan yang masih
+ * tersimpan diterapkan ulang di atas salinan itu.
+ * <p>
+ * Replika tidak menjamin read-your-writes: perubahan yang baru ditulis ke primer baru terlihat
+ * setelah umpan menyalurkannya dan replika menariknya. Seberapa jauh replika tertinggal bisa
+ * dipantau lewat {@link #getKetertinggalan()} dan {@link #getKetertinggalanMillis()}.
+ * Semua operasi tulis melempar UnsupportedOperationException.
+ */
+public class ReplikaProduk implements RepositoryProduk, AutoCloseable {
+
+    public static final long INTERVAL_TARIK_DEFAULT_MILLIS = 20;
+    public static final int UKURAN_BATCH_DEFAULT = 1024;
+
+    private final SumberPerubahan sumber;
+    private final RepositoryProdukInMemory penyimpanan = new RepositoryProdukInMemory(16, true);
+    private final long intervalTarikMillis;
+    private final int ukuranBatch;
+    private final LongSupplier jamMillis;
+
+    private volatile long urutanTerapan;          // Urutan entri berikutnya yang akan diterapkan
+    private volatile long waktuSinkronMillis;     // Terakhir kali semua entri yang terlihat sudah diterapkan
+    private final LongAdder jumlahGagal = new LongAdder();
+    private volatile RuntimeException kesalahanTerakhir;
+    private ScheduledExecutorService penarik;
+
+    /**
+     * Membuat replika dengan interval tarik dan ukuran batch default.
+     * @param sumber Umpan perubahan primer.
+     */
+    public ReplikaProduk(SumberPerubahan sumber) {
+        this(sumber, INTERVAL_TARIK_DEFAULT_MILLIS, UKURAN_BATCH_DEFAULT);
+    }
+
+    /**
+     * @param sumber Umpan perubahan primer.
+     * @param intervalTarikMillis Jeda penarikan otomatis setelah {@link #mulai()}.
+     * @param ukuranBatch Jumlah entri maksimum per pembacaan umpan.
+     * @throws IllegalArgumentException jika sumber null atau interval/ukuran batch tidak positif.
+     */
+    public ReplikaProduk(SumberPerubahan sumber, long intervalTarikMillis, int ukuranBatch) {
+        this(sumber, intervalTarikMillis, ukuranBatch, System::currentTimeMillis);
+    }
+
+    ReplikaProduk(SumberPerubahan sumber, long intervalTarikMillis, int ukuranBatch, LongSupplier jamMillis) {
+        if (sumber == null) {
+            throw new IllegalArgumentException("Sumber perubahan tidak boleh null");
+        }
+        if (intervalTarikMillis <= 0 || ukuranBatch <= 0) {
+            throw new IllegalArgumentException("Interval tarik dan ukuran batch harus positif");
+        }
+        this.sumber = sumber;
+        this.intervalTarikMillis = intervalTarikMillis;
+        this.ukuranBatch = ukuranBatch;
+        this.jamMillis = jamMillis;
+        this.waktuSinkronMillis = jamMillis.getAsLong();
+    }
+
+    /**
+     * Menjalankan penarikan otomatis di satu thread daemon.
+     */
+    public synchronized void mulai() {
+        if (penarik != null) {
+            return;
+        }
+        penarik = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "penarik-replika-produk");
+            thread.setDaemon(true);
+            return thread;
+        });
+        penarik.scheduleWithFixedDelay(this::tarikDiam, intervalTarikMillis, intervalTarikMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Mengisi replika dari salinan isi primer, lalu menerapkan ulang umpan mulai dari entri
+     * tertua yang masih tersimpan ({@link SumberPerubahan#getUrutanAwal()}) sampai posisi
+     * terkini. Posisi tersalur saja tidak cukup sebagai titik awal: pendengar dipanggil sebelum
+     * nilai baru terpasang di primer, jadi entri yang sudah tersalur bisa saja belum terlihat
+     * oleh penelusuran. Menerapkan ulang aman karena setiap entri membawa keadaan akhir (produk
+     * lengkap, stok baru, atau hapus) dan diterapkan berurutan per kode, sehingga setiap kode
+     * berakhir pada entri terakhirnya; stok dan hapus untuk kode yang belum ada diabaikan.
+     * Selama muat awal berjalan, pembacaan replika bisa melihat keadaan antara.
+     * @param primer Repository primer yang perubahannya dicatat oleh umpan sumber.
+     * @throws IllegalArgumentException jika primer null.
+     * @throws IllegalStateException jika replika sudah berisi atau sudah menarik entri.
+     */
+    public synchronized void muatAwal(RepositoryProduk primer) {
+        if (primer == null) {
+            throw new IllegalArgumentException("Repository primer tidak boleh null");
+        }
+        if (urutanTerapan > 0 || penyimpanan.jumlahProduk() > 0) {
+            throw new IllegalStateException("Replika sudah berisi; muat awal hanya untuk replika kosong");
+        }
+        primer.telusuriSemua(produk -> penyimpanan.simpan(new Produk(produk)));
+        urutanTerapan = sumber.getUrutanAwal();
+        tarik();
+    }
+
+    /**
+     * Menarik dan menerapkan semua entri baru dari sumber, berurutan.
+     * @return Jumlah entri yang diterapkan.
+     */
+    public synchronized int tarik() {
+        int jumlah = 0;
+        while (true) {
+            List<PerubahanProduk> daftar = sumber.baca(urutanTerapan, ukuranBatch);
+            for (PerubahanProduk perubahan : daftar) {
+                terapkan(perubahan);
+                urutanTerapan = perubahan.getUrutan() + 1;
+            }
+            jumlah += daftar.size();
+            if (daftar.size() < ukuranBatch) {
+                break;
+            }
+        }
+        waktuSinkronMillis = jamMillis.getAsLong();
+        return jumlah;
+    }
+
+    private void tarikDiam() {
+        try {
+            tarik();
+        } catch (RuntimeException e) {
+            // Dicoba lagi pada jadwal berikutnya; ketertinggalan terus bertambah sampai pulih
+            jumlahGagal.increment();
+            kesalahanTerakhir = e;
+        }
+    }
+
+    private void terapkan(PerubahanProduk perubahan) {
+        switch (perubahan.getJenis()) {
+            case SISIP, UBAH -> penyimpanan.simpan(perubahan.getProduk());
+            case STOK -> penyimpanan.updateStok(perubahan.getKode(), perubahan.getStok());
+            case HAPUS -> penyimpanan.hapus(perubahan.getKode());
+        }
+    }
+
+    /**
+     * @return Urutan entri berikutnya yang akan diterapkan (= jumlah entri yang sudah diterapkan).
+     */
+    public long getUrutanTerapan() {
+        return urutanTerapan;
+    }
+
+    /**
+     * @return Jumlah penarikan otomatis yang gagal.
+     */
+    public long getJumlahGagal() {
+        return jumlahGagal.sum();
+    }
+
+    /**
+     * @return Exception terakhir dari penarikan otomatis, atau null.
+     */
+    public RuntimeException getKesalahanTerakhir() {
+        return kesalahanTerakhir;
+    }
+
+    /**
+     * @return Jumlah entri yang sudah tersedia di sumber tetapi belum diterapkan.
+     */
+    public long getKetertinggalan() {
+        return Math.max(0, sumber.getUrutanTersalur() - urutanTerapan);
+    }
+
+    /**
+     * @return Lama (ms) sejak replika terakhir kali menerapkan semua entri yang tersedia,
+     *         atau 0 jika saat ini tidak ada entri yang tertinggal.
+     */
+    public long getKetertinggalanMillis() {
+        if (getKetertinggalan() == 0) {
+            return 0;
+        }
+        return Math.max(0, jamMillis.getAsLong() - waktuSinkronMillis);
+    }
+
+    /**
+     * Menghentikan penarikan otomatis. Sumber tidak ikut ditutup.
+     */
+    @Override
+    public synchronized void close() {
+        if (penarik != null) {
+            penarik.shutdownNow();
+            penarik = null;
+        }
+    }
+
+    // --- Baca: dilayani dari penyimpanan lokal ---
+
+    @Override
+    public Optional<Produk> cariByKode(String kode) {
+        return penyimpanan.cariByKode(kode);
+    }
+
+    @Override
+    public List<Produk> cariByNama(String nama) {
+        return penyimpanan.cariByNama(nama);
+    }
+
+    @Override
+    public List<Produk> cariByKategori(String kategori) {
+        return penyimpanan.cariByKategori(kategori);
+    }
+
+    @Override
+    public List<Produk> cariProdukStokMenipis() {
+        return penyimpanan.cariProdukStokMenipis();
+    }
+
+    @Override
+    public List<Produk> cariProdukStokHabis() {
+        return penyimpanan.cariProdukStokHabis();
+    }
+
+    @Override
+    public List<Produk> cariSemua() {
+        return penyimpanan.cariSemua();
+    }
+
+    @Override
+    public void telusuriSemua(Consumer<Produk> konsumen) {
+        penyimpanan.telusuriSemua(konsumen);
+    }
+
+    @Override
+    public List<Produk> cariByRentangHarga(double hargaMin, double hargaMaks) {
+        return penyimpanan.cariByRentangHarga(hargaMin, hargaMaks);
+    }
+
+    @Override
+    public List<Produk> cariStokTerendahRelatif(int jumlah) {
+        return penyimpanan.cariStokTerendahRelatif(jumlah);
+    }
+
+    @Override
+    public List<Produk> cariNilaiPersediaanTertinggi(int jumlah) {
+        return penyimpanan.cariNilaiPersediaanTertinggi(jumlah);
+    }
+
+    // --- Tulis: hanya lewat primer ---
+
+    @Override
+    public boolean simpan(Produk produk) {
+        throw new UnsupportedOperationException("Replika hanya bisa dibaca; tulis ke repository primer");
+    }
+
+    @Override
+    public int simpanBatch(List<Produk> daftarProduk) {
+        throw new UnsupportedOperationException("Replika hanya bisa dibaca; tulis ke repository primer");
+    }
+
+    @Override
+    public boolean hapus(String kode) {
+        throw new UnsupportedOperationException("Replika hanya bisa dibaca; tulis ke repository primer");
+    }
+
+    @Override
+    public boolean updateStok(String kode, int stokBaru) {
+        throw new UnsupportedOperationException("Replika hanya bisa dibaca; tulis ke repository primer");
+    }
+
+    @Override
+    public boolean updateStokMinimum(String kode, int stokMinimumBaru) {
+        throw new UnsupportedOperationException("Replika hanya bisa dibaca; tulis ke repository primer");
+    }
+}
@@ -1,8 +1,11 @@
 package com.praktikum.whitebox.repository;
 
 import com.praktikum.whitebox.model.Produk;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Interface untuk mendefinisikan operasi-operasi dasar (CRUD)
@@ -65,9 +68,122 @@ public interface RepositoryProduk {
      */
     boolean updateStok(String kode, int stokBaru);
 
+    /**
+     * Memperbarui stokMinimum produk tertentu tanpa menyimpan ulang seluruh produk.
+     * Implementasi bawaan menyimpan salinan hasil cariByKode, sehingga perubahan stok yang
+     * terjadi di antara keduanya bisa tertimpa; implementasi yang bisa mengubah field ini
+     * secara atomik sebaiknya meng-override method ini.
+     * @param kode Kode produk yang akan diperbarui.
+     * @param stokMinimumBaru Nilai stokMinimum yang baru.
+     * @return true jika berhasil diperbarui, false jika kode tidak ditemukan.
+     */
+    default boolean updateStokMinimum(String kode, int stokMinimumBaru) {
+        Optional<Produk> produk = cariByKode(kode);
+        if (produk.isEmpty()) {
+            return false;
+        }
+        if (produk.get().getStokMinimum() == stokMinimumBaru) {
+            return true;
+        }
+        Produk salinan = new Produk(produk.get());
+        salinan.setStokMinimum(stokMinimumBaru);
+        return simpan(salinan);
+    }
+
     /**
      * Mengambil semua produk yang ada.
      * @return List semua Produk.
      */
     List<Produk> cariSemua();
+
+    /**
+     * Pemeriksaan cepat sebelum cariByKode, misalnya untuk cek duplikat.
+     * Implementasi bawaan selalu menjawab false (tidak tahu), sehingga pemanggil tetap
+     * memakai cariByKode; implementasi yang memelihara filter keanggotaan sebaiknya
+     * meng-override method ini.
+     * @param kode Kode produk.
+     * @return true hanya jika kode pasti tidak tersimpan; false berarti mungkin tersimpan.
+     */
+    default boolean pastiTidakAda(String kode) {
+        return false;
+    }
+
+    /**
+     * Menyimpan sekumpulan produk dalam satu panggilan.
+     * Implementasi bawaan memanggil simpan() satu per satu; implementasi yang
+     * mendukung penulisan batch sebaiknya meng-override method ini.
+     * @param daftarProduk Produk-produk yang akan disimpan.
+     * @return Jumlah produk yang berhasil disimpan.
+     */
+    default int simpanBatch(List<Produk> daftarProduk) {
+        int berhasil = 0;
+        for (Produk produk : daftarProduk) {
+            if (simpan(produk)) {
+                berhasil++;
+            }
+        }
+        return berhasil;
+    }
+
+    /**
+     * Menelusuri semua produk satu per satu tanpa harus membangun List hasil.
+     * Implementasi bawaan memakai cariSemua(); implementasi yang bisa
+     * melakukan iterasi langsung atas penyimpanannya sebaiknya meng-override method ini.
+     * @param konsumen Aksi yang dijalankan untuk setiap produk.
+     */
+    default void telusuriSemua(Consumer<Produk> konsumen) {
+        cariSemua().forEach(konsumen);
+    }
+
+    /**
+     * Mencari produk dengan harga di antara hargaMin dan hargaMaks (inklusif).
+     * Implementasi bawaan memindai dan mengurutkan semua produk; implementasi yang
+     * memiliki indeks harga sebaiknya meng-override method ini.
+     * @param hargaMin Batas bawah harga.
+     * @param hargaMaks Batas atas harga.
+     * @return List Produk terurut dari harga termurah (lalu kode), kosong jika hargaMin > hargaMaks.
+     */
+    default List<Produk> cariByRentangHarga(double hargaMin, double hargaMaks) {
+        List<Produk> hasil = new ArrayList<>();
+        if (hargaMin > hargaMaks) {
+            return hasil;
+        }
+        telusuriSemua(produk -> {
+            if (produk.getHarga() >= hargaMin && produk.getHarga() <= hargaMaks) {
+                hasil.add(produk);
+            }
+        });
+        hasil.sort(Comparator.comparingDouble(Produk::getHarga).thenComparing(Produk::getKode));
+        return hasil;
+    }
+
+    /**
+     * Mencari produk yang stoknya paling rendah dibanding stokMinimum-nya.
+     * @param jumlah Jumlah produk maksimum yang dikembalikan.
+     * @return List Produk terurut dari selisih (stok - stokMinimum) terkecil (lalu kode).
+     */
+    default List<Produk> cariStokTerendahRelatif(int jumlah) {
+        return ambilTeratas(Comparator.comparingInt((Produk produk) -> produk.getStok() - produk.getStokMinimum()),
+                jumlah);
+    }
+
+    /**
+     * Mencari produk dengan nilai persediaan (harga * stok) tertinggi.
+     * @param jumlah Jumlah produk maksimum yang dikembalikan.
+     * @return List Produk terurut dari nilai persediaan terbesar (lalu kode).
+     */
+    default List<Produk> cariNilaiPersediaanTertinggi(int jumlah) {
+        return ambilTeratas(Comparator.comparingDouble((Produk produk) -> produk.getHarga() * produk.getStok())
+                .reversed(), jumlah);
+    }
+
+    private List<Produk> ambilTeratas(Comparator<Produk> urutan, int jumlah) {
+        if (jumlah <= 0) {
+            return new ArrayList<>();
+        }
+        List<Produk> hasil = new ArrayList<>();
+        telusuriSemua(hasil::add);
+        hasil.sort(urutan.thenComparing(Produk::getKode));
+        return hasil.size() > jumlah ? new ArrayList<>(hasil.subList(0, jumlah)) : hasil;
+    }
 }
\ No newline at end of file
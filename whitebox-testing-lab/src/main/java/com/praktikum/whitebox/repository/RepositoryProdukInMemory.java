@@ -0,0 +1,300 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Implementasi RepositoryProduk yang menyimpan data di memori.
+ * Aman dipakai oleh banyak thread sekaligus (berbasis ConcurrentHashMap).
+ * <p>
+ * Setiap perubahan (simpan, updateStok, updateStokMinimum, hapus) dilaporkan ke {@link PendengarPerubahan}
+ * yang terdaftar, di dalam kunci entri ConcurrentHashMap sehingga urutan laporan untuk
+ * satu kode selalu sama dengan urutan perubahannya.
+ * <p>
+ * Jika dibuat dengan indeks terurut, query rentang harga dan top-N dilayani dari
+ * {@link IndeksTerurutProduk} yang diperbarui setiap kali produk berubah, tanpa memindai
+ * seluruh penyimpanan. Indeks hanya mengikuti perubahan yang lewat repository; mengubah
+ * harga atau stok langsung pada objek Produk yang tersimpan tidak memperbarui indeks.
+ * <p>
+ * Jika dibuat dengan filter kode, repository memelihara {@link FilterKodeBerhitung} atas
+ * semua kode yang tersimpan, sehingga {@link #pastiTidakAda(String)} bisa menjawab tanpa
+ * menyentuh map untuk kode yang belum pernah ada.
+ */
+public class RepositoryProdukInMemory implements RepositoryProduk {
+
+    private final ConcurrentHashMap<String, Produk> penyimpanan;
+    private final List<PendengarPerubahan> daftarPendengar = new CopyOnWriteArrayList<>();
+    private final IndeksTerurutProduk indeksTerurut;
+    private final int kapasitasAwal;
+    private volatile FilterKodeBerhitung filterKode;
+
+    public RepositoryProdukInMemory() {
+        this(16);
+    }
+
+    /**
+     * @param kapasitasAwal Perkiraan jumlah produk, untuk menghindari resize berulang.
+     */
+    public RepositoryProdukInMemory(int kapasitasAwal) {
+        this(kapasitasAwal, false);
+    }
+
+    /**
+     * @param kapasitasAwal Perkiraan jumlah produk, untuk menghindari resize berulang.
+     * @param denganIndeksTerurut true untuk memelihara indeks harga, selisih stok, dan nilai
+     *                            persediaan. Mempercepat query rentang/top-N, tetapi setiap
+     *                            simpan, updateStok, dan hapus menjadi O(log n).
+     */
+    public RepositoryProdukInMemory(int kapasitasAwal, boolean denganIndeksTerurut) {
+        this(kapasitasAwal, denganIndeksTerurut, false);
+    }
+
+    /**
+     * @param kapasitasAwal Perkiraan jumlah produk, untuk menghindari resize berulang dan
+     *                      untuk mengukur filter kode.
+     * @param denganIndeksTerurut true untuk memelihara indeks terurut (lihat konstruktor lain).
+     * @param denganFilterKode true untuk memelihara filter keanggotaan kode bagi
+     *                         {@link #pastiTidakAda(String)}. Setiap simpan produk baru dan
+     *                         hapus menambah beberapa operasi CAS.
+     */
+    public RepositoryProdukInMemory(int kapasitasAwal, boolean denganIndeksTerurut, boolean denganFilterKode) {
+        this.penyimpanan = new ConcurrentHashMap<>(kapasitasAwal);
+        this.kapasitasAwal = kapasitasAwal;
+        this.filterKode = denganFilterKode ? new FilterKodeBerhitung(kapasitasAwal) : null;
+        this.indeksTerurut = denganIndeksTerurut ? new IndeksTerurutProduk() : null;
+        if (indeksTerurut != null) {
+            daftarPendengar.add(indeksTerurut);
+        }
+    }
+
+    @Override
+    public boolean simpan(Produk produk) {
+        if (produk == null || produk.getKode() == null) {
+            return false;
+        }
+        if (daftarPendengar.isEmpty() && filterKode == null) {
+            penyimpanan.put(produk.getKode(), produk);
+            return true;
+        }
+        penyimpanan.compute(produk.getKode(), (kode, lama) -> {
+            FilterKodeBerhitung filter = filterKode;
+            if (lama == null && filter != null) {
+                // Sebelum kode terlihat di map, agar filter tidak pernah memberi false negative
+                filter.tambah(kode);
+            }
+            beritahu(lama == null ? JenisPerubahan.SISIP : JenisPerubahan.UBAH, kode, produk);
+            return produk;
+        });
+        return true;
+    }
+
+    @Override
+    public Optional<Produk> cariByKode(String kode) {
+        if (kode == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(penyimpanan.get(kode));
+    }
+
+    @Override
+    public List<Produk> cariByNama(String nama) {
+        List<Produk> hasil = new ArrayList<>();
+        if (nama == null) {
+            return hasil;
+        }
+        String namaKecil = nama.toLowerCase();
+        for (Produk produk : penyimpanan.values()) {
+            if (produk.getNama() != null && produk.getNama().toLowerCase().contains(namaKecil)) {
+                hasil.add(produk);
+            }
+        }
+        return hasil;
+    }
+
+    @Override
+    public List<Produk> cariByKategori(String kategori) {
+        List<Produk> hasil = new ArrayList<>();
+        for (Produk produk : penyimpanan.values()) {
+            if (kategori != null && kategori.equalsIgnoreCase(produk.getKategori())) {
+                hasil.add(produk);
+            }
+        }
+        return hasil;
+    }
+
+    @Override
+    public List<Produk> cariProdukStokMenipis() {
+        List<Produk> hasil = new ArrayList<>();
+        for (Produk produk : penyimpanan.values()) {
+            if (produk.isStokMenipis()) {
+                hasil.add(produk);
+            }
+        }
+        return hasil;
+    }
+
+    @Override
+    public List<Produk> cariProdukStokHabis() {
+        List<Produk> hasil = new ArrayList<>();
+        for (Produk produk : penyimpanan.values()) {
+            if (produk.isStokHabis()) {
+                hasil.add(produk);
+            }
+        }
+        return hasil;
+    }
+
+    @Override
+    public boolean hapus(String kode) {
+        if (kode == null) {
+            return false;
+        }
+        if (daftarPendengar.isEmpty() && filterKode == null) {
+            return penyimpanan.remove(kode) != null;
+        }
+        boolean[] dihapus = new boolean[1];
+        penyimpanan.computeIfPresent(kode, (k, produk) -> {
+            dihapus[0] = true;
+            FilterKodeBerhitung filter = filterKode;
+            if (filter != null) {
+                filter.kurangi(k);
+            }
+            beritahu(JenisPerubahan.HAPUS, k, null);
+            return null;
+        });
+        return dihapus[0];
+    }
+
+    @Override
+    public boolean updateStok(String kode, int stokBaru) {
+        if (kode == null) {
+            return false;
+        }
+        Produk hasil = penyimpanan.computeIfPresent(kode, (k, produk) -> {
+            produk.setStok(stokBaru);
+            beritahu(JenisPerubahan.STOK, k, produk);
+            return produk;
+        });
+        return hasil != null;
+    }
+
+    /**
+     * Diterapkan di dalam kunci entri seperti updateStok. Perubahan dilaporkan sebagai UBAH
+     * (membawa produk lengkap) karena stokMinimum ikut menentukan indeks selisih stok; nilai
+     * yang tidak berubah tidak dilaporkan.
+     */
+    @Override
+    public boolean updateStokMinimum(String kode, int stokMinimumBaru) {
+        if (kode == null) {
+            return false;
+        }
+        Produk hasil = penyimpanan.computeIfPresent(kode, (k, produk) -> {
+            if (produk.getStokMinimum() != stokMinimumBaru) {
+                produk.setStokMinimum(stokMinimumBaru);
+                beritahu(JenisPerubahan.UBAH, k, produk);
+            }
+            return produk;
+        });
+        return hasil != null;
+    }
+
+    /**
+     * Tanpa filter kode, selalu false (seperti implementasi bawaan).
+     */
+    @Override
+    public boolean pastiTidakAda(String kode) {
+        FilterKodeBerhitung filter = filterKode;
+        return kode != null && filter != null && !filter.mungkinAda(kode);
+    }
+
+    /**
+     * Membangun ulang filter kode dari isi penyimpanan saat ini, misalnya setelah pemulihan
+     * atau pemuatan massal yang melewati repository, atau setelah jumlah produk jauh melampaui
+     * kapasitas awal (ukuran filter mengikuti jumlah produk saat ini). Harus dipanggil saat
+     * tidak ada simpan/hapus yang berjalan bersamaan.
+     * @throws IllegalStateException jika repository dibuat tanpa filter kode.
+     */
+    public void bangunUlangFilterKode() {
+        if (filterKode == null) {
+            throw new IllegalStateException("Repository dibuat tanpa filter kode");
+        }
+        FilterKodeBerhitung filterBaru = new FilterKodeBerhitung(Math.max(kapasitasAwal, penyimpanan.size()));
+        for (String kode : penyimpanan.keySet()) {
+            filterBaru.tambah(kode);
+        }
+        filterKode = filterBaru;
+    }
+
+    @Override
+    public List<Produk> cariSemua() {
+        return new ArrayList<>(penyimpanan.values());
+    }
+
+    @Override
+    public void telusuriSemua(Consumer<Produk> konsumen) {
+        // Iterasi langsung atas map, tanpa menyalin ke List
+        penyimpanan.values().forEach(konsumen);
+    }
+
+    @Override
+    public List<Produk> cariByRentangHarga(double hargaMin, double hargaMaks) {
+        if (indeksTerurut == null) {
+            return RepositoryProduk.super.cariByRentangHarga(hargaMin, hargaMaks);
+        }
+        return indeksTerurut.rentangHarga(hargaMin, hargaMaks);
+    }
+
+    @Override
+    public List<Produk> cariStokTerendahRelatif(int jumlah) {
+        if (indeksTerurut == null) {
+            return RepositoryProduk.super.cariStokTerendahRelatif(jumlah);
+        }
+        return indeksTerurut.stokTerendahRelatif(jumlah);
+    }
+
+    @Override
+    public List<Produk> cariNilaiPersediaanTertinggi(int jumlah) {
+        if (indeksTerurut == null) {
+            return RepositoryProduk.super.cariNilaiPersediaanTertinggi(jumlah);
+        }
+        return indeksTerurut.nilaiPersediaanTertinggi(jumlah);
+    }
+
+    /**
+     * @return Jumlah produk yang tersimpan saat ini.
+     */
+    public int jumlahProduk() {
+        return penyimpanan.size();
+    }
+
+    /**
+     * Mendaftarkan pendengar yang menerima setiap perubahan sesudah pendaftaran.
+     * @param pendengar Pendengar perubahan.
+     * @throws IllegalArgumentException jika pendengar null.
+     */
+    public void tambahPendengar(PendengarPerubahan pendengar) {
+        if (pendengar == null) {
+            throw new IllegalArgumentException("Pendengar tidak boleh null");
+        }
+        daftarPendengar.add(pendengar);
+    }
+
+    /**
+     * @param pendengar Pendengar yang akan dilepas.
+     * @return true jika pendengar sebelumnya terdaftar.
+     */
+    public boolean hapusPendengar(PendengarPerubahan pendengar) {
+        return daftarPendengar.remove(pendengar);
+    }
+
+    private void beritahu(JenisPerubahan jenis, String kode, Produk produk) {
+        for (PendengarPerubahan pendengar : daftarPendengar) {
+            pendengar.diubah(jenis, kode, produk);
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Implementasi RepositoryProduk di memori dengan multi-version concurrency control (MVCC).
+ * <p>
+ * Setiap perubahan membuat versi baru produk bernomor urut global, yang ditautkan ke
+ * versi sebelumnya. Laporan panjang dapat membuka {@link SnapshotProduk} yang melihat
+ * keadaan katalog pada satu titik waktu secara konsisten, tanpa mengunci dan tanpa
+ * menghambat penulis. Versi lama dibuang begitu tidak ada snapshot aktif yang
+ * membutuhkannya: saat kode yang sama ditulis lagi, atau saat snapshot ditutup.
+ * <p>
+ * Penulis saling berurutan lewat satu lock pendek yang hanya memasang versi baru.
+ * Produk disimpan dan dikembalikan sebagai salinan, sehingga versi yang tersimpan
+ * tidak bisa diubah dari luar.
+ */
+public class RepositoryProdukMvcc implements RepositoryProduk {
+
+    /**
+     * Satu versi produk. Produk null menandakan produk dihapus pada versi ini.
+     */
+    private static final class Versi {
+        final long nomor;
+        final Produk produk;
+        volatile Versi sebelumnya;
+
+        Versi(long nomor, Produk produk, Versi sebelumnya) {
+            this.nomor = nomor;
+            this.produk = produk;
+            this.sebelumnya = sebelumnya;
+        }
+    }
+
+    /**
+     * Tampilan read-only katalog pada satu versi. Wajib ditutup setelah selesai
+     * agar versi lama dapat dibuang.
+     */
+    public final class SnapshotProduk implements AutoCloseable {
+        private final long versi;
+        private volatile boolean tertutup;
+
+        private SnapshotProduk(long versi) {
+            this.versi = versi;
+        }
+
+        public long getVersi() {
+            return versi;
+        }
+
+        public Optional<Produk> cariByKode(String kode) {
+            cekTerbuka();
+            if (kode == null) {
+                return Optional.empty();
+            }
+            Produk produk = produkPada(kepala.get(kode), versi);
+            return produk == null ? Optional.empty() : Optional.of(new Produk(produk));
+        }
+
+        public List<Produk> cariSemua() {
+            List<Produk> hasil = new ArrayList<>();
+            telusuriSemua(hasil::add);
+            return hasil;
+        }
+
+        /**
+         * Menelusuri semua produk pada versi snapshot. Produk yang diberikan ke konsumen
+         * adalah salinan.
+         */
+        public void telusuriSemua(Consumer<Produk> konsumen) {
+            cekTerbuka();
+            for (Versi versiTerbaru : kepala.values()) {
+                Produk produk = produkPada(versiTerbaru, versi);
+                if (produk != null) {
+                    konsumen.accept(new Produk(produk));
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            if (!tertutup) {
+                tertutup = true;
+                snapshotAktif.remove(this);
+                bersihkan();
+            }
+        }
+
+        private void cekTerbuka() {
+            if (tertutup) {
+                throw new IllegalStateException("Snapshot sudah ditutup");
+            }
+        }
+    }
+
+    private final ConcurrentHashMap<String, Versi> kepala = new ConcurrentHashMap<>();
+    private final Set<SnapshotProduk> snapshotAktif = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock kunciTulis = new ReentrantLock();
+    private volatile long versiTerkomit;
+
+    /**
+     * Membuka snapshot katalog pada versi terkomit saat ini.
+     * @return Snapshot yang harus ditutup setelah dipakai (try-with-resources).
+     */
+    public SnapshotProduk bukaSnapshot() {
+        // Dikunci agar versi yang dibaca dan pendaftaran snapshot tidak disela penulis,
+        // sehingga pembersih tidak pernah membuang versi yang dibutuhkan snapshot ini
+        kunciTulis.lock();
+        try {
+            SnapshotProduk snapshot = new SnapshotProduk(versiTerkomit);
+            snapshotAktif.add(snapshot);
+            return snapshot;
+        } finally {
+            kunciTulis.unlock();
+        }
+    }
+
+    /**
+     * @return Nomor versi terakhir yang sudah terkomit.
+     */
+    public long getVersiTerkomit() {
+        return versiTerkomit;
+    }
+
+    /**
+     * @return Jumlah seluruh versi yang masih tersimpan (termasuk penanda hapus).
+     */
+    public int jumlahVersiTersimpan() {
+        int jumlah = 0;
+        for (Versi versi : kepala.values()) {
+            for (Versi v = versi; v != null; v = v.sebelumnya) {
+                jumlah++;
+            }
+        }
+        return jumlah;
+    }
+
+    /**
+     * Membuang versi lama yang tidak lagi dibutuhkan oleh snapshot aktif mana pun.
+     * Dipanggil otomatis saat snapshot ditutup.
+     */
+    public void bersihkan() {
+        long batas = versiMinimumDibutuhkan();
+        for (Map.Entry<String, Versi> entri : kepala.entrySet()) {
+            pangkas(entri.getKey(), entri.getValue(), batas);
+        }
+    }
+
+    // --- Operasi RepositoryProduk ---
+
+    @Override
+    public boolean simpan(Produk produk) {
+        if (produk == null || produk.getKode() == null) {
+            return false;
+        }
+        tulis(produk.getKode(), new Produk(produk));
+        return true;
+    }
+
+    @Override
+    public Optional<Produk> cariByKode(String kode) {
+        if (kode == null) {
+            return Optional.empty();
+        }
+        Versi versi = kepala.get(kode);
+        if (versi == null || versi.produk == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new Produk(versi.produk));
+    }
+
+    @Override
+    public List<Produk> cariByNama(String nama) {
+        if (nama == null) {
+            return new ArrayList<>();
+        }
+        String namaKecil = nama.toLowerCase();
+        return cari(p -> p.getNama() != null && p.getNama().toLowerCase().contains(namaKecil));
+    }
+
+    @Override
+    public List<Produk> cariByKategori(String kategori) {
+        return cari(p -> kategori != null && kategori.equalsIgnoreCase(p.getKategori()));
+    }
+
+    @Override
+    public List<Produk> cariProdukStokMenipis() {
+        return cari(Produk::isStokMenipis);
+    }
+
+    @Override
+    public List<Produk> cariProdukStokHabis() {
+        return cari(Produk::isStokHabis);
+    }
+
+    @Override
+    public boolean hapus(String kode) {
+        if (kode == null) {
+            return false;
+        }
+        kunciTulis.lock();
+        try {
+            Versi versi = kepala.get(kode);
+            if (versi == null || versi.produk == null) {
+                return false;
+            }
+            pasang(kode, null, versi);
+        } finally {
+            kunciTulis.unlock();
+        }
+        pangkas(kode, kepala.get(kode), versiMinimumDibutuhkan());
+        return true;
+    }
+
+    @Override
+    public boolean updateStok(String kode, int stokBaru) {
+        if (kode == null) {
+            return false;
+        }
+        kunciTulis.lock();
+        try {
+            Versi versi = kepala.get(kode);
+            if (versi == null || versi.produk == null) {
+                return false;
+            }
+            Produk produkBaru = new Produk(versi.produk);
+            produkBaru.setStok(stokBaru);
+            pasang(kode, produkBaru, versi);
+        } finally {
+            kunciTulis.unlock();
+        }
+        pangkas(kode, kepala.get(kode), versiMinimumDibutuhkan());
+        return true;
+    }
+
+    /**
+     * Membuat versi baru dari versi terbaru di dalam kunci tulis, sehingga stok yang sedang
+     * berlaku tidak tertimpa oleh salinan lama. Nilai yang tidak berubah tidak membuat versi.
+     */
+    @Override
+    public boolean updateStokMinimum(String kode, int stokMinimumBaru) {
+        if (kode == null) {
+            return false;
+        }
+        kunciTulis.lock();
+        try {
+            Versi versi = kepala.get(kode);
+            if (versi == null || versi.produk == null) {
+                return false;
+            }
+            if (versi.produk.getStokMinimum() == stokMinimumBaru) {
+                return true;
+            }
+            Produk produkBaru = new Produk(versi.produk);
+            produkBaru.setStokMinimum(stokMinimumBaru);
+            pasang(kode, produkBaru, versi);
+        } finally {
+            kunciTulis.unlock();
+        }
+        pangkas(kode, kepala.get(kode), versiMinimumDibutuhkan());
+        return true;
+    }
+
+    @Override
+    public List<Produk> cariSemua() {
+        return cari(p -> true);
+    }
+
+    @Override
+    public void telusuriSemua(Consumer<Produk> konsumen) {
+        for (Versi versi : kepala.values()) {
+            if (versi.produk != null) {
+                konsumen.accept(new Produk(versi.produk));
+            }
+        }
+    }
+
+    // --- Internal ---
+
+    private void tulis(String kode, Produk produk) {
+        kunciTulis.lock();
+        try {
+            pasang(kode, produk, kepala.get(kode));
+        } finally {
+            kunciTulis.unlock();
+        }
+        pangkas(kode, kepala.get(kode), versiMinimumDibutuhkan());
+    }
+
+    /**
+     * Memasang versi baru sebagai kepala rantai. Harus dipanggil sambil memegang kunciTulis.
+     */
+    private void pasang(String kode, Produk produk, Versi sebelumnya) {
+        long nomor = versiTerkomit + 1;
+        kepala.put(kode, new Versi(nomor, produk, sebelumnya));
+        versiTerkomit = nomor; // Publikasi: snapshot baru mulai melihat versi ini
+    }
+
+    /**
+     * Versi tertua yang mungkin masih dibaca. versiTerkomit dibaca lebih dulu: snapshot
+     * yang terdaftar setelah itu pasti memiliki versi >= nilai tersebut.
+     */
+    private long versiMinimumDibutuhkan() {
+        long minimum = versiTerkomit;
+        for (SnapshotProduk snapshot : snapshotAktif) {
+            minimum = Math.min(minimum, snapshot.versi);
+        }
+        return minimum;
+    }
+
+    /**
+     * Memutus rantai setelah versi terbaru yang <= batas, karena versi yang lebih tua
+     * tidak lagi terlihat oleh pembaca mana pun.
+     */
+    private void pangkas(String kode, Versi versiTerbaru, long batas) {
+        if (versiTerbaru == null) {
+            return;
+        }
+        Versi versi = versiTerbaru;
+        while (versi != null && versi.nomor > batas) {
+            versi = versi.sebelumnya;
+        }
+        if (versi == null) {
+            return;
+        }
+        versi.sebelumnya = null;
+        if (versi == versiTerbaru && versi.produk == null) {
+            // Penanda hapus yang tidak lagi dibutuhkan siapa pun
+            kepala.remove(kode, versi);
+        }
+    }
+
+    private static Produk produkPada(Versi versi, long nomorVersi) {
+        while (versi != null && versi.nomor > nomorVersi) {
+            versi = versi.sebelumnya;
+        }
+        return versi == null ? null : versi.produk;
+    }
+
+    private List<Produk> cari(Predicate<Produk> syarat) {
+        List<Produk> hasil = new ArrayList<>();
+        for (Versi versi : kepala.values()) {
+            if (versi.produk != null && syarat.test(versi.produk)) {
+                hasil.add(new Produk(versi.produk));
+            }
+        }
+        return hasil;
+    }
+}
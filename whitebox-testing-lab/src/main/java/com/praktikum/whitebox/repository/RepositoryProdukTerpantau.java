@@ -0,0 +1,224 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Dekorator RepositoryProduk yang mencatat setiap panggilan sebagai event JFR
+ * {@link PeristiwaPanggilanRepository} (operasi, kode, berhasil, dan latensi sebagai durasi).
+ * <p>
+ * Semua method, termasuk method default, diteruskan ke repository tujuan sehingga
+ * optimasi milik tujuan (indeks, filter kode, batch) tetap dipakai. Panggilan yang melempar
+ * exception dicatat dengan berhasil = false, lalu exception-nya diteruskan apa adanya.
+ * Selama event tidak diaktifkan di rekaman JFR, dekorator ini hanya menambah satu
+ * pemeriksaan per panggilan.
+ */
+public class RepositoryProdukTerpantau implements RepositoryProduk {
+
+    private final RepositoryProduk tujuan;
+
+    public RepositoryProdukTerpantau(RepositoryProduk tujuan) {
+        if (tujuan == null) {
+            throw new IllegalArgumentException("Repository tujuan tidak boleh null");
+        }
+        this.tujuan = tujuan;
+    }
+
+    @Override
+    public boolean simpan(Produk produk) {
+        PeristiwaPanggilanRepository peristiwa = PeristiwaPanggilanRepository.mulai();
+        boolean hasil = false;
+        try {
+            hasil = tujuan.simpan(produk);
+            return hasil;
+        } finally {
+            PeristiwaPanggilanRepository.selesai(peristiwa, "simpan", produk == null ? null : produk.getKode(), hasil);
+        }
+    }
+
+    @Override
+    public Optional<Produk> cariByKode(String kode) {
+        PeristiwaPanggilanRepository peristiwa = PeristiwaPanggilanRepository.mulai();
+        boolean hasil = false;
+        try {
+            Optional<Produk> produk = tujuan.cariByKode(kode);
+            hasil = produk.isPresent();
+            return produk;
+        } finally {
+            PeristiwaPanggilanRepository.selesai(peristiwa, "cariByKode", kode, hasil);
+        }
+    }
+
+    @Override
+    public List<Produk> cariByNama(String nama) {
+        PeristiwaPanggilanRepository peristiwa = PeristiwaPanggilanRepository.mulai();
+        boolean hasil = false;
+        try {
+            List<Produk> daftar = tujuan.cariByNama(nama);
+            hasil = true;
+            return daftar;
+        } finally {
+            PeristiwaPanggilanRepository.selesai(peristiwa, "cariByNama", null, hasil);
+        }
+    }
+
+    @Override
+    public List<Produk> cariByKategori(String kategori) {
+        PeristiwaPanggilanRepository peristiwa = PeristiwaPanggilanRepository.mulai();
+        boolean hasil = false;
+        try {
+            List<Produk> daftar = tujuan.cariByKategori(kategori);
+            hasil = true;
+            return daftar;
+        } finally {
+            PeristiwaPanggilanRepository.selesai(peristiwa, "cariByKategori", null, hasil);
+        }
+    }
+
+    @Override
+    public List<Produk> cariProdukStokMenipis() {
+        PeristiwaPanggilanRepository peristiwa = PeristiwaPanggilanRepository.mulai();
+        boolean hasil = false;
+        try {
+            List<Produk> daftar = tujuan.cariProdukStokMenipis();
+            hasil = true;
+            return daftar;
+        } finally {
+            PeristiwaPanggilanRepository.selesai(peristiwa, "cariProdukStokMenipis", null, hasil);
+        }
+    }
+
+    @Override
+    public List<Produk> cariProdukStokHabis() {
+        PeristiwaPanggilanRepository peristiwa = PeristiwaPanggilanRepository.mulai();
+        boolean hasil = false;
+        try {
+            List<Produk> daftar = tujuan.cariProdukStokHabis();
+            hasil = true;
+            return daftar;
+        } finally {
+            PeristiwaPanggilanRepository.selesai(peristiwa, "cariProdukStokHabis", null, hasil);
+        }
+    }
+
+    @Override
+    public boolean hapus(String kode) {
+        PeristiwaPanggilanRepository peristiwa = PeristiwaPanggilanRepository.mulai();
+        boolean hasil = false;
+        try {
+            hasil = tujuan.hapus(kode);
+            return hasil;
+        } finally {
+            PeristiwaPanggilanRepository.selesai(peristiwa, "hapus", kode, hasil);
+        }
+    }
+
+    @Override
+    public boolean updateStok(String kode, int stokBaru) {
+        PeristiwaPanggilanRepository peristiwa = PeristiwaPanggilanRepository.mulai();
+        boolean hasil = false;
+        try {
+            hasil = tujuan.updateStok(kode, stokBaru);
+            return hasil;
+        } finally {
+            PeristiwaPanggilanRepository.selesai(peristiwa, "updateStok", kode, hasil);
+        }
+    }
+
+    @Override
+    public boolean updateStokMinimum(String kode, int stokMinimumBaru) {
+        PeristiwaPanggilanRepository peristiwa = PeristiwaPanggilanRepository.mulai();
+        boolean hasil = false;
+        try {
+            hasil = tujuan.updateStokMinimum(kode, stokMinimumBaru);
+            return hasil;
+        } finally {
+            PeristiwaPanggilanRepository.selesai(peristiwa, "updateStokMinimum", kode, hasil);
+        }
+    }
+
+    @Override
+    public List<Produk> cariSemua() {
+        PeristiwaPanggilanRepository peristiwa = PeristiwaPanggilanRepository.mulai();
+        boolean hasil = false;
+        try {
+            List<Produk> daftar = tujuan.cariSemua();
+            hasil = true;
+            return daftar;
+        } finally {
+            PeristiwaPanggilanRepository.selesai(peristiwa, "cariSemua", null, hasil);
+        }
+    }
+
+    @Override
+    public boolean pastiTidakAda(String kode) {
+        // Sengaja tidak dicatat: hanya pemeriksaan filter di memori, jauh lebih murah dari event
+        return tujuan.pastiTidakAda(kode);
+    }
+
+    @Override
+    public int simpanBatch(List<Produk> daftarProduk) {
+        PeristiwaPanggilanRepository peristiwa = PeristiwaPanggilanRepository.mulai();
+        boolean hasil = false;
+        try {
+            int tersimpan = tujuan.simpanBatch(daftarProduk);
+            hasil = daftarProduk == null || tersimpan == daftarProduk.size();
+            return tersimpan;
+        } finally {
+            PeristiwaPanggilanRepository.selesai(peristiwa, "simpanBatch", null, hasil);
+        }
+    }
+
+    @Override
+    public void telusuriSemua(Consumer<Produk> konsumen) {
+        PeristiwaPanggilanRepository peristiwa = PeristiwaPanggilanRepository.mulai();
+        boolean hasil = false;
+        try {
+            tujuan.telusuriSemua(konsumen);
+            hasil = true;
+        } finally {
+            PeristiwaPanggilanRepository.selesai(peristiwa, "telusuriSemua", null, hasil);
+        }
+    }
+
+    @Override
+    public List<Produk> cariByRentangHarga(double hargaMin, double hargaMaks) {
+        PeristiwaPanggilanRepository peristiwa = PeristiwaPanggilanRepository.mulai();
+        boolean hasil = false;
+        try {
+            List<Produk> daftar = tujuan.cariByRentangHarga(hargaMin, hargaMaks);
+            hasil = true;
+            return daftar;
+        } finally {
+            PeristiwaPanggilanRepository.selesai(peristiwa, "cariByRentangHarga", null, hasil);
+        }
+    }
+
+    @Override
+    public List<Produk> cariStokTerendahRelatif(int jumlah) {
+        PeristiwaPanggilanRepository peristiwa = PeristiwaPanggilanRepository.mulai();
+        boolean hasil = false;
+        try {
+            List<Produk> daftar = tujuan.cariStokTerendahRelatif(jumlah);
+            hasil = true;
+            return daftar;
+        } finally {
+            PeristiwaPanggilanRepository.selesai(peristiwa, "cariStokTerendahRelatif", null, hasil);
+        }
+    }
+
+    @Override
+    public List<Produk> cariNilaiPersediaanTertinggi(int jumlah) {
+        PeristiwaPanggilanRepository peristiwa = PeristiwaPanggilanRepository.mulai();
+        boolean hasil = false;
+        try {
+            List<Produk> daftar = tujuan.cariNilaiPersediaanTertinggi(jumlah);
+            hasil = true;
+            return daftar;
+        } finally {
+            PeristiwaPanggilanRepository.selesai(peristiwa, "cariNilaiPersediaanTertinggi", null, hasil);
+        }
+    }
+}
@@ -0,0 +1,452 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Dekorator write-behind untuk RepositoryProduk yang lambat (misalnya penyimpanan durable).
+ * <p>
+ * Semua data tujuan dimuat ke tampilan di memori saat dibuat. Pembacaan dilayani dari
+ * tampilan itu, dan penulisan (simpan, updateStok, hapus) langsung diterapkan ke tampilan lalu
+ * hanya menandai kodenya sebagai kotor. Penanda kotor disimpan per kode, sehingga seratus
+ * updateStok pada satu kode di antara dua penyaluran tetap menjadi satu penulisan berisi
+ * stok terakhir.
+ * <p>
+ * Penyaluran ke repository tujuan dilakukan oleh {@link #salurkan()}: secara berkala setelah
+ * {@link #mulai()} (sehingga keterlambatan tujuan dibatasi kira-kira satu interval), lebih
+ * awal saat jumlah kode kotor mencapai ambang, dan terakhir kali saat {@link #close()}.
+ * Produk baru/berubah dikirim dengan simpanBatch per batch, perubahan stok saja dengan
+ * updateStok, dan kode yang sudah hilang dari tampilan dengan hapus.
+ * <p>
+ * Setiap penulisan menandai kodenya kotor setelah nilai baru terpasang di tampilan, sehingga
+ * penyaluran yang mengambil penanda itu selalu membaca nilai tersebut atau yang lebih baru.
+ * <p>
+ * Seperti RepositoryProdukInMemory, produk yang dikembalikan adalah objek di tampilan;
+ * mengubahnya langsung tidak menandai kode sebagai kotor.
+ */
+public class RepositoryProdukWriteBehind implements RepositoryProduk, AutoCloseable {
+
+    public static final long INTERVAL_SALUR_DEFAULT_MILLIS = 100;
+    public static final int AMBANG_SALUR_DEFAULT = 1_024;
+    public static final int UKURAN_BATCH_DEFAULT = 256;
+
+    /**
+     * Penulisan yang perlu dikirim untuk satu kode. SIMPAN mencakup STOK.
+     */
+    private enum JenisTertunda {
+        STOK, SIMPAN, HAPUS
+    }
+
+    private final RepositoryProduk tujuan;
+    private final long intervalSalurMillis;
+    private final int ambangSalur;
+    private final int ukuranBatch;
+
+    private final ConcurrentHashMap<String, Produk> tampilan = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, JenisTertunda> kotor = new ConcurrentHashMap<>();
+    private final AtomicBoolean salurDipicu = new AtomicBoolean();
+    private final LongAdder jumlahPenulisan = new LongAdder();
+    private final LongAdder jumlahGagal = new LongAdder();
+    private volatile RuntimeException kesalahanTerakhir;
+    // Penulisan memegang kunci baca; close() mengambil kunci tulis sebelum penyaluran terakhir,
+    // sehingga tidak ada penulisan yang lolos pemeriksaan tertutup lalu menandai kotor sesudahnya
+    private final ReentrantReadWriteLock kunciTutup = new ReentrantReadWriteLock();
+    private volatile boolean tertutup;
+    private volatile ScheduledExecutorService penyalur;
+
+    public RepositoryProdukWriteBehind(RepositoryProduk tujuan) {
+        this(tujuan, INTERVAL_SALUR_DEFAULT_MILLIS, AMBANG_SALUR_DEFAULT, UKURAN_BATCH_DEFAULT);
+    }
+
+    /**
+     * Membuat dekorator dan memuat seluruh isi repository tujuan ke tampilan di memori.
+     * @param tujuan Repository yang lambat.
+     * @param intervalSalurMillis Jeda penyaluran berkala setelah {@link #mulai()}.
+     * @param ambangSalur Jumlah kode kotor yang memicu penyaluran lebih awal.
+     * @param ukuranBatch Jumlah produk maksimum per simpanBatch ke tujuan.
+     * @throws IllegalArgumentException jika tujuan null atau parameter tidak positif.
+     */
+    public RepositoryProdukWriteBehind(RepositoryProduk tujuan, long intervalSalurMillis, int ambangSalur,
+                                       int ukuranBatch) {
+        if (tujuan == null) {
+            throw new IllegalArgumentException("Repository tujuan tidak boleh null");
+        }
+        if (intervalSalurMillis <= 0 || ambangSalur <= 0 || ukuranBatch <= 0) {
+            throw new IllegalArgumentException("Interval, ambang, dan ukuran batch harus positif");
+        }
+        this.tujuan = tujuan;
+        this.intervalSalurMillis = intervalSalurMillis;
+        this.ambangSalur = ambangSalur;
+        this.ukuranBatch = ukuranBatch;
+        tujuan.telusuriSemua(produk -> tampilan.put(produk.getKode(), new Produk(produk)));
+    }
+
+    /**
+     * Menjalankan penyaluran berkala di satu thread daemon.
+     */
+    public synchronized void mulai() {
+        if (penyalur != null || tertutup) {
+            return;
+        }
+        penyalur = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "penyalur-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        penyalur.scheduleWithFixedDelay(this::salurkanTerjadwal, intervalSalurMillis, intervalSalurMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public boolean simpan(Produk produk) {
+        if (produk == null || produk.getKode() == null) {
+            return false;
+        }
+        Lock kunci = masukTulis();
+        try {
+            tampilan.put(produk.getKode(), produk);
+            tandai(produk.getKode(), JenisTertunda.SIMPAN);
+        } finally {
+            kunci.unlock();
+        }
+        periksaAmbang();
+        return true;
+    }
+
+    @Override
+    public boolean updateStok(String kode, int stokBaru) {
+        if (kode == null) {
+            return false;
+        }
+        Lock kunci = masukTulis();
+        Produk hasil;
+        try {
+            hasil = tampilan.computeIfPresent(kode, (k, produk) -> {
+                produk.setStok(stokBaru);
+                return produk;
+            });
+            if (hasil != null) {
+                tandai(kode, JenisTertunda.STOK);
+            }
+        } finally {
+            kunci.unlock();
+        }
+        periksaAmbang();
+        return hasil != null;
+    }
+
+    /**
+     * Ditandai sebagai SIMPAN karena tujuan hanya bisa menerima stokMinimum lewat produk lengkap.
+     */
+    @Override
+    public boolean updateStokMinimum(String kode, int stokMinimumBaru) {
+        if (kode == null) {
+            return false;
+        }
+        Lock kunci = masukTulis();
+        boolean[] ditemukan = new boolean[1];
+        boolean[] berubah = new boolean[1];
+        try {
+            tampilan.computeIfPresent(kode, (k, produk) -> {
+                ditemukan[0] = true;
+                if (produk.getStokMinimum() != stokMinimumBaru) {
+                    produk.setStokMinimum(stokMinimumBaru);
+                    berubah[0] = true;
+                }
+                return produk;
+            });
+            if (berubah[0]) {
+                tandai(kode, JenisTertunda.SIMPAN);
+            }
+        } finally {
+            kunci.unlock();
+        }
+        periksaAmbang();
+        return ditemukan[0];
+    }
+
+    @Override
+    public boolean hapus(String kode) {
+        if (kode == null) {
+            return false;
+        }
+        Lock kunci = masukTulis();
+        boolean[] dihapus = new boolean[1];
+        try {
+            tampilan.computeIfPresent(kode, (k, produk) -> {
+                dihapus[0] = true;
+                return null;
+            });
+            if (dihapus[0]) {
+                tandai(kode, JenisTertunda.HAPUS);
+            }
+        } finally {
+            kunci.unlock();
+        }
+        periksaAmbang();
+        return dihapus[0];
+    }
+
+    @Override
+    public Optional<Produk> cariByKode(String kode) {
+        if (kode == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(tampilan.get(kode));
+    }
+
+    @Override
+    public List<Produk> cariByNama(String nama) {
+        List<Produk> hasil = new ArrayList<>();
+        if (nama == null) {
+            return hasil;
+        }
+        String namaKecil = nama.toLowerCase();
+        for (Produk produk : tampilan.values()) {
+            if (produk.getNama() != null && produk.getNama().toLowerCase().contains(namaKecil)) {
+                hasil.add(produk);
+            }
+        }
+        return hasil;
+    }
+
+    @Override
+    public List<Produk> cariByKategori(String kategori) {
+        List<Produk> hasil = new ArrayList<>();
+        for (Produk produk : tampilan.values()) {
+            if (kategori != null && kategori.equalsIgnoreCase(produk.getKategori())) {
+                hasil.add(produk);
+            }
+        }
+        return hasil;
+    }
+
+    @Override
+    public List<Produk> cariProdukStokMenipis() {
+        List<Produk> hasil = new ArrayList<>();
+        for (Produk produk : tampilan.values()) {
+            if (produk.isStokMenipis()) {
+                hasil.add(produk);
+            }
+        }
+        return hasil;
+    }
+
+    @Override
+    public List<Produk> cariProdukStokHabis() {
+        List<Produk> hasil = new ArrayList<>();
+        for (Produk produk : tampilan.values()) {
+            if (produk.isStokHabis()) {
+                hasil.add(produk);
+            }
+        }
+        return hasil;
+    }
+
+    @Override
+    public List<Produk> cariSemua() {
+        return new ArrayList<>(tampilan.values());
+    }
+
+    @Override
+    public void telusuriSemua(Consumer<Produk> konsumen) {
+        tampilan.values().forEach(konsumen);
+    }
+
+    /**
+     * Mengirim semua kode yang kotor ke repository tujuan. Penulisan yang melempar exception
+     * dikembalikan ke penanda kotor untuk dicoba lagi pada penyaluran berikutnya, lalu
+     * exception pertama dilempar ulang setelah semua kode lain dicoba. Penulisan yang ditolak
+     * tujuan (mengembalikan false) hanya dihitung di {@link #getJumlahGagal()}.
+     * @return Jumlah kode yang dikirim.
+     */
+    public synchronized int salurkan() {
+        salurDipicu.set(false);
+        List<Produk> batch = new ArrayList<>(ukuranBatch);
+        RuntimeException kesalahan = null;
+        int jumlah = 0;
+        for (String kode : kotor.keySet()) {
+            JenisTertunda jenis = kotor.remove(kode);
+            if (jenis == null) {
+                continue;
+            }
+            // Status dibaca setelah penanda diambil. Penulisan menandai kotor setelah nilainya
+            // terpasang di tampilan, jadi perubahan yang belum terbaca di sini pasti menandai ulang
+            Produk produk = tampilan.get(kode);
+            jumlah++;
+            try {
+                if (produk == null) {
+                    tulis(tujuan.hapus(kode) || tujuan.cariByKode(kode).isEmpty());
+                } else if (jenis == JenisTertunda.STOK && tujuan.updateStok(kode, produk.getStok())) {
+                    jumlahPenulisan.increment();
+                } else {
+                    // Produk baru, atau tujuan belum mengenal kode ini
+                    batch.add(new Produk(produk));
+                    if (batch.size() == ukuranBatch) {
+                        kirimBatch(batch);
+                    }
+                }
+            } catch (RuntimeException e) {
+                tandai(kode, jenis);
+                if (kesalahan == null) {
+                    kesalahan = e;
+                }
+            }
+        }
+        try {
+            kirimBatch(batch);
+        } catch (RuntimeException e) {
+            if (kesalahan == null) {
+                kesalahan = e;
+            }
+        }
+        if (kesalahan != null) {
+            kesalahanTerakhir = kesalahan;
+            throw kesalahan;
+        }
+        return jumlah;
+    }
+
+    /**
+     * @return Jumlah kode yang perubahannya belum dikirim ke tujuan.
+     */
+    public int getJumlahTertunda() {
+        return kotor.size();
+    }
+
+    /**
+     * @return Jumlah penulisan yang berhasil dikirim ke tujuan (satu per kode).
+     */
+    public long getJumlahPenulisan() {
+        return jumlahPenulisan.sum();
+    }
+
+    /**
+     * @return Jumlah penulisan yang ditolak oleh tujuan.
+     */
+    public long getJumlahGagal() {
+        return jumlahGagal.sum();
+    }
+
+    /**
+     * @return Exception terakhir dari penyaluran, atau null.
+     */
+    public RuntimeException getKesalahanTerakhir() {
+        return kesalahanTerakhir;
+    }
+
+    /**
+     * Menghentikan penyaluran berkala lalu mengirim semua perubahan yang tersisa.
+     * Penulisan setelah ditutup ditolak dengan IllegalStateException; pembacaan tetap bisa.
+     * @throws RuntimeException dari repository tujuan jika penyaluran terakhir gagal
+     *         (perubahan yang gagal tetap tertunda dan bisa dikirim dengan {@link #salurkan()}).
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (tertutup) {
+                return;
+            }
+            // Menunggu penulisan yang sedang berjalan selesai; penulisan berikutnya langsung ditolak
+            kunciTutup.writeLock().lock();
+            try {
+                tertutup = true;
+            } finally {
+                kunciTutup.writeLock().unlock();
+            }
+            if (penyalur != null) {
+                penyalur.shutdown();
+            }
+        }
+        if (penyalur != null) {
+            try {
+                penyalur.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        salurkan();
+    }
+
+    private void kirimBatch(List<Produk> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            int tersimpan = tujuan.simpanBatch(batch);
+            jumlahPenulisan.add(tersimpan);
+            jumlahGagal.add(batch.size() - tersimpan);
+        } catch (RuntimeException e) {
+            for (Produk produk : batch) {
+                tandai(produk.getKode(), JenisTertunda.SIMPAN);
+            }
+            throw e;
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private void tulis(boolean berhasil) {
+        if (berhasil) {
+            jumlahPenulisan.increment();
+        } else {
+            jumlahGagal.increment();
+        }
+    }
+
+    private void tandai(String kode, JenisTertunda jenis) {
+        kotor.merge(kode, jenis, RepositoryProdukWriteBehind::gabung);
+    }
+
+    /**
+     * Perubahan terakhir menentukan, kecuali perubahan stok setelah simpan tetap simpan.
+     */
+    private static JenisTertunda gabung(JenisTertunda lama, JenisTertunda baru) {
+        return baru == JenisTertunda.STOK && lama == JenisTertunda.SIMPAN ? lama : baru;
+    }
+
+    private void periksaAmbang() {
+        ScheduledExecutorService s = penyalur;
+        if (s != null && kotor.size() >= ambangSalur && salurDipicu.compareAndSet(false, true)) {
+            try {
+                s.execute(this::salurkanTerjadwal);
+            } catch (RejectedExecutionException e) {
+                // Sedang ditutup: close() menyalurkan sisanya
+            }
+        }
+    }
+
+    private void salurkanTerjadwal() {
+        try {
+            salurkan();
+        } catch (RuntimeException e) {
+            // Sudah dicatat di kesalahanTerakhir; kode yang gagal dicoba lagi pada jadwal berikutnya
+        }
+    }
+
+    /**
+     * Mengambil kunci baca penulisan dan memastikan repository belum ditutup.
+     * @return Kunci yang harus dilepas pemanggil setelah penulisan selesai.
+     */
+    private Lock masukTulis() {
+        Lock kunci = kunciTutup.readLock();
+        kunci.lock();
+        if (tertutup) {
+            kunci.unlock();
+            throw new IllegalStateException("Repository sudah ditutup");
+        }
+        return kunci;
+    }
+}
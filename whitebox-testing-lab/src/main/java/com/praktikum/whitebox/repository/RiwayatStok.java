@@ -0,0 +1,347 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Riwayat level stok per kode produk, disimpan terkompresi di memori.
+ * <p>
+ * Didaftarkan sebagai {@link PendengarPerubahan} pada repository (lihat
+ * RepositoryProdukInMemory.tambahPendengar), lalu mencatat satu titik (waktu, stok) setiap
+ * kali stok suatu produk berubah. Penghapusan produk tidak dicatat; riwayatnya tetap ada.
+ * <p>
+ * Titik-titik satu kode disimpan dalam blok append-only berisi paling banyak 256 titik.
+ * Titik pertama blok disimpan utuh di metadata blok; titik berikutnya dikodekan sebagai
+ * delta-of-delta waktu dan delta stok, masing-masing zigzag varint. Pergerakan stok yang
+ * terjadi dengan jeda teratur dan jumlah kecil hanya memakan 2-4 byte per titik.
+ * Pencarian titik waktu memakai pencarian biner atas waktu awal blok, lalu mendekode
+ * satu blok saja.
+ */
+public class RiwayatStok implements PendengarPerubahan {
+
+    static final int TITIK_PER_BLOK = 256;
+
+    /**
+     * Satu titik riwayat.
+     */
+    public static final class TitikStok {
+        private final long waktuMillis;
+        private final int stok;
+
+        TitikStok(long waktuMillis, int stok) {
+            this.waktuMillis = waktuMillis;
+            this.stok = stok;
+        }
+
+        public long getWaktuMillis() {
+            return waktuMillis;
+        }
+
+        public int getStok() {
+            return stok;
+        }
+
+        @Override
+        public String toString() {
+            return "TitikStok{waktuMillis=" + waktuMillis + ", stok=" + stok + '}';
+        }
+    }
+
+    /**
+     * Satu blok titik. Hanya blok terakhir suatu seri yang masih ditambah.
+     */
+    private static final class Blok {
+        final long waktuAwal;
+        final int stokAwal;
+        byte[] data = new byte[32];
+        int panjang;
+        int jumlah = 1;
+        long waktuAkhir;
+        long deltaWaktuAkhir;
+        int stokAkhir;
+
+        Blok(long waktu, int stok) {
+            this.waktuAwal = waktu;
+            this.stokAwal = stok;
+            this.waktuAkhir = waktu;
+            this.stokAkhir = stok;
+        }
+
+        void tambah(long waktu, int stok) {
+            long deltaWaktu = waktu - waktuAkhir;
+            if (data.length - panjang < 20) { // Dua varint terpanjang: 10 + 5 byte
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            panjang = tulisVarint(data, panjang, zigzag(deltaWaktu - deltaWaktuAkhir));
+            panjang = tulisVarint(data, panjang, zigzag((long) stok - stokAkhir));
+            deltaWaktuAkhir = deltaWaktu;
+            waktuAkhir = waktu;
+            stokAkhir = stok;
+            jumlah++;
+        }
+
+        void tutup() {
+            data = Arrays.copyOf(data, panjang);
+        }
+    }
+
+    /**
+     * Pembaca berurutan atas satu blok.
+     */
+    private static final class PembacaBlok {
+        private final Blok blok;
+        private int posisi;
+        private int dibaca;
+        long waktu;
+        int stok;
+        private long deltaWaktu;
+
+        PembacaBlok(Blok blok) {
+            this.blok = blok;
+        }
+
+        boolean berikutnya() {
+            if (dibaca == blok.jumlah) {
+                return false;
+            }
+            if (dibaca == 0) {
+                waktu = blok.waktuAwal;
+                stok = blok.stokAwal;
+            } else {
+                long dod = 0;
+                int geser = 0;
+                byte b;
+                do {
+                    b = blok.data[posisi++];
+                    dod |= (long) (b & 0x7F) << geser;
+                    geser += 7;
+                } while (b < 0);
+                long deltaStok = 0;
+                geser = 0;
+                do {
+                    b = blok.data[posisi++];
+                    deltaStok |= (long) (b & 0x7F) << geser;
+                    geser += 7;
+                } while (b < 0);
+                deltaWaktu += unzigzag(dod);
+                waktu += deltaWaktu;
+                stok += (int) unzigzag(deltaStok);
+            }
+            dibaca++;
+            return true;
+        }
+    }
+
+    /**
+     * Seluruh blok satu kode; diakses dengan mengunci objek seri.
+     */
+    private static final class Seri {
+        final List<Blok> blok = new ArrayList<>();
+        long jumlahTitik;
+
+        void tambah(long waktu, int stok) {
+            Blok terakhir = blok.isEmpty() ? null : blok.get(blok.size() - 1);
+            if (terakhir != null) {
+                if (terakhir.stokAkhir == stok) {
+                    return; // Tidak ada perubahan level stok
+                }
+                waktu = Math.max(waktu, terakhir.waktuAkhir); // Jam mundur tidak merusak urutan
+                if (terakhir.jumlah < TITIK_PER_BLOK) {
+                    terakhir.tambah(waktu, stok);
+                    jumlahTitik++;
+                    return;
+                }
+                terakhir.tutup();
+            }
+            blok.add(new Blok(waktu, stok));
+            jumlahTitik++;
+        }
+
+        /**
+         * @return Indeks blok terakhir dengan waktuAwal <= waktu, atau -1.
+         */
+        int cariBlok(long waktu) {
+            int kiri = 0;
+            int kanan = blok.size() - 1;
+            int hasil = -1;
+            while (kiri <= kanan) {
+                int tengah = (kiri + kanan) >>> 1;
+                if (blok.get(tengah).waktuAwal <= waktu) {
+                    hasil = tengah;
+                    kiri = tengah + 1;
+                } else {
+                    kanan = tengah - 1;
+                }
+            }
+            return hasil;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Seri> seri = new ConcurrentHashMap<>();
+    private final LongSupplier jamMillis;
+
+    public RiwayatStok() {
+        this(System::currentTimeMillis);
+    }
+
+    /**
+     * @param jamMillis Sumber waktu untuk perubahan yang diterima sebagai pendengar.
+     */
+    public RiwayatStok(LongSupplier jamMillis) {
+        this.jamMillis = jamMillis;
+    }
+
+    @Override
+    public void diubah(JenisPerubahan jenis, String kode, Produk produk) {
+        if (produk != null) {
+            catat(kode, jamMillis.getAsLong(), produk.getStok());
+        }
+    }
+
+    /**
+     * Mencatat level stok suatu kode pada waktu tertentu. Level yang sama dengan titik
+     * terakhir diabaikan; waktu yang lebih awal dari titik terakhir dianggap sama dengannya.
+     * @param kode Kode produk.
+     * @param waktuMillis Waktu perubahan.
+     * @param stok Level stok setelah perubahan.
+     */
+    public void catat(String kode, long waktuMillis, int stok) {
+        Seri s = seri.computeIfAbsent(kode, k -> new Seri());
+        synchronized (s) {
+            s.tambah(waktuMillis, stok);
+        }
+    }
+
+    /**
+     * @param kode Kode produk.
+     * @param waktuMillis Titik waktu.
+     * @return Level stok yang berlaku pada waktu tersebut, atau kosong jika belum ada riwayat
+     *         sebelum waktu itu (atau riwayat itu sudah dibuang).
+     */
+    public OptionalInt stokPada(String kode, long waktuMillis) {
+        Seri s = kode == null ? null : seri.get(kode);
+        if (s == null) {
+            return OptionalInt.empty();
+        }
+        synchronized (s) {
+            int indeks = s.cariBlok(waktuMillis);
+            if (indeks < 0) {
+                return OptionalInt.empty();
+            }
+            Blok blok = s.blok.get(indeks);
+            if (blok.waktuAkhir <= waktuMillis) {
+                return OptionalInt.of(blok.stokAkhir);
+            }
+            PembacaBlok pembaca = new PembacaBlok(blok);
+            int stok = blok.stokAwal;
+            while (pembaca.berikutnya() && pembaca.waktu <= waktuMillis) {
+                stok = pembaca.stok;
+            }
+            return OptionalInt.of(stok);
+        }
+    }
+
+    /**
+     * Mengambil titik-titik riwayat dengan waktu di antara dari dan sampai (inklusif).
+     * Level yang berlaku tepat pada waktu dari bisa diambil dengan {@link #stokPada}.
+     * @return List titik terurut menurut waktu, kosong jika tidak ada.
+     */
+    public List<TitikStok> rentang(String kode, long dariMillis, long sampaiMillis) {
+        List<TitikStok> hasil = new ArrayList<>();
+        Seri s = kode == null ? null : seri.get(kode);
+        if (s == null || dariMillis > sampaiMillis) {
+            return hasil;
+        }
+        synchronized (s) {
+            int indeks = Math.max(0, s.cariBlok(dariMillis));
+            for (int i = indeks; i < s.blok.size(); i++) {
+                Blok blok = s.blok.get(i);
+                if (blok.waktuAwal > sampaiMillis) {
+                    break;
+                }
+                if (blok.waktuAkhir < dariMillis) {
+                    continue;
+                }
+                PembacaBlok pembaca = new PembacaBlok(blok);
+                while (pembaca.berikutnya() && pembaca.waktu <= sampaiMillis) {
+                    if (pembaca.waktu >= dariMillis) {
+                        hasil.add(new TitikStok(pembaca.waktu, pembaca.stok));
+                    }
+                }
+            }
+        }
+        return hasil;
+    }
+
+    /**
+     * Membuang blok yang seluruh titiknya lebih awal dari batas waktu (retensi). Titik terakhir
+     * setiap kode selalu dipertahankan agar stokPada tetap tahu level terakhir.
+     * @param batasMillis Titik yang lebih awal dari waktu ini boleh dibuang.
+     * @return Jumlah titik yang dibuang.
+     */
+    public long buangSebelum(long batasMillis) {
+        long dibuang = 0;
+        for (Seri s : seri.values()) {
+            synchronized (s) {
+                int jumlahBlok = 0;
+                while (jumlahBlok < s.blok.size() - 1 && s.blok.get(jumlahBlok + 1).waktuAwal <= batasMillis) {
+                    dibuang += s.blok.get(jumlahBlok).jumlah;
+                    s.jumlahTitik -= s.blok.get(jumlahBlok).jumlah;
+                    jumlahBlok++;
+                }
+                s.blok.subList(0, jumlahBlok).clear();
+            }
+        }
+        return dibuang;
+    }
+
+    /**
+     * @return Jumlah titik yang tersimpan untuk kode tersebut.
+     */
+    public long getJumlahTitik(String kode) {
+        Seri s = kode == null ? null : seri.get(kode);
+        if (s == null) {
+            return 0;
+        }
+        synchronized (s) {
+            return s.jumlahTitik;
+        }
+    }
+
+    /**
+     * @return Total byte data titik terkompresi (tanpa metadata blok) untuk semua kode.
+     */
+    public long getUkuranBytes() {
+        long total = 0;
+        for (Seri s : seri.values()) {
+            synchronized (s) {
+                for (Blok blok : s.blok) {
+                    total += blok.panjang;
+                }
+            }
+        }
+        return total;
+    }
+
+    private static long zigzag(long nilai) {
+        return (nilai << 1) ^ (nilai >> 63);
+    }
+
+    private static long unzigzag(long nilai) {
+        return (nilai >>> 1) ^ -(nilai & 1);
+    }
+
+    private static int tulisVarint(byte[] tujuan, int posisi, long nilai) {
+        while ((nilai & ~0x7FL) != 0) {
+            tujuan[posisi++] = (byte) ((nilai & 0x7F) | 0x80);
+            nilai >>>= 7;
+        }
+        tujuan[posisi++] = (byte) nilai;
+        return posisi;
+    }
+}
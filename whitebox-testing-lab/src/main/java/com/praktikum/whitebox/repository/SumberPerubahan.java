@@ -0,0 +1,29 @@
+package com.praktikum.whitebox.repository;
+
+import java.util.List;
+
+/**
+ * Sumber entri perubahan produk yang terurut tanpa celah, untuk dibaca replika.
+ */
+public interface SumberPerubahan {
+
+    /**
+     * @param dariUrutan Urutan entri pertama yang ingin dibaca.
+     * @param maksimum Jumlah entri maksimum yang dikembalikan.
+     * @return Entri dengan urutan dariUrutan, dariUrutan + 1, dan seterusnya; kosong jika
+     *         belum ada entri baru.
+     */
+    List<PerubahanProduk> baca(long dariUrutan, int maksimum);
+
+    /**
+     * @return Batas urutan (eksklusif) yang saat ini sudah bisa dibaca.
+     */
+    long getUrutanTersalur();
+
+    /**
+     * @return Urutan entri tertua yang masih bisa dibaca. Bawaannya 0: seluruh riwayat disimpan.
+     */
+    default long getUrutanAwal() {
+        return 0;
+    }
+}
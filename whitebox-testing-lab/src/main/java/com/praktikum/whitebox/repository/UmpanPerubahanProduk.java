@@ -0,0 +1,649 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Umpan perubahan produk (change data capture) yang terurut dan bernomor urut.
+ * <p>
+ * Didaftarkan sebagai {@link PendengarPerubahan} pada repository. Setiap perubahan
+ * mendapat nomor urut global dan diletakkan di ring buffer berukuran tetap tanpa
+ * mengunci: penulis repository hanya melakukan satu increment atomik dan satu CAS.
+ * Satu penyalur (thread latar belakang setelah {@link #mulai()}, atau {@link #salurkan()}
+ * secara manual) memindahkan entri secara berurutan ke file append-only.
+ * <p>
+ * Jika penyalur tertinggal sampai ring buffer penuh, entri baru dititipkan ke map luapan
+ * alih-alih menunggu slot kosong, sehingga penulis tidak terblokir dan tidak ada entri yang
+ * hilang. Luapan dibatasi: setelah batasnya tercapai (misalnya disk penuh), perubahan tidak
+ * lagi mendapat nomor urut sendiri, melainkan hanya dicatat per kode di map tertinggal (produk
+ * terkini atau penanda hapus), yang ukurannya paling banyak sejumlah produk. Penyalur
+ * menyusulkannya begitu ada ruang sebagai satu entri UBAH/HAPUS per kode berisi keadaan saat
+ * itu, sehingga konsumen tetap berakhir pada keadaan yang sama dengan repository. Penulis
+ * tidak pernah memblokir maupun menerima exception dari umpan.
+ * <p>
+ * Penyaluran yang gagal tidak menghilangkan entri: posisi file dikembalikan dan semua entri
+ * dicoba lagi pada penyaluran berikutnya. Penyalur otomatis mencatat kesalahannya di
+ * {@link #getKesalahanTerakhir()} lalu tetap berjalan.
+ * <p>
+ * Konsumen membaca dengan {@link #baca(long, int)} mulai dari urutan tertentu; entri
+ * terbaru diambil dari ring buffer, entri lama dari file. Hanya entri yang sudah tersalur
+ * ke file yang terlihat, sehingga umpan yang dibaca selalu tanpa celah. Setelah restart,
+ * membuka file yang sama memulihkan urutan dan konsumen dapat melanjutkan dari offset
+ * terakhir yang mereka proses.
+ * <p>
+ * Format file: untuk setiap entri int panjang isi, lalu long urutan, byte jenis, kode
+ * (int panjang UTF-8 + byte, -1 untuk null), kemudian untuk SISIP/UBAH nama, kategori,
+ * double harga, int stok, int stokMinimum, byte aktif; untuk STOK dan HAPUS int stok.
+ */
+public class UmpanPerubahanProduk implements PendengarPerubahan, SumberPerubahan, AutoCloseable {
+
+    public static final int KAPASITAS_DEFAULT = 4096;
+    public static final long INTERVAL_SALUR_DEFAULT_MILLIS = 50;
+    public static final int BATAS_LUAPAN_DEFAULT = 256 * 1024;
+
+    private static final int JARAK_INDEKS = 64; // Satu posisi file dicatat setiap 64 entri
+    private static final int UKURAN_BUFFER = 64 * 1024;
+    private static final Produk DIHAPUS = new Produk(); // Penanda hapus di map tertinggal
+
+    private final AtomicReferenceArray<PerubahanProduk> cincin;
+    private final int maskCincin;
+    private final AtomicLong urutanBerikutnya;
+    private final ConcurrentHashMap<Long, PerubahanProduk> luapan = new ConcurrentHashMap<>();
+    private final LongAdder jumlahLuapan = new LongAdder();
+    // Kode yang perubahannya belum mendapat nomor urut karena batas luapan tercapai.
+    // Hanya dilepas oleh susulkanTertinggal (di dalam salurkan).
+    private final ConcurrentHashMap<String, Produk> tertinggal = new ConcurrentHashMap<>();
+    private final LongAdder jumlahTertinggal = new LongAdder();
+    private final LongAdder jumlahGagal = new LongAdder();
+    private final long intervalSalurMillis;
+    private final long batasTertunda; // Slot ring buffer + batas luapan
+    private volatile RuntimeException kesalahanTerakhir;
+
+    private final FileChannel channel;
+    private ByteBuffer bufferTulis = ByteBuffer.allocate(UKURAN_BUFFER);
+    private long posisiFile;
+    private boolean perluPotong; // Sisa penyaluran gagal masih ada di file setelah posisiFile
+
+    // indeks[k] = posisi file entri berurutan k * JARAK_INDEKS. Diperbarui sebelum
+    // urutanTersalur dinaikkan, sehingga pembaca yang membaca urutanTersalur lebih dulu
+    // selalu melihat indeks yang lengkap.
+    private long[] indeks = new long[64];
+    private int jumlahIndeks;
+    private volatile long urutanTersalur; // Semua entri dengan urutan < nilai ini sudah di file
+    private volatile boolean tertutup;
+
+    private ScheduledExecutorService penyalur;
+
+    /**
+     * Membuka (atau membuat) umpan perubahan dengan kapasitas dan interval default.
+     * @param file File tempat entri disalurkan.
+     * @throws IOException jika file tidak dapat dibuka atau dibaca.
+     */
+    public UmpanPerubahanProduk(Path file) throws IOException {
+        this(file, KAPASITAS_DEFAULT, INTERVAL_SALUR_DEFAULT_MILLIS);
+    }
+
+    /**
+     * @param file File tempat entri disalurkan. Jika sudah berisi, urutan dilanjutkan dari
+     *             entri terakhir; entri terakhir yang tidak lengkap (crash saat menulis) dibuang.
+     * @param kapasitas Jumlah slot ring buffer (dibulatkan ke pangkat dua).
+     * @param intervalSalurMillis Jeda penyaluran otomatis setelah {@link #mulai()}.
+     * @throws IOException jika file tidak dapat dibuka atau dibaca.
+     * @throws IllegalArgumentException jika kapasitas atau interval tidak positif.
+     */
+    public UmpanPerubahanProduk(Path file, int kapasitas, long intervalSalurMillis) throws IOException {
+        this(file, kapasitas, intervalSalurMillis, BATAS_LUAPAN_DEFAULT);
+    }
+
+    /**
+     * @param file File tempat entri disalurkan (lihat konstruktor lain).
+     * @param kapasitas Jumlah slot ring buffer (dibulatkan ke pangkat dua).
+     * @param intervalSalurMillis Jeda penyaluran otomatis setelah {@link #mulai()}.
+     * @param batasLuapan Jumlah entri maksimum di map luapan; perubahan berikutnya digabung per
+     *                    kode sampai penyalur menyusul.
+     * @throws IOException jika file tidak dapat dibuka atau dibaca.
+     * @throws IllegalArgumentException jika kapasitas, interval, atau batas luapan tidak positif.
+     */
+    public UmpanPerubahanProduk(Path file, int kapasitas, long intervalSalurMillis, int batasLuapan)
+            throws IOException {
+        this(buka(file, kapasitas, intervalSalurMillis, batasLuapan), kapasitas, intervalSalurMillis, batasLuapan);
+    }
+
+    /**
+     * Konstruktor dengan channel yang sudah dibuka, agar test bisa menyisipkan channel yang gagal.
+     * Channel ditutup jika pemulihan gagal.
+     */
+    UmpanPerubahanProduk(FileChannel channel, int kapasitas, long intervalSalurMillis, int batasLuapan)
+            throws IOException {
+        validasi(kapasitas, intervalSalurMillis, batasLuapan);
+        int ukuranCincin = Integer.highestOneBit(Math.max(1, kapasitas - 1)) << 1;
+        this.cincin = new AtomicReferenceArray<>(ukuranCincin);
+        this.maskCincin = ukuranCincin - 1;
+        this.intervalSalurMillis = intervalSalurMillis;
+        this.batasTertunda = (long) ukuranCincin + batasLuapan;
+        this.channel = channel;
+        try {
+            pulihkan();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        this.urutanBerikutnya = new AtomicLong(urutanTersalur);
+    }
+
+    /**
+     * Mencatat satu perubahan. Dipanggil oleh repository; tidak pernah memblokir dan tidak
+     * melempar exception.
+     */
+    @Override
+    public void diubah(JenisPerubahan jenis, String kode, Produk produk) {
+        if (tertutup) {
+            return;
+        }
+        // Selama masih ada yang tertinggal, perubahan berikutnya ikut digabung agar urutan per kode terjaga
+        if (!tertinggal.isEmpty() || urutanBerikutnya.get() - urutanTersalur >= batasTertunda) {
+            tertinggal.put(kode, jenis == JenisPerubahan.HAPUS ? DIHAPUS : produk);
+            jumlahTertinggal.increment();
+            return;
+        }
+        long urutan = urutanBerikutnya.getAndIncrement();
+        PerubahanProduk perubahan = switch (jenis) {
+            // Salinan diperlukan: objek produk milik repository masih akan diubah di tempat
+            case SISIP, UBAH -> new PerubahanProduk(urutan, jenis, kode, new Produk(produk), produk.getStok());
+            case STOK -> new PerubahanProduk(urutan, jenis, kode, null, produk.getStok());
+            case HAPUS -> new PerubahanProduk(urutan, jenis, kode, null, 0);
+        };
+        titipkan(urutan, perubahan);
+    }
+
+    /**
+     * Menjalankan penyalur otomatis di satu thread daemon.
+     */
+    public synchronized void mulai() {
+        if (penyalur != null || tertutup) {
+            return;
+        }
+        penyalur = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "penyalur-umpan-perubahan");
+            thread.setDaemon(true);
+            return thread;
+        });
+        penyalur.scheduleWithFixedDelay(this::salurkanTerjadwal, intervalSalurMillis, intervalSalurMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Menyalurkan entri yang sudah lengkap secara berurutan ke file. Berhenti di celah
+     * pertama (entri yang nomornya sudah diambil tetapi belum selesai dicatat). Jika ada kode
+     * yang tertinggal, kode itu lalu disusulkan sebanyak ruang yang tersedia. Jika penulisan
+     * gagal, posisi file dikembalikan dan semua entri tetap menunggu penyaluran berikutnya.
+     * @return Jumlah entri yang disalurkan.
+     * @throws UncheckedIOException jika penulisan file gagal (dicatat di {@link #getKesalahanTerakhir()}).
+     */
+    public synchronized int salurkan() {
+        if (tertutup) {
+            return 0;
+        }
+        int jumlah = salurkanBerurutan();
+        if (!tertinggal.isEmpty()) {
+            susulkanTertinggal();
+            jumlah += salurkanBerurutan();
+        }
+        return jumlah;
+    }
+
+    private int salurkanBerurutan() {
+        long awal = urutanTersalur;
+        long urutan = awal;
+        long posisiAwal = posisiFile;
+        int jumlahIndeksAwal = jumlahIndeks;
+        try {
+            if (perluPotong) {
+                channel.truncate(posisiFile);
+                perluPotong = false;
+            }
+            while (true) {
+                int slot = (int) (urutan & maskCincin);
+                PerubahanProduk perubahan = cincin.get(slot);
+                if (perubahan == null || perubahan.getUrutan() != urutan) {
+                    // Belum dilepas dari luapan sampai tersalur, agar bisa diulang jika gagal
+                    perubahan = luapan.get(urutan);
+                    if (perubahan == null) {
+                        break;
+                    }
+                }
+                tulisEntri(perubahan);
+                urutan++;
+            }
+            kosongkanBufferTulis();
+        } catch (IOException e) {
+            batalkanPenyaluran(posisiAwal, jumlahIndeksAwal);
+            UncheckedIOException kesalahan = new UncheckedIOException(e);
+            jumlahGagal.increment();
+            kesalahanTerakhir = kesalahan;
+            throw kesalahan;
+        }
+        urutanTersalur = urutan;
+        if (!luapan.isEmpty()) {
+            long batas = urutan;
+            luapan.keySet().removeIf(u -> u < batas);
+        }
+        return (int) (urutan - awal);
+    }
+
+    /**
+     * Membaca entri umpan secara berurutan.
+     * @param dariUrutan Urutan entri pertama yang ingin dibaca (offset konsumen).
+     * @param maksimum Jumlah entri maksimum yang dikembalikan.
+     * @return Entri dengan urutan dariUrutan, dariUrutan + 1, dan seterusnya yang sudah
+     *         tersalur; kosong jika belum ada entri baru.
+     * @throws IllegalArgumentException jika dariUrutan negatif atau maksimum tidak positif.
+     * @throws IllegalStateException jika umpan sudah ditutup.
+     * @throws UncheckedIOException jika pembacaan file gagal.
+     */
+    @Override
+    public List<PerubahanProduk> baca(long dariUrutan, int maksimum) {
+        if (dariUrutan < 0 || maksimum <= 0) {
+            throw new IllegalArgumentException("Urutan tidak boleh negatif dan maksimum harus positif");
+        }
+        if (tertutup) {
+            throw new IllegalStateException("Umpan perubahan sudah ditutup");
+        }
+        long batas = Math.min(urutanTersalur, dariUrutan + maksimum);
+        List<PerubahanProduk> hasil = new ArrayList<>((int) Math.max(0, batas - dariUrutan));
+        long urutan = dariUrutan;
+        while (urutan < batas) {
+            PerubahanProduk perubahan = cincin.get((int) (urutan & maskCincin));
+            if (perubahan == null || perubahan.getUrutan() != urutan) {
+                // Sudah tertimpa di ring buffer: sisanya dibaca dari file
+                bacaDariFile(urutan, batas, hasil);
+                break;
+            }
+            hasil.add(perubahan);
+            urutan++;
+        }
+        return hasil;
+    }
+
+    /**
+     * @return Urutan yang akan diberikan ke perubahan berikutnya.
+     */
+    public long getUrutanBerikutnya() {
+        return urutanBerikutnya.get();
+    }
+
+    /**
+     * @return Batas urutan yang sudah tersalur ke file (eksklusif).
+     */
+    @Override
+    public long getUrutanTersalur() {
+        return urutanTersalur;
+    }
+
+    /**
+     * @return Berapa kali entri harus dititipkan ke map luapan karena ring buffer penuh.
+     */
+    public long getJumlahLuapan() {
+        return jumlahLuapan.sum();
+    }
+
+    /**
+     * @return Jumlah perubahan yang digabung per kode karena batas luapan tercapai.
+     */
+    public long getJumlahTertinggal() {
+        return jumlahTertinggal.sum();
+    }
+
+    /**
+     * @return Jumlah penyaluran ke file yang gagal.
+     */
+    public long getJumlahGagal() {
+        return jumlahGagal.sum();
+    }
+
+    /**
+     * @return Exception terakhir dari penyaluran, atau null.
+     */
+    public RuntimeException getKesalahanTerakhir() {
+        return kesalahanTerakhir;
+    }
+
+    /**
+     * Menghentikan penyalur otomatis, menyalurkan sisa entri, lalu menutup file.
+     * Perubahan yang datang setelah ditutup diabaikan.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (tertutup) {
+            return;
+        }
+        if (penyalur != null) {
+            penyalur.shutdownNow();
+            penyalur = null;
+        }
+        try {
+            int jumlah;
+            do {
+                jumlah = salurkan();
+            } while (jumlah > 0 && !tertinggal.isEmpty());
+            channel.force(false);
+        } finally {
+            tertutup = true;
+            channel.close();
+        }
+    }
+
+    private void salurkanTerjadwal() {
+        try {
+            salurkan();
+        } catch (RuntimeException e) {
+            // Sudah dicatat di kesalahanTerakhir; entri yang tertunda dicoba lagi pada jadwal berikutnya
+        }
+    }
+
+    /**
+     * Meletakkan entri bernomor urut di ring buffer, atau di map luapan jika slotnya belum tersalur.
+     */
+    private void titipkan(long urutan, PerubahanProduk perubahan) {
+        int slot = (int) (urutan & maskCincin);
+        PerubahanProduk lama = cincin.get(slot);
+        // Slot hanya boleh ditimpa jika isinya sudah tersalur ke file
+        if ((lama == null || lama.getUrutan() < urutanTersalur) && cincin.compareAndSet(slot, lama, perubahan)) {
+            return;
+        }
+        luapan.put(urutan, perubahan);
+        jumlahLuapan.increment();
+    }
+
+    /**
+     * Memberi nomor urut kepada kode yang tertinggal, sebanyak ruang yang tersedia. Nomor urut
+     * diambil sebelum kodenya dilepas dari map, sehingga perubahan yang datang sesudah dilepas
+     * selalu mendapat urutan lebih besar; keadaan produk disalin saat itu juga.
+     */
+    private void susulkanTertinggal() {
+        long ruang = batasTertunda - (urutanBerikutnya.get() - urutanTersalur);
+        Iterator<String> daftarKode = tertinggal.keySet().iterator();
+        while (ruang-- > 0 && daftarKode.hasNext()) {
+            String kode = daftarKode.next();
+            long urutan = urutanBerikutnya.getAndIncrement();
+            Produk produk = tertinggal.remove(kode); // Tidak null: hanya dilepas di sini
+            PerubahanProduk perubahan;
+            if (produk == DIHAPUS) {
+                perubahan = new PerubahanProduk(urutan, JenisPerubahan.HAPUS, kode, null, 0);
+            } else {
+                Produk salinan = new Produk(produk);
+                perubahan = new PerubahanProduk(urutan, JenisPerubahan.UBAH, kode, salinan, salinan.getStok());
+            }
+            titipkan(urutan, perubahan);
+        }
+    }
+
+    private static FileChannel buka(Path file, int kapasitas, long intervalSalurMillis, int batasLuapan)
+            throws IOException {
+        validasi(kapasitas, intervalSalurMillis, batasLuapan);
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static void validasi(int kapasitas, long intervalSalurMillis, int batasLuapan) {
+        if (kapasitas <= 0 || intervalSalurMillis <= 0 || batasLuapan <= 0) {
+            throw new IllegalArgumentException("Kapasitas, interval salur, dan batas luapan harus positif");
+        }
+    }
+
+    // --- Penulisan ---
+
+    /**
+     * Mengembalikan state penulisan ke sebelum penyaluran yang gagal. Byte yang sempat
+     * tertulis dipotong sekarang atau, jika gagal, di awal penyaluran berikutnya.
+     */
+    private void batalkanPenyaluran(long posisiAwal, int jumlahIndeksAwal) {
+        bufferTulis.clear();
+        posisiFile = posisiAwal;
+        jumlahIndeks = jumlahIndeksAwal;
+        try {
+            channel.truncate(posisiAwal);
+        } catch (IOException e) {
+            perluPotong = true;
+        }
+    }
+
+    private void tulisEntri(PerubahanProduk perubahan) throws IOException {
+        byte[] kode = utf8(perubahan.getKode());
+        Produk produk = perubahan.produkTanpaSalinan();
+        byte[] nama = null;
+        byte[] kategori = null;
+        int ukuranIsi = 8 + 1 + ukuranTeks(kode);
+        if (produk != null) {
+            nama = utf8(produk.getNama());
+            kategori = utf8(produk.getKategori());
+            ukuranIsi += ukuranTeks(nama) + ukuranTeks(kategori) + 8 + 4 + 4 + 1;
+        } else {
+            ukuranIsi += 4;
+        }
+
+        pastikanRuangTulis(4 + ukuranIsi);
+        if (perubahan.getUrutan() % JARAK_INDEKS == 0) {
+            catatIndeks(posisiFile + bufferTulis.position());
+        }
+        bufferTulis.putInt(ukuranIsi);
+        bufferTulis.putLong(perubahan.getUrutan());
+        bufferTulis.put((byte) perubahan.getJenis().ordinal());
+        tulisTeks(kode);
+        if (produk != null) {
+            tulisTeks(nama);
+            tulisTeks(kategori);
+            bufferTulis.putDouble(produk.getHarga());
+            bufferTulis.putInt(produk.getStok());
+            bufferTulis.putInt(produk.getStokMinimum());
+            bufferTulis.put((byte) (produk.isAktif() ? 1 : 0));
+        } else {
+            bufferTulis.putInt(perubahan.getStok());
+        }
+    }
+
+    private void pastikanRuangTulis(int ukuran) throws IOException {
+        if (bufferTulis.remaining() >= ukuran) {
+            return;
+        }
+        kosongkanBufferTulis();
+        if (bufferTulis.capacity() < ukuran) {
+            bufferTulis = ByteBuffer.allocate(Integer.highestOneBit(ukuran) << 1);
+        }
+    }
+
+    private void kosongkanBufferTulis() throws IOException {
+        bufferTulis.flip();
+        while (bufferTulis.hasRemaining()) {
+            posisiFile += channel.write(bufferTulis, posisiFile);
+        }
+        bufferTulis.clear();
+    }
+
+    private void tulisTeks(byte[] teks) {
+        if (teks == null) {
+            bufferTulis.putInt(-1);
+            return;
+        }
+        bufferTulis.putInt(teks.length);
+        bufferTulis.put(teks);
+    }
+
+    private void catatIndeks(long posisi) {
+        if (jumlahIndeks == indeks.length) {
+            indeks = Arrays.copyOf(indeks, indeks.length * 2);
+        }
+        indeks[jumlahIndeks++] = posisi;
+    }
+
+    // --- Pembacaan ---
+
+    /**
+     * Membaca entri [dari, batas) dari file, mulai dari posisi terindeks terdekat.
+     */
+    private void bacaDariFile(long dari, long batas, List<PerubahanProduk> hasil) {
+        long[] indeksSaatIni = indeks;
+        int k = (int) (dari / JARAK_INDEKS);
+        PembacaFile pembaca = new PembacaFile(channel, indeksSaatIni[k]);
+        try {
+            for (long urutan = (long) k * JARAK_INDEKS; urutan < batas; urutan++) {
+                PerubahanProduk perubahan = pembaca.berikutnya();
+                if (urutan >= dari) {
+                    hasil.add(perubahan);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Memindai file yang sudah ada untuk membangun indeks dan melanjutkan urutan.
+     */
+    private void pulihkan() throws IOException {
+        long ukuranFile = channel.size();
+        PembacaFile pembaca = new PembacaFile(channel, 0);
+        long urutan = 0;
+        while (pembaca.posisiEntri() < ukuranFile) {
+            long posisi = pembaca.posisiEntri();
+            if (!pembaca.adaEntriLengkap(ukuranFile)) {
+                channel.truncate(posisi);
+                break;
+            }
+            PerubahanProduk perubahan = pembaca.berikutnya();
+            if (perubahan.getUrutan() != urutan) {
+                throw new IOException("Urutan umpan perubahan rusak pada posisi " + posisi);
+            }
+            if (urutan % JARAK_INDEKS == 0) {
+                catatIndeks(posisi);
+            }
+            urutan++;
+        }
+        posisiFile = pembaca.posisiEntri();
+        urutanTersalur = urutan;
+    }
+
+    /**
+     * Pembaca entri berurutan dari file dengan buffer sendiri (aman dipakai bersamaan
+     * dengan penulisan karena memakai pembacaan posisional). Juga dipakai
+     * PengekorFilePerubahan untuk membaca file milik proses lain.
+     */
+    static final class PembacaFile {
+        private final FileChannel channel;
+        private ByteBuffer buffer = ByteBuffer.allocate(UKURAN_BUFFER);
+        private long posisiBaca; // Posisi file setelah isi buffer
+
+        PembacaFile(FileChannel channel, long posisiAwal) {
+            this.channel = channel;
+            this.posisiBaca = posisiAwal;
+            buffer.limit(0);
+        }
+
+        long posisiEntri() {
+            return posisiBaca - buffer.remaining();
+        }
+
+        boolean adaEntriLengkap(long ukuranFile) throws IOException {
+            long posisi = posisiEntri();
+            if (ukuranFile - posisi < 4) {
+                return false;
+            }
+            isi(4);
+            int ukuranIsi = buffer.getInt(buffer.position());
+            return ukuranIsi > 0 && ukuranFile - posisi - 4 >= ukuranIsi;
+        }
+
+        /**
+         * Melompati satu entri tanpa mendekode isinya.
+         */
+        void lewati() throws IOException {
+            isi(4);
+            int ukuranIsi = buffer.getInt();
+            if (buffer.remaining() >= ukuranIsi) {
+                buffer.position(buffer.position() + ukuranIsi);
+            } else {
+                posisiBaca += ukuranIsi - buffer.remaining();
+                buffer.position(buffer.limit());
+            }
+        }
+
+        PerubahanProduk berikutnya() throws IOException {
+            isi(4);
+            int ukuranIsi = buffer.getInt();
+            isi(ukuranIsi);
+            long urutan = buffer.getLong();
+            JenisPerubahan jenis = JenisPerubahan.dariKode(buffer.get());
+            String kode = bacaTeks();
+            if (jenis == JenisPerubahan.SISIP || jenis == JenisPerubahan.UBAH) {
+                String nama = bacaTeks();
+                String kategori = bacaTeks();
+                double harga = buffer.getDouble();
+                int stok = buffer.getInt();
+                int stokMinimum = buffer.getInt();
+                Produk produk = new Produk(kode, nama, kategori, harga, stok, stokMinimum);
+                produk.setAktif(buffer.get() == 1);
+                return new PerubahanProduk(urutan, jenis, kode, produk, stok);
+            }
+            return new PerubahanProduk(urutan, jenis, kode, null, buffer.getInt());
+        }
+
+        /**
+         * Memastikan sedikitnya n byte tersedia di buffer.
+         */
+        private void isi(int n) throws IOException {
+            if (buffer.remaining() >= n) {
+                return;
+            }
+            if (buffer.capacity() < n) {
+                ByteBuffer lebihBesar = ByteBuffer.allocate(Integer.highestOneBit(n) << 1);
+                lebihBesar.put(buffer);
+                buffer = lebihBesar;
+            } else {
+                buffer.compact();
+            }
+            while (buffer.position() < n) {
+                int dibaca = channel.read(buffer, posisiBaca);
+                if (dibaca < 0) {
+                    throw new IOException("Umpan perubahan terpotong pada posisi " + posisiBaca);
+                }
+                posisiBaca += dibaca;
+            }
+            buffer.flip();
+        }
+
+        private String bacaTeks() {
+            int panjang = buffer.getInt();
+            if (panjang < 0) {
+                return null;
+            }
+            String teks = new String(buffer.array(), buffer.arrayOffset() + buffer.position(),
+                    panjang, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + panjang);
+            return teks;
+        }
+    }
+
+    private static byte[] utf8(String teks) {
+        return teks == null ? null : teks.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int ukuranTeks(byte[] teks) {
+        return 4 + (teks == null ? 0 : teks.length);
+    }
+}
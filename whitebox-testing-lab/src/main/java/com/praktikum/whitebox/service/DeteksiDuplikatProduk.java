@@ -0,0 +1,541 @@
+package com.praktikum.whitebox.service;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.JenisPerubahan;
+import com.praktikum.whitebox.repository.PendengarPerubahan;
+import com.praktikum.whitebox.repository.RepositoryProduk;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pendeteksi produk yang kemungkinan sama tetapi terdaftar dengan kode berbeda, berdasarkan
+ * kemiripan nama (MinHash + locality-sensitive hashing).
+ * <p>
+ * Nama dinormalisasi (huruf kecil, selain huruf/angka menjadi satu spasi) lalu dipecah menjadi
+ * shingle 3 karakter. Tanda tangan MinHash berisi 64 nilai minimum; persentase nilai yang sama
+ * antara dua tanda tangan memperkirakan kemiripan Jaccard kedua himpunan shingle. Tanda tangan
+ * dibagi menjadi 16 band x 4 baris, dan setiap band di-hash ke ember; dua produk baru
+ * dibandingkan hanya jika minimal satu band-nya jatuh di ember yang sama. Dengan begitu satu
+ * produk hanya dibandingkan dengan segelintir kandidat, bukan dengan semua produk, dan
+ * pengindeksan n produk berjalan mendekati O(n). Pasangan dengan kemiripan di bawah ~0,5
+ * jarang menjadi kandidat; kandidat lalu disaring dengan ambang kemiripan.
+ * <p>
+ * Setiap produk terindeks menempati satu slot; ember disimpan dalam tabel hash berkunci
+ * long primitif yang menunjuk ke daftar berantai ganda atas entri (slot, band) di array int,
+ * sehingga indeks tidak membuat objek per ember maupun per entri, dan menghapus produk dari
+ * ember berjalan O(1).
+ * <p>
+ * Jika didaftarkan sebagai {@link PendengarPerubahan}, setiap simpan/hapus hanya dimasukkan ke
+ * antrean tanpa mengunci; pengindeksan dilakukan oleh {@link #proses()} (manual, atau thread
+ * latar belakang setelah {@link #mulai()}), sehingga jalur simpan tidak melambat. Pasangan
+ * baru yang lolos ambang dikumpulkan untuk diambil dengan {@link #ambilPasanganBaru()}.
+ */
+public class DeteksiDuplikatProduk implements PendengarPerubahan, AutoCloseable {
+
+    public static final double AMBANG_DEFAULT = 0.6;
+    public static final long INTERVAL_PROSES_DEFAULT_MILLIS = 100;
+
+    static final int JUMLAH_HASH = 64;
+    static final int JUMLAH_BAND = 16;
+    static final int BARIS_PER_BAND = JUMLAH_HASH / JUMLAH_BAND;
+    private static final int MAKS_PER_EMBER = 64; // Ember yang lebih penuh hanya dibandingkan dengan entri terbaru
+
+    private static final long[] BENIH = new long[JUMLAH_HASH];
+
+    static {
+        long x = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < JUMLAH_HASH; i++) {
+            x += 0x9E3779B97F4A7C15L;
+            BENIH[i] = aduk(x);
+        }
+    }
+
+    /**
+     * Satu pasangan produk yang kemungkinan duplikat.
+     */
+    public static final class PasanganDuplikat {
+        private final String kodeA;
+        private final String kodeB;
+        private final double kemiripan;
+
+        PasanganDuplikat(String kodeA, String kodeB, double kemiripan) {
+            this.kodeA = kodeA;
+            this.kodeB = kodeB;
+            this.kemiripan = kemiripan;
+        }
+
+        public String getKodeA() {
+            return kodeA;
+        }
+
+        public String getKodeB() {
+            return kodeB;
+        }
+
+        /**
+         * @return Perkiraan kemiripan Jaccard nama (0 sampai 1).
+         */
+        public double getKemiripan() {
+            return kemiripan;
+        }
+
+        @Override
+        public String toString() {
+            return "PasanganDuplikat{" + kodeA + " ~ " + kodeB + ", kemiripan=" + kemiripan + '}';
+        }
+    }
+
+    /**
+     * Perubahan nama yang menunggu diindeks; nama null berarti produk dihapus.
+     */
+    private record Tertunda(String kode, String nama) {
+    }
+
+    /**
+     * Ember LSH: tabel hash open addressing (probing linear) dari kunci band ke entri terbaru
+     * embernya. Entri bernomor slot * JUMLAH_BAND + band; entri satu ember saling terhubung
+     * lewat array sebelum/sesudah, terbaru di depan.
+     */
+    private static final class IndeksEmber {
+        private static final int KOSONG = -1;
+
+        private long[] kunci = new long[64];
+        private int[] kepala = kosong(64);
+        private int jumlahEmber;
+        private int[] sebelum = new int[0];
+        private int[] sesudah = new int[0];
+
+        void pastikanKapasitasEntri(int jumlahEntri) {
+            if (jumlahEntri > sebelum.length) {
+                int baru = Math.max(jumlahEntri, sebelum.length * 2);
+                sebelum = Arrays.copyOf(sebelum, baru);
+                sesudah = Arrays.copyOf(sesudah, baru);
+            }
+        }
+
+        /**
+         * @return Entri terbaru di ember, atau KOSONG.
+         */
+        int kepala(long k) {
+            return kepala[cari(k)];
+        }
+
+        int berikut(int entri) {
+            return sesudah[entri];
+        }
+
+        void tambah(long k, int entri) {
+            int posisi = cari(k);
+            if (kepala[posisi] == KOSONG) {
+                kunci[posisi] = k;
+                jumlahEmber++;
+            } else {
+                sebelum[kepala[posisi]] = entri;
+            }
+            sebelum[entri] = KOSONG;
+            sesudah[entri] = kepala[posisi];
+            kepala[posisi] = entri;
+            if (jumlahEmber * 2 > kunci.length) {
+                perbesar();
+            }
+        }
+
+        void hapus(long k, int entri) {
+            int berikutnya = sesudah[entri];
+            if (berikutnya != KOSONG) {
+                sebelum[berikutnya] = sebelum[entri];
+            }
+            if (sebelum[entri] != KOSONG) {
+                sesudah[sebelum[entri]] = berikutnya;
+                return;
+            }
+            int posisi = cari(k);
+            kepala[posisi] = berikutnya;
+            if (berikutnya == KOSONG) {
+                hapusPosisi(posisi);
+            }
+        }
+
+        private int cari(long k) {
+            int mask = kunci.length - 1;
+            int posisi = (int) k & mask;
+            while (kepala[posisi] != KOSONG && kunci[posisi] != k) {
+                posisi = (posisi + 1) & mask;
+            }
+            return posisi;
+        }
+
+        /**
+         * Menghapus ember kosong dengan menggeser mundur entri berikutnya dalam rantai probing,
+         * sehingga tidak perlu penanda hapus.
+         */
+        private void hapusPosisi(int posisi) {
+            int mask = kunci.length - 1;
+            int j = posisi;
+            while (true) {
+                j = (j + 1) & mask;
+                if (kepala[j] == KOSONG) {
+                    break;
+                }
+                int ideal = (int) kunci[j] & mask;
+                if (((j - ideal) & mask) >= ((j - posisi) & mask)) {
+                    kunci[posisi] = kunci[j];
+                    kepala[posisi] = kepala[j];
+                    posisi = j;
+                }
+            }
+            kepala[posisi] = KOSONG;
+            jumlahEmber--;
+        }
+
+        private void perbesar() {
+            long[] kunciLama = kunci;
+            int[] kepalaLama = kepala;
+            kunci = new long[kunciLama.length * 2];
+            kepala = kosong(kunci.length);
+            for (int i = 0; i < kunciLama.length; i++) {
+                if (kepalaLama[i] != KOSONG) {
+                    int posisi = cari(kunciLama[i]);
+                    kunci[posisi] = kunciLama[i];
+                    kepala[posisi] = kepalaLama[i];
+                }
+            }
+        }
+
+        private static int[] kosong(int panjang) {
+            int[] hasil = new int[panjang];
+            Arrays.fill(hasil, KOSONG);
+            return hasil;
+        }
+    }
+
+    private final double ambang;
+    private final long intervalProsesMillis;
+    private final ConcurrentLinkedQueue<Tertunda> antrean = new ConcurrentLinkedQueue<>();
+
+    // Semua struktur di bawah hanya diakses di dalam synchronized (this)
+    private final Map<String, Integer> slotPerKode = new HashMap<>();
+    private String[] kodeSlot = new String[0];
+    private int[][] tandaSlot = new int[0][];
+    private int[] slotBebas = new int[0];
+    private int jumlahSlotBebas;
+    private int jumlahSlot;
+    private final IndeksEmber ember = new IndeksEmber();
+    private final Map<String, Map<String, Double>> tetangga = new HashMap<>();
+    private final List<PasanganDuplikat> pasanganBaru = new ArrayList<>();
+    private long jumlahPerbandingan;
+
+    private ScheduledExecutorService pemroses;
+
+    public DeteksiDuplikatProduk() {
+        this(AMBANG_DEFAULT, INTERVAL_PROSES_DEFAULT_MILLIS);
+    }
+
+    /**
+     * @param ambang Kemiripan minimum (0 sampai 1) agar pasangan dianggap duplikat.
+     * @param intervalProsesMillis Jeda pemrosesan antrean setelah {@link #mulai()}.
+     * @throws IllegalArgumentException jika ambang di luar (0, 1] atau interval tidak positif.
+     */
+    public DeteksiDuplikatProduk(double ambang, long intervalProsesMillis) {
+        if (!(ambang > 0 && ambang <= 1)) {
+            throw new IllegalArgumentException("Ambang kemiripan harus di antara 0 dan 1");
+        }
+        if (intervalProsesMillis <= 0) {
+            throw new IllegalArgumentException("Interval proses harus positif");
+        }
+        this.ambang = ambang;
+        this.intervalProsesMillis = intervalProsesMillis;
+    }
+
+    /**
+     * Memasukkan perubahan nama ke antrean. Perubahan stok diabaikan.
+     */
+    @Override
+    public void diubah(JenisPerubahan jenis, String kode, Produk produk) {
+        if (jenis == JenisPerubahan.HAPUS) {
+            antrean.offer(new Tertunda(kode, null));
+        } else if (jenis != JenisPerubahan.STOK) {
+            antrean.offer(new Tertunda(kode, produk.getNama()));
+        }
+    }
+
+    /**
+     * Mengindeks seluruh produk repository sekaligus, misalnya saat pertama kali dipasang.
+     * @return Jumlah produk yang diindeks.
+     */
+    public synchronized int muat(RepositoryProduk repositoryProduk) {
+        int[] jumlah = new int[1];
+        repositoryProduk.telusuriSemua(produk -> {
+            indeks(produk.getKode(), produk.getNama());
+            jumlah[0]++;
+        });
+        return jumlah[0];
+    }
+
+    /**
+     * Menjalankan pemrosesan antrean otomatis di satu thread daemon.
+     */
+    public synchronized void mulai() {
+        if (pemroses != null) {
+            return;
+        }
+        pemroses = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "deteksi-duplikat-produk");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pemroses.scheduleWithFixedDelay(this::proses, intervalProsesMillis, intervalProsesMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Mengindeks semua perubahan yang menunggu di antrean.
+     * @return Jumlah perubahan yang diproses.
+     */
+    public synchronized int proses() {
+        int jumlah = 0;
+        Tertunda tertunda;
+        while ((tertunda = antrean.poll()) != null) {
+            if (tertunda.nama() == null) {
+                hapusDariIndeks(tertunda.kode());
+            } else {
+                indeks(tertunda.kode(), tertunda.nama());
+            }
+            jumlah++;
+        }
+        return jumlah;
+    }
+
+    /**
+     * Mengambil pasangan duplikat yang ditemukan sejak pemanggilan sebelumnya.
+     * @return Pasangan baru; kosong jika tidak ada.
+     */
+    public synchronized List<PasanganDuplikat> ambilPasanganBaru() {
+        List<PasanganDuplikat> hasil = new ArrayList<>(pasanganBaru);
+        pasanganBaru.clear();
+        return hasil;
+    }
+
+    /**
+     * @return Kelompok kode yang saling terhubung oleh pasangan duplikat (masing-masing minimal
+     *         dua kode, terurut), diurutkan menurut kode pertama.
+     */
+    public synchronized List<Set<String>> getKlaster() {
+        List<Set<String>> hasil = new ArrayList<>();
+        Set<String> dikunjungi = new HashSet<>();
+        for (String awal : new TreeSet<>(tetangga.keySet())) {
+            if (!dikunjungi.add(awal)) {
+                continue;
+            }
+            Set<String> klaster = new TreeSet<>();
+            ArrayDeque<String> tumpukan = new ArrayDeque<>();
+            tumpukan.push(awal);
+            while (!tumpukan.isEmpty()) {
+                String kode = tumpukan.pop();
+                klaster.add(kode);
+                for (String lain : tetangga.get(kode).keySet()) {
+                    if (dikunjungi.add(lain)) {
+                        tumpukan.push(lain);
+                    }
+                }
+            }
+            hasil.add(Collections.unmodifiableSet(klaster));
+        }
+        return hasil;
+    }
+
+    /**
+     * @return Jumlah produk yang sedang terindeks.
+     */
+    public synchronized int getJumlahTerindeks() {
+        return slotPerKode.size();
+    }
+
+    /**
+     * @return Total perbandingan tanda tangan yang sudah dilakukan (untuk memantau biaya).
+     */
+    public synchronized long getJumlahPerbandingan() {
+        return jumlahPerbandingan;
+    }
+
+    /**
+     * @return Jumlah perubahan yang belum diproses.
+     */
+    public int getJumlahTertunda() {
+        return antrean.size();
+    }
+
+    /**
+     * Menghentikan pemrosesan otomatis. Antrean yang tersisa tetap bisa diproses manual.
+     */
+    @Override
+    public synchronized void close() {
+        if (pemroses != null) {
+            pemroses.shutdownNow();
+            pemroses = null;
+        }
+    }
+
+    // --- Pengindeksan ---
+
+    private void indeks(String kode, String nama) {
+        int[] tanda = hitungTandaTangan(nama);
+        Integer slotLama = slotPerKode.get(kode);
+        if (tanda != null && slotLama != null && Arrays.equals(tanda, tandaSlot[slotLama])) {
+            return; // Nama tidak berubah (misalnya hanya harga yang diubah)
+        }
+        hapusDariIndeks(kode);
+        if (tanda == null) {
+            return; // Nama kosong tidak bisa dibandingkan
+        }
+        int slot = ambilSlot();
+        Map<String, Double> dibandingkan = new HashMap<>();
+        for (int band = 0; band < JUMLAH_BAND; band++) {
+            long kunci = kunciBand(tanda, band);
+            int entri = ember.kepala(kunci);
+            for (int n = 0; entri != IndeksEmber.KOSONG && n < MAKS_PER_EMBER; n++) {
+                int slotLain = entri / JUMLAH_BAND;
+                String lain = kodeSlot[slotLain];
+                if (!dibandingkan.containsKey(lain)) {
+                    jumlahPerbandingan++;
+                    dibandingkan.put(lain, kemiripan(tanda, tandaSlot[slotLain]));
+                }
+                entri = ember.berikut(entri);
+            }
+            ember.tambah(kunci, slot * JUMLAH_BAND + band);
+        }
+        kodeSlot[slot] = kode;
+        tandaSlot[slot] = tanda;
+        slotPerKode.put(kode, slot);
+        for (Map.Entry<String, Double> entri : dibandingkan.entrySet()) {
+            if (entri.getValue() >= ambang) {
+                String lain = entri.getKey();
+                tetangga.computeIfAbsent(kode, k -> new HashMap<>()).put(lain, entri.getValue());
+                tetangga.computeIfAbsent(lain, k -> new HashMap<>()).put(kode, entri.getValue());
+                pasanganBaru.add(new PasanganDuplikat(lain, kode, entri.getValue()));
+            }
+        }
+    }
+
+    private void hapusDariIndeks(String kode) {
+        Integer slot = slotPerKode.remove(kode);
+        if (slot == null) {
+            return;
+        }
+        int[] tanda = tandaSlot[slot];
+        for (int band = 0; band < JUMLAH_BAND; band++) {
+            ember.hapus(kunciBand(tanda, band), slot * JUMLAH_BAND + band);
+        }
+        kodeSlot[slot] = null;
+        tandaSlot[slot] = null;
+        slotBebas[jumlahSlotBebas++] = slot;
+
+        Map<String, Double> lama = tetangga.remove(kode);
+        if (lama != null) {
+            for (String lain : lama.keySet()) {
+                Map<String, Double> milikLain = tetangga.get(lain);
+                milikLain.remove(kode);
+                if (milikLain.isEmpty()) {
+                    tetangga.remove(lain);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Slot kosong, memakai ulang slot produk yang sudah dihapus lebih dulu.
+     */
+    private int ambilSlot() {
+        if (jumlahSlotBebas > 0) {
+            return slotBebas[--jumlahSlotBebas];
+        }
+        if (jumlahSlot == kodeSlot.length) {
+            int baru = Math.max(16, kodeSlot.length * 2);
+            kodeSlot = Arrays.copyOf(kodeSlot, baru);
+            tandaSlot = Arrays.copyOf(tandaSlot, baru);
+            slotBebas = Arrays.copyOf(slotBebas, baru);
+            ember.pastikanKapasitasEntri(baru * JUMLAH_BAND);
+        }
+        return jumlahSlot++;
+    }
+
+    // --- MinHash ---
+
+    /**
+     * @return Tanda tangan MinHash nama, atau null jika nama tidak berisi huruf/angka.
+     */
+    static int[] hitungTandaTangan(String nama) {
+        if (nama == null) {
+            return null;
+        }
+        // Normalisasi: huruf kecil, selain huruf/angka menjadi satu spasi, diapit spasi
+        StringBuilder teks = new StringBuilder(nama.length() + 2).append(' ');
+        for (int i = 0; i < nama.length(); i++) {
+            char c = nama.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                teks.append(Character.toLowerCase(c));
+            } else if (teks.charAt(teks.length() - 1) != ' ') {
+                teks.append(' ');
+            }
+        }
+        if (teks.length() == 1) {
+            return null;
+        }
+        if (teks.charAt(teks.length() - 1) != ' ') {
+            teks.append(' ');
+        }
+
+        int[] tanda = new int[JUMLAH_HASH];
+        Arrays.fill(tanda, Integer.MAX_VALUE);
+        for (int i = 0; i + 3 <= teks.length(); i++) {
+            // Tiga karakter 16-bit dikemas utuh, jadi shingle berbeda tidak pernah bertabrakan di sini
+            long shingle = ((long) teks.charAt(i) << 32) | ((long) teks.charAt(i + 1) << 16) | teks.charAt(i + 2);
+            for (int j = 0; j < JUMLAH_HASH; j++) {
+                int nilai = (int) (aduk(shingle ^ BENIH[j]) >>> 33);
+                if (nilai < tanda[j]) {
+                    tanda[j] = nilai;
+                }
+            }
+        }
+        return tanda;
+    }
+
+    static double kemiripan(int[] a, int[] b) {
+        int sama = 0;
+        for (int i = 0; i < JUMLAH_HASH; i++) {
+            if (a[i] == b[i]) {
+                sama++;
+            }
+        }
+        return (double) sama / JUMLAH_HASH;
+    }
+
+    private static long kunciBand(int[] tanda, int band) {
+        long h = band;
+        for (int i = band * BARIS_PER_BAND; i < (band + 1) * BARIS_PER_BAND; i++) {
+            h = aduk(h * 31 + tanda[i]);
+        }
+        return h;
+    }
+
+    private static long aduk(long x) {
+        x ^= x >>> 33;
+        x *= 0xff51afd7ed558ccdL;
+        x ^= x >>> 33;
+        x *= 0xc4ceb9fe1a85ec53L;
+        x ^= x >>> 33;
+        return x;
+    }
+}
@@ -0,0 +1,481 @@
+package com.praktikum.whitebox.service;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.RepositoryProduk;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Mesin ekspor katalog produk ke file CSV, JSON, atau biner.
+ * <p>
+ * Produk dialirkan langsung dari {@link RepositoryProduk#telusuriSemua} ke satu
+ * direct ByteBuffer yang dipakai ulang, lalu ditulis ke FileChannel setiap kali
+ * buffer penuh. Tidak ada List perantara maupun String per produk; teks dan angka
+ * dikodekan langsung ke byte. Record yang lebih besar dari buffer tetap ditulis, dengan
+ * teksnya dialirkan sepotong demi sepotong.
+ * <p>
+ * Ekspor ditulis ke file sementara di direktori tujuan lalu dipindahkan ke tujuan hanya
+ * jika seluruhnya berhasil, sehingga ekspor yang gagal di tengah jalan tidak merusak file
+ * hasil ekspor sebelumnya. Harga NaN/tak hingga ditulis sebagai null pada JSON dan kolom
+ * kosong pada CSV.
+ * <p>
+ * Format biner: int magic {@link #MAGIC_BINER}, int versi, lalu untuk setiap produk
+ * byte 1 diikuti kode, nama, kategori (int panjang UTF-8 + byte, -1 untuk null),
+ * double harga, int stok, int stokMinimum, byte aktif. Diakhiri byte 0 dan long jumlah produk.
+ * <p>
+ * Satu instance tidak boleh dipakai oleh beberapa thread sekaligus.
+ */
+public class EksporKatalog {
+
+    /**
+     * Format file hasil ekspor.
+     */
+    public enum FormatEkspor {
+        CSV,
+        JSON,
+        BINER
+    }
+
+    public static final int UKURAN_BUFFER_DEFAULT = 256 * 1024;
+    public static final int MAGIC_BINER = 0x5742504B; // "WBPK"
+    public static final int VERSI_BINER = 1;
+
+    private static final byte[] HEADER_CSV = ascii("kode,nama,kategori,harga,stok,stokMinimum,aktif\n");
+    private static final byte[] TRUE = ascii("true");
+    private static final byte[] FALSE = ascii("false");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] JSON_KODE = ascii("{\"kode\":");
+    private static final byte[] JSON_NAMA = ascii(",\"nama\":");
+    private static final byte[] JSON_KATEGORI = ascii(",\"kategori\":");
+    private static final byte[] JSON_HARGA = ascii(",\"harga\":");
+    private static final byte[] JSON_STOK = ascii(",\"stok\":");
+    private static final byte[] JSON_STOK_MINIMUM = ascii(",\"stokMinimum\":");
+    private static final byte[] JSON_AKTIF = ascii(",\"aktif\":");
+    private static final byte[] HEX = ascii("0123456789abcdef");
+
+    private static final int UKURAN_RECORD_TETAP = 64; // Angka dan penanda, di luar teks
+
+    private final RepositoryProduk repositoryProduk;
+    private final ByteBuffer buffer;
+    private final byte[] digit = new byte[20];
+
+    private FileChannel channel;
+    private FormatEkspor format;
+    private long jumlahDitulis;
+    private boolean bertahap; // Record saat ini lebih besar dari buffer; teks ditulis sepotong-sepotong
+
+    public EksporKatalog(RepositoryProduk repositoryProduk) {
+        this(repositoryProduk, UKURAN_BUFFER_DEFAULT);
+    }
+
+    /**
+     * @param repositoryProduk Sumber data produk.
+     * @param ukuranBuffer Ukuran direct buffer dalam byte (minimal 4 KiB).
+     * @throws IllegalArgumentException jika ukuran buffer terlalu kecil.
+     */
+    public EksporKatalog(RepositoryProduk repositoryProduk, int ukuranBuffer) {
+        if (ukuranBuffer < 4096) {
+            throw new IllegalArgumentException("Ukuran buffer minimal 4096 byte");
+        }
+        this.repositoryProduk = repositoryProduk;
+        this.buffer = ByteBuffer.allocateDirect(ukuranBuffer);
+    }
+
+    /**
+     * Mengekspor seluruh katalog ke file. File yang sudah ada baru ditimpa setelah ekspor
+     * selesai; jika ekspor gagal, file lama tetap utuh.
+     * @param tujuan Lokasi file hasil ekspor.
+     * @param format Format file.
+     * @return Jumlah produk yang diekspor.
+     * @throws IOException jika penulisan atau pemindahan file gagal.
+     */
+    public long ekspor(Path tujuan, FormatEkspor format) throws IOException {
+        Path direktori = tujuan.toAbsolutePath().getParent();
+        Path sementara = Files.createTempFile(direktori, tujuan.getFileName().toString() + ".", ".tmp");
+        boolean selesai = false;
+        try {
+            long jumlah = tulisKe(sementara, format);
+            try {
+                Files.move(sementara, tujuan, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(sementara, tujuan, StandardCopyOption.REPLACE_EXISTING);
+            }
+            selesai = true;
+            return jumlah;
+        } finally {
+            if (!selesai) {
+                Files.deleteIfExists(sementara);
+            }
+        }
+    }
+
+    private long tulisKe(Path file, FormatEkspor format) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            this.channel = fileChannel;
+            this.format = format;
+            this.jumlahDitulis = 0;
+            this.bertahap = false;
+            buffer.clear();
+
+            tulisPembuka();
+            try {
+                repositoryProduk.telusuriSemua(this::tulisProdukUnchecked);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            tulisPenutup();
+            flush();
+            fileChannel.force(false);
+            return jumlahDitulis;
+        } finally {
+            this.channel = null;
+        }
+    }
+
+    private void tulisPembuka() throws IOException {
+        switch (format) {
+            case CSV -> tulis(HEADER_CSV);
+            case JSON -> tulis((byte) '[');
+            case BINER -> {
+                pastikan(8);
+                buffer.putInt(MAGIC_BINER);
+                buffer.putInt(VERSI_BINER);
+            }
+        }
+    }
+
+    private void tulisPenutup() throws IOException {
+        switch (format) {
+            case CSV -> { }
+            case JSON -> {
+                tulis((byte) '\n');
+                tulis((byte) ']');
+                tulis((byte) '\n');
+            }
+            case BINER -> {
+                pastikan(9);
+                buffer.put((byte) 0);
+                buffer.putLong(jumlahDitulis);
+            }
+        }
+    }
+
+    private void tulisProdukUnchecked(Produk produk) {
+        try {
+            tulisProduk(produk);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void tulisProduk(Produk produk) throws IOException {
+        long ukuran = UKURAN_RECORD_TETAP
+                + ukuranMaksimum(produk.getKode())
+                + ukuranMaksimum(produk.getNama())
+                + ukuranMaksimum(produk.getKategori());
+        bertahap = ukuran > buffer.capacity();
+        // Mode bertahap: setiap teks menyisakan ruang UKURAN_RECORD_TETAP untuk bagian tetap berikutnya
+        pastikan(bertahap ? UKURAN_RECORD_TETAP : (int) ukuran);
+        switch (format) {
+            case CSV -> {
+                teksCsv(produk.getKode());
+                buffer.put((byte) ',');
+                teksCsv(produk.getNama());
+                buffer.put((byte) ',');
+                teksCsv(produk.getKategori());
+                buffer.put((byte) ',');
+                harga(produk.getHarga());
+                buffer.put((byte) ',');
+                angka(produk.getStok());
+                buffer.put((byte) ',');
+                angka(produk.getStokMinimum());
+                buffer.put((byte) ',');
+                buffer.put(produk.isAktif() ? TRUE : FALSE);
+                buffer.put((byte) '\n');
+            }
+            case JSON -> {
+                if (jumlahDitulis > 0) {
+                    buffer.put((byte) ',');
+                }
+                buffer.put((byte) '\n');
+                buffer.put(JSON_KODE);
+                teksJson(produk.getKode());
+                buffer.put(JSON_NAMA);
+                teksJson(produk.getNama());
+                buffer.put(JSON_KATEGORI);
+                teksJson(produk.getKategori());
+                buffer.put(JSON_HARGA);
+                harga(produk.getHarga());
+                buffer.put(JSON_STOK);
+                angka(produk.getStok());
+                buffer.put(JSON_STOK_MINIMUM);
+                angka(produk.getStokMinimum());
+                buffer.put(JSON_AKTIF);
+                buffer.put(produk.isAktif() ? TRUE : FALSE);
+                buffer.put((byte) '}');
+            }
+            case BINER -> {
+                buffer.put((byte) 1);
+                teksBiner(produk.getKode());
+                teksBiner(produk.getNama());
+                teksBiner(produk.getKategori());
+                buffer.putDouble(produk.getHarga());
+                buffer.putInt(produk.getStok());
+                buffer.putInt(produk.getStokMinimum());
+                buffer.put((byte) (produk.isAktif() ? 1 : 0));
+            }
+        }
+        jumlahDitulis++;
+    }
+
+    // --- Penulisan teks ---
+
+    /**
+     * Batas atas jumlah byte untuk satu teks: 6 byte per karakter (escape \\u00XX pada JSON),
+     * ditambah tanda kutip atau prefix panjang.
+     */
+    private static long ukuranMaksimum(String teks) {
+        return teks == null ? 4 : teks.length() * 6L + 4;
+    }
+
+    /**
+     * Dalam mode bertahap, mengosongkan buffer sebelum karakter berikutnya jika ruang tersisa
+     * tidak cukup untuk satu karakter (maksimal 6 byte) ditambah bagian tetap record.
+     */
+    private void ruangKarakter() throws IOException {
+        if (bertahap && buffer.remaining() < UKURAN_RECORD_TETAP + 6) {
+            flush();
+        }
+    }
+
+    private void teksCsv(String teks) throws IOException {
+        if (teks == null) {
+            return;
+        }
+        boolean perluKutip = false;
+        for (int i = 0; i < teks.length() && !perluKutip; i++) {
+            char c = teks.charAt(i);
+            perluKutip = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!perluKutip) {
+            utf8(teks);
+            return;
+        }
+        buffer.put((byte) '"');
+        for (int i = 0; i < teks.length(); i++) {
+            ruangKarakter();
+            char c = teks.charAt(i);
+            if (c == '"') {
+                buffer.put((byte) '"');
+            }
+            i = karakterUtf8(teks, i);
+        }
+        buffer.put((byte) '"');
+    }
+
+    private void teksJson(String teks) throws IOException {
+        if (teks == null) {
+            buffer.put(NULL);
+            return;
+        }
+        buffer.put((byte) '"');
+        for (int i = 0; i < teks.length(); i++) {
+            ruangKarakter();
+            char c = teks.charAt(i);
+            if (c == '"' || c == '\\') {
+                buffer.put((byte) '\\');
+                buffer.put((byte) c);
+            } else if (c == '\n') {
+                buffer.put((byte) '\\');
+                buffer.put((byte) 'n');
+            } else if (c < 0x20) {
+                buffer.put((byte) '\\');
+                buffer.put((byte) 'u');
+                buffer.put((byte) '0');
+                buffer.put((byte) '0');
+                buffer.put(HEX[c >> 4]);
+                buffer.put(HEX[c & 0xF]);
+            } else {
+                i = karakterUtf8(teks, i);
+            }
+        }
+        buffer.put((byte) '"');
+    }
+
+    private void teksBiner(String teks) throws IOException {
+        if (teks == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        if (bertahap) {
+            // Prefix panjang bisa sudah terkirim sebelum teks selesai, jadi dihitung lebih dulu
+            buffer.putInt(panjangUtf8(teks));
+            utf8(teks);
+            return;
+        }
+        int posisiPanjang = buffer.position();
+        buffer.putInt(0);
+        utf8(teks);
+        buffer.putInt(posisiPanjang, buffer.position() - posisiPanjang - 4);
+    }
+
+    private void utf8(String teks) throws IOException {
+        for (int i = 0; i < teks.length(); i++) {
+            ruangKarakter();
+            i = karakterUtf8(teks, i);
+        }
+    }
+
+    /**
+     * Jumlah byte yang akan ditulis {@link #utf8(String)} untuk teks ini.
+     */
+    private static int panjangUtf8(String teks) {
+        int panjang = 0;
+        for (int i = 0; i < teks.length(); i++) {
+            char c = teks.charAt(i);
+            if (c < 0x80) {
+                panjang += 1;
+            } else if (c < 0x800) {
+                panjang += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < teks.length()
+                    && Character.isLowSurrogate(teks.charAt(i + 1))) {
+                panjang += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                panjang += 1;
+            } else {
+                panjang += 3;
+            }
+        }
+        return panjang;
+    }
+
+    /**
+     * Menulis satu karakter (atau pasangan surrogate) sebagai UTF-8.
+     * @return Indeks karakter terakhir yang dipakai.
+     */
+    private int karakterUtf8(String teks, int i) {
+        char c = teks.charAt(i);
+        if (c < 0x80) {
+            buffer.put((byte) c);
+        } else if (c < 0x800) {
+            buffer.put((byte) (0xC0 | (c >> 6)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        } else if (Character.isHighSurrogate(c) && i + 1 < teks.length()
+                && Character.isLowSurrogate(teks.charAt(i + 1))) {
+            int kodePoin = Character.toCodePoint(c, teks.charAt(i + 1));
+            buffer.put((byte) (0xF0 | (kodePoin >> 18)));
+            buffer.put((byte) (0x80 | ((kodePoin >> 12) & 0x3F)));
+            buffer.put((byte) (0x80 | ((kodePoin >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (kodePoin & 0x3F)));
+            return i + 1;
+        } else if (Character.isSurrogate(c)) {
+            buffer.put((byte) '?'); // Surrogate tanpa pasangan
+        } else {
+            buffer.put((byte) (0xE0 | (c >> 12)));
+            buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        }
+        return i;
+    }
+
+    // --- Penulisan angka ---
+
+    private void angka(long nilai) {
+        if (nilai < 0) {
+            buffer.put((byte) '-');
+            nilai = -nilai;
+        }
+        int panjang = 0;
+        do {
+            digit[panjang++] = (byte) ('0' + (nilai % 10));
+            nilai /= 10;
+        } while (nilai > 0);
+        while (panjang > 0) {
+            buffer.put(digit[--panjang]);
+        }
+    }
+
+    /**
+     * Menulis harga sebagai desimal biasa. Harga dengan paling banyak dua angka
+     * di belakang koma (kasus umum) ditulis tanpa alokasi; selain itu memakai Double.toString.
+     * NaN dan tak hingga bukan angka JSON yang sah, jadi ditulis sebagai null (JSON) atau
+     * dikosongkan (CSV).
+     */
+    private void harga(double harga) {
+        if (!Double.isFinite(harga)) {
+            if (format == FormatEkspor.JSON) {
+                buffer.put(NULL);
+            }
+            return;
+        }
+        double sen = harga * 100;
+        long senBulat = Math.round(sen);
+        if (Math.abs(sen) < 1e15
+                && Math.abs(sen - senBulat) <= 1e-6 * Math.max(1.0, Math.abs(sen))) {
+            if (senBulat < 0) {
+                buffer.put((byte) '-');
+                senBulat = -senBulat;
+            }
+            angka(senBulat / 100);
+            int pecahan = (int) (senBulat % 100);
+            if (pecahan != 0) {
+                buffer.put((byte) '.');
+                buffer.put((byte) ('0' + pecahan / 10));
+                if (pecahan % 10 != 0) {
+                    buffer.put((byte) ('0' + pecahan % 10));
+                }
+            }
+            return;
+        }
+        String teks = Double.toString(harga);
+        for (int i = 0; i < teks.length(); i++) {
+            buffer.put((byte) teks.charAt(i));
+        }
+    }
+
+    // --- Manajemen buffer ---
+
+    private void tulis(byte b) throws IOException {
+        pastikan(1);
+        buffer.put(b);
+    }
+
+    private void tulis(byte[] data) throws IOException {
+        pastikan(data.length);
+        buffer.put(data);
+    }
+
+    /**
+     * @param jumlahByte Tidak boleh melebihi kapasitas buffer; record yang lebih besar memakai mode bertahap.
+     */
+    private void pastikan(int jumlahByte) throws IOException {
+        if (buffer.remaining() < jumlahByte) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static byte[] ascii(String teks) {
+        byte[] hasil = new byte[teks.length()];
+        for (int i = 0; i < teks.length(); i++) {
+            hasil[i] = (byte) teks.charAt(i);
+        }
+        return hasil;
+    }
+}
@@ -0,0 +1,102 @@
+package com.praktikum.whitebox.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ringkasan hasil impor massal: jumlah baris, jumlah yang diterima,
+ * dan daftar baris yang ditolak beserta alasannya.
+ */
+public class HasilImpor {
+
+    /**
+     * Alasan sebuah baris ditolak saat impor.
+     */
+    public enum AlasanPenolakan {
+        FORMAT_TIDAK_VALID,  // Jumlah kolom salah atau angka tidak bisa dibaca
+        DATA_TIDAK_VALID,    // Gagal ValidationUtils.isValidProduk
+        KODE_DUPLIKAT,       // Kode sudah ada di repository atau muncul lebih awal di file
+        GAGAL_SIMPAN         // Repository menolak penyimpanan
+    }
+
+    /**
+     * Satu baris yang ditolak.
+     */
+    public static class Penolakan {
+        private final long nomorBaris;
+        private final String kode;
+        private final AlasanPenolakan alasan;
+
+        public Penolakan(long nomorBaris, String kode, AlasanPenolakan alasan) {
+            this.nomorBaris = nomorBaris;
+            this.kode = kode;
+            this.alasan = alasan;
+        }
+
+        public long getNomorBaris() {
+            return nomorBaris;
+        }
+
+        public String getKode() {
+            return kode;
+        }
+
+        public AlasanPenolakan getAlasan() {
+            return alasan;
+        }
+
+        @Override
+        public String toString() {
+            return "Penolakan{" +
+                    "nomorBaris=" + nomorBaris +
+                    ", kode='" + kode + '\'' +
+                    ", alasan=" + alasan +
+                    '}';
+        }
+    }
+
+    private long jumlahBaris;
+    private long jumlahDiterima;
+    private final List<Penolakan> daftarPenolakan = new ArrayList<>();
+
+    void tambahBaris() {
+        jumlahBaris++;
+    }
+
+    void tambahDiterima(int jumlah) {
+        jumlahDiterima += jumlah;
+    }
+
+    void tolak(long nomorBaris, String kode, AlasanPenolakan alasan) {
+        daftarPenolakan.add(new Penolakan(nomorBaris, kode, alasan));
+    }
+
+    /**
+     * @return Jumlah baris data yang dibaca (tanpa header dan baris kosong).
+     */
+    public long getJumlahBaris() {
+        return jumlahBaris;
+    }
+
+    public long getJumlahDiterima() {
+        return jumlahDiterima;
+    }
+
+    public long getJumlahDitolak() {
+        return daftarPenolakan.size();
+    }
+
+    public List<Penolakan> getDaftarPenolakan() {
+        return Collections.unmodifiableList(daftarPenolakan);
+    }
+
+    @Override
+    public String toString() {
+        return "HasilImpor{" +
+                "jumlahBaris=" + jumlahBaris +
+                ", jumlahDiterima=" + jumlahDiterima +
+                ", jumlahDitolak=" + daftarPenolakan.size() +
+                '}';
+    }
+}
@@ -0,0 +1,297 @@
+package com.praktikum.whitebox.service;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.RepositoryProduk;
+import com.praktikum.whitebox.util.HimpunanKode;
+import com.praktikum.whitebox.util.ValidationUtils;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Pipeline impor massal produk dari file CSV.
+ * <p>
+ * File dibaca secara streaming lewat FileChannel, baris-baris dikumpulkan per batch,
+ * divalidasi secara paralel, lalu kode duplikat disaring dengan {@link HimpunanKode}
+ * yang diisi sekali dari repository di awal impor. Baris yang lolos disimpan
+ * dengan {@link RepositoryProduk#simpanBatch(List)}, sehingga tidak ada
+ * pemanggilan cariByKode per baris seperti pada ServiceInventaris.tambahProduk.
+ * <p>
+ * Format CSV: {@code kode,nama,kategori,harga,stok,stokMinimum}, satu produk per baris,
+ * tanpa tanda kutip. Baris header (diawali "kode,") dan baris kosong dilewati.
+ */
+public class ImporProdukMassal {
+
+    public static final int UKURAN_BATCH_DEFAULT = 10_000;
+
+    private static final int UKURAN_BUFFER = 1 << 20; // 1 MiB
+    private static final int JUMLAH_KOLOM = 6;
+    private static final int MINIMUM_BATCH_PARALEL = 2048;
+
+    private final RepositoryProduk repositoryProduk;
+    private final int ukuranBatch;
+
+    /**
+     * @param repositoryProduk Repository tujuan impor.
+     */
+    public ImporProdukMassal(RepositoryProduk repositoryProduk) {
+        this(repositoryProduk, UKURAN_BATCH_DEFAULT);
+    }
+
+    /**
+     * @param repositoryProduk Repository tujuan impor.
+     * @param ukuranBatch Jumlah baris per batch validasi dan penyimpanan.
+     * @throws IllegalArgumentException jika ukuran batch tidak positif.
+     */
+    public ImporProdukMassal(RepositoryProduk repositoryProduk, int ukuranBatch) {
+        if (ukuranBatch <= 0) {
+            throw new IllegalArgumentException("Ukuran batch harus positif");
+        }
+        this.repositoryProduk = repositoryProduk;
+        this.ukuranBatch = ukuranBatch;
+    }
+
+    /**
+     * Mengimpor seluruh produk dari file CSV.
+     * @param file Lokasi file CSV.
+     * @return Ringkasan hasil impor beserta daftar baris yang ditolak.
+     * @throws IOException jika file gagal dibaca.
+     */
+    public HasilImpor imporCsv(Path file) throws IOException {
+        ProsesImpor proses = new ProsesImpor(muatKodeTerdaftar());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(UKURAN_BUFFER);
+            boolean selesai = false;
+            while (!selesai) {
+                selesai = channel.read(buffer) == -1;
+                buffer.flip();
+
+                byte[] data = buffer.array();
+                int awalBaris = buffer.position();
+                int batas = buffer.limit();
+                for (int i = awalBaris; i < batas; i++) {
+                    if (data[i] == '\n') {
+                        proses.baris(data, awalBaris, i);
+                        awalBaris = i + 1;
+                    }
+                }
+                if (selesai && awalBaris < batas) {
+                    // Baris terakhir tanpa newline
+                    proses.baris(data, awalBaris, batas);
+                    awalBaris = batas;
+                }
+
+                buffer.position(awalBaris);
+                buffer.compact();
+                if (!selesai && !buffer.hasRemaining()) {
+                    // Satu baris lebih panjang dari buffer: perbesar buffer
+                    ByteBuffer bufferBaru = ByteBuffer.allocate(buffer.capacity() * 2);
+                    buffer.flip();
+                    bufferBaru.put(buffer);
+                    buffer = bufferBaru;
+                }
+            }
+        }
+        proses.simpanBatch();
+        return proses.hasil;
+    }
+
+    private HimpunanKode muatKodeTerdaftar() {
+        List<Produk> semuaProduk = repositoryProduk.cariSemua();
+        HimpunanKode kodeTerdaftar = new HimpunanKode(Math.max(ukuranBatch, semuaProduk.size() * 2));
+        for (Produk produk : semuaProduk) {
+            long kode = HimpunanKode.enkode(produk.getKode());
+            if (kode > 0) {
+                kodeTerdaftar.tambah(kode);
+            }
+        }
+        return kodeTerdaftar;
+    }
+
+    /**
+     * State satu kali impor: batch yang sedang dikumpulkan dan hasil sementara.
+     */
+    private class ProsesImpor {
+        private final HasilImpor hasil = new HasilImpor();
+        private final HimpunanKode kodeTerlihat;
+        private final Produk[] batchProduk = new Produk[ukuranBatch];
+        private final long[] batchNomorBaris = new long[ukuranBatch];
+        private final boolean[] batchValid = new boolean[ukuranBatch];
+        private final List<Produk> diterima = new ArrayList<>(ukuranBatch);
+        private final List<Long> nomorBarisDiterima = new ArrayList<>(ukuranBatch);
+        private final int[] posisiKoma = new int[JUMLAH_KOLOM - 1];
+        private int jumlahDalamBatch;
+        private long nomorBaris;
+
+        ProsesImpor(HimpunanKode kodeTerlihat) {
+            this.kodeTerlihat = kodeTerlihat;
+        }
+
+        void baris(byte[] data, int awal, int akhir) {
+            nomorBaris++;
+            if (akhir > awal && data[akhir - 1] == '\r') {
+                akhir--;
+            }
+            if (akhir == awal) {
+                return; // Baris kosong
+            }
+            if (nomorBaris == 1 && diawaliHeader(data, awal, akhir)) {
+                return;
+            }
+            hasil.tambahBaris();
+
+            int jumlahKoma = 0;
+            for (int i = awal; i < akhir; i++) {
+                if (data[i] == ',') {
+                    if (jumlahKoma == posisiKoma.length) {
+                        jumlahKoma++;
+                        break;
+                    }
+                    posisiKoma[jumlahKoma++] = i;
+                }
+            }
+            if (jumlahKoma != posisiKoma.length) {
+                int akhirKode = jumlahKoma > 0 ? posisiKoma[0] : akhir;
+                hasil.tolak(nomorBaris, teks(data, awal, akhirKode), HasilImpor.AlasanPenolakan.FORMAT_TIDAK_VALID);
+                return;
+            }
+
+            String kode = teks(data, awal, posisiKoma[0]);
+            String nama = teks(data, posisiKoma[0] + 1, posisiKoma[1]);
+            String kategori = teks(data, posisiKoma[1] + 1, posisiKoma[2]);
+            double harga;
+            try {
+                harga = Double.parseDouble(teks(data, posisiKoma[2] + 1, posisiKoma[3]));
+            } catch (NumberFormatException e) {
+                hasil.tolak(nomorBaris, kode, HasilImpor.AlasanPenolakan.FORMAT_TIDAK_VALID);
+                return;
+            }
+            long stok = parseInt(data, posisiKoma[3] + 1, posisiKoma[4]);
+            long stokMinimum = parseInt(data, posisiKoma[4] + 1, akhir);
+            if (stok == Long.MIN_VALUE || stokMinimum == Long.MIN_VALUE) {
+                hasil.tolak(nomorBaris, kode, HasilImpor.AlasanPenolakan.FORMAT_TIDAK_VALID);
+                return;
+            }
+
+            batchProduk[jumlahDalamBatch] = new Produk(kode, nama, kategori, harga, (int) stok, (int) stokMinimum);
+            batchNomorBaris[jumlahDalamBatch] = nomorBaris;
+            jumlahDalamBatch++;
+            if (jumlahDalamBatch == ukuranBatch) {
+                simpanBatch();
+            }
+        }
+
+        void simpanBatch() {
+            int jumlah = jumlahDalamBatch;
+            if (jumlah == 0) {
+                return;
+            }
+
+            // Tahap 1: validasi paralel (ValidationUtils tidak punya state)
+            IntStream indeks = IntStream.range(0, jumlah);
+            if (jumlah >= MINIMUM_BATCH_PARALEL) {
+                indeks = indeks.parallel();
+            }
+            indeks.forEach(i -> batchValid[i] = ValidationUtils.isValidProduk(batchProduk[i]));
+
+            // Tahap 2: deduplikasi berurutan agar baris pertama yang menang
+            diterima.clear();
+            nomorBarisDiterima.clear();
+            for (int i = 0; i < jumlah; i++) {
+                Produk produk = batchProduk[i];
+                // Kode yang lolos validasi tetapi tidak bisa dienkode tetap ditolak per baris
+                long kodeTerenkode = batchValid[i] ? HimpunanKode.enkode(produk.getKode()) : -1;
+                if (kodeTerenkode <= 0) {
+                    hasil.tolak(batchNomorBaris[i], produk.getKode(), HasilImpor.AlasanPenolakan.DATA_TIDAK_VALID);
+                } else if (!kodeTerlihat.tambah(kodeTerenkode)) {
+                    hasil.tolak(batchNomorBaris[i], produk.getKode(), HasilImpor.AlasanPenolakan.KODE_DUPLIKAT);
+                } else {
+                    diterima.add(produk);
+                    nomorBarisDiterima.add(batchNomorBaris[i]);
+                }
+                batchProduk[i] = null;
+            }
+            jumlahDalamBatch = 0;
+
+            // Tahap 3: tulis ke repository dalam satu batch
+            int tersimpan = repositoryProduk.simpanBatch(diterima);
+            if (tersimpan < diterima.size()) {
+                // Jarang terjadi: cari tahu baris mana yang gagal
+                for (int i = 0; i < diterima.size(); i++) {
+                    Produk produk = diterima.get(i);
+                    if (repositoryProduk.cariByKode(produk.getKode()).isEmpty()) {
+                        hasil.tolak(nomorBarisDiterima.get(i), produk.getKode(),
+                                HasilImpor.AlasanPenolakan.GAGAL_SIMPAN);
+                    }
+                }
+            }
+            hasil.tambahDiterima(tersimpan);
+        }
+    }
+
+    private static boolean diawaliHeader(byte[] data, int awal, int akhir) {
+        byte[] header = {'k', 'o', 'd', 'e', ','};
+        if (akhir - awal < header.length) {
+            return false;
+        }
+        for (int i = 0; i < header.length; i++) {
+            if ((data[awal + i] | 0x20) != header[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String teks(byte[] data, int awal, int akhir) {
+        // Sama seperti String.trim(): buang semua karakter kontrol ASCII dan spasi di kedua ujung
+        while (awal < akhir && (data[awal] & 0xFF) <= ' ') {
+            awal++;
+        }
+        while (akhir > awal && (data[akhir - 1] & 0xFF) <= ' ') {
+            akhir--;
+        }
+        return new String(data, awal, akhir - awal, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Membaca bilangan bulat langsung dari byte tanpa membuat String.
+     * @return Nilai yang terbaca, atau Long.MIN_VALUE jika format tidak valid.
+     */
+    private static long parseInt(byte[] data, int awal, int akhir) {
+        while (awal < akhir && (data[awal] & 0xFF) <= ' ') {
+            awal++;
+        }
+        while (akhir > awal && (data[akhir - 1] & 0xFF) <= ' ') {
+            akhir--;
+        }
+        if (awal == akhir) {
+            return Long.MIN_VALUE;
+        }
+        boolean negatif = data[awal] == '-';
+        if (negatif) {
+            awal++;
+        }
+        if (awal == akhir || akhir - awal > 10) {
+            return Long.MIN_VALUE;
+        }
+        long nilai = 0;
+        for (int i = awal; i < akhir; i++) {
+            int digit = data[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return Long.MIN_VALUE;
+            }
+            nilai = nilai * 10 + digit;
+        }
+        nilai = negatif ? -nilai : nilai;
+        if (nilai < Integer.MIN_VALUE || nilai > Integer.MAX_VALUE) {
+            return Long.MIN_VALUE;
+        }
+        return nilai;
+    }
+}
@@ -1,11 +1,35 @@
 package com.praktikum.whitebox.service;
 
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.model.TipePelanggan;
+
 /**
  * Kelas layanan untuk menghitung diskon dan harga total berdasarkan
  * harga, kuantitas, dan tipe pelanggan.
+ * Kategori produk dapat memiliki tingkat diskon kuantitas sendiri lewat {@link TabelDiskonKategori}.
  */
 public class KalkulatorDiskon {
 
+    private final TabelDiskonKategori tabelDiskonKategori;
+
+    /**
+     * Kalkulator tanpa aturan kategori: semua produk memakai tingkat kuantitas bawaan.
+     */
+    public KalkulatorDiskon() {
+        this(new TabelDiskonKategori());
+    }
+
+    /**
+     * @param tabelDiskonKategori Tabel tingkat diskon per kategori.
+     * @throws IllegalArgumentException jika tabel null.
+     */
+    public KalkulatorDiskon(TabelDiskonKategori tabelDiskonKategori) {
+        if (tabelDiskonKategori == null) {
+            throw new IllegalArgumentException("Tabel diskon kategori tidak boleh null");
+        }
+        this.tabelDiskonKategori = tabelDiskonKategori;
+    }
+
     /**
      * Menghitung total nilai diskon (dalam Rupiah/Mata Uang) yang diberikan.
      * @param harga Harga per unit.
@@ -15,37 +39,98 @@ public class KalkulatorDiskon {
      * @throws IllegalArgumentException jika harga atau kuantitas tidak positif.
      */
     public double hitungDiskon(double harga, int kuantitas, String tipePelanggan) {
+        return hitungDiskon(harga, kuantitas, TipePelanggan.dari(tipePelanggan));
+    }
+
+    /**
+     * Menghitung total nilai diskon untuk tipe pelanggan yang sudah di-resolve.
+     * Tidak melakukan operasi String sama sekali.
+     * @param harga Harga per unit.
+     * @param kuantitas Jumlah unit.
+     * @param tipePelanggan Tipe pelanggan.
+     * @return Nilai diskon total.
+     * @throws IllegalArgumentException jika harga atau kuantitas tidak positif.
+     */
+    public double hitungDiskon(double harga, int kuantitas, TipePelanggan tipePelanggan) {
         if (harga <= 0 || kuantitas <= 0) {
             throw new IllegalArgumentException("Harga dan kuantitas harus positif");
         }
 
-        double persentaseDiskon = 0.0;
+        // Maksimal diskon 30%
+        double persentaseDiskon = Math.min(persentaseDiskon(kuantitas, tipePelanggan), 0.30);
 
-        // --- Diskon berdasarkan kuantitas ---
-        if (kuantitas >= 100) {
-            persentaseDiskon += 0.20; // 20%
-        } else if (kuantitas >= 50) {
-            persentaseDiskon += 0.15; // 15%
-        } else if (kuantitas >= 10) {
-            persentaseDiskon += 0.10; // 10%
-        } else if (kuantitas >= 5) {
-            persentaseDiskon += 0.05; // 5%
+        // Menghitung nilai diskon dalam mata uang
+        return harga * kuantitas * persentaseDiskon;
+    }
+
+    /**
+     * Menghitung total nilai diskon dengan memperhitungkan kategori produk. Jika kategori
+     * memiliki aturan di TabelDiskonKategori, tingkat kuantitas dan batas maksimumnya
+     * dipakai; jika tidak, hasilnya sama dengan {@link #hitungDiskon(double, int, TipePelanggan)}.
+     * @param harga Harga per unit.
+     * @param kuantitas Jumlah unit.
+     * @param tipePelanggan Tipe pelanggan.
+     * @param kategori Kategori produk (boleh null).
+     * @return Nilai diskon total.
+     * @throws IllegalArgumentException jika harga atau kuantitas tidak positif.
+     */
+    public double hitungDiskon(double harga, int kuantitas, TipePelanggan tipePelanggan, String kategori) {
+        if (harga <= 0 || kuantitas <= 0) {
+            throw new IllegalArgumentException("Harga dan kuantitas harus positif");
         }
+        TabelDiskonKategori.Isi isi = tabelDiskonKategori.isi();
+        return harga * kuantitas * persentaseDiskon(isi, isi.cariId(kategori), kuantitas, tipePelanggan);
+    }
 
-        // --- Diskon berdasarkan tipe pelanggan ---
-        if ("PREMIUM".equalsIgnoreCase(tipePelanggan)) {
-            persentaseDiskon += 0.10; // 10% tambahan
-        } else if ("REGULER".equalsIgnoreCase(tipePelanggan)) {
-            persentaseDiskon += 0.05; // 5% tambahan
-        } else if ("BARU".equalsIgnoreCase(tipePelanggan)) {
-            persentaseDiskon += 0.02; // 2% tambahan
+    /**
+     * Menghitung total nilai diskon untuk sejumlah unit produk, berdasarkan harga dan kategorinya.
+     * @param produk Produk yang dijual.
+     * @param kuantitas Jumlah unit.
+     * @param tipePelanggan Tipe pelanggan.
+     * @return Nilai diskon total.
+     * @throws IllegalArgumentException jika produk null, atau harga atau kuantitas tidak positif.
+     */
+    public double hitungDiskon(Produk produk, int kuantitas, TipePelanggan tipePelanggan) {
+        if (produk == null) {
+            throw new IllegalArgumentException("Produk tidak boleh null");
         }
+        return hitungDiskon(produk.getHarga(), kuantitas, tipePelanggan, produk.getKategori());
+    }
 
-        // Maksimal diskon 30%
-        persentaseDiskon = Math.min(persentaseDiskon, 0.30);
-        
-        // Menghitung nilai diskon dalam mata uang
-        return harga * kuantitas * persentaseDiskon;
+    /**
+     * Menghitung diskon seluruh keranjang dalam satu panggilan, tanpa koleksi perantara.
+     * Setiap baris dihitung seperti {@link #hitungDiskon(Produk, int, TipePelanggan)} dengan
+     * satu versi TabelDiskonKategori yang sama untuk seluruh keranjang.
+     * @param produk Produk setiap baris.
+     * @param kuantitas Kuantitas setiap baris.
+     * @param jumlahBaris Jumlah baris keranjang, mulai dari indeks 0.
+     * @param tipePelanggan Tipe pelanggan pemilik keranjang.
+     * @param diskonPerBaris Array tujuan untuk nilai diskon setiap baris.
+     * @return Total diskon seluruh keranjang.
+     * @throws IllegalArgumentException jika jumlah baris tidak sesuai panjang array, atau ada baris
+     *         dengan produk null atau harga/kuantitas tidak positif (baris sebelumnya sudah terisi).
+     */
+    public double hitungDiskonKeranjang(Produk[] produk, int[] kuantitas, int jumlahBaris,
+                                        TipePelanggan tipePelanggan, double[] diskonPerBaris) {
+        if (jumlahBaris < 0 || jumlahBaris > produk.length || jumlahBaris > kuantitas.length
+                || jumlahBaris > diskonPerBaris.length) {
+            throw new IllegalArgumentException("Jumlah baris tidak sesuai dengan panjang array");
+        }
+        PeristiwaDiskonMassal peristiwa = PeristiwaDiskonMassal.mulai();
+        TabelDiskonKategori.Isi isi = tabelDiskonKategori.isi();
+        double totalDiskon = 0;
+        for (int i = 0; i < jumlahBaris; i++) {
+            Produk baris = produk[i];
+            if (baris == null || baris.getHarga() <= 0 || kuantitas[i] <= 0) {
+                throw new IllegalArgumentException("Baris " + i + ": produk, harga, dan kuantitas harus valid");
+            }
+            double diskon = baris.getHarga() * kuantitas[i]
+                    * persentaseDiskon(isi, isi.cariId(baris.getKategori()), kuantitas[i], tipePelanggan);
+            diskonPerBaris[i] = diskon;
+            totalDiskon += diskon;
+        }
+        PeristiwaDiskonMassal.selesai(peristiwa, "KERANJANG", jumlahBaris);
+        return totalDiskon;
     }
 
     /**
@@ -63,6 +148,91 @@ public class KalkulatorDiskon {
         return totalSebelumDiskon - nilaiDiskon;
     }
 
+    /**
+     * Menghitung harga total setelah diskon untuk tipe pelanggan yang sudah di-resolve.
+     * @param harga Harga per unit.
+     * @param kuantitas Jumlah unit.
+     * @param tipePelanggan Tipe pelanggan.
+     * @return Harga total setelah diskon.
+     * @throws IllegalArgumentException jika harga atau kuantitas tidak positif (dipicu oleh hitungDiskon).
+     */
+    public double hitungHargaSetelahDiskon(double harga, int kuantitas, TipePelanggan tipePelanggan) {
+        double totalSebelumDiskon = harga * kuantitas;
+        double nilaiDiskon = hitungDiskon(harga, kuantitas, tipePelanggan);
+
+        return totalSebelumDiskon - nilaiDiskon;
+    }
+
+    /**
+     * Menghitung harga total setelah diskon untuk banyak baris sekaligus dalam satu pass,
+     * tanpa alokasi. Hasil setiap baris identik dengan
+     * {@link #hitungHargaSetelahDiskon(double, int, TipePelanggan)}.
+     * @param harga Harga per unit setiap baris.
+     * @param kuantitas Jumlah unit setiap baris.
+     * @param tipePelanggan Tipe pelanggan setiap baris (boleh null).
+     * @param hasil Array tujuan; baris dengan harga atau kuantitas tidak positif diisi NaN.
+     * @param jumlah Jumlah baris yang dihitung, mulai dari indeks 0.
+     * @throws IllegalArgumentException jika jumlah negatif atau melebihi panjang salah satu array.
+     */
+    public void hitungHargaSetelahDiskonMassal(double[] harga, int[] kuantitas, TipePelanggan[] tipePelanggan,
+                                               double[] hasil, int jumlah) {
+        if (jumlah < 0 || jumlah > harga.length || jumlah > kuantitas.length
+                || jumlah > tipePelanggan.length || jumlah > hasil.length) {
+            throw new IllegalArgumentException("Jumlah baris tidak sesuai dengan panjang array");
+        }
+        PeristiwaDiskonMassal peristiwa = PeristiwaDiskonMassal.mulai();
+        for (int i = 0; i < jumlah; i++) {
+            if (harga[i] <= 0 || kuantitas[i] <= 0) {
+                hasil[i] = Double.NaN;
+                continue;
+            }
+            double totalSebelumDiskon = harga[i] * kuantitas[i];
+            double persentaseDiskon = Math.min(persentaseDiskon(kuantitas[i], tipePelanggan[i]), 0.30);
+            hasil[i] = totalSebelumDiskon - harga[i] * kuantitas[i] * persentaseDiskon;
+        }
+        PeristiwaDiskonMassal.selesai(peristiwa, "MASSAL", jumlah);
+    }
+
+    /**
+     * Persentase diskon akhir (sudah dibatasi) untuk kategori dengan id tertentu,
+     * atau tingkat bawaan jika idKategori -1.
+     */
+    private static double persentaseDiskon(TabelDiskonKategori.Isi isi, int idKategori, int kuantitas,
+                                           TipePelanggan tipePelanggan) {
+        if (idKategori < 0) {
+            return Math.min(persentaseDiskon(kuantitas, tipePelanggan), 0.30);
+        }
+        double persentaseDiskon = isi.persentaseKuantitas(idKategori, kuantitas);
+        if (tipePelanggan != null) {
+            persentaseDiskon += tipePelanggan.getPersentaseDiskon();
+        }
+        return Math.min(persentaseDiskon, isi.batasMaksimum(idKategori));
+    }
+
+    /**
+     * Persentase diskon gabungan kuantitas dan tipe pelanggan, sebelum dibatasi 30%.
+     */
+    private static double persentaseDiskon(int kuantitas, TipePelanggan tipePelanggan) {
+        double persentaseDiskon = 0.0;
+
+        // --- Diskon berdasarkan kuantitas ---
+        if (kuantitas >= 100) {
+            persentaseDiskon += 0.20; // 20%
+        } else if (kuantitas >= 50) {
+            persentaseDiskon += 0.15; // 15%
+        } else if (kuantitas >= 10) {
+            persentaseDiskon += 0.10; // 10%
+        } else if (kuantitas >= 5) {
+            persentaseDiskon += 0.05; // 5%
+        }
+
+        // --- Diskon berdasarkan tipe pelanggan ---
+        if (tipePelanggan != null) {
+            persentaseDiskon += tipePelanggan.getPersentaseDiskon();
+        }
+        return persentaseDiskon;
+    }
+
     /**
      * Menentukan kategori diskon berdasarkan persentase diskon yang diberikan.
      * @param persentaseDiskon Persentase diskon (dalam bentuk desimal, mis. 0.15).
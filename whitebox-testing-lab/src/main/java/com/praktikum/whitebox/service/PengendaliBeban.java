@@ -0,0 +1,160 @@
+package com.praktikum.whitebox.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pengendali penerimaan (admission control) untuk ServiceInventaris.
+ * <p>
+ * Setiap jalur prioritas (tulis, baca, laporan) punya batas konkurensi sendiri, sehingga
+ * pencarian yang membanjir tidak menghabiskan jatah mutasi stok, dan laporan tetap mendapat
+ * jatahnya sendiri. Batas tiap jalur menyesuaikan latensi yang teramati (AIMD): setiap
+ * operasi yang selesai di bawah target latensi menaikkan batas sebesar 1/batas (kira-kira
+ * +1 per satu putaran penuh), sedangkan operasi yang melewati target mengalikan batas dengan
+ * 0,5. Penurunan berikutnya baru boleh terjadi setelah sebanyak batas baru operasi selesai,
+ * agar satu gelombang operasi lambat hanya dihitung sekali.
+ * <p>
+ * Permintaan yang melebihi batas langsung ditolak tanpa antrean, sehingga pemanggil yang
+ * menumpuk tidak menahan memori saat repository melambat.
+ */
+public class PengendaliBeban {
+
+    /**
+     * Jalur prioritas; masing-masing dibatasi terpisah.
+     */
+    public enum Jalur {
+        TULIS,    // Mutasi: tambah, hapus, update/keluar/masuk stok
+        BACA,     // Pencarian produk
+        LAPORAN   // Agregasi atas seluruh produk
+    }
+
+    private static final double FAKTOR_PENURUNAN = 0.5;
+
+    private final class Batas {
+        final AtomicInteger sedangBerjalan = new AtomicInteger();
+        final LongAdder ditolak = new LongAdder();
+        // Batas pecahan disimpan sebagai bit double agar bisa diubah dengan CAS tanpa kunci.
+        final AtomicLong batas = new AtomicLong(Double.doubleToRawLongBits(batasAwal));
+        final AtomicInteger selesaiSejakTurun = new AtomicInteger();
+
+        double batas() {
+            return Double.longBitsToDouble(batas.get());
+        }
+
+        boolean izinkan() {
+            while (true) {
+                int n = sedangBerjalan.get();
+                if (n >= (int) batas()) {
+                    ditolak.increment();
+                    return false;
+                }
+                if (sedangBerjalan.compareAndSet(n, n + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void selesai(long latensiNanos) {
+            sedangBerjalan.decrementAndGet();
+            int sejakTurun = selesaiSejakTurun.incrementAndGet();
+            boolean lambat = latensiNanos > targetLatensiNanos;
+            while (true) {
+                long bit = batas.get();
+                double b = Double.longBitsToDouble(bit);
+                double baru;
+                if (lambat) {
+                    if (sejakTurun < (int) b) {
+                        return;
+                    }
+                    baru = Math.max(batasMinimum, b * FAKTOR_PENURUNAN);
+                } else {
+                    baru = Math.min(batasMaksimum, b + 1.0 / b);
+                }
+                if (batas.compareAndSet(bit, Double.doubleToRawLongBits(baru))) {
+                    if (lambat) {
+                        selesaiSejakTurun.set(0);
+                    }
+                    return;
+                }
+                // Thread lain mengubah batas lebih dulu; hitung ulang dari nilai terbaru.
+                sejakTurun = selesaiSejakTurun.get();
+            }
+        }
+    }
+
+    private final long targetLatensiNanos;
+    private final int batasAwal;
+    private final int batasMinimum;
+    private final int batasMaksimum;
+    private final Map<Jalur, Batas> jalur = new EnumMap<>(Jalur.class);
+
+    /**
+     * Target latensi 50 ms, batas awal 20, minimum 1, maksimum 200 per jalur.
+     */
+    public PengendaliBeban() {
+        this(50, 20, 1, 200);
+    }
+
+    /**
+     * @param targetLatensiMillis Latensi operasi di atas nilai ini dianggap tanda kelebihan beban.
+     * @param batasAwal Batas konkurensi awal tiap jalur.
+     * @param batasMinimum Batas terendah; jalur tidak pernah ditutup sepenuhnya.
+     * @param batasMaksimum Batas tertinggi.
+     */
+    public PengendaliBeban(long targetLatensiMillis, int batasAwal, int batasMinimum, int batasMaksimum) {
+        if (targetLatensiMillis <= 0) {
+            throw new IllegalArgumentException("Target latensi harus positif");
+        }
+        if (batasMinimum < 1 || batasAwal < batasMinimum || batasMaksimum < batasAwal) {
+            throw new IllegalArgumentException("Batas harus memenuhi 1 <= minimum <= awal <= maksimum");
+        }
+        this.targetLatensiNanos = targetLatensiMillis * 1_000_000L;
+        this.batasAwal = batasAwal;
+        this.batasMinimum = batasMinimum;
+        this.batasMaksimum = batasMaksimum;
+        for (Jalur j : Jalur.values()) {
+            jalur.put(j, new Batas());
+        }
+    }
+
+    /**
+     * Meminta izin menjalankan satu operasi. Jika diizinkan, pemanggil wajib memanggil
+     * {@link #selesai(Jalur, long)} tepat sekali setelah operasi selesai.
+     * @return false jika jalur sudah penuh; operasi harus ditolak tanpa menunggu.
+     */
+    public boolean izinkan(Jalur j) {
+        return jalur.get(j).izinkan();
+    }
+
+    /**
+     * Melaporkan operasi yang sudah selesai beserta latensinya, lalu menyesuaikan batas jalur.
+     * @param latensiNanos Lama operasi dalam nanodetik.
+     */
+    public void selesai(Jalur j, long latensiNanos) {
+        jalur.get(j).selesai(latensiNanos);
+    }
+
+    /**
+     * @return Batas konkurensi jalur saat ini (dibulatkan ke bawah).
+     */
+    public int getBatas(Jalur j) {
+        return (int) jalur.get(j).batas();
+    }
+
+    /**
+     * @return Jumlah operasi jalur yang sedang berjalan.
+     */
+    public int getSedangBerjalan(Jalur j) {
+        return jalur.get(j).sedangBerjalan.get();
+    }
+
+    /**
+     * @return Jumlah permintaan jalur yang ditolak sejak pengendali dibuat.
+     */
+    public long getJumlahDitolak(Jalur j) {
+        return jalur.get(j).ditolak.sum();
+    }
+}
@@ -0,0 +1,198 @@
+package com.praktikum.whitebox.service;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.RepositoryProduk;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Penggabung mutasi stok (flat combining) untuk ServiceInventaris.
+ * <p>
+ * Setiap kode punya satu slot berisi daftar permintaan (stack Treiber) dan satu kunci.
+ * Pemanggil mendorong permintaannya ke daftar, lalu mencoba mengambil kunci. Yang berhasil
+ * menjadi penggabung: ia mengambil seluruh daftar sekaligus, membaca stok sekali, memutuskan
+ * setiap permintaan secara berurutan (keluar ditolak jika stok berjalan tidak cukup), lalu
+ * menulis stok akhir dengan satu updateStok. Pemanggil lain cukup menunggu hasilnya.
+ * Dengan begitu, banyak keluarStok bersamaan pada satu SKU populer menjadi satu baca dan
+ * satu tulis ke repository, bukan antrean panjang pada kunci atau loop CAS yang terus gagal.
+ * <p>
+ * Semua mutasi keluar/masuk untuk satu kode harus lewat penggabung ini agar tidak ada
+ * lost update; updateStok langsung tetap tidak digabung. Slot tidak pernah dibuang, jadi
+ * memori bertambah satu slot per kode yang pernah dimutasi.
+ */
+class PenggabungStok {
+
+    private static final int PUTARAN_MAKSIMUM = 16; // Batas giliran penggabung sebelum kunci dilepas
+    // Pada mesin satu inti menunggu sambil berputar hanya menghalangi penggabung
+    private static final int PUTAR_SEBELUM_PARKIR = Runtime.getRuntime().availableProcessors() > 1 ? 1024 : 0;
+
+    /**
+     * Satu permintaan mutasi. Hasil ditulis penggabung lalu dibaca pemiliknya.
+     */
+    private static final class Permintaan {
+        final int jumlah;       // Negatif untuk keluar, positif untuk masuk
+        final int ditahan;      // Stok yang harus tetap tersisa untuk tahanan reservasi lain
+        final Thread pemilik = Thread.currentThread();
+        Permintaan berikutnya;  // Ditulis sebelum dipublikasikan lewat CAS
+        boolean diterima;       // Hanya dipakai penggabung
+        volatile StatusOperasi hasil;
+
+        Permintaan(int jumlah, int ditahan) {
+            this.jumlah = jumlah;
+            this.ditahan = ditahan;
+        }
+    }
+
+    private static final class Slot {
+        final AtomicReference<Permintaan> kepala = new AtomicReference<>();
+        final ReentrantLock kunci = new ReentrantLock();
+    }
+
+    private final RepositoryProduk repositoryProduk;
+    private final ConcurrentHashMap<String, Slot> slot = new ConcurrentHashMap<>();
+    private final LongAdder jumlahPermintaan = new LongAdder();
+    private final LongAdder jumlahPenulisan = new LongAdder();
+
+    PenggabungStok(RepositoryProduk repositoryProduk) {
+        this.repositoryProduk = repositoryProduk;
+    }
+
+    /**
+     * @param ditahan Stok yang tidak boleh ikut terpakai karena ditahan reservasi.
+     * @return BERHASIL, TIDAK_DITEMUKAN, TIDAK_AKTIF, STOK_TIDAK_CUKUP, atau GAGAL_REPOSITORY.
+     */
+    StatusOperasi keluar(String kode, int jumlah, int ditahan) {
+        return ajukan(kode, -jumlah, ditahan);
+    }
+
+    /**
+     * @return BERHASIL, TIDAK_DITEMUKAN, TIDAK_AKTIF, atau GAGAL_REPOSITORY.
+     */
+    StatusOperasi masuk(String kode, int jumlah) {
+        return ajukan(kode, jumlah, 0);
+    }
+
+    /**
+     * @return Jumlah permintaan yang sudah diputuskan.
+     */
+    long getJumlahPermintaan() {
+        return jumlahPermintaan.sum();
+    }
+
+    /**
+     * @return Jumlah updateStok yang benar-benar dikirim ke repository.
+     */
+    long getJumlahPenulisan() {
+        return jumlahPenulisan.sum();
+    }
+
+    private StatusOperasi ajukan(String kode, int jumlah, int ditahan) {
+        Slot s = slot.computeIfAbsent(kode, k -> new Slot());
+        Permintaan permintaan = new Permintaan(jumlah, ditahan);
+        Permintaan kepala;
+        do {
+            kepala = s.kepala.get();
+            permintaan.berikutnya = kepala;
+        } while (!s.kepala.compareAndSet(kepala, permintaan));
+
+        int putar = 0;
+        StatusOperasi hasil;
+        while ((hasil = permintaan.hasil) == null) {
+            if (s.kunci.tryLock()) {
+                try {
+                    gabungkan(kode, s);
+                } finally {
+                    s.kunci.unlock();
+                }
+                serahkan(s);
+            } else if (putar < PUTAR_SEBELUM_PARKIR) {
+                putar++;
+                Thread.onSpinWait();
+            } else {
+                // Dibangunkan oleh penggabung saat hasil siap atau saat giliran menggabung diserahkan
+                LockSupport.park(this);
+            }
+        }
+        return hasil;
+    }
+
+    private void gabungkan(String kode, Slot s) {
+        for (int putaran = 0; putaran < PUTARAN_MAKSIMUM; putaran++) {
+            Permintaan daftar = s.kepala.getAndSet(null);
+            if (daftar == null) {
+                return;
+            }
+            // Stack berisi urutan terbalik; dibalik agar diputuskan sesuai urutan kedatangan
+            Permintaan urut = null;
+            while (daftar != null) {
+                Permintaan berikutnya = daftar.berikutnya;
+                daftar.berikutnya = urut;
+                urut = daftar;
+                daftar = berikutnya;
+            }
+            putuskan(kode, urut);
+        }
+    }
+
+    private void putuskan(String kode, Permintaan daftar) {
+        StatusOperasi statusDiterima;
+        StatusOperasi statusSemua = null;
+        try {
+            Optional<Produk> produk = repositoryProduk.cariByKode(kode);
+            if (produk.isEmpty()) {
+                statusSemua = StatusOperasi.TIDAK_DITEMUKAN;
+            } else if (!produk.get().isAktif()) {
+                statusSemua = StatusOperasi.TIDAK_AKTIF;
+            }
+            if (statusSemua != null) {
+                statusDiterima = statusSemua;
+            } else {
+                int stokAwal = produk.get().getStok();
+                int stok = stokAwal;
+                for (Permintaan p = daftar; p != null; p = p.berikutnya) {
+                    if (p.jumlah < 0 && stok - p.ditahan < -p.jumlah) {
+                        p.diterima = false;
+                    } else {
+                        stok += p.jumlah;
+                        p.diterima = true;
+                    }
+                }
+                boolean tersimpan = true;
+                if (stok != stokAwal) {
+                    tersimpan = repositoryProduk.updateStok(kode, stok);
+                    jumlahPenulisan.increment();
+                }
+                statusDiterima = tersimpan ? StatusOperasi.BERHASIL : StatusOperasi.GAGAL_REPOSITORY;
+            }
+        } catch (RuntimeException e) {
+            statusSemua = StatusOperasi.GAGAL_REPOSITORY;
+            statusDiterima = statusSemua;
+        }
+
+        while (daftar != null) {
+            Permintaan berikutnya = daftar.berikutnya;
+            StatusOperasi hasil = statusSemua != null ? statusSemua
+                    : daftar.diterima ? statusDiterima : StatusOperasi.STOK_TIDAK_CUKUP;
+            Thread pemilik = daftar.pemilik;
+            jumlahPermintaan.increment();
+            daftar.hasil = hasil;
+            LockSupport.unpark(pemilik);
+            daftar = berikutnya;
+        }
+    }
+
+    /**
+     * Jika masih ada permintaan yang menunggu setelah kunci dilepas, bangunkan salah satu
+     * pemiliknya agar menjadi penggabung berikutnya.
+     */
+    private static void serahkan(Slot s) {
+        Permintaan menunggu = s.kepala.get();
+        if (menunggu != null) {
+            LockSupport.unpark(menunggu.pemilik);
+        }
+    }
+}
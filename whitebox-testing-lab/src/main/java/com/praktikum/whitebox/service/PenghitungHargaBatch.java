@@ -0,0 +1,235 @@
+package com.praktikum.whitebox.service;
+
+import com.praktikum.whitebox.model.TipePelanggan;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Front-end perhitungan harga yang menggabungkan banyak permintaan tunggal dari
+ * thread-thread berbeda menjadi micro-batch.
+ * <p>
+ * Setiap pemanggil langsung mendapat CompletableFuture. Satu thread penggabung mengambil
+ * permintaan pertama dari antrean, lalu menunggu paling lama jendela tunggu (beberapa ratus
+ * mikrodetik) atau sampai batch penuh, dan menghitung seluruh batch dalam satu pass lewat
+ * {@link KalkulatorDiskon#hitungHargaSetelahDiskonMassal}. Dengan jendela tunggu 0, batch
+ * berisi apa saja yang sudah mengantre saat penggabung siap (smart batching).
+ * <p>
+ * Future diselesaikan di thread penggabung; aksi lanjutan yang berat sebaiknya memakai
+ * varian *Async dari CompletableFuture.
+ */
+public class PenghitungHargaBatch implements AutoCloseable {
+
+    public static final int UKURAN_BATCH_DEFAULT = 256;
+    public static final long JENDELA_TUNGGU_DEFAULT_NANOS = 200_000; // 200 mikrodetik
+
+    /**
+     * Satu permintaan yang menunggu dihitung.
+     */
+    private static final class Permintaan {
+        final double harga;
+        final int kuantitas;
+        final TipePelanggan tipePelanggan;
+        final CompletableFuture<Double> hasil = new CompletableFuture<>();
+
+        Permintaan(double harga, int kuantitas, TipePelanggan tipePelanggan) {
+            this.harga = harga;
+            this.kuantitas = kuantitas;
+            this.tipePelanggan = tipePelanggan;
+        }
+    }
+
+    private final KalkulatorDiskon kalkulatorDiskon;
+    private final int ukuranBatchMaksimum;
+    private final long jendelaTungguNanos;
+    private final BlockingQueue<Permintaan> antrean = new LinkedBlockingQueue<>();
+    private final Thread penggabung;
+    private volatile boolean tertutup;
+
+    // Dipakai ulang oleh thread penggabung untuk setiap batch
+    private final List<Permintaan> batch;
+    private final double[] harga;
+    private final int[] kuantitas;
+    private final TipePelanggan[] tipePelanggan;
+    private final double[] hasil;
+
+    private final LongAdder jumlahBatch = new LongAdder();
+    private final LongAdder jumlahPermintaan = new LongAdder();
+
+    public PenghitungHargaBatch(KalkulatorDiskon kalkulatorDiskon) {
+        this(kalkulatorDiskon, UKURAN_BATCH_DEFAULT, JENDELA_TUNGGU_DEFAULT_NANOS);
+    }
+
+    /**
+     * Membuat front-end dan langsung menjalankan thread penggabung (daemon).
+     * @param kalkulatorDiskon Kalkulator yang menghitung setiap batch.
+     * @param ukuranBatchMaksimum Jumlah permintaan maksimum per batch.
+     * @param jendelaTungguNanos Waktu tunggu maksimum sejak permintaan pertama batch diambil.
+     * @throws IllegalArgumentException jika ukuran batch tidak positif atau jendela tunggu negatif.
+     */
+    public PenghitungHargaBatch(KalkulatorDiskon kalkulatorDiskon, int ukuranBatchMaksimum, long jendelaTungguNanos) {
+        if (ukuranBatchMaksimum <= 0) {
+            throw new IllegalArgumentException("Ukuran batch harus positif");
+        }
+        if (jendelaTungguNanos < 0) {
+            throw new IllegalArgumentException("Jendela tunggu tidak boleh negatif");
+        }
+        this.kalkulatorDiskon = kalkulatorDiskon;
+        this.ukuranBatchMaksimum = ukuranBatchMaksimum;
+        this.jendelaTungguNanos = jendelaTungguNanos;
+        this.batch = new ArrayList<>(ukuranBatchMaksimum);
+        this.harga = new double[ukuranBatchMaksimum];
+        this.kuantitas = new int[ukuranBatchMaksimum];
+        this.tipePelanggan = new TipePelanggan[ukuranBatchMaksimum];
+        this.hasil = new double[ukuranBatchMaksimum];
+
+        this.penggabung = new Thread(this::jalankan, "penggabung-harga");
+        penggabung.setDaemon(true);
+        penggabung.start();
+    }
+
+    /**
+     * Mengajukan satu perhitungan harga setelah diskon.
+     * @param harga Harga per unit.
+     * @param kuantitas Jumlah unit.
+     * @param tipePelanggan Tipe pelanggan (boleh null).
+     * @return Future berisi hasil yang sama dengan
+     *         {@link KalkulatorDiskon#hitungHargaSetelahDiskon(double, int, TipePelanggan)}; gagal dengan
+     *         IllegalArgumentException jika harga atau kuantitas tidak positif, atau
+     *         IllegalStateException jika front-end sudah ditutup.
+     */
+    public CompletableFuture<Double> hitungHargaSetelahDiskon(double harga, int kuantitas, TipePelanggan tipePelanggan) {
+        if (harga <= 0 || kuantitas <= 0) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Harga dan kuantitas harus positif"));
+        }
+        if (tertutup) {
+            return ditolakKarenaTertutup();
+        }
+        Permintaan permintaan = new Permintaan(harga, kuantitas, tipePelanggan);
+        antrean.add(permintaan);
+        // Jika ditutup bersamaan dan belum sempat diambil siapa pun, batalkan di sini
+        if (tertutup && antrean.remove(permintaan)) {
+            return ditolakKarenaTertutup();
+        }
+        return permintaan.hasil;
+    }
+
+    /**
+     * @return Jumlah batch yang sudah dihitung.
+     */
+    public long getJumlahBatch() {
+        return jumlahBatch.sum();
+    }
+
+    /**
+     * @return Jumlah permintaan yang sudah dihitung.
+     */
+    public long getJumlahPermintaan() {
+        return jumlahPermintaan.sum();
+    }
+
+    /**
+     * Menghentikan penggabung. Permintaan yang sudah mengantre tetap dihitung sebelum
+     * method ini kembali; permintaan baru ditolak.
+     */
+    @Override
+    public void close() {
+        if (tertutup) {
+            return;
+        }
+        tertutup = true;
+        penggabung.interrupt();
+        boolean terinterupsi = false;
+        while (penggabung.isAlive()) {
+            try {
+                penggabung.join();
+            } catch (InterruptedException e) {
+                terinterupsi = true;
+            }
+        }
+        // Penggabung sudah berhenti, sehingga buffer batch aman dipakai di thread ini
+        while (!antrean.isEmpty()) {
+            batch.clear();
+            antrean.drainTo(batch, ukuranBatchMaksimum);
+            hitungBatch();
+        }
+        if (terinterupsi) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void jalankan() {
+        try {
+            while (!tertutup) {
+                batch.clear();
+                batch.add(antrean.take());
+                kumpulkan();
+                hitungBatch();
+            }
+        } catch (InterruptedException e) {
+            // Ditutup: sisa antrean dihitung oleh close()
+        } finally {
+            // Batch yang sedang dikumpulkan saat diinterupsi dikembalikan ke antrean
+            antrean.addAll(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Menambah permintaan ke batch sampai penuh atau jendela tunggu habis.
+     */
+    private void kumpulkan() throws InterruptedException {
+        long batasWaktu = System.nanoTime() + jendelaTungguNanos;
+        while (batch.size() < ukuranBatchMaksimum) {
+            antrean.drainTo(batch, ukuranBatchMaksimum - batch.size());
+            if (batch.size() >= ukuranBatchMaksimum) {
+                return;
+            }
+            long sisa = batasWaktu - System.nanoTime();
+            if (sisa <= 0) {
+                return;
+            }
+            Permintaan permintaan = antrean.poll(sisa, TimeUnit.NANOSECONDS);
+            if (permintaan == null) {
+                return;
+            }
+            batch.add(permintaan);
+        }
+    }
+
+    private void hitungBatch() {
+        int jumlah = batch.size();
+        if (jumlah == 0) {
+            return;
+        }
+        for (int i = 0; i < jumlah; i++) {
+            Permintaan permintaan = batch.get(i);
+            harga[i] = permintaan.harga;
+            kuantitas[i] = permintaan.kuantitas;
+            tipePelanggan[i] = permintaan.tipePelanggan;
+        }
+        // Dicatat sebelum future diselesaikan, agar pemanggil yang sudah menerima hasil
+        // selalu melihat permintaannya terhitung
+        jumlahBatch.increment();
+        jumlahPermintaan.add(jumlah);
+        try {
+            kalkulatorDiskon.hitungHargaSetelahDiskonMassal(harga, kuantitas, tipePelanggan, hasil, jumlah);
+            for (int i = 0; i < jumlah; i++) {
+                batch.get(i).hasil.complete(hasil[i]);
+            }
+        } catch (RuntimeException e) {
+            for (int i = 0; i < jumlah; i++) {
+                batch.get(i).hasil.completeExceptionally(e);
+            }
+        }
+        batch.clear();
+    }
+
+    private static CompletableFuture<Double> ditolakKarenaTertutup() {
+        return CompletableFuture.failedFuture(new IllegalStateException("Penghitung harga sudah ditutup"));
+    }
+}
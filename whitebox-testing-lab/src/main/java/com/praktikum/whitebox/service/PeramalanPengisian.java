@@ -0,0 +1,258 @@
+package com.praktikum.whitebox.service;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.RepositoryProduk;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Mesin peramalan pengisian ulang stok berdasarkan riwayat pengeluaran stok.
+ * <p>
+ * Setiap pengeluaran stok ({@link #catatKeluar(String, int)}, biasanya didaftarkan lewat
+ * {@link ServiceInventaris#tambahPendengarKeluarStok}) memperbarui laju permintaan per kode
+ * dengan rata-rata bergerak eksponensial berbasis waktu: jumlah terluruh
+ * S = S * e^(-dt / tau) + jumlah, sehingga laju = S / tau. Pembaruan O(1) dan hanya
+ * menyentuh dua angka di array primitif, jadi aman dijalankan langsung di jalur transaksi.
+ * Estimasi mencapai bobot penuh setelah kira-kira satu konstanta waktu tau.
+ * <p>
+ * Dari laju harian diturunkan titik pesan ulang = laju * (waktu tunggu + hari pengaman)
+ * dan jumlah pesan untuk mengisi stok sampai laju * (waktu tunggu + periode tinjauan +
+ * hari pengaman). Jika diaktifkan, titik pesan ulang langsung dipakai sebagai stokMinimum.
+ */
+public class PeramalanPengisian {
+
+    public static final long MILLIS_PER_HARI = 24L * 60 * 60 * 1000;
+    public static final long KONSTANTA_WAKTU_DEFAULT_MILLIS = 7 * MILLIS_PER_HARI;
+
+    private static final int BIT_BLOK = 10;
+    private static final int UKURAN_BLOK = 1 << BIT_BLOK; // Slot per blok array
+    private static final int MASK_BLOK = UKURAN_BLOK - 1;
+    private static final int JUMLAH_KUNCI = 64;           // Kunci bergaris (striped) antar slot
+
+    /**
+     * Saran pengisian ulang untuk satu produk.
+     */
+    public static class SaranPengisian {
+        private final String kode;
+        private final double lajuHarian;
+        private final int titikPesanUlang;
+        private final int stok;
+        private final int jumlahPesan;
+
+        SaranPengisian(String kode, double lajuHarian, int titikPesanUlang, int stok, int jumlahPesan) {
+            this.kode = kode;
+            this.lajuHarian = lajuHarian;
+            this.titikPesanUlang = titikPesanUlang;
+            this.stok = stok;
+            this.jumlahPesan = jumlahPesan;
+        }
+
+        public String getKode() {
+            return kode;
+        }
+
+        public double getLajuHarian() {
+            return lajuHarian;
+        }
+
+        public int getTitikPesanUlang() {
+            return titikPesanUlang;
+        }
+
+        public int getStok() {
+            return stok;
+        }
+
+        /**
+         * @return Jumlah yang disarankan untuk dipesan, 0 jika stok masih di atas titik pesan ulang.
+         */
+        public int getJumlahPesan() {
+            return jumlahPesan;
+        }
+
+        public boolean isPerluPesan() {
+            return jumlahPesan > 0;
+        }
+    }
+
+    private final RepositoryProduk repositoryProduk;
+    private final LongSupplier jamMillis;
+    private final double konstantaWaktuMillis;
+    private final double hariSampaiTitikPesan;  // waktu tunggu + hari pengaman
+    private final double hariSampaiSasaran;     // waktu tunggu + periode tinjauan + hari pengaman
+    private volatile boolean otomatisStokMinimum;
+
+    private final ConcurrentHashMap<String, Integer> slotPerKode = new ConcurrentHashMap<>();
+    private final Object[] kunci = new Object[JUMLAH_KUNCI];
+    // Data per slot dalam blok array primitif. Blok tidak pernah dipindah; hanya array
+    // luarnya yang disalin saat bertambah, sehingga pembaruan di blok lama tidak hilang.
+    private volatile double[][] jumlahTerluruh = new double[0][];
+    private volatile long[][] waktuTerakhir = new long[0][];
+    private int jumlahSlot; // Dijaga oleh this
+
+    /**
+     * Membuat mesin dengan konstanta waktu 7 hari, waktu tunggu 3 hari, periode tinjauan
+     * 7 hari, dan 2 hari pengaman.
+     */
+    public PeramalanPengisian(RepositoryProduk repositoryProduk) {
+        this(repositoryProduk, System::currentTimeMillis, KONSTANTA_WAKTU_DEFAULT_MILLIS, 3, 7, 2);
+    }
+
+    /**
+     * @param repositoryProduk Sumber stok terkini dan tujuan pembaruan stokMinimum.
+     * @param jamMillis Sumber waktu dalam milidetik.
+     * @param konstantaWaktuMillis Konstanta waktu tau peluruhan; permintaan yang lebih tua
+     *                             dari beberapa tau praktis tidak berpengaruh lagi.
+     * @param waktuTungguHari Lama pesanan pemasok tiba.
+     * @param periodeTinjauanHari Jarak antar pemesanan yang ingin dicakup satu pesanan.
+     * @param hariPengaman Stok pengaman, dalam hari permintaan.
+     * @throws IllegalArgumentException jika konstanta waktu tidak positif atau jumlah hari negatif.
+     */
+    public PeramalanPengisian(RepositoryProduk repositoryProduk, LongSupplier jamMillis, long konstantaWaktuMillis,
+                              double waktuTungguHari, double periodeTinjauanHari, double hariPengaman) {
+        if (konstantaWaktuMillis <= 0) {
+            throw new IllegalArgumentException("Konstanta waktu harus positif");
+        }
+        if (waktuTungguHari < 0 || periodeTinjauanHari < 0 || hariPengaman < 0) {
+            throw new IllegalArgumentException("Jumlah hari tidak boleh negatif");
+        }
+        this.repositoryProduk = repositoryProduk;
+        this.jamMillis = jamMillis;
+        this.konstantaWaktuMillis = konstantaWaktuMillis;
+        this.hariSampaiTitikPesan = waktuTungguHari + hariPengaman;
+        this.hariSampaiSasaran = waktuTungguHari + periodeTinjauanHari + hariPengaman;
+        for (int i = 0; i < JUMLAH_KUNCI; i++) {
+            kunci[i] = new Object();
+        }
+    }
+
+    /**
+     * Jika aktif, setiap pengeluaran stok juga menyetel stokMinimum produk ke titik pesan
+     * ulang terbaru (hanya saat nilainya berubah), sehingga isStokMenipis mengikuti permintaan.
+     */
+    public void setOtomatisStokMinimum(boolean otomatisStokMinimum) {
+        this.otomatisStokMinimum = otomatisStokMinimum;
+    }
+
+    /**
+     * Mencatat pengeluaran stok. O(1) dan tidak mengalokasi objek setelah kode pertama kali terlihat.
+     * @param kode Kode produk.
+     * @param jumlah Jumlah yang dikeluarkan; nilai tidak positif diabaikan.
+     */
+    public void catatKeluar(String kode, int jumlah) {
+        if (kode == null || jumlah <= 0) {
+            return;
+        }
+        Integer slot = slotPerKode.get(kode);
+        if (slot == null) {
+            slot = slotPerKode.computeIfAbsent(kode, k -> alokasiSlot());
+        }
+        long sekarang = jamMillis.getAsLong();
+        double[] blokJumlah = jumlahTerluruh[slot >>> BIT_BLOK];
+        long[] blokWaktu = waktuTerakhir[slot >>> BIT_BLOK];
+        int i = slot & MASK_BLOK;
+        double laju;
+        synchronized (kunci[slot & (JUMLAH_KUNCI - 1)]) {
+            double jumlahBaru = luruhkan(blokJumlah[i], blokWaktu[i], sekarang) + jumlah;
+            blokJumlah[i] = jumlahBaru;
+            blokWaktu[i] = Math.max(blokWaktu[i], sekarang);
+            laju = jumlahBaru / konstantaWaktuMillis;
+        }
+        if (otomatisStokMinimum) {
+            terapkanStokMinimum(kode, titikPesanUlang(laju * MILLIS_PER_HARI));
+        }
+    }
+
+    /**
+     * @param kode Kode produk.
+     * @return Estimasi laju permintaan per hari saat ini, 0 jika belum pernah ada pengeluaran.
+     */
+    public double getLajuHarian(String kode) {
+        Integer slot = kode == null ? null : slotPerKode.get(kode);
+        if (slot == null) {
+            return 0;
+        }
+        long sekarang = jamMillis.getAsLong();
+        double[] blokJumlah = jumlahTerluruh[slot >>> BIT_BLOK];
+        long[] blokWaktu = waktuTerakhir[slot >>> BIT_BLOK];
+        int i = slot & MASK_BLOK;
+        double jumlah;
+        synchronized (kunci[slot & (JUMLAH_KUNCI - 1)]) {
+            jumlah = luruhkan(blokJumlah[i], blokWaktu[i], sekarang);
+        }
+        return jumlah / konstantaWaktuMillis * MILLIS_PER_HARI;
+    }
+
+    /**
+     * Menyusun saran pengisian untuk satu produk berdasarkan laju permintaan dan stok terkini.
+     * @param kode Kode produk.
+     * @return Saran pengisian, atau Optional.empty() jika produk tidak ditemukan.
+     */
+    public Optional<SaranPengisian> saran(String kode) {
+        if (kode == null) {
+            return Optional.empty();
+        }
+        Optional<Produk> produk = repositoryProduk.cariByKode(kode);
+        if (produk.isEmpty()) {
+            return Optional.empty();
+        }
+        double lajuHarian = getLajuHarian(kode);
+        int titikPesanUlang = titikPesanUlang(lajuHarian);
+        int stok = produk.get().getStok();
+        int jumlahPesan = 0;
+        if (lajuHarian > 0 && stok <= titikPesanUlang) {
+            jumlahPesan = Math.max(0, (int) Math.ceil(lajuHarian * hariSampaiSasaran) - stok);
+        }
+        return Optional.of(new SaranPengisian(kode, lajuHarian, titikPesanUlang, stok, jumlahPesan));
+    }
+
+    /**
+     * @return Saran untuk semua produk yang pernah tercatat dan saat ini perlu dipesan.
+     */
+    public List<SaranPengisian> daftarPerluPesan() {
+        List<SaranPengisian> hasil = new ArrayList<>();
+        for (String kode : slotPerKode.keySet()) {
+            saran(kode).filter(SaranPengisian::isPerluPesan).ifPresent(hasil::add);
+        }
+        return hasil;
+    }
+
+    private int titikPesanUlang(double lajuHarian) {
+        return (int) Math.ceil(lajuHarian * hariSampaiTitikPesan);
+    }
+
+    private double luruhkan(double jumlah, long waktu, long sekarang) {
+        if (jumlah == 0 || sekarang <= waktu) {
+            return jumlah;
+        }
+        return jumlah * Math.exp(-(sekarang - waktu) / konstantaWaktuMillis);
+    }
+
+    private void terapkanStokMinimum(String kode, int stokMinimum) {
+        // Diterapkan atomik per kode oleh repository, sehingga stok yang berubah bersamaan tidak
+        // tertimpa; nilai yang sama tidak memicu penulisan maupun laporan ke pendengar
+        repositoryProduk.updateStokMinimum(kode, stokMinimum);
+    }
+
+    /**
+     * Mengambil slot baru, menambah blok array jika perlu. Blok dipasang sebelum slot
+     * dipublikasikan lewat ConcurrentHashMap, sehingga pembaca slot selalu melihat bloknya.
+     */
+    private synchronized int alokasiSlot() {
+        int slot = jumlahSlot++;
+        int blok = slot >>> BIT_BLOK;
+        if (blok == jumlahTerluruh.length) {
+            double[][] jumlahBaru = Arrays.copyOf(jumlahTerluruh, blok + 1);
+            long[][] waktuBaru = Arrays.copyOf(waktuTerakhir, blok + 1);
+            jumlahBaru[blok] = new double[UKURAN_BLOK];
+            waktuBaru[blok] = new long[UKURAN_BLOK];
+            waktuTerakhir = waktuBaru;
+            jumlahTerluruh = jumlahBaru;
+        }
+        return slot;
+    }
+}
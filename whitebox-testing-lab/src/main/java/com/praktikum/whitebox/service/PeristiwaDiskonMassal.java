@@ -0,0 +1,50 @@
+package com.praktikum.whitebox.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Event JDK Flight Recorder untuk satu perhitungan diskon banyak baris di KalkulatorDiskon
+ * (massal atau keranjang). Durasi event adalah lama perhitungan seluruh baris.
+ * Nama pengaturan JFR: {@code com.praktikum.whitebox.DiskonMassal}.
+ */
+@Name("com.praktikum.whitebox.DiskonMassal")
+@Label("Diskon Massal")
+@Category({"Whitebox", "Harga"})
+@Description("Satu panggilan hitungHargaSetelahDiskonMassal atau hitungDiskonKeranjang")
+@StackTrace(false)
+final class PeristiwaDiskonMassal extends Event {
+
+    @Label("Jenis")
+    String jenis;
+
+    @Label("Jumlah Baris")
+    int jumlahBaris;
+
+    private static final EventType TIPE = EventType.getEventType(PeristiwaDiskonMassal.class);
+
+    /**
+     * @return Event baru yang sudah mulai menghitung durasi, atau null jika tidak aktif.
+     */
+    static PeristiwaDiskonMassal mulai() {
+        if (!TIPE.isEnabled()) {
+            return null;
+        }
+        PeristiwaDiskonMassal peristiwa = new PeristiwaDiskonMassal();
+        peristiwa.begin();
+        return peristiwa;
+    }
+
+    static void selesai(PeristiwaDiskonMassal peristiwa, String jenis, int jumlahBaris) {
+        if (peristiwa != null && peristiwa.shouldCommit()) {
+            peristiwa.jenis = jenis;
+            peristiwa.jumlahBaris = jumlahBaris;
+            peristiwa.commit();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.praktikum.whitebox.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Event JDK Flight Recorder untuk satu mutasi stok di ServiceInventaris (keluar, masuk, atau
+ * update langsung). Durasi event adalah latensi operasi, termasuk panggilan repository.
+ * <p>
+ * Bisa dinyalakan/dimatikan sendiri lewat pengaturan JFR, misalnya
+ * {@code com.praktikum.whitebox.MutasiStok#enabled=false}. Saat tidak aktif, biayanya hanya
+ * satu pemeriksaan EventType.isEnabled() dan tidak ada objek event yang dibuat (escape
+ * analysis saja tidak selalu berhasil menghapusnya).
+ */
+@Name("com.praktikum.whitebox.MutasiStok")
+@Label("Mutasi Stok")
+@Category({"Whitebox", "Inventaris"})
+@Description("Satu keluarStok, masukStok, atau updateStok beserta hasilnya")
+@StackTrace(false)
+final class PeristiwaMutasiStok extends Event {
+
+    @Label("Jenis")
+    String jenis;
+
+    @Label("Kode Produk")
+    String kode;
+
+    @Label("Jumlah")
+    int jumlah;
+
+    @Label("Hasil")
+    String hasil;
+
+    private static final EventType TIPE = EventType.getEventType(PeristiwaMutasiStok.class);
+
+    /**
+     * Membuat event dan mulai menghitung durasi.
+     * @return Event baru, atau null jika event ini tidak aktif di rekaman mana pun.
+     */
+    static PeristiwaMutasiStok mulai() {
+        if (!TIPE.isEnabled()) {
+            return null;
+        }
+        PeristiwaMutasiStok peristiwa = new PeristiwaMutasiStok();
+        peristiwa.begin();
+        return peristiwa;
+    }
+
+    /**
+     * Mengisi field dan mencatat event, hanya jika event aktif dan lolos ambang durasi.
+     * @param peristiwa Hasil {@link #mulai()}, boleh null.
+     * @return Status yang sama, agar bisa langsung dikembalikan pemanggil.
+     */
+    static StatusOperasi selesai(PeristiwaMutasiStok peristiwa, String jenis, String kode, int jumlah,
+                                 StatusOperasi hasil) {
+        if (peristiwa != null && peristiwa.shouldCommit()) {
+            peristiwa.jenis = jenis;
+            peristiwa.kode = kode;
+            peristiwa.jumlah = jumlah;
+            peristiwa.hasil = hasil.name();
+            peristiwa.commit();
+        }
+        return hasil;
+    }
+}
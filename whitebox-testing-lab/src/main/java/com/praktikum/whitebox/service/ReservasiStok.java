@@ -0,0 +1,298 @@
+package com.praktikum.whitebox.service;
+
+import com.praktikum.whitebox.model.Produk;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Subsistem reservasi stok di atas ServiceInventaris.
+ * <p>
+ * Checkout memesan (reservasi) sejumlah stok dengan batas waktu (TTL), lalu
+ * mengonfirmasi (stok benar-benar dikeluarkan lewat keluarStok) atau melepasnya.
+ * Total stok yang ditahan per kode disimpan dalam satu entri map yang hanya diubah lewat
+ * compute, sehingga stok tersedia = stok - ditahan bisa dihitung dalam O(1) dan entri
+ * langsung dibuang begitu tahanannya kembali nol.
+ * <p>
+ * Tahanan mengikat: ReservasiStok mendaftarkan diri ke ServiceInventaris, sehingga
+ * keluarStok biasa tidak bisa memakai stok yang sedang ditahan dan konfirmasi tidak gagal
+ * karena stoknya sudah terjual di luar reservasi.
+ * <p>
+ * Tahanan yang kedaluwarsa dibersihkan oleh satu penyapu berbasis timer wheel:
+ * setiap tahanan dimasukkan ke slot sesuai waktu kedaluwarsanya, dan penyapu
+ * hanya memeriksa slot yang waktunya sudah lewat. Tidak ada thread per tahanan.
+ */
+public class ReservasiStok implements AutoCloseable {
+
+    public static final long RESOLUSI_DEFAULT_MILLIS = 100;
+    public static final int JUMLAH_SLOT_DEFAULT = 512;
+
+    /**
+     * Data satu reservasi yang masih aktif.
+     */
+    public static class Reservasi {
+        private final long id;
+        private final String kode;
+        private final int jumlah;
+        private final long kedaluwarsaMillis;
+
+        Reservasi(long id, String kode, int jumlah, long kedaluwarsaMillis) {
+            this.id = id;
+            this.kode = kode;
+            this.jumlah = jumlah;
+            this.kedaluwarsaMillis = kedaluwarsaMillis;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getKode() {
+            return kode;
+        }
+
+        public int getJumlah() {
+            return jumlah;
+        }
+
+        public long getKedaluwarsaMillis() {
+            return kedaluwarsaMillis;
+        }
+    }
+
+    private final ServiceInventaris serviceInventaris;
+    private final LongSupplier jamMillis;
+    private final long resolusiMillis;
+
+    private final ConcurrentHashMap<String, Integer> stokDitahan = new ConcurrentHashMap<>();
+    private final ToIntFunction<String> sumberTahanan = this::jumlahDitahan;
+    private final ConcurrentHashMap<Long, Reservasi> reservasiAktif = new ConcurrentHashMap<>();
+    private final AtomicLong idBerikutnya = new AtomicLong();
+
+    // Timer wheel: slot ke-i berisi reservasi yang kedaluwarsa pada tick = i (mod jumlah slot).
+    // tickTerakhir adalah tick terakhir yang sudah selesai disapu.
+    private final Queue<Reservasi>[] roda;
+    private final int maskRoda;
+    private volatile long tickTerakhir;
+
+    private ScheduledExecutorService penyapu;
+
+    public ReservasiStok(ServiceInventaris serviceInventaris) {
+        this(serviceInventaris, System::currentTimeMillis, RESOLUSI_DEFAULT_MILLIS, JUMLAH_SLOT_DEFAULT);
+    }
+
+    /**
+     * @param serviceInventaris Service untuk membaca stok dan mengeluarkan stok saat konfirmasi.
+     * @param jamMillis Sumber waktu dalam milidetik.
+     * @param resolusiMillis Lebar satu slot timer wheel.
+     * @param jumlahSlot Jumlah slot timer wheel (dibulatkan ke pangkat dua).
+     * @throws IllegalArgumentException jika resolusi atau jumlah slot tidak positif.
+     */
+    @SuppressWarnings("unchecked")
+    public ReservasiStok(ServiceInventaris serviceInventaris, LongSupplier jamMillis,
+                         long resolusiMillis, int jumlahSlot) {
+        if (resolusiMillis <= 0 || jumlahSlot <= 0) {
+            throw new IllegalArgumentException("Resolusi dan jumlah slot harus positif");
+        }
+        this.serviceInventaris = serviceInventaris;
+        this.jamMillis = jamMillis;
+        this.resolusiMillis = resolusiMillis;
+        int ukuranRoda = Integer.highestOneBit(Math.max(1, jumlahSlot - 1)) << 1;
+        this.roda = (Queue<Reservasi>[]) new Queue<?>[ukuranRoda];
+        for (int i = 0; i < ukuranRoda; i++) {
+            roda[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.maskRoda = ukuranRoda - 1;
+        this.tickTerakhir = jamMillis.getAsLong() / resolusiMillis - 1;
+        serviceInventaris.tambahSumberTahanan(sumberTahanan);
+    }
+
+    /**
+     * Menjalankan penyapu otomatis di satu thread daemon, sekali per resolusi.
+     */
+    public synchronized void mulai() {
+        if (penyapu != null) {
+            return;
+        }
+        penyapu = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "penyapu-reservasi-stok");
+            thread.setDaemon(true);
+            return thread;
+        });
+        penyapu.scheduleAtFixedRate(this::sapu, resolusiMillis, resolusiMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Menghentikan penyapu dan melepas pendaftaran tahanan dari ServiceInventaris.
+     */
+    @Override
+    public synchronized void close() {
+        serviceInventaris.hapusSumberTahanan(sumberTahanan);
+        if (penyapu != null) {
+            penyapu.shutdownNow();
+            penyapu = null;
+        }
+    }
+
+    /**
+     * Memesan sejumlah stok untuk sementara waktu.
+     * @param kode Kode produk.
+     * @param jumlah Jumlah yang dipesan.
+     * @param ttlMillis Lama tahanan berlaku.
+     * @return Reservasi yang dibuat, atau Optional.empty() jika produk tidak ditemukan/tidak aktif,
+     *         parameter tidak valid, atau stok tersedia tidak mencukupi.
+     */
+    public Optional<Reservasi> reservasi(String kode, int jumlah, long ttlMillis) {
+        if (jumlah <= 0 || ttlMillis <= 0) {
+            return Optional.empty();
+        }
+        Optional<Produk> produk = serviceInventaris.cariProdukPrimer(kode);
+        if (produk.isEmpty() || !produk.get().isAktif()) {
+            return Optional.empty();
+        }
+
+        int stok = produk.get().getStok();
+        boolean[] cukup = new boolean[1];
+        stokDitahan.compute(kode, (k, ditahan) -> {
+            int sekarang = ditahan == null ? 0 : ditahan;
+            if (stok - sekarang < jumlah) {
+                return ditahan;
+            }
+            cukup[0] = true;
+            return sekarang + jumlah;
+        });
+        if (!cukup[0]) {
+            return Optional.empty();
+        }
+
+        long kedaluwarsa = jamMillis.getAsLong() + ttlMillis;
+        Reservasi reservasi = new Reservasi(idBerikutnya.incrementAndGet(), kode, jumlah, kedaluwarsa);
+        reservasiAktif.put(reservasi.getId(), reservasi);
+        // Jangan masukkan ke slot yang sudah disapu, agar tidak menunggu satu putaran penuh
+        long tick = Math.max(kedaluwarsa / resolusiMillis, tickTerakhir + 1);
+        roda[(int) (tick & maskRoda)].add(reservasi);
+        return Optional.of(reservasi);
+    }
+
+    /**
+     * Mengonfirmasi reservasi: stok dikeluarkan lewat ServiceInventaris (tahanan reservasi
+     * ini boleh dipakai, tahanan lain tidak) dan tahanan dilepas.
+     * @param id Id reservasi.
+     * @return Status keluar stok, atau TIDAK_DITEMUKAN jika reservasi
+     *         tidak ada, sudah dilepas, atau sudah kedaluwarsa.
+     */
+    public StatusOperasi konfirmasi(long id) {
+        Reservasi reservasi = reservasiAktif.remove(id);
+        if (reservasi == null) {
+            return StatusOperasi.TIDAK_DITEMUKAN;
+        }
+        if (reservasi.getKedaluwarsaMillis() <= jamMillis.getAsLong()) {
+            // Sudah kedaluwarsa tetapi belum disapu: lepas tahanannya tanpa mengeluarkan stok
+            kembalikan(reservasi);
+            return StatusOperasi.TIDAK_DITEMUKAN;
+        }
+        // Stok dikurangi lebih dulu agar stok tersedia tidak sempat terlihat lebih besar
+        StatusOperasi status = serviceInventaris.keluarStokTertahan(reservasi.getKode(), reservasi.getJumlah());
+        kembalikan(reservasi);
+        return status;
+    }
+
+    /**
+     * Melepas reservasi tanpa mengeluarkan stok.
+     * @param id Id reservasi.
+     * @return true jika reservasi masih aktif dan berhasil dilepas.
+     */
+    public boolean lepas(long id) {
+        Reservasi reservasi = reservasiAktif.remove(id);
+        if (reservasi == null) {
+            return false;
+        }
+        kembalikan(reservasi);
+        return true;
+    }
+
+    /**
+     * Stok yang masih bisa dipesan: stok di repository dikurangi total tahanan aktif.
+     * @param kode Kode produk.
+     * @return Stok tersedia, atau 0 jika produk tidak ditemukan.
+     */
+    public int stokTersedia(String kode) {
+        Optional<Produk> produk = serviceInventaris.cariProdukPrimer(kode);
+        if (produk.isEmpty()) {
+            return 0;
+        }
+        return Math.max(0, produk.get().getStok() - jumlahDitahan(kode));
+    }
+
+    /**
+     * @param kode Kode produk.
+     * @return Total stok yang sedang ditahan oleh reservasi aktif.
+     */
+    public int jumlahDitahan(String kode) {
+        Integer ditahan = stokDitahan.get(kode);
+        return ditahan == null ? 0 : ditahan;
+    }
+
+    /**
+     * @return Jumlah kode yang masih punya tahanan aktif.
+     */
+    int jumlahKodeDitahan() {
+        return stokDitahan.size();
+    }
+
+    /**
+     * @return Jumlah reservasi yang masih aktif.
+     */
+    public int jumlahReservasiAktif() {
+        return reservasiAktif.size();
+    }
+
+    /**
+     * Menyapu slot timer wheel yang waktunya sudah lewat dan melepas tahanan yang kedaluwarsa.
+     * Dipanggil otomatis oleh penyapu setelah {@link #mulai()}, atau manual.
+     * @return Jumlah reservasi yang dilepas karena kedaluwarsa.
+     */
+    public synchronized int sapu() {
+        long sekarang = jamMillis.getAsLong();
+        // Hanya tick yang sudah lewat seluruhnya, sehingga semua isinya pasti kedaluwarsa
+        long tickSekarang = sekarang / resolusiMillis - 1;
+        long dari = tickTerakhir + 1;
+        // Jika tertinggal lebih dari satu putaran, cukup sapu setiap slot sekali
+        if (tickSekarang - dari >= roda.length) {
+            dari = tickSekarang - roda.length + 1;
+        }
+
+        int dilepas = 0;
+        for (long tick = dari; tick <= tickSekarang; tick++) {
+            Queue<Reservasi> slot = roda[(int) (tick & maskRoda)];
+            int jumlahDiSlot = slot.size();
+            for (int i = 0; i < jumlahDiSlot; i++) {
+                Reservasi reservasi = slot.poll();
+                if (reservasi == null) {
+                    break;
+                }
+                if (reservasi.getKedaluwarsaMillis() > sekarang) {
+                    // TTL lebih panjang dari satu putaran roda: tunggu putaran berikutnya
+                    slot.add(reservasi);
+                } else if (reservasiAktif.remove(reservasi.getId(), reservasi)) {
+                    kembalikan(reservasi);
+                    dilepas++;
+                }
+            }
+        }
+        tickTerakhir = Math.max(tickTerakhir, tickSekarang);
+        return dilepas;
+    }
+
+    private void kembalikan(Reservasi reservasi) {
+        int jumlah = reservasi.getJumlah();
+        stokDitahan.computeIfPresent(reservasi.getKode(), (k, ditahan) -> ditahan == jumlah ? null : ditahan - jumlah);
+    }
+}
@@ -2,9 +2,15 @@ package com.praktikum.whitebox.service;
 
 import com.praktikum.whitebox.model.Produk;
 import com.praktikum.whitebox.repository.RepositoryProduk;
+import com.praktikum.whitebox.util.CacheKodeValid;
 import com.praktikum.whitebox.util.ValidationUtils;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToIntFunction;
 
 /**
  * Kelas layanan (Service) untuk mengelola logika bisnis inventaris produk.
@@ -14,12 +20,39 @@ public class ServiceInventaris {
 
     private final RepositoryProduk repositoryProduk;
 
+    // Tujuan pencarian nama/kategori, laporan, dan cariProdukByKodeReplika; berisi
+    // repositoryProduk sendiri jika tanpa replika
+    private volatile RepositoryProduk[] repositoryBaca;
+
+    // Kode yang sering dipakai tidak perlu divalidasi ulang di setiap transaksi
+    private final CacheKodeValid cacheKodeValid = new CacheKodeValid();
+
+    // Penghitung hasil operasi mutasi, diindeks dengan StatusOperasi.ordinal()
+    private final LongAdder[] penghitungStatus = new LongAdder[StatusOperasi.values().length];
+
+    // Dipanggil dengan (kode, jumlah) setiap kali keluarStok berhasil
+    private final List<ObjIntConsumer<String>> pendengarKeluarStok = new CopyOnWriteArrayList<>();
+
+    // Jumlah stok yang sedang ditahan per kode (ReservasiStok); keluarStok hanya boleh memakai
+    // stok dikurangi total tahanan
+    private final List<ToIntFunction<String>> sumberTahanan = new CopyOnWriteArrayList<>();
+
+    // Null sampai aktifkanPenggabunganStok() dipanggil
+    private volatile PenggabungStok penggabungStok;
+
+    // Null berarti tanpa pembatasan; lihat setPengendaliBeban
+    private volatile PengendaliBeban pengendaliBeban;
+
     /**
      * Constructor dengan Dependency Injection untuk RepositoryProduk.
      * @param repositoryProduk Implementasi dari RepositoryProduk.
      */
     public ServiceInventaris(RepositoryProduk repositoryProduk) {
         this.repositoryProduk = repositoryProduk;
+        this.repositoryBaca = new RepositoryProduk[]{repositoryProduk};
+        for (int i = 0; i < penghitungStatus.length; i++) {
+            penghitungStatus[i] = new LongAdder();
+        }
     }
 
     /**
@@ -28,15 +61,37 @@ public class ServiceInventaris {
      * @return true jika produk berhasil ditambahkan, false jika validasi gagal atau kode produk sudah ada.
      */
     public boolean tambahProduk(Produk produk) {
+        return tambahProdukStatus(produk).isBerhasil();
+    }
+
+    /**
+     * Sama seperti {@link #tambahProduk(Produk)}, tetapi mengembalikan alasan kegagalan.
+     * @param produk Objek Produk yang akan ditambahkan.
+     * @return BERHASIL, PRODUK_TIDAK_VALID, DUPLIKAT, GAGAL_REPOSITORY, atau DITOLAK_BEBAN.
+     */
+    public StatusOperasi tambahProdukStatus(Produk produk) {
+        PengendaliBeban pengendali = pengendaliBeban;
+        if (pengendali != null && !pengendali.izinkan(PengendaliBeban.Jalur.TULIS)) {
+            return catat(StatusOperasi.DITOLAK_BEBAN);
+        }
+        long mulai = System.nanoTime();
+        try {
+            return prosesTambahProduk(produk);
+        } finally {
+            selesai(pengendali, PengendaliBeban.Jalur.TULIS, mulai);
+        }
+    }
+
+    private StatusOperasi prosesTambahProduk(Produk produk) {
         if (!ValidationUtils.isValidProduk(produk)) {
-            return false;
+            return catat(StatusOperasi.PRODUK_TIDAK_VALID);
         }
-        // Cek apakah produk dengan kode yang sama sudah ada
-        Optional<Produk> produkExist = repositoryProduk.cariByKode(produk.getKode());
-        if (produkExist.isPresent()) {
-            return false;
+        // Cek apakah produk dengan kode yang sama sudah ada; kode yang pasti baru tidak perlu dicari
+        if (!repositoryProduk.pastiTidakAda(produk.getKode())
+                && repositoryProduk.cariByKode(produk.getKode()).isPresent()) {
+            return catat(StatusOperasi.DUPLIKAT);
         }
-        return repositoryProduk.simpan(produk);
+        return catat(repositoryProduk.simpan(produk) ? StatusOperasi.BERHASIL : StatusOperasi.GAGAL_REPOSITORY);
     }
 
     /**
@@ -46,38 +101,117 @@ public class ServiceInventaris {
      * @return true jika produk berhasil dihapus, false jika validasi gagal, produk tidak ditemukan, atau stok > 0.
      */
     public boolean hapusProduk(String kode) {
-        if (!ValidationUtils.isValidKodeProduk(kode)) {
-            return false;
+        return hapusProdukStatus(kode).isBerhasil();
+    }
+
+    /**
+     * Sama seperti {@link #hapusProduk(String)}, tetapi mengembalikan alasan kegagalan.
+     * @param kode Kode produk yang akan dihapus.
+     * @return BERHASIL, KODE_TIDAK_VALID, TIDAK_DITEMUKAN, MASIH_ADA_STOK, GAGAL_REPOSITORY, atau DITOLAK_BEBAN.
+     */
+    public StatusOperasi hapusProdukStatus(String kode) {
+        PengendaliBeban pengendali = pengendaliBeban;
+        if (pengendali != null && !pengendali.izinkan(PengendaliBeban.Jalur.TULIS)) {
+            return catat(StatusOperasi.DITOLAK_BEBAN);
+        }
+        long mulai = System.nanoTime();
+        try {
+            return prosesHapusProduk(kode);
+        } finally {
+            selesai(pengendali, PengendaliBeban.Jalur.TULIS, mulai);
+        }
+    }
+
+    private StatusOperasi prosesHapusProduk(String kode) {
+        if (!cacheKodeValid.isValid(kode)) {
+            return catat(StatusOperasi.KODE_TIDAK_VALID);
         }
         Optional<Produk> produk = repositoryProduk.cariByKode(kode);
         if (produk.isEmpty()) {
-            return false;
+            return catat(StatusOperasi.TIDAK_DITEMUKAN);
         }
         // Tidak bisa hapus produk yang masih ada stoknya
         if (produk.get().getStok() > 0) {
-            return false;
+            return catat(StatusOperasi.MASIH_ADA_STOK);
         }
-        return repositoryProduk.hapus(kode);
+        return catat(repositoryProduk.hapus(kode) ? StatusOperasi.BERHASIL : StatusOperasi.GAGAL_REPOSITORY);
     }
 
     /**
-     * Mencari produk berdasarkan kode unik.
+     * Mencari produk berdasarkan kode unik. Selalu membaca repository primer, sehingga aman
+     * dipakai untuk keputusan stok walaupun replika baca terpasang.
      * @param kode Kode produk.
-     * @return Optional yang berisi Produk jika ditemukan dan valid, atau Optional.empty().
+     * @return Optional yang berisi Produk jika ditemukan dan valid, atau Optional.empty()
+     *         (juga jika ditolak pengendali beban).
      */
     public Optional<Produk> cariProdukByKode(String kode) {
-        if (!ValidationUtils.isValidKodeProduk(kode)) {
+        return cariProdukByKode(kode, repositoryProduk);
+    }
+
+    /**
+     * Sama seperti {@link #cariProdukByKode(String)}, tetapi dilayani replika baca jika
+     * terpasang (lihat {@link #setReplikaBaca(List)}). Hasilnya bisa tertinggal dari primer,
+     * jadi hanya untuk tampilan, bukan untuk memutuskan mutasi stok.
+     * @param kode Kode produk.
+     * @return Optional yang berisi Produk jika ditemukan di replika, atau Optional.empty()
+     *         (juga jika ditolak pengendali beban).
+     */
+    public Optional<Produk> cariProdukByKodeReplika(String kode) {
+        return cariProdukByKode(kode, repositoryBaca());
+    }
+
+    /**
+     * Pencarian per kode di repository primer tanpa pengendali beban, untuk komponen di atas
+     * service (ReservasiStok, StokMultiGudang) yang membaca produk sebagai bagian dari operasinya
+     * sendiri; penolakan karena beban tidak boleh terbaca sebagai "tidak ditemukan" di sana.
+     */
+    Optional<Produk> cariProdukPrimer(String kode) {
+        if (!cacheKodeValid.isValid(kode)) {
             return Optional.empty();
         }
         return repositoryProduk.cariByKode(kode);
     }
 
+    private Optional<Produk> cariProdukByKode(String kode, RepositoryProduk sumber) {
+        if (!cacheKodeValid.isValid(kode)) {
+            return Optional.empty();
+        }
+        PengendaliBeban pengendali = pengendaliBeban;
+        if (!izinkan(pengendali, PengendaliBeban.Jalur.BACA)) {
+            return Optional.empty();
+        }
+        long mulai = System.nanoTime();
+        try {
+            return sumber.cariByKode(kode);
+        } finally {
+            selesai(pengendali, PengendaliBeban.Jalur.BACA, mulai);
+        }
+    }
+
     public List<Produk> cariProdukByNama(String nama) {
-        return repositoryProduk.cariByNama(nama);
+        PengendaliBeban pengendali = pengendaliBeban;
+        if (!izinkan(pengendali, PengendaliBeban.Jalur.BACA)) {
+            return List.of();
+        }
+        long mulai = System.nanoTime();
+        try {
+            return repositoryBaca().cariByNama(nama);
+        } finally {
+            selesai(pengendali, PengendaliBeban.Jalur.BACA, mulai);
+        }
     }
 
     public List<Produk> cariProdukByKategori(String kategori) {
-        return repositoryProduk.cariByKategori(kategori);
+        PengendaliBeban pengendali = pengendaliBeban;
+        if (!izinkan(pengendali, PengendaliBeban.Jalur.BACA)) {
+            return List.of();
+        }
+        long mulai = System.nanoTime();
+        try {
+            return repositoryBaca().cariByKategori(kategori);
+        } finally {
+            selesai(pengendali, PengendaliBeban.Jalur.BACA, mulai);
+        }
     }
 
     /**
@@ -87,38 +221,122 @@ public class ServiceInventaris {
      * @return true jika berhasil diperbarui, false jika validasi gagal atau produk tidak ditemukan.
      */
     public boolean updateStok(String kode, int stokBaru) {
-        if (!ValidationUtils.isValidKodeProduk(kode) || stokBaru < 0) {
-            return false;
+        return updateStokStatus(kode, stokBaru).isBerhasil();
+    }
+
+    /**
+     * Sama seperti {@link #updateStok(String, int)}, tetapi mengembalikan alasan kegagalan.
+     * @param kode Kode produk.
+     * @param stokBaru Nilai stok yang baru.
+     * @return BERHASIL, KODE_TIDAK_VALID, JUMLAH_TIDAK_VALID, TIDAK_DITEMUKAN, GAGAL_REPOSITORY, atau DITOLAK_BEBAN.
+     */
+    public StatusOperasi updateStokStatus(String kode, int stokBaru) {
+        PeristiwaMutasiStok peristiwa = PeristiwaMutasiStok.mulai();
+        PengendaliBeban pengendali = pengendaliBeban;
+        if (pengendali != null && !pengendali.izinkan(PengendaliBeban.Jalur.TULIS)) {
+            return PeristiwaMutasiStok.selesai(peristiwa, "UPDATE", kode, stokBaru, catat(StatusOperasi.DITOLAK_BEBAN));
+        }
+        long mulai = System.nanoTime();
+        try {
+            return PeristiwaMutasiStok.selesai(peristiwa, "UPDATE", kode, stokBaru, prosesUpdateStok(kode, stokBaru));
+        } finally {
+            selesai(pengendali, PengendaliBeban.Jalur.TULIS, mulai);
+        }
+    }
+
+    private StatusOperasi prosesUpdateStok(String kode, int stokBaru) {
+        if (!cacheKodeValid.isValid(kode)) {
+            return catat(StatusOperasi.KODE_TIDAK_VALID);
+        }
+        if (stokBaru < 0) {
+            return catat(StatusOperasi.JUMLAH_TIDAK_VALID);
         }
         Optional<Produk> produk = repositoryProduk.cariByKode(kode);
         if (produk.isEmpty()) {
-            return false;
+            return catat(StatusOperasi.TIDAK_DITEMUKAN);
         }
-        return repositoryProduk.updateStok(kode, stokBaru);
+        return catat(repositoryProduk.updateStok(kode, stokBaru) ? StatusOperasi.BERHASIL : StatusOperasi.GAGAL_REPOSITORY);
     }
 
     /**
      * Melakukan transaksi pengurangan stok (penjualan/pengambilan).
      * @param kode Kode produk.
      * @param jumlah Jumlah yang akan dikeluarkan.
-     * @return true jika stok berhasil dikurangi, false jika validasi gagal, produk tidak aktif/ditemukan, atau stok tidak mencukupi.
+     * @return true jika stok berhasil dikurangi, false jika validasi gagal, produk tidak aktif/ditemukan, atau stok tidak mencukupi
+     *         (stok yang ditahan reservasi aktif tidak ikut dihitung).
      */
     public boolean keluarStok(String kode, int jumlah) {
-        if (!ValidationUtils.isValidKodeProduk(kode) || jumlah <= 0) {
-            return false;
+        return keluarStokStatus(kode, jumlah).isBerhasil();
+    }
+
+    /**
+     * Sama seperti {@link #keluarStok(String, int)}, tetapi mengembalikan alasan kegagalan.
+     * @param kode Kode produk.
+     * @param jumlah Jumlah yang akan dikeluarkan.
+     * @return BERHASIL, KODE_TIDAK_VALID, JUMLAH_TIDAK_VALID, TIDAK_DITEMUKAN, TIDAK_AKTIF,
+     *         STOK_TIDAK_CUKUP, GAGAL_REPOSITORY, atau DITOLAK_BEBAN.
+     */
+    public StatusOperasi keluarStokStatus(String kode, int jumlah) {
+        return keluarStokStatus(kode, jumlah, 0);
+    }
+
+    /**
+     * Keluar stok untuk konfirmasi reservasi. Jumlah yang dikeluarkan sudah termasuk dalam
+     * tahanan reservasi itu sendiri, sehingga hanya tahanan lain yang harus tetap tersisa.
+     */
+    StatusOperasi keluarStokTertahan(String kode, int jumlah) {
+        return keluarStokStatus(kode, jumlah, jumlah);
+    }
+
+    private StatusOperasi keluarStokStatus(String kode, int jumlah, int ditahanSendiri) {
+        PeristiwaMutasiStok peristiwa = PeristiwaMutasiStok.mulai();
+        PengendaliBeban pengendali = pengendaliBeban;
+        if (pengendali != null && !pengendali.izinkan(PengendaliBeban.Jalur.TULIS)) {
+            return PeristiwaMutasiStok.selesai(peristiwa, "KELUAR", kode, jumlah, catat(StatusOperasi.DITOLAK_BEBAN));
+        }
+        long mulai = System.nanoTime();
+        try {
+            return PeristiwaMutasiStok.selesai(peristiwa, "KELUAR", kode, jumlah, prosesKeluarStok(kode, jumlah, ditahanSendiri));
+        } finally {
+            selesai(pengendali, PengendaliBeban.Jalur.TULIS, mulai);
+        }
+    }
+
+    private StatusOperasi prosesKeluarStok(String kode, int jumlah, int ditahanSendiri) {
+        if (!cacheKodeValid.isValid(kode)) {
+            return catat(StatusOperasi.KODE_TIDAK_VALID);
+        }
+        if (jumlah <= 0) {
+            return catat(StatusOperasi.JUMLAH_TIDAK_VALID);
+        }
+        int ditahanLain = Math.max(0, jumlahDitahan(kode) - ditahanSendiri);
+        PenggabungStok penggabung = penggabungStok;
+        if (penggabung != null) {
+            StatusOperasi status = penggabung.keluar(kode, jumlah, ditahanLain);
+            if (status.isBerhasil()) {
+                beritahuKeluarStok(kode, jumlah);
+            }
+            return catat(status);
         }
         Optional<Produk> produkOpt = repositoryProduk.cariByKode(kode);
-        if (produkOpt.isEmpty() || !produkOpt.get().isAktif()) {
-            return false;
+        if (produkOpt.isEmpty()) {
+            return catat(StatusOperasi.TIDAK_DITEMUKAN);
         }
 
         Produk produk = produkOpt.get();
-        if (produk.getStok() < jumlah) {
-            return false; // Stok tidak mencukupi
+        if (!produk.isAktif()) {
+            return catat(StatusOperasi.TIDAK_AKTIF);
+        }
+        if (produk.getStok() - ditahanLain < jumlah) {
+            return catat(StatusOperasi.STOK_TIDAK_CUKUP);
         }
 
         int stokBaru = produk.getStok() - jumlah;
-        return repositoryProduk.updateStok(kode, stokBaru);
+        if (!repositoryProduk.updateStok(kode, stokBaru)) {
+            return catat(StatusOperasi.GAGAL_REPOSITORY);
+        }
+        beritahuKeluarStok(kode, jumlah);
+        return catat(StatusOperasi.BERHASIL);
     }
 
     /**
@@ -128,33 +346,157 @@ public class ServiceInventaris {
      * @return true jika stok berhasil ditambahkan, false jika validasi gagal atau produk tidak aktif/ditemukan.
      */
     public boolean masukStok(String kode, int jumlah) {
-        if (!ValidationUtils.isValidKodeProduk(kode) || jumlah <= 0) {
-            return false;
+        return masukStokStatus(kode, jumlah).isBerhasil();
+    }
+
+    /**
+     * Sama seperti {@link #masukStok(String, int)}, tetapi mengembalikan alasan kegagalan.
+     * @param kode Kode produk.
+     * @param jumlah Jumlah yang akan dimasukkan.
+     * @return BERHASIL, KODE_TIDAK_VALID, JUMLAH_TIDAK_VALID, TIDAK_DITEMUKAN, TIDAK_AKTIF, GAGAL_REPOSITORY, atau DITOLAK_BEBAN.
+     */
+    public StatusOperasi masukStokStatus(String kode, int jumlah) {
+        PeristiwaMutasiStok peristiwa = PeristiwaMutasiStok.mulai();
+        PengendaliBeban pengendali = pengendaliBeban;
+        if (pengendali != null && !pengendali.izinkan(PengendaliBeban.Jalur.TULIS)) {
+            return PeristiwaMutasiStok.selesai(peristiwa, "MASUK", kode, jumlah, catat(StatusOperasi.DITOLAK_BEBAN));
+        }
+        long mulai = System.nanoTime();
+        try {
+            return PeristiwaMutasiStok.selesai(peristiwa, "MASUK", kode, jumlah, prosesMasukStok(kode, jumlah));
+        } finally {
+            selesai(pengendali, PengendaliBeban.Jalur.TULIS, mulai);
+        }
+    }
+
+    private StatusOperasi prosesMasukStok(String kode, int jumlah) {
+        if (!cacheKodeValid.isValid(kode)) {
+            return catat(StatusOperasi.KODE_TIDAK_VALID);
+        }
+        if (jumlah <= 0) {
+            return catat(StatusOperasi.JUMLAH_TIDAK_VALID);
+        }
+        PenggabungStok penggabung = penggabungStok;
+        if (penggabung != null) {
+            return catat(penggabung.masuk(kode, jumlah));
         }
         Optional<Produk> produk = repositoryProduk.cariByKode(kode);
-        if (produk.isEmpty() || !produk.get().isAktif()) {
-            return false;
+        if (produk.isEmpty()) {
+            return catat(StatusOperasi.TIDAK_DITEMUKAN);
+        }
+        if (!produk.get().isAktif()) {
+            return catat(StatusOperasi.TIDAK_AKTIF);
         }
 
         int stokBaru = produk.get().getStok() + jumlah;
-        return repositoryProduk.updateStok(kode, stokBaru);
+        return catat(repositoryProduk.updateStok(kode, stokBaru) ? StatusOperasi.BERHASIL : StatusOperasi.GAGAL_REPOSITORY);
+    }
+
+    /**
+     * Mengaktifkan mode penggabungan untuk keluarStok dan masukStok: mutasi bersamaan pada
+     * kode yang sama digabung oleh satu thread menjadi satu pembacaan dan satu updateStok
+     * (flat combining), dan setiap pemanggil tetap menerima status masing-masing. Berguna saat
+     * banyak transaksi menumpuk pada sedikit SKU. Dalam mode ini keluar/masuk pada satu kode
+     * tidak lagi saling menimpa. Memanggil lebih dari sekali tidak berpengaruh.
+     */
+    public synchronized void aktifkanPenggabunganStok() {
+        if (penggabungStok == null) {
+            penggabungStok = new PenggabungStok(repositoryProduk);
+        }
+    }
+
+    /**
+     * @return Penggabung yang aktif, atau null.
+     */
+    PenggabungStok getPenggabungStok() {
+        return penggabungStok;
+    }
+
+    /**
+     * Memasang pengendali penerimaan di depan service. Setelah dipasang, mutasi yang melebihi
+     * batas jalur TULIS langsung berakhir dengan status DITOLAK_BEBAN, sedangkan pencarian
+     * (jalur BACA) dan laporan (jalur LAPORAN) yang melebihi batasnya mengembalikan hasil
+     * kosong (Optional.empty(), daftar kosong, NaN, atau -1 untuk total); jumlahnya terpantau
+     * lewat {@link PengendaliBeban#getJumlahDitolak(PengendaliBeban.Jalur)}. Tidak ada
+     * pemanggil yang menunggu dalam antrean.
+     * @param pengendali Pengendali yang dipakai, atau null untuk melepasnya.
+     */
+    public void setPengendaliBeban(PengendaliBeban pengendali) {
+        this.pengendaliBeban = pengendali;
+    }
+
+    /**
+     * @return Pengendali penerimaan yang terpasang, atau null.
+     */
+    public PengendaliBeban getPengendaliBeban() {
+        return pengendaliBeban;
+    }
+
+    /**
+     * Memisahkan baca dan tulis: semua mutasi (termasuk pembacaan stok di dalam
+     * keluarStok/masukStok) dan {@link #cariProdukByKode(String)} tetap ke repository primer,
+     * sedangkan pencarian nama/kategori, laporan, dan {@link #cariProdukByKodeReplika(String)}
+     * dibagi acak ke replika, misalnya {@link com.praktikum.whitebox.repository.ReplikaProduk}.
+     * Karena replika bisa tertinggal, hasil pencarian itu belum tentu memuat mutasi yang baru
+     * saja berhasil.
+     * @param replikaBaca Repository untuk pencarian dan laporan, atau null untuk kembali
+     *                    membaca dari repository primer.
+     * @throws IllegalArgumentException jika daftar replika kosong atau berisi null.
+     */
+    public void setReplikaBaca(List<? extends RepositoryProduk> replikaBaca) {
+        if (replikaBaca == null) {
+            repositoryBaca = new RepositoryProduk[]{repositoryProduk};
+            return;
+        }
+        if (replikaBaca.isEmpty() || replikaBaca.stream().anyMatch(r -> r == null)) {
+            throw new IllegalArgumentException("Daftar replika baca tidak boleh kosong");
+        }
+        repositoryBaca = replikaBaca.toArray(new RepositoryProduk[0]);
     }
 
     public List<Produk> getProdukStokMenipis() {
-        return repositoryProduk.cariProdukStokMenipis();
+        PengendaliBeban pengendali = pengendaliBeban;
+        if (!izinkan(pengendali, PengendaliBeban.Jalur.LAPORAN)) {
+            return List.of();
+        }
+        long mulai = System.nanoTime();
+        try {
+            return repositoryBaca().cariProdukStokMenipis();
+        } finally {
+            selesai(pengendali, PengendaliBeban.Jalur.LAPORAN, mulai);
+        }
     }
 
     public List<Produk> getProdukStokHabis() {
-        return repositoryProduk.cariProdukStokHabis();
+        PengendaliBeban pengendali = pengendaliBeban;
+        if (!izinkan(pengendali, PengendaliBeban.Jalur.LAPORAN)) {
+            return List.of();
+        }
+        long mulai = System.nanoTime();
+        try {
+            return repositoryBaca().cariProdukStokHabis();
+        } finally {
+            selesai(pengendali, PengendaliBeban.Jalur.LAPORAN, mulai);
+        }
     }
 
     /**
      * Menghitung total nilai moneter dari semua inventaris yang aktif.
      * (Harga * Stok) untuk setiap produk.
-     * @return Total nilai inventaris dalam bentuk double.
+     * @return Total nilai inventaris dalam bentuk double, atau NaN jika ditolak pengendali beban.
      */
     public double hitungTotalNilaiInventaris() {
-        List<Produk> semuaProduk = repositoryProduk.cariSemua();
+        PengendaliBeban pengendali = pengendaliBeban;
+        if (!izinkan(pengendali, PengendaliBeban.Jalur.LAPORAN)) {
+            return Double.NaN;
+        }
+        long mulai = System.nanoTime();
+        List<Produk> semuaProduk;
+        try {
+            semuaProduk = repositoryBaca().cariSemua();
+        } finally {
+            selesai(pengendali, PengendaliBeban.Jalur.LAPORAN, mulai);
+        }
         return semuaProduk.stream()
                 .filter(Produk::isAktif)
                 .mapToDouble(p -> p.getHarga() * p.getStok())
@@ -163,13 +505,104 @@ public class ServiceInventaris {
 
     /**
      * Menghitung total jumlah unit stok dari semua produk yang aktif.
-     * @return Total stok dalam bentuk integer.
+     * @return Total stok dalam bentuk integer, atau -1 jika ditolak pengendali beban.
      */
     public int hitungTotalStok() {
-        List<Produk> semuaProduk = repositoryProduk.cariSemua();
+        PengendaliBeban pengendali = pengendaliBeban;
+        if (!izinkan(pengendali, PengendaliBeban.Jalur.LAPORAN)) {
+            return -1;
+        }
+        long mulai = System.nanoTime();
+        List<Produk> semuaProduk;
+        try {
+            semuaProduk = repositoryBaca().cariSemua();
+        } finally {
+            selesai(pengendali, PengendaliBeban.Jalur.LAPORAN, mulai);
+        }
         return semuaProduk.stream()
                 .filter(Produk::isAktif)
                 .mapToInt(Produk::getStok)
                 .sum();
     }
+
+    /**
+     * Mengambil jumlah operasi mutasi yang berakhir dengan status tertentu,
+     * untuk memantau tingkat kegagalan per alasan.
+     * @param status Status yang ingin dihitung.
+     * @return Jumlah operasi dengan status tersebut sejak service dibuat.
+     */
+    public long getJumlahStatus(StatusOperasi status) {
+        return penghitungStatus[status.ordinal()].sum();
+    }
+
+    /**
+     * Mendaftarkan pendengar yang dipanggil dengan (kode, jumlah) setiap kali keluarStok
+     * berhasil, misalnya {@code peramalanPengisian::catatKeluar}. Dipanggil di thread
+     * transaksi, jadi pendengar harus cepat.
+     * @param pendengar Pendengar pengeluaran stok.
+     * @throws IllegalArgumentException jika pendengar null.
+     */
+    public void tambahPendengarKeluarStok(ObjIntConsumer<String> pendengar) {
+        if (pendengar == null) {
+            throw new IllegalArgumentException("Pendengar tidak boleh null");
+        }
+        pendengarKeluarStok.add(pendengar);
+    }
+
+    /**
+     * Mendaftarkan sumber jumlah stok yang ditahan per kode. Setelah terdaftar, keluarStok
+     * menolak dengan STOK_TIDAK_CUKUP jika stok dikurangi total tahanan tidak mencukupi.
+     */
+    void tambahSumberTahanan(ToIntFunction<String> sumber) {
+        sumberTahanan.add(sumber);
+    }
+
+    void hapusSumberTahanan(ToIntFunction<String> sumber) {
+        sumberTahanan.remove(sumber);
+    }
+
+    private int jumlahDitahan(String kode) {
+        if (sumberTahanan.isEmpty()) {
+            return 0;
+        }
+        int total = 0;
+        for (ToIntFunction<String> sumber : sumberTahanan) {
+            total += sumber.applyAsInt(kode);
+        }
+        return total;
+    }
+
+    /**
+     * @return true jika tidak ada pengendali atau jalur masih punya jatah; jika true dan
+     *         pengendali tidak null, pemanggil wajib memanggil selesai.
+     */
+    private static boolean izinkan(PengendaliBeban pengendali, PengendaliBeban.Jalur jalur) {
+        return pengendali == null || pengendali.izinkan(jalur);
+    }
+
+    private static void selesai(PengendaliBeban pengendali, PengendaliBeban.Jalur jalur, long mulai) {
+        if (pengendali != null) {
+            pengendali.selesai(jalur, System.nanoTime() - mulai);
+        }
+    }
+
+    private RepositoryProduk repositoryBaca() {
+        RepositoryProduk[] daftar = repositoryBaca;
+        return daftar.length == 1 ? daftar[0] : daftar[ThreadLocalRandom.current().nextInt(daftar.length)];
+    }
+
+    private void beritahuKeluarStok(String kode, int jumlah) {
+        // Iterator CopyOnWriteArrayList dialokasikan setiap kali; tanpa pendengar tidak perlu dibuat
+        if (pendengarKeluarStok.isEmpty()) {
+            return;
+        }
+        for (ObjIntConsumer<String> pendengar : pendengarKeluarStok) {
+            pendengar.accept(kode, jumlah);
+        }
+    }
+
+    private StatusOperasi catat(StatusOperasi status) {
+        penghitungStatus[status.ordinal()].increment();
+        return status;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.praktikum.whitebox.service;
+
+/**
+ * Hasil operasi mutasi pada ServiceInventaris beserta alasan kegagalannya.
+ * Berupa enum agar tidak ada alokasi objek per operasi.
+ */
+public enum StatusOperasi {
+
+    BERHASIL,
+    PRODUK_TIDAK_VALID,  // Produk null atau gagal ValidationUtils.isValidProduk
+    KODE_TIDAK_VALID,    // Kode produk gagal ValidationUtils.isValidKodeProduk
+    JUMLAH_TIDAK_VALID,  // Jumlah mutasi tidak positif atau stok baru negatif
+    TIDAK_DITEMUKAN,     // Produk dengan kode tersebut tidak ada
+    TIDAK_AKTIF,         // Produk ada tetapi tidak aktif
+    STOK_TIDAK_CUKUP,    // Stok lebih kecil dari jumlah yang dikeluarkan
+    MASIH_ADA_STOK,      // Produk tidak bisa dihapus karena stok > 0
+    DUPLIKAT,            // Kode produk sudah terdaftar
+    GAGAL_REPOSITORY,    // Repository menolak penyimpanan/penghapusan
+    DITOLAK_BEBAN;       // Ditolak PengendaliBeban karena jalur tulis sedang penuh
+
+    /**
+     * @return true jika operasi berhasil.
+     */
+    public boolean isBerhasil() {
+        return this == BERHASIL;
+    }
+}
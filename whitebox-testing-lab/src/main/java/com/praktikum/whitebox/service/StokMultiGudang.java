@@ -0,0 +1,431 @@
+package com.praktikum.whitebox.service;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.util.ValidationUtils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Model stok per lokasi gudang untuk setiap kode produk, di atas ServiceInventaris.
+ * <p>
+ * Setiap produk punya satu counter stok per gudang dalam satu AtomicIntegerArray. Secara
+ * bawaan counter-counter itu rapat (4 byte per gudang). Untuk kode yang didaftarkan sebagai
+ * panas, counter diletakkan berjauhan (satu cache line per gudang), sehingga transaksi
+ * bersamaan di gudang yang berbeda tidak saling berebut cache line; padding itu hanya
+ * sepadan untuk SKU yang memang ramai. Total lintas gudang dihitung dengan menjumlahkan
+ * counter tanpa mengunci.
+ * <p>
+ * Status stok menipis dipelihara secara inkremental dalam himpunan per gudang dan
+ * satu himpunan global, sehingga laporan stok menipis tidak perlu memindai semua
+ * pasangan produk-gudang. Status aktif dan stokMinimum selalu dibaca dari produk terkini.
+ * <p>
+ * Produk didaftarkan otomatis saat pertama kali dipakai; stok awalnya (Produk.stok)
+ * ditempatkan di gudang 0 (gudang utama). Perubahan total lintas gudang diteruskan ke
+ * ServiceInventaris sebagai selisih oleh {@link #sinkronkanKeRepository()}.
+ * <p>
+ * Stok di repository primer tetap menjadi acuan. Mutasi yang dilakukan langsung lewat
+ * ServiceInventaris terdeteksi sebagai beda antara stok repository dan stok terakhir yang
+ * disinkronkan, lalu diserap ke gudang sebelum operasi gudang berikutnya: stok masuk ditambahkan
+ * ke gudang 0, stok keluar diambil dari gudang 0 lalu gudang berikutnya. Dengan begitu gudang
+ * tidak menjual stok yang sudah terjual di luar. Unit yang terlanjur terjual di kedua sisi
+ * sebelum sinkronisasi tidak bisa dibatalkan; jumlahnya dicatat di
+ * {@link #getJumlahUnitKonflik()}.
+ */
+public class StokMultiGudang {
+
+    private static final int JARAK_SLOT_PANAS = 16; // 16 int = 64 byte, satu cache line per gudang
+    private static final int IKUT_PRODUK = -1;      // Stok minimum gudang mengikuti stokMinimum produk
+
+    /**
+     * Counter stok satu produk di semua gudang.
+     */
+    private static class StokProduk {
+        final AtomicIntegerArray stok;
+        final int jarak;
+        final AtomicIntegerArray stokMinimumGudang;
+        // Stok repository yang sudah tercermin di counter gudang; diubah hanya di dalam synchronized (this)
+        volatile int stokTersinkron;
+
+        StokProduk(int stokAwal, int jumlahGudang, int jarak) {
+            this.jarak = jarak;
+            this.stok = new AtomicIntegerArray(jumlahGudang * jarak);
+            this.stokMinimumGudang = new AtomicIntegerArray(jumlahGudang);
+            for (int i = 0; i < jumlahGudang; i++) {
+                stokMinimumGudang.set(i, IKUT_PRODUK);
+            }
+            stok.set(0, stokAwal);
+            this.stokTersinkron = stokAwal;
+        }
+
+        int stokDi(int gudang) {
+            return stok.get(gudang * jarak);
+        }
+
+        int stokMinimumDi(int gudang, int stokMinimumProduk) {
+            int stokMinimum = stokMinimumGudang.get(gudang);
+            return stokMinimum == IKUT_PRODUK ? stokMinimumProduk : stokMinimum;
+        }
+    }
+
+    private final ServiceInventaris serviceInventaris;
+    private final int jumlahGudang;
+    private final Set<String> kodePanas;
+    private final ConcurrentHashMap<String, StokProduk> stokPerKode = new ConcurrentHashMap<>();
+    private final List<Set<String>> menipisPerGudang = new ArrayList<>();
+    private final Set<String> menipisGlobal = ConcurrentHashMap.newKeySet();
+    private final LongAdder jumlahUnitKonflik = new LongAdder();
+
+    /**
+     * @param serviceInventaris Sumber data produk (aktif, stokMinimum, stok awal) dan tujuan sinkronisasi.
+     * @param jumlahGudang Jumlah lokasi gudang, diberi nomor 0 sampai jumlahGudang - 1.
+     * @throws IllegalArgumentException jika jumlah gudang tidak positif.
+     */
+    public StokMultiGudang(ServiceInventaris serviceInventaris, int jumlahGudang) {
+        this(serviceInventaris, jumlahGudang, Set.of());
+    }
+
+    /**
+     * @param serviceInventaris Sumber data produk (aktif, stokMinimum, stok awal) dan tujuan sinkronisasi.
+     * @param jumlahGudang Jumlah lokasi gudang, diberi nomor 0 sampai jumlahGudang - 1.
+     * @param kodePanas Kode produk yang counternya diberi satu cache line per gudang.
+     * @throws IllegalArgumentException jika jumlah gudang tidak positif atau kodePanas null.
+     */
+    public StokMultiGudang(ServiceInventaris serviceInventaris, int jumlahGudang, Set<String> kodePanas) {
+        if (jumlahGudang <= 0) {
+            throw new IllegalArgumentException("Jumlah gudang harus positif");
+        }
+        if (kodePanas == null) {
+            throw new IllegalArgumentException("Kode panas tidak boleh null");
+        }
+        this.serviceInventaris = serviceInventaris;
+        this.jumlahGudang = jumlahGudang;
+        this.kodePanas = Set.copyOf(kodePanas);
+        for (int i = 0; i < jumlahGudang; i++) {
+            menipisPerGudang.add(ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    /**
+     * Menambah stok produk di satu gudang.
+     * @return BERHASIL, KODE_TIDAK_VALID, JUMLAH_TIDAK_VALID, TIDAK_DITEMUKAN, atau TIDAK_AKTIF.
+     * @throws IllegalArgumentException jika nomor gudang tidak valid.
+     */
+    public StatusOperasi masukStok(String kode, int gudang, int jumlah) {
+        cekGudang(gudang);
+        if (!ValidationUtils.isValidKodeProduk(kode)) {
+            return StatusOperasi.KODE_TIDAK_VALID;
+        }
+        if (jumlah <= 0) {
+            return StatusOperasi.JUMLAH_TIDAK_VALID;
+        }
+        Optional<Produk> produk = serviceInventaris.cariProdukPrimer(kode);
+        if (produk.isEmpty()) {
+            return StatusOperasi.TIDAK_DITEMUKAN;
+        }
+        if (!produk.get().isAktif()) {
+            return StatusOperasi.TIDAK_AKTIF;
+        }
+        StokProduk stokProduk = ambil(kode, produk.get());
+        rekonsiliasi(kode, stokProduk, produk.get());
+        stokProduk.stok.addAndGet(gudang * stokProduk.jarak, jumlah);
+        perbaruiStatus(kode, stokProduk, gudang, produk.get().getStokMinimum());
+        return StatusOperasi.BERHASIL;
+    }
+
+    /**
+     * Mengurangi stok produk di satu gudang. Gagal secara atomik jika stok gudang itu tidak cukup.
+     * @return BERHASIL, KODE_TIDAK_VALID, JUMLAH_TIDAK_VALID, TIDAK_DITEMUKAN, TIDAK_AKTIF, atau STOK_TIDAK_CUKUP.
+     * @throws IllegalArgumentException jika nomor gudang tidak valid.
+     */
+    public StatusOperasi keluarStok(String kode, int gudang, int jumlah) {
+        cekGudang(gudang);
+        if (!ValidationUtils.isValidKodeProduk(kode)) {
+            return StatusOperasi.KODE_TIDAK_VALID;
+        }
+        if (jumlah <= 0) {
+            return StatusOperasi.JUMLAH_TIDAK_VALID;
+        }
+        Optional<Produk> produk = serviceInventaris.cariProdukPrimer(kode);
+        if (produk.isEmpty()) {
+            return StatusOperasi.TIDAK_DITEMUKAN;
+        }
+        if (!produk.get().isAktif()) {
+            return StatusOperasi.TIDAK_AKTIF;
+        }
+        StokProduk stokProduk = ambil(kode, produk.get());
+        rekonsiliasi(kode, stokProduk, produk.get());
+        int indeks = gudang * stokProduk.jarak;
+        while (true) {
+            int sekarang = stokProduk.stok.get(indeks);
+            if (sekarang < jumlah) {
+                return StatusOperasi.STOK_TIDAK_CUKUP;
+            }
+            if (stokProduk.stok.compareAndSet(indeks, sekarang, sekarang - jumlah)) {
+                break;
+            }
+        }
+        perbaruiStatus(kode, stokProduk, gudang, produk.get().getStokMinimum());
+        return StatusOperasi.BERHASIL;
+    }
+
+    /**
+     * @return Stok produk di satu gudang, atau 0 jika produk tidak dikenal.
+     * @throws IllegalArgumentException jika nomor gudang tidak valid.
+     */
+    public int getStok(String kode, int gudang) {
+        cekGudang(gudang);
+        StokProduk stokProduk = ambil(kode);
+        return stokProduk == null ? 0 : stokProduk.stokDi(gudang);
+    }
+
+    /**
+     * @return Total stok produk di semua gudang, atau 0 jika produk tidak dikenal.
+     */
+    public int getTotalStok(String kode) {
+        StokProduk stokProduk = ambil(kode);
+        return stokProduk == null ? 0 : total(stokProduk);
+    }
+
+    /**
+     * Mengatur stok minimum khusus untuk satu gudang (default: stokMinimum produk).
+     * @return true jika produk dikenal dan nilai valid.
+     * @throws IllegalArgumentException jika nomor gudang tidak valid.
+     */
+    public boolean setStokMinimumGudang(String kode, int gudang, int stokMinimum) {
+        cekGudang(gudang);
+        Optional<Produk> produk = serviceInventaris.cariProdukPrimer(kode);
+        if (produk.isEmpty() || !ValidationUtils.isValidStokMinimum(stokMinimum)) {
+            return false;
+        }
+        StokProduk stokProduk = ambil(kode, produk.get());
+        stokProduk.stokMinimumGudang.set(gudang, stokMinimum);
+        perbaruiStatus(kode, stokProduk, gudang, produk.get().getStokMinimum());
+        return true;
+    }
+
+    /**
+     * Produk yang stoknya menipis di satu gudang (0 < stok gudang <= stok minimum gudang),
+     * dievaluasi setiap kali stok produk itu di gudang tersebut berubah.
+     * @throws IllegalArgumentException jika nomor gudang tidak valid.
+     */
+    public List<Produk> getProdukStokMenipis(int gudang) {
+        cekGudang(gudang);
+        return keProduk(menipisPerGudang.get(gudang));
+    }
+
+    /**
+     * Produk yang total stoknya di semua gudang menipis (0 < total <= stokMinimum produk).
+     */
+    public List<Produk> getProdukStokMenipisGlobal() {
+        return keProduk(menipisGlobal);
+    }
+
+    /**
+     * Meneruskan perubahan total lintas gudang sejak sinkronisasi sebelumnya ke
+     * ServiceInventaris sebagai masukStok/keluarStok sebesar selisihnya. Mutasi yang
+     * dilakukan langsung lewat ServiceInventaris lebih dulu diserap ke gudang, sehingga
+     * selisih keluar tidak pernah melebihi stok repository. Selisih yang tetap ditolak
+     * (produk nonaktif, ditolak pengendali beban, atau stok tertahan reservasi) dicoba lagi pada sinkronisasi berikutnya.
+     * Produk yang sudah dihapus dari repository dilepas dari model gudang.
+     * @return Jumlah produk yang selisihnya berhasil diteruskan.
+     */
+    public synchronized int sinkronkanKeRepository() {
+        int berhasil = 0;
+        for (Map.Entry<String, StokProduk> entri : stokPerKode.entrySet()) {
+            String kode = entri.getKey();
+            StokProduk stokProduk = entri.getValue();
+            synchronized (stokProduk) {
+                Optional<Produk> produk = serviceInventaris.cariProdukPrimer(kode);
+                if (produk.isEmpty()) {
+                    lepas(kode);
+                    continue;
+                }
+                serapMutasiLuar(kode, stokProduk, produk.get());
+                int total = total(stokProduk);
+                int selisih = total - stokProduk.stokTersinkron;
+                if (selisih == 0) {
+                    continue;
+                }
+                StatusOperasi status = selisih > 0
+                        ? serviceInventaris.masukStokStatus(kode, selisih)
+                        : serviceInventaris.keluarStokStatus(kode, -selisih);
+                if (status.isBerhasil()) {
+                    stokProduk.stokTersinkron = total;
+                    berhasil++;
+                }
+            }
+        }
+        return berhasil;
+    }
+
+    /**
+     * @return Jumlah unit yang terjual lewat gudang dan juga lewat ServiceInventaris sebelum
+     *         sinkronisasi, sehingga tidak lagi tersedia di gudang mana pun saat diserap.
+     */
+    public long getJumlahUnitKonflik() {
+        return jumlahUnitKonflik.sum();
+    }
+
+    public int getJumlahGudang() {
+        return jumlahGudang;
+    }
+
+    private StokProduk ambil(String kode) {
+        if (kode == null) {
+            return null;
+        }
+        Optional<Produk> produk = serviceInventaris.cariProdukPrimer(kode);
+        if (produk.isEmpty()) {
+            return null;
+        }
+        StokProduk stokProduk = ambil(kode, produk.get());
+        rekonsiliasi(kode, stokProduk, produk.get());
+        return stokProduk;
+    }
+
+    private StokProduk ambil(String kode, Produk produk) {
+        StokProduk stokProduk = stokPerKode.get(kode);
+        if (stokProduk != null) {
+            return stokProduk;
+        }
+        return stokPerKode.computeIfAbsent(kode, k -> {
+            int jarak = kodePanas.contains(k) ? JARAK_SLOT_PANAS : 1;
+            StokProduk baru = new StokProduk(produk.getStok(), jumlahGudang, jarak);
+            perbaruiStatus(k, baru, 0, produk.getStokMinimum());
+            return baru;
+        });
+    }
+
+    /**
+     * Jalur cepat tanpa kunci selama stok repository sama dengan stok tersinkron; kunci per
+     * produk hanya diambil jika ada mutasi langsung lewat ServiceInventaris yang belum diserap.
+     */
+    private void rekonsiliasi(String kode, StokProduk stokProduk, Produk produk) {
+        if (produk.getStok() == stokProduk.stokTersinkron) {
+            return;
+        }
+        synchronized (stokProduk) {
+            serviceInventaris.cariProdukPrimer(kode)
+                    .ifPresent(terkini -> serapMutasiLuar(kode, stokProduk, terkini));
+        }
+    }
+
+    /**
+     * Menyerap selisih stok repository terhadap stok tersinkron ke counter gudang.
+     * Harus dipanggil di dalam synchronized (stokProduk).
+     */
+    private void serapMutasiLuar(String kode, StokProduk stokProduk, Produk produk) {
+        int stokRepository = produk.getStok();
+        int luar = stokRepository - stokProduk.stokTersinkron;
+        if (luar == 0) {
+            return;
+        }
+        if (luar > 0) {
+            stokProduk.stok.addAndGet(0, luar);
+        } else {
+            int kurang = ambilDariGudang(stokProduk, -luar);
+            if (kurang > 0) {
+                jumlahUnitKonflik.add(kurang);
+            }
+        }
+        stokProduk.stokTersinkron = stokRepository;
+        for (int gudang = 0; gudang < jumlahGudang; gudang++) {
+            perbaruiStatus(kode, stokProduk, gudang, produk.getStokMinimum());
+        }
+    }
+
+    /**
+     * Mengurangi stok mulai dari gudang 0 sampai jumlah terpenuhi atau semua gudang kosong.
+     * @return Sisa jumlah yang tidak tersedia di gudang mana pun.
+     */
+    private int ambilDariGudang(StokProduk stokProduk, int jumlah) {
+        int sisa = jumlah;
+        for (int gudang = 0; gudang < jumlahGudang && sisa > 0; gudang++) {
+            int indeks = gudang * stokProduk.jarak;
+            while (true) {
+                int sekarang = stokProduk.stok.get(indeks);
+                int diambil = Math.min(sekarang, sisa);
+                if (diambil <= 0) {
+                    break;
+                }
+                if (stokProduk.stok.compareAndSet(indeks, sekarang, sekarang - diambil)) {
+                    sisa -= diambil;
+                    break;
+                }
+            }
+        }
+        return sisa;
+    }
+
+    private void lepas(String kode) {
+        stokPerKode.remove(kode);
+        menipisGlobal.remove(kode);
+        for (Set<String> menipisGudang : menipisPerGudang) {
+            menipisGudang.remove(kode);
+        }
+    }
+
+    private int total(StokProduk stokProduk) {
+        int total = 0;
+        for (int gudang = 0; gudang < jumlahGudang; gudang++) {
+            total += stokProduk.stokDi(gudang);
+        }
+        return total;
+    }
+
+    /**
+     * Menyesuaikan keanggotaan himpunan menipis setelah stok berubah. Nilai dibaca ulang
+     * setelah himpunan diubah; jika sempat berubah lagi oleh thread lain, status dihitung ulang.
+     */
+    private void perbaruiStatus(String kode, StokProduk stokProduk, int gudang, int stokMinimumProduk) {
+        Set<String> menipisGudang = menipisPerGudang.get(gudang);
+        boolean menipis;
+        do {
+            menipis = menipisDi(stokProduk, gudang, stokMinimumProduk);
+            if (menipis) {
+                menipisGudang.add(kode);
+            } else {
+                menipisGudang.remove(kode);
+            }
+        } while (menipis != menipisDi(stokProduk, gudang, stokMinimumProduk));
+
+        do {
+            menipis = menipisGlobal(stokProduk, stokMinimumProduk);
+            if (menipis) {
+                menipisGlobal.add(kode);
+            } else {
+                menipisGlobal.remove(kode);
+            }
+        } while (menipis != menipisGlobal(stokProduk, stokMinimumProduk));
+    }
+
+    private static boolean menipisDi(StokProduk stokProduk, int gudang, int stokMinimumProduk) {
+        int stok = stokProduk.stokDi(gudang);
+        return stok > 0 && stok <= stokProduk.stokMinimumDi(gudang, stokMinimumProduk);
+    }
+
+    private boolean menipisGlobal(StokProduk stokProduk, int stokMinimumProduk) {
+        int total = total(stokProduk);
+        return total > 0 && total <= stokMinimumProduk;
+    }
+
+    private List<Produk> keProduk(Set<String> daftarKode) {
+        List<Produk> hasil = new ArrayList<>(daftarKode.size());
+        for (String kode : daftarKode) {
+            serviceInventaris.cariProdukPrimer(kode).ifPresent(hasil::add);
+        }
+        return hasil;
+    }
+
+    private void cekGudang(int gudang) {
+        if (gudang < 0 || gudang >= jumlahGudang) {
+            throw new IllegalArgumentException("Nomor gudang tidak valid: " + gudang);
+        }
+    }
+}
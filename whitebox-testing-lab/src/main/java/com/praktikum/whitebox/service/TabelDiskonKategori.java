@@ -0,0 +1,220 @@
+package com.praktikum.whitebox.service;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tabel tingkat diskon kuantitas khusus per kategori produk.
+ * <p>
+ * Kategori yang terdaftar memakai tingkatnya sendiri (ambang kuantitas minimum dan
+ * persentase diskon) serta batas diskon maksimumnya sendiri, menggantikan tingkat
+ * kuantitas bawaan KalkulatorDiskon. Diskon tipe pelanggan tetap ditambahkan.
+ * <p>
+ * Untuk pencarian, seluruh tabel dipadatkan menjadi beberapa array primitif (tingkat
+ * semua kategori berurutan dalam satu array) plus tabel hash open addressing yang
+ * membandingkan nama kategori tanpa membedakan huruf besar/kecil, tanpa alokasi.
+ * Setiap perubahan membangun ulang array tersebut dan mempublikasikannya sekaligus,
+ * sehingga pembaca tidak pernah mengunci dan satu perhitungan keranjang selalu
+ * melihat satu versi tabel yang konsisten.
+ */
+public class TabelDiskonKategori {
+
+    public static final double BATAS_MAKSIMUM_DEFAULT = 0.30;
+
+    /**
+     * Aturan satu kategori, dalam bentuk yang didaftarkan.
+     */
+    private static final class Aturan {
+        final String kategori;
+        final int[] kuantitasMinimum;
+        final double[] persentase;
+        final double batasMaksimum;
+
+        Aturan(String kategori, int[] kuantitasMinimum, double[] persentase, double batasMaksimum) {
+            this.kategori = kategori;
+            this.kuantitasMinimum = kuantitasMinimum;
+            this.persentase = persentase;
+            this.batasMaksimum = batasMaksimum;
+        }
+    }
+
+    /**
+     * Isi tabel yang sudah dipadatkan dan tidak berubah lagi setelah dipublikasikan.
+     */
+    static final class Isi {
+        static final Isi KOSONG = new Isi(new Aturan[0]);
+
+        private final String[] nama;
+        private final int[] awalTingkat;    // Tingkat kategori id ada di [awalTingkat[id], awalTingkat[id + 1])
+        private final int[] ambang;         // Diurutkan menurun per kategori
+        private final double[] persentase;
+        private final double[] batasMaksimum;
+        private final int[] slot;           // id + 1, atau 0 untuk slot kosong
+
+        Isi(Aturan[] daftarAturan) {
+            int jumlah = daftarAturan.length;
+            nama = new String[jumlah];
+            awalTingkat = new int[jumlah + 1];
+            batasMaksimum = new double[jumlah];
+            int totalTingkat = 0;
+            for (Aturan aturan : daftarAturan) {
+                totalTingkat += aturan.kuantitasMinimum.length;
+            }
+            ambang = new int[totalTingkat];
+            persentase = new double[totalTingkat];
+            slot = new int[Integer.highestOneBit(Math.max(4, jumlah * 2 - 1)) << 1];
+
+            int posisi = 0;
+            for (int id = 0; id < jumlah; id++) {
+                Aturan aturan = daftarAturan[id];
+                nama[id] = aturan.kategori;
+                batasMaksimum[id] = aturan.batasMaksimum;
+                awalTingkat[id] = posisi;
+                // Disimpan dari ambang terbesar agar pencarian berhenti di tingkat pertama yang cocok
+                for (int i = aturan.kuantitasMinimum.length - 1; i >= 0; i--) {
+                    ambang[posisi] = aturan.kuantitasMinimum[i];
+                    persentase[posisi] = aturan.persentase[i];
+                    posisi++;
+                }
+                int mask = slot.length - 1;
+                int indeks = hash(aturan.kategori) & mask;
+                while (slot[indeks] != 0) {
+                    indeks = (indeks + 1) & mask;
+                }
+                slot[indeks] = id + 1;
+            }
+            awalTingkat[jumlah] = posisi;
+        }
+
+        /**
+         * @return Id kategori, atau -1 jika kategori tidak terdaftar (atau null).
+         */
+        int cariId(String kategori) {
+            if (kategori == null || nama.length == 0) {
+                return -1;
+            }
+            int mask = slot.length - 1;
+            int indeks = hash(kategori) & mask;
+            while (slot[indeks] != 0) {
+                int id = slot[indeks] - 1;
+                if (nama[id].equalsIgnoreCase(kategori)) {
+                    return id;
+                }
+                indeks = (indeks + 1) & mask;
+            }
+            return -1;
+        }
+
+        /**
+         * @return Persentase diskon kuantitas kategori id untuk kuantitas tersebut.
+         */
+        double persentaseKuantitas(int id, int kuantitas) {
+            for (int i = awalTingkat[id]; i < awalTingkat[id + 1]; i++) {
+                if (kuantitas >= ambang[i]) {
+                    return persentase[i];
+                }
+            }
+            return 0.0;
+        }
+
+        double batasMaksimum(int id) {
+            return batasMaksimum[id];
+        }
+
+        int jumlahKategori() {
+            return nama.length;
+        }
+
+        /**
+         * Hash yang konsisten dengan equalsIgnoreCase.
+         */
+        private static int hash(String teks) {
+            int h = 0;
+            for (int i = 0; i < teks.length(); i++) {
+                h = 31 * h + Character.toLowerCase(Character.toUpperCase(teks.charAt(i)));
+            }
+            return h ^ (h >>> 16);
+        }
+    }
+
+    // Sumber kebenaran untuk membangun ulang Isi, dengan kunci nama kategori huruf kecil
+    private final Map<String, Aturan> daftarAturan = new LinkedHashMap<>();
+    private volatile Isi isi = Isi.KOSONG;
+
+    /**
+     * Mengatur tingkat diskon kuantitas suatu kategori dengan batas maksimum default 30%.
+     * @see #aturTingkat(String, int[], double[], double)
+     */
+    public void aturTingkat(String kategori, int[] kuantitasMinimum, double[] persentase) {
+        aturTingkat(kategori, kuantitasMinimum, persentase, BATAS_MAKSIMUM_DEFAULT);
+    }
+
+    /**
+     * Mengatur (atau mengganti) tingkat diskon kuantitas suatu kategori.
+     * @param kategori Nama kategori (tidak membedakan huruf besar/kecil).
+     * @param kuantitasMinimum Ambang kuantitas tiap tingkat, positif dan naik tegas.
+     * @param persentase Persentase diskon tiap tingkat (0 sampai 1), sepasang dengan kuantitasMinimum.
+     *                   Array kosong berarti kategori ini tidak mendapat diskon kuantitas.
+     * @param batasMaksimum Batas total diskon (kuantitas + tipe pelanggan) untuk kategori ini, 0 sampai 1.
+     * @throws IllegalArgumentException jika kategori kosong atau tingkat tidak valid.
+     */
+    public synchronized void aturTingkat(String kategori, int[] kuantitasMinimum, double[] persentase,
+                                         double batasMaksimum) {
+        if (kategori == null || kategori.trim().isEmpty()) {
+            throw new IllegalArgumentException("Kategori tidak boleh kosong");
+        }
+        if (kuantitasMinimum == null || persentase == null || kuantitasMinimum.length != persentase.length) {
+            throw new IllegalArgumentException("Jumlah ambang dan persentase harus sama");
+        }
+        for (int i = 0; i < kuantitasMinimum.length; i++) {
+            if (kuantitasMinimum[i] <= 0 || (i > 0 && kuantitasMinimum[i] <= kuantitasMinimum[i - 1])) {
+                throw new IllegalArgumentException("Ambang kuantitas harus positif dan naik");
+            }
+            if (!(persentase[i] >= 0 && persentase[i] <= 1)) {
+                throw new IllegalArgumentException("Persentase harus di antara 0 dan 1");
+            }
+        }
+        if (!(batasMaksimum >= 0 && batasMaksimum <= 1)) {
+            throw new IllegalArgumentException("Batas maksimum harus di antara 0 dan 1");
+        }
+        daftarAturan.put(kategori.toLowerCase(), new Aturan(kategori,
+                Arrays.copyOf(kuantitasMinimum, kuantitasMinimum.length),
+                Arrays.copyOf(persentase, persentase.length), batasMaksimum));
+        bangunUlang();
+    }
+
+    /**
+     * Menghapus aturan kategori; kategori itu kembali memakai tingkat bawaan.
+     * @return true jika kategori sebelumnya terdaftar.
+     */
+    public synchronized boolean hapus(String kategori) {
+        if (kategori == null || daftarAturan.remove(kategori.toLowerCase()) == null) {
+            return false;
+        }
+        bangunUlang();
+        return true;
+    }
+
+    /**
+     * @return true jika kategori memiliki aturan khusus.
+     */
+    public boolean isTerdaftar(String kategori) {
+        return isi.cariId(kategori) >= 0;
+    }
+
+    public int getJumlahKategori() {
+        return isi.jumlahKategori();
+    }
+
+    /**
+     * @return Versi tabel saat ini, untuk dibaca tanpa mengunci.
+     */
+    Isi isi() {
+        return isi;
+    }
+
+    private void bangunUlang() {
+        isi = new Isi(daftarAturan.values().toArray(new Aturan[0]));
+    }
+}
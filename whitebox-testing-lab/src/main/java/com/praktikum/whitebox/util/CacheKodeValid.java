@@ -0,0 +1,77 @@
+package com.praktikum.whitebox.util;
+
+import java.util.Arrays;
+
+/**
+ * Cache kecil berukuran tetap untuk kode produk yang baru saja lolos
+ * {@link ValidationUtils#isValidKodeProduk(String)}.
+ * <p>
+ * Direct-mapped: setiap kode hanya punya satu slot (dari hashCode String yang sudah
+ * di-cache oleh String itu sendiri), sehingga pencarian berupa satu baca array dan satu
+ * equals. Kode yang bertabrakan saling menggusur, jadi sekumpulan kecil kode yang sering
+ * dipakai tetap tinggal di cache sedangkan kode yang jarang dipakai cepat tergusur.
+ * Hanya kode valid yang disimpan; kode tidak valid selalu divalidasi ulang.
+ * <p>
+ * Aturan validasi tidak bergantung pada waktu atau data lain, sehingga entri tidak perlu
+ * kedaluwarsa. Thread-safe tanpa mengunci: String immutable, dan penulisan yang saling
+ * balapan paling buruk hanya membuat satu entri hilang.
+ */
+public class CacheKodeValid {
+
+    public static final int KAPASITAS_DEFAULT = 256;
+
+    private final String[] slot;
+    private final int mask;
+
+    public CacheKodeValid() {
+        this(KAPASITAS_DEFAULT);
+    }
+
+    /**
+     * @param kapasitas Jumlah slot, dibulatkan ke atas menjadi pangkat dua.
+     * @throws IllegalArgumentException jika kapasitas tidak positif.
+     */
+    public CacheKodeValid(int kapasitas) {
+        if (kapasitas <= 0) {
+            throw new IllegalArgumentException("Kapasitas harus positif");
+        }
+        this.slot = new String[kapasitas == 1 ? 1 : Integer.highestOneBit(kapasitas - 1) << 1];
+        this.mask = slot.length - 1;
+    }
+
+    /**
+     * Hasilnya selalu sama dengan {@link ValidationUtils#isValidKodeProduk(String)}.
+     * @param kode Kode produk.
+     * @return true jika kode valid.
+     */
+    public boolean isValid(String kode) {
+        if (kode == null) {
+            return false;
+        }
+        int h = kode.hashCode();
+        int indeks = (h ^ (h >>> 16)) & mask;
+        String tersimpan = slot[indeks];
+        if (tersimpan != null && (tersimpan == kode || tersimpan.equals(kode))) {
+            return true;
+        }
+        if (!ValidationUtils.isValidKodeProduk(kode)) {
+            return false;
+        }
+        slot[indeks] = kode;
+        return true;
+    }
+
+    /**
+     * @return Jumlah slot cache.
+     */
+    public int getKapasitas() {
+        return slot.length;
+    }
+
+    /**
+     * Mengosongkan cache.
+     */
+    public void bersihkan() {
+        Arrays.fill(slot, null);
+    }
+}
@@ -0,0 +1,130 @@
+package com.praktikum.whitebox.util;
+
+/**
+ * Himpunan kode produk berbasis array long primitif (open addressing).
+ * Kode produk yang valid (3-10 karakter huruf/angka) selalu bisa dikodekan
+ * menjadi satu long unik, sehingga tidak perlu menyimpan objek String.
+ * Tidak thread-safe.
+ */
+public class HimpunanKode {
+
+    private static final long KOSONG = 0L; // enkode() tidak pernah menghasilkan 0 untuk kode tidak kosong
+    private static final int BASIS = 63;   // 62 karakter (A-Z, a-z, 0-9) + 1 agar tidak ada digit nol
+
+    private long[] tabel;
+    private int ukuran;
+
+    public HimpunanKode() {
+        this(1024);
+    }
+
+    /**
+     * @param perkiraanJumlah Perkiraan jumlah kode yang akan disimpan.
+     */
+    public HimpunanKode(int perkiraanJumlah) {
+        int kapasitas = Integer.highestOneBit(Math.max(16, perkiraanJumlah * 2 - 1)) << 1;
+        this.tabel = new long[kapasitas];
+    }
+
+    /**
+     * Mengodekan kode produk menjadi long. Hanya kode 1-10 karakter huruf/angka
+     * yang bisa dikodekan.
+     * @param kode Kode produk.
+     * @return Nilai long unik untuk kode tersebut, atau -1 jika kode tidak bisa dikodekan.
+     */
+    public static long enkode(String kode) {
+        if (kode == null || kode.isEmpty() || kode.length() > 10) {
+            return -1;
+        }
+        long hasil = 0;
+        for (int i = 0; i < kode.length(); i++) {
+            int digit = digit(kode.charAt(i));
+            if (digit < 0) {
+                return -1;
+            }
+            hasil = hasil * BASIS + digit;
+        }
+        return hasil;
+    }
+
+    private static int digit(char c) {
+        if (c >= '0' && c <= '9') {
+            return 1 + (c - '0');
+        } else if (c >= 'A' && c <= 'Z') {
+            return 11 + (c - 'A');
+        } else if (c >= 'a' && c <= 'z') {
+            return 37 + (c - 'a');
+        }
+        return -1;
+    }
+
+    /**
+     * Menambahkan kode (yang sudah dikodekan) ke himpunan.
+     * @param kodeTerenkode Hasil dari {@link #enkode(String)}, harus positif.
+     * @return true jika kode baru ditambahkan, false jika sudah ada.
+     * @throws IllegalArgumentException jika nilai tidak positif.
+     */
+    public boolean tambah(long kodeTerenkode) {
+        if (kodeTerenkode <= 0) {
+            throw new IllegalArgumentException("Kode terenkode harus positif");
+        }
+        if ((ukuran + 1) * 2 > tabel.length) {
+            perbesar();
+        }
+        int mask = tabel.length - 1;
+        int indeks = hash(kodeTerenkode) & mask;
+        while (tabel[indeks] != KOSONG) {
+            if (tabel[indeks] == kodeTerenkode) {
+                return false;
+            }
+            indeks = (indeks + 1) & mask;
+        }
+        tabel[indeks] = kodeTerenkode;
+        ukuran++;
+        return true;
+    }
+
+    /**
+     * @param kodeTerenkode Hasil dari {@link #enkode(String)}.
+     * @return true jika kode ada di himpunan.
+     */
+    public boolean berisi(long kodeTerenkode) {
+        if (kodeTerenkode <= 0) {
+            return false;
+        }
+        int mask = tabel.length - 1;
+        int indeks = hash(kodeTerenkode) & mask;
+        while (tabel[indeks] != KOSONG) {
+            if (tabel[indeks] == kodeTerenkode) {
+                return true;
+            }
+            indeks = (indeks + 1) & mask;
+        }
+        return false;
+    }
+
+    public int ukuran() {
+        return ukuran;
+    }
+
+    private void perbesar() {
+        long[] lama = tabel;
+        tabel = new long[lama.length * 2];
+        int mask = tabel.length - 1;
+        for (long nilai : lama) {
+            if (nilai != KOSONG) {
+                int indeks = hash(nilai) & mask;
+                while (tabel[indeks] != KOSONG) {
+                    indeks = (indeks + 1) & mask;
+                }
+                tabel[indeks] = nilai;
+            }
+        }
+    }
+
+    private static int hash(long nilai) {
+        // Fungsi pengacak (mix) agar kode berurutan tersebar merata
+        long h = nilai * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -14,12 +14,29 @@ public class ValidationUtils {
      * hanya boleh huruf dan angka.
      */
     public static boolean isValidKodeProduk(String kode) {
-        if (kode == null || kode.trim().isEmpty()) {
+        if (kode == null) {
             return false;
         }
-        String kodeBersih = kode.trim();
-        // Regex: Hanya huruf (A-Z, a-z) dan angka (0-9), panjang 3 sampai 10.
-        return kodeBersih.matches("^[A-Za-z0-9]{3,10}$");
+        // Setara dengan trim() lalu regex ^[A-Za-z0-9]{3,10}$, tanpa membuat String atau Pattern baru
+        int awal = 0;
+        int akhir = kode.length();
+        while (awal < akhir && kode.charAt(awal) <= ' ') {
+            awal++;
+        }
+        while (akhir > awal && kode.charAt(akhir - 1) <= ' ') {
+            akhir--;
+        }
+        int panjang = akhir - awal;
+        if (panjang < 3 || panjang > 10) {
+            return false;
+        }
+        for (int i = awal; i < akhir; i++) {
+            char c = kode.charAt(i);
+            if (!((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9'))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
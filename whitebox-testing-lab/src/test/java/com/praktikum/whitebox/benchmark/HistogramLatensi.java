@@ -0,0 +1,88 @@
+package com.praktikum.whitebox.benchmark;
+
+/**
+ * Histogram latensi log-linear berukuran tetap untuk load test.
+ * <p>
+ * Nilai di bawah 32 ns disimpan persis; di atasnya setiap rentang pangkat dua dibagi
+ * 16 bucket, sehingga galat relatif paling besar sekitar 6%. Mencatat nilai hanya
+ * menaikkan satu elemen array (tanpa alokasi). Tidak thread-safe: setiap thread memakai
+ * histogramnya sendiri, lalu digabung dengan {@link #gabung(HistogramLatensi)}.
+ */
+public class HistogramLatensi {
+
+    private static final int BIT_SUB_BUCKET = 4;
+    private static final int SUB_BUCKET = 1 << BIT_SUB_BUCKET;
+    private static final int BATAS_LINEAR = 2 * SUB_BUCKET;
+    private static final int JUMLAH_BUCKET = BATAS_LINEAR + (63 - BIT_SUB_BUCKET) * SUB_BUCKET;
+
+    private final long[] bucket = new long[JUMLAH_BUCKET];
+    private long jumlah;
+    private long maksimum;
+
+    /**
+     * @param nanos Latensi dalam nanodetik; nilai negatif dianggap 0.
+     */
+    public void catat(long nanos) {
+        long nilai = Math.max(0, nanos);
+        bucket[indeks(nilai)]++;
+        jumlah++;
+        if (nilai > maksimum) {
+            maksimum = nilai;
+        }
+    }
+
+    public void gabung(HistogramLatensi lain) {
+        for (int i = 0; i < JUMLAH_BUCKET; i++) {
+            bucket[i] += lain.bucket[i];
+        }
+        jumlah += lain.jumlah;
+        maksimum = Math.max(maksimum, lain.maksimum);
+    }
+
+    public long getJumlah() {
+        return jumlah;
+    }
+
+    public long getMaksimum() {
+        return maksimum;
+    }
+
+    /**
+     * @param persentil Persentil antara 0 dan 100, misalnya 99.9.
+     * @return Batas atas bucket yang memuat persentil tersebut (nanodetik), 0 jika kosong.
+     */
+    public long persentil(double persentil) {
+        if (jumlah == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(jumlah * persentil / 100.0));
+        long kumulatif = 0;
+        for (int i = 0; i < JUMLAH_BUCKET; i++) {
+            kumulatif += bucket[i];
+            if (kumulatif >= target) {
+                return Math.min(batasAtas(i), maksimum);
+            }
+        }
+        return maksimum;
+    }
+
+    private static int indeks(long nilai) {
+        if (nilai < BATAS_LINEAR) {
+            return (int) nilai;
+        }
+        int pangkat = 63 - Long.numberOfLeadingZeros(nilai);
+        int geser = pangkat - BIT_SUB_BUCKET;
+        int mantissa = (int) (nilai >>> geser) & (SUB_BUCKET - 1);
+        return BATAS_LINEAR + (pangkat - BIT_SUB_BUCKET - 1) * SUB_BUCKET + mantissa;
+    }
+
+    private static long batasAtas(int indeks) {
+        if (indeks < BATAS_LINEAR) {
+            return indeks;
+        }
+        int pangkat = (indeks - BATAS_LINEAR) / SUB_BUCKET + BIT_SUB_BUCKET + 1;
+        int mantissa = (indeks - BATAS_LINEAR) % SUB_BUCKET;
+        int geser = pangkat - BIT_SUB_BUCKET;
+        return ((long) (SUB_BUCKET + mantissa + 1) << geser) - 1;
+    }
+}
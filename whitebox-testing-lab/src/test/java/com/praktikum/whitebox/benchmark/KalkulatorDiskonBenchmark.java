@@ -0,0 +1,77 @@
+package com.praktikum.whitebox.benchmark;
+
+import com.praktikum.whitebox.model.TipePelanggan;
+import com.praktikum.whitebox.service.KalkulatorDiskon;
+
+/**
+ * Benchmark sederhana untuk membandingkan jalur String dan jalur TipePelanggan
+ * pada KalkulatorDiskon.hitungDiskon.
+ * Bukan bagian dari test suite (tidak dijalankan oleh surefire). Jalankan dengan:
+ * <pre>
+ * mvn test-compile
+ * java -cp target/classes:target/test-classes com.praktikum.whitebox.benchmark.KalkulatorDiskonBenchmark
+ * </pre>
+ */
+public class KalkulatorDiskonBenchmark {
+
+    private static final int JUMLAH_DATA = 1 << 16;
+    private static final int PUTARAN_PEMANASAN = 20;
+    private static final int PUTARAN_UKUR = 20;
+
+    public static void main(String[] args) {
+        KalkulatorDiskon kalkulator = new KalkulatorDiskon();
+
+        // Data input dibuat sekali agar yang diukur hanya perhitungan diskon
+        String[] pilihanTipe = {"PREMIUM", "reguler", "Baru", "VIP"};
+        double[] harga = new double[JUMLAH_DATA];
+        int[] kuantitas = new int[JUMLAH_DATA];
+        String[] tipeString = new String[JUMLAH_DATA];
+        TipePelanggan[] tipeEnum = new TipePelanggan[JUMLAH_DATA];
+        for (int i = 0; i < JUMLAH_DATA; i++) {
+            harga[i] = 1000 + (i % 97);
+            kuantitas[i] = 1 + (i % 120);
+            tipeString[i] = pilihanTipe[i % pilihanTipe.length];
+            tipeEnum[i] = TipePelanggan.dari(tipeString[i]);
+        }
+
+        for (int i = 0; i < PUTARAN_PEMANASAN; i++) {
+            jalurString(kalkulator, harga, kuantitas, tipeString);
+            jalurEnum(kalkulator, harga, kuantitas, tipeEnum);
+        }
+
+        long totalString = 0;
+        long totalEnum = 0;
+        double checksum = 0;
+        for (int i = 0; i < PUTARAN_UKUR; i++) {
+            long mulai = System.nanoTime();
+            checksum += jalurString(kalkulator, harga, kuantitas, tipeString);
+            totalString += System.nanoTime() - mulai;
+
+            mulai = System.nanoTime();
+            checksum -= jalurEnum(kalkulator, harga, kuantitas, tipeEnum);
+            totalEnum += System.nanoTime() - mulai;
+        }
+
+        long operasi = (long) JUMLAH_DATA * PUTARAN_UKUR;
+        System.out.printf("Jalur String        : %.2f ns/operasi%n", (double) totalString / operasi);
+        System.out.printf("Jalur TipePelanggan : %.2f ns/operasi%n", (double) totalEnum / operasi);
+        // Checksum harus 0 karena kedua jalur menghasilkan nilai yang sama
+        System.out.printf("Checksum            : %.4f%n", checksum);
+    }
+
+    private static double jalurString(KalkulatorDiskon kalkulator, double[] harga, int[] kuantitas, String[] tipe) {
+        double total = 0;
+        for (int i = 0; i < harga.length; i++) {
+            total += kalkulator.hitungDiskon(harga[i], kuantitas[i], tipe[i]);
+        }
+        return total;
+    }
+
+    private static double jalurEnum(KalkulatorDiskon kalkulator, double[] harga, int[] kuantitas, TipePelanggan[] tipe) {
+        double total = 0;
+        for (int i = 0; i < harga.length; i++) {
+            total += kalkulator.hitungDiskon(harga[i], kuantitas[i], tipe[i]);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,328 @@
+package com.praktikum.whitebox.benchmark;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.RepositoryProduk;
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import com.praktikum.whitebox.repository.RepositoryProdukMvcc;
+import com.praktikum.whitebox.service.ServiceInventaris;
+import com.praktikum.whitebox.service.StatusOperasi;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Load test yang mensimulasikan trafik kasir (POS) bersamaan terhadap ServiceInventaris
+ * dengan repository sungguhan (bukan mock).
+ * <p>
+ * Setiap thread (platform atau virtual) menjalankan campuran keluarStok, masukStok,
+ * cariByKode, dan laporan stok menipis atas SKU yang dipilih dengan distribusi Zipf,
+ * sehingga sebagian kecil SKU menerima sebagian besar trafik. Hasilnya: throughput,
+ * latensi p50/p99/p99.9 per operasi, dan pelanggaran invarian:
+ * <ul>
+ *   <li>stok negatif yang terbaca selama simulasi atau tersisa di akhir;</li>
+ *   <li>stok hilang/berlebih: stok akhir berbeda dari stok awal + semua masukStok yang
+ *       berhasil - semua keluarStok yang berhasil (lost update).</li>
+ * </ul>
+ * Bukan bagian dari test suite (tidak dijalankan oleh surefire). Jalankan dengan:
+ * <pre>
+ * mvn test-compile
+ * java -cp target/classes:target/test-classes com.praktikum.whitebox.benchmark.SimulasiBebanPos \
+ *     thread=16 virtual=true durasi=10 sku=10000 zipf=1.1 campuran=45,25,29,1 repository=inmemory
+ * </pre>
+ * Tambahkan gabung=true untuk menjalankan keluar/masuk lewat mode penggabungan
+ * (ServiceInventaris.aktifkanPenggabunganStok).
+ */
+public class SimulasiBebanPos {
+
+    private static final int KELUAR = 0;
+    private static final int MASUK = 1;
+    private static final int CARI = 2;
+    private static final int LAPORAN = 3;
+    private static final String[] NAMA_OPERASI = {"keluarStok", "masukStok", "cariByKode", "laporan"};
+
+    /**
+     * Parameter simulasi; semua bisa diubah lewat argumen kunci=nilai.
+     */
+    public static final class Konfigurasi {
+        int jumlahThread = Runtime.getRuntime().availableProcessors();
+        boolean threadVirtual = false;
+        int durasiDetik = 10;
+        int pemanasanDetik = 2;
+        int jumlahSku = 10_000;
+        double eksponenZipf = 1.1;
+        int[] campuran = {45, 25, 29, 1}; // Persen keluar, masuk, cari, laporan
+        int stokAwal = 1_000;
+        String repository = "inmemory";
+        boolean gabung = false;
+
+        static Konfigurasi dariArgumen(String[] args) {
+            Konfigurasi konfigurasi = new Konfigurasi();
+            for (String arg : args) {
+                int pemisah = arg.indexOf('=');
+                if (pemisah < 0) {
+                    throw new IllegalArgumentException("Argumen harus berbentuk kunci=nilai: " + arg);
+                }
+                String kunci = arg.substring(0, pemisah);
+                String nilai = arg.substring(pemisah + 1);
+                switch (kunci) {
+                    case "thread" -> konfigurasi.jumlahThread = Integer.parseInt(nilai);
+                    case "virtual" -> konfigurasi.threadVirtual = Boolean.parseBoolean(nilai);
+                    case "durasi" -> konfigurasi.durasiDetik = Integer.parseInt(nilai);
+                    case "pemanasan" -> konfigurasi.pemanasanDetik = Integer.parseInt(nilai);
+                    case "sku" -> konfigurasi.jumlahSku = Integer.parseInt(nilai);
+                    case "zipf" -> konfigurasi.eksponenZipf = Double.parseDouble(nilai);
+                    case "stok" -> konfigurasi.stokAwal = Integer.parseInt(nilai);
+                    case "repository" -> konfigurasi.repository = nilai;
+                    case "gabung" -> konfigurasi.gabung = Boolean.parseBoolean(nilai);
+                    case "campuran" -> {
+                        String[] bagian = nilai.split(",");
+                        if (bagian.length != 4) {
+                            throw new IllegalArgumentException("Campuran harus 4 angka: keluar,masuk,cari,laporan");
+                        }
+                        for (int i = 0; i < 4; i++) {
+                            konfigurasi.campuran[i] = Integer.parseInt(bagian[i].trim());
+                        }
+                    }
+                    default -> throw new IllegalArgumentException("Argumen tidak dikenal: " + kunci);
+                }
+            }
+            return konfigurasi;
+        }
+    }
+
+    /**
+     * Sampler indeks SKU berdistribusi Zipf: peluang SKU ke-k sebanding dengan 1 / k^s.
+     */
+    static final class SamplerZipf {
+        private final double[] kumulatif;
+
+        SamplerZipf(int jumlah, double eksponen) {
+            kumulatif = new double[jumlah];
+            double total = 0;
+            for (int k = 0; k < jumlah; k++) {
+                total += 1.0 / Math.pow(k + 1, eksponen);
+                kumulatif[k] = total;
+            }
+            for (int k = 0; k < jumlah; k++) {
+                kumulatif[k] /= total;
+            }
+        }
+
+        int ambil(ThreadLocalRandom acak) {
+            double u = acak.nextDouble();
+            int kiri = 0;
+            int kanan = kumulatif.length - 1;
+            while (kiri < kanan) {
+                int tengah = (kiri + kanan) >>> 1;
+                if (kumulatif[tengah] < u) {
+                    kiri = tengah + 1;
+                } else {
+                    kanan = tengah;
+                }
+            }
+            return kiri;
+        }
+    }
+
+    /**
+     * Hasil satu thread pekerja, digabung setelah simulasi selesai.
+     */
+    private static final class HasilPekerja {
+        final HistogramLatensi[] latensi = {
+                new HistogramLatensi(), new HistogramLatensi(), new HistogramLatensi(), new HistogramLatensi()
+        };
+        final long[] jumlahStatus = new long[StatusOperasi.values().length];
+        long stokNegatifTerbaca;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Konfigurasi konfigurasi = Konfigurasi.dariArgumen(args);
+        RepositoryProduk repository = switch (konfigurasi.repository) {
+            case "inmemory" -> new RepositoryProdukInMemory(konfigurasi.jumlahSku * 2);
+            case "mvcc" -> new RepositoryProdukMvcc();
+            default -> throw new IllegalArgumentException("Repository tidak dikenal: " + konfigurasi.repository);
+        };
+        String[] kode = new String[konfigurasi.jumlahSku];
+        for (int i = 0; i < kode.length; i++) {
+            kode[i] = String.format("SKU%06d", i);
+            repository.simpan(new Produk(kode[i], "Produk " + i, "Kategori " + (i % 50),
+                    1000 + (i % 997), konfigurasi.stokAwal, konfigurasi.stokAwal / 10));
+        }
+        ServiceInventaris service = new ServiceInventaris(repository);
+        if (konfigurasi.gabung) {
+            service.aktifkanPenggabunganStok();
+        }
+        SamplerZipf sampler = new SamplerZipf(kode.length, konfigurasi.eksponenZipf);
+        // Perubahan bersih per SKU dari operasi yang berhasil, untuk memeriksa lost update
+        AtomicLongArray perubahanBersih = new AtomicLongArray(kode.length);
+
+        System.out.printf("Simulasi: %d thread %s, %d SKU, Zipf s=%.2f, campuran %d/%d/%d/%d, repository %s%s%n",
+                konfigurasi.jumlahThread, konfigurasi.threadVirtual ? "virtual" : "platform", kode.length,
+                konfigurasi.eksponenZipf, konfigurasi.campuran[0], konfigurasi.campuran[1],
+                konfigurasi.campuran[2], konfigurasi.campuran[3], konfigurasi.repository,
+                konfigurasi.gabung ? ", penggabungan stok" : "");
+
+        if (konfigurasi.pemanasanDetik > 0) {
+            // Pemanasan JIT; perubahannya tetap dicatat agar invarian akhir tetap berlaku
+            jalankanFase(konfigurasi, konfigurasi.pemanasanDetik, service, kode, sampler, perubahanBersih);
+        }
+        long mulai = System.nanoTime();
+        List<HasilPekerja> hasil = jalankanFase(konfigurasi, konfigurasi.durasiDetik, service, kode, sampler,
+                perubahanBersih);
+        double detik = (System.nanoTime() - mulai) / 1e9;
+
+        laporkan(hasil, detik);
+        periksaInvarian(repository, kode, konfigurasi.stokAwal, perubahanBersih, hasil);
+    }
+
+    private static List<HasilPekerja> jalankanFase(Konfigurasi konfigurasi, int durasiDetik, ServiceInventaris service,
+                                                   String[] kode, SamplerZipf sampler,
+                                                   AtomicLongArray perubahanBersih) throws Exception {
+        ExecutorService executor = konfigurasi.threadVirtual
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(konfigurasi.jumlahThread);
+        CountDownLatch mulai = new CountDownLatch(1);
+        long batasWaktu = System.nanoTime() + TimeUnit.SECONDS.toNanos(durasiDetik);
+        List<Future<HasilPekerja>> daftarTugas = new ArrayList<>();
+        for (int t = 0; t < konfigurasi.jumlahThread; t++) {
+            daftarTugas.add(executor.submit(() -> {
+                mulai.await();
+                return kerja(konfigurasi, service, kode, sampler, perubahanBersih, batasWaktu);
+            }));
+        }
+        mulai.countDown();
+        List<HasilPekerja> hasil = new ArrayList<>();
+        for (Future<HasilPekerja> tugas : daftarTugas) {
+            hasil.add(tugas.get());
+        }
+        executor.shutdown();
+        return hasil;
+    }
+
+    private static HasilPekerja kerja(Konfigurasi konfigurasi, ServiceInventaris service, String[] kode,
+                                      SamplerZipf sampler, AtomicLongArray perubahanBersih, long batasWaktu) {
+        HasilPekerja hasil = new HasilPekerja();
+        ThreadLocalRandom acak = ThreadLocalRandom.current();
+        int batasKeluar = konfigurasi.campuran[0];
+        int batasMasuk = batasKeluar + konfigurasi.campuran[1];
+        int batasCari = batasMasuk + konfigurasi.campuran[2];
+        int totalCampuran = batasCari + konfigurasi.campuran[3];
+
+        int iterasi = 0;
+        // Jam hanya dicek setiap 256 operasi agar System.nanoTime tidak mendominasi
+        while ((iterasi++ & 0xFF) != 0 || System.nanoTime() < batasWaktu) {
+            int pilihan = acak.nextInt(totalCampuran);
+            int sku = sampler.ambil(acak);
+            long mulai = System.nanoTime();
+            int operasi;
+            if (pilihan < batasKeluar) {
+                operasi = KELUAR;
+                int jumlah = 1 + acak.nextInt(3);
+                StatusOperasi status = service.keluarStokStatus(kode[sku], jumlah);
+                hasil.jumlahStatus[status.ordinal()]++;
+                if (status.isBerhasil()) {
+                    perubahanBersih.addAndGet(sku, -jumlah);
+                }
+            } else if (pilihan < batasMasuk) {
+                operasi = MASUK;
+                int jumlah = 1 + acak.nextInt(5);
+                StatusOperasi status = service.masukStokStatus(kode[sku], jumlah);
+                hasil.jumlahStatus[status.ordinal()]++;
+                if (status.isBerhasil()) {
+                    perubahanBersih.addAndGet(sku, jumlah);
+                }
+            } else if (pilihan < batasCari) {
+                operasi = CARI;
+                Optional<Produk> produk = service.cariProdukByKode(kode[sku]);
+                if (produk.isPresent() && produk.get().getStok() < 0) {
+                    hasil.stokNegatifTerbaca++;
+                }
+            } else {
+                operasi = LAPORAN;
+                for (Produk produk : service.getProdukStokMenipis()) {
+                    if (produk.getStok() < 0) {
+                        hasil.stokNegatifTerbaca++;
+                    }
+                }
+            }
+            hasil.latensi[operasi].catat(System.nanoTime() - mulai);
+        }
+        return hasil;
+    }
+
+    private static void laporkan(List<HasilPekerja> hasil, double detik) {
+        HistogramLatensi[] gabungan = {
+                new HistogramLatensi(), new HistogramLatensi(), new HistogramLatensi(), new HistogramLatensi()
+        };
+        HistogramLatensi semua = new HistogramLatensi();
+        long[] jumlahStatus = new long[StatusOperasi.values().length];
+        for (HasilPekerja pekerja : hasil) {
+            for (int i = 0; i < gabungan.length; i++) {
+                gabungan[i].gabung(pekerja.latensi[i]);
+                semua.gabung(pekerja.latensi[i]);
+            }
+            for (int i = 0; i < jumlahStatus.length; i++) {
+                jumlahStatus[i] += pekerja.jumlahStatus[i];
+            }
+        }
+
+        System.out.printf("%nThroughput: %,.0f operasi/detik (%,d operasi dalam %.1f detik)%n",
+                semua.getJumlah() / detik, semua.getJumlah(), detik);
+        System.out.printf("%-12s %12s %10s %10s %10s %10s%n", "Operasi", "Jumlah", "p50 us", "p99 us", "p99.9 us",
+                "maks us");
+        for (int i = 0; i < gabungan.length; i++) {
+            cetakBaris(NAMA_OPERASI[i], gabungan[i]);
+        }
+        cetakBaris("semua", semua);
+
+        System.out.println("\nStatus mutasi:");
+        for (StatusOperasi status : StatusOperasi.values()) {
+            if (jumlahStatus[status.ordinal()] > 0) {
+                System.out.printf("  %-20s %,d%n", status, jumlahStatus[status.ordinal()]);
+            }
+        }
+    }
+
+    private static void cetakBaris(String nama, HistogramLatensi histogram) {
+        System.out.printf("%-12s %,12d %10.1f %10.1f %10.1f %10.1f%n", nama, histogram.getJumlah(),
+                histogram.persentil(50) / 1e3, histogram.persentil(99) / 1e3,
+                histogram.persentil(99.9) / 1e3, histogram.getMaksimum() / 1e3);
+    }
+
+    private static void periksaInvarian(RepositoryProduk repository, String[] kode, int stokAwal,
+                                        AtomicLongArray perubahanBersih, List<HasilPekerja> hasil) {
+        long stokNegatifTerbaca = 0;
+        for (HasilPekerja pekerja : hasil) {
+            stokNegatifTerbaca += pekerja.stokNegatifTerbaca;
+        }
+        int skuNegatif = 0;
+        int skuTidakCocok = 0;
+        long selisihTotal = 0;
+        for (int i = 0; i < kode.length; i++) {
+            int stokAkhir = repository.cariByKode(kode[i]).map(Produk::getStok).orElse(0);
+            long diharapkan = stokAwal + perubahanBersih.get(i);
+            if (stokAkhir < 0) {
+                skuNegatif++;
+            }
+            if (stokAkhir != diharapkan) {
+                skuTidakCocok++;
+                selisihTotal += stokAkhir - diharapkan;
+            }
+        }
+
+        System.out.println("\nInvarian:");
+        System.out.printf("  Stok negatif terbaca selama simulasi : %,d%n", stokNegatifTerbaca);
+        System.out.printf("  SKU dengan stok akhir negatif        : %,d%n", skuNegatif);
+        System.out.printf("  SKU dengan stok hilang/berlebih      : %,d (selisih total %+,d unit)%n",
+                skuTidakCocok, selisihTotal);
+        boolean dilanggar = stokNegatifTerbaca > 0 || skuNegatif > 0 || skuTidakCocok > 0;
+        System.out.println(dilanggar ? "  HASIL: INVARIAN DILANGGAR" : "  HASIL: semua invarian terpenuhi");
+    }
+}
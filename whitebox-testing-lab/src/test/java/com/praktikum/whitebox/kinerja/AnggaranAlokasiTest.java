@@ -0,0 +1,121 @@
+package com.praktikum.whitebox.kinerja;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.model.TipePelanggan;
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import com.praktikum.whitebox.service.KalkulatorDiskon;
+import com.praktikum.whitebox.service.ServiceInventaris;
+import com.praktikum.whitebox.service.TabelDiskonKategori;
+import com.praktikum.whitebox.util.CacheKodeValid;
+import com.praktikum.whitebox.util.ValidationUtils;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Anggaran alokasi (byte per operasi) untuk jalur panas. Gagal jika perubahan kode menambah
+ * alokasi per panggilan, misalnya substring/trim di validasi atau objek sementara di diskon.
+ * Tier ini tidak ikut {@code mvn test} bawaan; jalankan dengan {@code mvn test -Dgroups=kinerja}.
+ */
+@Tag("kinerja")
+@DisplayName("Kinerja - anggaran alokasi jalur panas")
+class AnggaranAlokasiTest {
+
+    private static final int PUTARAN = 5;
+    private static final int ULANGAN = 50_000;
+    private static final String[] KODE = {"P001", " P002 ", "PRD-123", "X", "TERLALU-PANJANG-SEKALI", "P0_1"};
+
+    @BeforeAll
+    static void cekDukungan() {
+        assumeTrue(PengukurKinerja.alokasiDidukung(), "JVM tidak mendukung penghitung alokasi per thread");
+    }
+
+    @Test
+    @DisplayName("ValidationUtils.isValidKodeProduk tidak mengalokasikan")
+    void testValidasiKode() {
+        double b = PengukurKinerja.bytePerOperasi(PUTARAN, ULANGAN,
+                i -> ValidationUtils.isValidKodeProduk(KODE[i % KODE.length]) ? 1 : 0);
+        lapor("isValidKodeProduk", b, 0);
+    }
+
+    @Test
+    @DisplayName("CacheKodeValid.isValid tidak mengalokasikan")
+    void testCacheKode() {
+        CacheKodeValid cache = new CacheKodeValid();
+        double b = PengukurKinerja.bytePerOperasi(PUTARAN, ULANGAN, i -> cache.isValid(KODE[i % KODE.length]) ? 1 : 0);
+        lapor("CacheKodeValid.isValid", b, 0);
+    }
+
+    @Test
+    @DisplayName("KalkulatorDiskon.hitungDiskon dengan TipePelanggan tidak mengalokasikan")
+    void testHitungDiskonEnum() {
+        KalkulatorDiskon kalkulator = new KalkulatorDiskon();
+        TipePelanggan[] tipe = TipePelanggan.values();
+        double b = PengukurKinerja.bytePerOperasi(PUTARAN, ULANGAN,
+                i -> (long) kalkulator.hitungDiskon(1000 + i % 97, 1 + i % 120, tipe[i % tipe.length]));
+        lapor("hitungDiskon(TipePelanggan)", b, 0);
+    }
+
+    @Test
+    @DisplayName("KalkulatorDiskon.hitungDiskon dengan String tidak mengalokasikan")
+    void testHitungDiskonString() {
+        KalkulatorDiskon kalkulator = new KalkulatorDiskon();
+        String[] tipe = {"PREMIUM", "reguler", "Baru", "VIP"};
+        double b = PengukurKinerja.bytePerOperasi(PUTARAN, ULANGAN,
+                i -> (long) kalkulator.hitungDiskon(1000 + i % 97, 1 + i % 120, tipe[i % tipe.length]));
+        lapor("hitungDiskon(String)", b, 0);
+    }
+
+    @Test
+    @DisplayName("KalkulatorDiskon.hitungDiskon per kategori tidak mengalokasikan")
+    void testHitungDiskonKategori() {
+        TabelDiskonKategori tabel = new TabelDiskonKategori();
+        tabel.aturTingkat("Elektronik", new int[]{5, 20}, new double[]{0.03, 0.08}, 0.20);
+        KalkulatorDiskon kalkulator = new KalkulatorDiskon(tabel);
+        Produk[] produk = {
+                new Produk("P001", "Laptop", "Elektronik", 1000, 10, 2),
+                new Produk("P002", "Meja", "Furnitur", 500, 10, 2)};
+        double b = PengukurKinerja.bytePerOperasi(PUTARAN, ULANGAN,
+                i -> (long) kalkulator.hitungDiskon(produk[i & 1], 1 + i % 30, TipePelanggan.REGULER));
+        lapor("hitungDiskon(Produk)", b, 0);
+    }
+
+    @Test
+    @DisplayName("Produk.kurangiStok dan tambahStok tidak mengalokasikan")
+    void testMutasiProduk() {
+        Produk produk = new Produk("P001", "Laptop", "Elektronik", 1000, 1_000, 2);
+        double b = PengukurKinerja.bytePerOperasi(PUTARAN, ULANGAN, i -> {
+            produk.kurangiStok(1);
+            produk.tambahStok(1);
+            return produk.getStok();
+        });
+        lapor("Produk.kurangiStok/tambahStok", b, 0);
+    }
+
+    @Test
+    @DisplayName("ServiceInventaris.keluarStok/masukStok tetap di bawah plafon")
+    void testMutasiService() {
+        RepositoryProdukInMemory repository = new RepositoryProdukInMemory();
+        repository.simpan(new Produk("P001", "Laptop", "Elektronik", 1000, 1_000, 2));
+        ServiceInventaris service = new ServiceInventaris(repository);
+        double b = PengukurKinerja.bytePerOperasi(PUTARAN, ULANGAN, i -> {
+            service.keluarStokStatus("P001", 1);
+            return service.masukStokStatus("P001", 1).ordinal();
+        });
+        // Jalur ini memang mengalokasikan (Optional dari cariByKode, lambda updateStok), dan
+        // besarnya bergantung pada JDK serta escape analysis: terukur 80 byte/op di JDK 21 dan
+        // 128 byte/op di JDK 17. Plafon 256 memberi ruang dua kali hasil ukur terburuk, cukup
+        // untuk menangkap objek tambahan per mutasi tanpa gagal karena versi JVM.
+        lapor("ServiceInventaris.keluarStok+masukStok", b, 256);
+    }
+
+    private static void lapor(String nama, double bytePerOperasi, double anggaran) {
+        // Setengah byte per operasi memberi ruang bagi alokasi sesekali di luar jalur yang diukur
+        assertTrue(bytePerOperasi <= anggaran + 0.5,
+                nama + " mengalokasikan " + bytePerOperasi + " byte/op, anggaran " + anggaran);
+    }
+}
@@ -0,0 +1,92 @@
+package com.praktikum.whitebox.kinerja;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import com.praktikum.whitebox.service.ServiceInventaris;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Batas latensi kasar untuk jalur repository dan service. Batasnya sengaja longgar (kira-kira
+ * 20-50 kali hasil ukur di laptop pengembang) sehingga hanya menangkap regresi besar, misalnya
+ * cariByKode yang berubah menjadi pemindaian seluruh produk, bukan perbedaan antar mesin.
+ * Tier ini tidak ikut {@code mvn test} bawaan; jalankan dengan {@code mvn test -Dgroups=kinerja}.
+ */
+@Tag("kinerja")
+@DisplayName("Kinerja - batas latensi repository dan service")
+class AnggaranLatensiTest {
+
+    private static final int JUMLAH_PRODUK = 10_000;
+    private static final int PUTARAN = 5;
+    private static final int ULANGAN = 50_000;
+
+    private static RepositoryProdukInMemory repository;
+    private static RepositoryProdukInMemory repositoryTerindeks;
+    private static ServiceInventaris service;
+    private static String[] kode;
+
+    @BeforeAll
+    static void siapkanData() {
+        repository = new RepositoryProdukInMemory(JUMLAH_PRODUK);
+        repositoryTerindeks = new RepositoryProdukInMemory(JUMLAH_PRODUK, true);
+        kode = new String[JUMLAH_PRODUK];
+        for (int i = 0; i < JUMLAH_PRODUK; i++) {
+            kode[i] = String.format("P%05d", i);
+            repository.simpan(new Produk(kode[i], "Produk " + i, "Kategori" + (i % 10), 1000 + i, 1_000, 5));
+            repositoryTerindeks.simpan(new Produk(kode[i], "Produk " + i, "Kategori" + (i % 10), 1000 + i, 1_000, 5));
+        }
+        service = new ServiceInventaris(repository);
+    }
+
+    @Test
+    @DisplayName("RepositoryProdukInMemory.cariByKode di bawah 2 mikrodetik")
+    void testCariByKode() {
+        double ns = PengukurKinerja.nanoPerOperasi(PUTARAN, ULANGAN,
+                i -> repository.cariByKode(kode[i % JUMLAH_PRODUK]).isPresent() ? 1 : 0);
+        lapor("RepositoryProdukInMemory.cariByKode", ns, 2_000);
+    }
+
+    @Test
+    @DisplayName("RepositoryProdukInMemory.updateStok di bawah 5 mikrodetik")
+    void testUpdateStok() {
+        double ns = PengukurKinerja.nanoPerOperasi(PUTARAN, ULANGAN,
+                i -> repository.updateStok(kode[i % JUMLAH_PRODUK], 1_000) ? 1 : 0);
+        lapor("RepositoryProdukInMemory.updateStok", ns, 5_000);
+    }
+
+    @Test
+    @DisplayName("ServiceInventaris.keluarStok + masukStok di bawah 10 mikrodetik")
+    void testMutasiService() {
+        double ns = PengukurKinerja.nanoPerOperasi(PUTARAN, ULANGAN, i -> {
+            String k = kode[i % JUMLAH_PRODUK];
+            service.keluarStokStatus(k, 1);
+            return service.masukStokStatus(k, 1).ordinal();
+        });
+        lapor("ServiceInventaris.keluarStok+masukStok", ns, 10_000);
+    }
+
+    @Test
+    @DisplayName("cariByRentangHarga dengan indeks terurut di bawah 50 mikrodetik untuk rentang sempit")
+    void testRentangHargaTerindeks() {
+        double ns = PengukurKinerja.nanoPerOperasi(PUTARAN, 5_000, i -> {
+            double dari = 1000 + (i % (JUMLAH_PRODUK - 20));
+            return repositoryTerindeks.cariByRentangHarga(dari, dari + 10).size();
+        });
+        lapor("cariByRentangHarga (terindeks, 11 hasil)", ns, 50_000);
+    }
+
+    @Test
+    @DisplayName("ServiceInventaris.hitungTotalStok atas 10.000 produk di bawah 5 milidetik")
+    void testHitungTotalStok() {
+        double ns = PengukurKinerja.nanoPerOperasi(PUTARAN, 200, i -> service.hitungTotalStok());
+        lapor("ServiceInventaris.hitungTotalStok", ns, 5_000_000);
+    }
+
+    private static void lapor(String nama, double nanoPerOperasi, double batas) {
+        assertTrue(nanoPerOperasi <= batas, nama + " butuh " + nanoPerOperasi + " ns/op, batas " + batas);
+    }
+}
@@ -0,0 +1,84 @@
+package com.praktikum.whitebox.kinerja;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Alat ukur untuk test tier kinerja: byte yang dialokasikan thread saat ini per operasi
+ * (lewat com.sun.management.ThreadMXBean) dan waktu per operasi.
+ * <p>
+ * Setiap pengukuran didahului pemanasan agar jalur yang diukur sudah dikompilasi JIT
+ * (termasuk escape analysis), sehingga yang terukur adalah keadaan stabil, bukan interpreter.
+ */
+final class PengukurKinerja {
+
+    /**
+     * Satu operasi yang diukur. Nilai kembalian dijumlahkan agar JIT tidak membuang operasinya.
+     */
+    @FunctionalInterface
+    interface Operasi {
+        long jalankan(int i);
+    }
+
+    static final int PEMANASAN = 200_000;
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = ambilThreadMxBean();
+
+    @SuppressWarnings("unused")
+    private static volatile long penampung; // Tujuan hasil operasi
+
+    private PengukurKinerja() {
+    }
+
+    /**
+     * @return true jika JVM mendukung penghitung alokasi per thread.
+     */
+    static boolean alokasiDidukung() {
+        return THREAD_MX_BEAN != null && THREAD_MX_BEAN.isThreadAllocatedMemorySupported()
+                && THREAD_MX_BEAN.isThreadAllocatedMemoryEnabled();
+    }
+
+    /**
+     * @return Rata-rata byte yang dialokasikan thread saat ini per operasi, setelah pemanasan,
+     *         dari putaran dengan alokasi terkecil. Selama JIT masih mengganti kode terkompilasi
+     *         (misalnya karena agen JaCoCo), escape analysis bisa sesaat tidak berlaku; putaran
+     *         terkecil mencerminkan keadaan stabil.
+     */
+    static double bytePerOperasi(int putaran, int ulangan, Operasi operasi) {
+        jalankan(PEMANASAN, operasi);
+        long terkecil = Long.MAX_VALUE;
+        for (int p = 0; p < putaran; p++) {
+            long sebelum = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+            jalankan(ulangan, operasi);
+            terkecil = Math.min(terkecil, THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() - sebelum);
+        }
+        return (double) terkecil / ulangan;
+    }
+
+    /**
+     * @return Waktu per operasi (nanodetik) dari putaran tercepat, setelah pemanasan. Putaran
+     *         tercepat dipakai agar gangguan sesaat (GC, thread lain) tidak membuat test gagal.
+     */
+    static double nanoPerOperasi(int putaran, int ulangan, Operasi operasi) {
+        jalankan(PEMANASAN, operasi);
+        long terbaik = Long.MAX_VALUE;
+        for (int p = 0; p < putaran; p++) {
+            long mulai = System.nanoTime();
+            jalankan(ulangan, operasi);
+            terbaik = Math.min(terbaik, System.nanoTime() - mulai);
+        }
+        return (double) terbaik / ulangan;
+    }
+
+    private static void jalankan(int ulangan, Operasi operasi) {
+        long jumlah = 0;
+        for (int i = 0; i < ulangan; i++) {
+            jumlah += operasi.jalankan(i);
+        }
+        penampung = jumlah;
+    }
+
+    private static com.sun.management.ThreadMXBean ambilThreadMxBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        return bean instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) bean : null;
+    }
+}
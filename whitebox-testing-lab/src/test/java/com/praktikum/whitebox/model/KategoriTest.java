@@ -59,6 +59,17 @@ class KategoriTest {
         assertFalse(kat.isAktif());
     }
 
+    @Test
+    @DisplayName("Test Constructor Subkategori")
+    void testConstructorSubkategori() {
+        Kategori sub = new Kategori("K02", "Laptop", "Komputer jinjing", KODE);
+        assertEquals(KODE, sub.getKodeInduk());
+        assertTrue(sub.isAktif());
+        assertNull(kategori.getKodeInduk(), "Kategori biasa tidak punya induk");
+        sub.setKodeInduk(null);
+        assertNull(sub.getKodeInduk());
+    }
+
     @Test
     @DisplayName("Test toString Method")
     void testToString() {
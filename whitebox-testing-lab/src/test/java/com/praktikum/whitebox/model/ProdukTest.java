@@ -5,6 +5,12 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @DisplayName("Test Class Produk - White Box Testing")
@@ -132,6 +138,72 @@ public class ProdukTest {
         assertEquals("Jumlah harus positif", exception.getMessage());
     }
 
+    // --- Testing Constructor Salinan ---
+
+    @Test
+    @DisplayName("Test constructor salinan menyalin semua atribut secara independen")
+    void testConstructorSalinan() {
+        produk.setAktif(false);
+        Produk salinan = new Produk(produk);
+
+        assertEquals(produk.toString(), salinan.toString());
+        salinan.setStok(99);
+        assertEquals(10, produk.getStok(), "Mengubah salinan tidak boleh mengubah aslinya.");
+    }
+
+    // --- Testing Mode Stok Konkuren ---
+
+    @Test
+    @DisplayName("Test mode stok konkuren - perilaku sama dengan mode biasa untuk satu thread")
+    void testStokKonkurenSatuThread() {
+        assertFalse(produk.isStokKonkuren());
+        produk.aktifkanStokKonkuren();
+        assertTrue(produk.isStokKonkuren());
+
+        produk.kurangiStok(4);
+        produk.tambahStok(2);
+        assertEquals(8, produk.getStok());
+        assertTrue(produk.isStokAman());
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> produk.kurangiStok(9));
+        assertEquals("Stok tidak mencukupi", exception.getMessage());
+        assertEquals(8, produk.getStok(), "Stok tidak boleh berubah jika pengurangan gagal.");
+
+        produk.setStok(3);
+        assertTrue(produk.isStokMenipis());
+        assertTrue(new Produk(produk).isStokKonkuren());
+    }
+
+    @Test
+    @DisplayName("Test mode stok konkuren - pengurangan bersamaan tidak pernah melebihi stok")
+    void testStokKonkurenBanyakThread() throws InterruptedException {
+        produk.setStok(10_000);
+        produk.aktifkanStokKonkuren();
+        AtomicInteger berhasil = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    try {
+                        produk.kurangiStok(1);
+                        berhasil.incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        // Stok habis
+                    }
+                    if (i % 4 == 0) {
+                        produk.tambahStok(1);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // 8 x 500 unit ditambahkan; semua pengurangan yang berhasil tercatat tepat
+        assertEquals(10_000 + 4_000 - berhasil.get(), produk.getStok());
+        assertTrue(produk.getStok() >= 0);
+    }
+
     // --- Testing Utility Methods ---
 
     @Test
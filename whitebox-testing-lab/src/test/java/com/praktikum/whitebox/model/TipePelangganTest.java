@@ -0,0 +1,56 @@
+package com.praktikum.whitebox.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test Enum TipePelanggan - Resolusi dari String")
+public class TipePelangganTest {
+
+    @ParameterizedTest
+    @DisplayName("Test resolusi tipe pelanggan tanpa membedakan huruf besar/kecil")
+    @CsvSource({
+            "PREMIUM,  PREMIUM",
+            "premium,  PREMIUM",
+            "Reguler,  REGULER",
+            "BARU,     BARU",
+            "baru,     BARU",
+            "PREMI,    LAINNYA",  // Huruf awal cocok tetapi panjang berbeda
+            "BARUX,    LAINNYA",
+            "VIP,      LAINNYA",  // Huruf awal tidak terdaftar
+            "123,      LAINNYA",  // Bukan huruf
+            "LAINNYA,  LAINNYA"
+    })
+    void testDari(String input, TipePelanggan expected) {
+        assertEquals(expected, TipePelanggan.dari(input));
+    }
+
+    @Test
+    @DisplayName("Test resolusi null dan String kosong menjadi LAINNYA")
+    void testDariNullDanKosong() {
+        assertEquals(TipePelanggan.LAINNYA, TipePelanggan.dari(null));
+        assertEquals(TipePelanggan.LAINNYA, TipePelanggan.dari(""));
+    }
+
+    @Test
+    @DisplayName("Test resolusi ketat menolak tipe tidak dikenal")
+    void testDariKetat() {
+        assertEquals(TipePelanggan.REGULER, TipePelanggan.dariKetat("reguler"));
+        assertEquals(TipePelanggan.LAINNYA, TipePelanggan.dariKetat("lainnya"));
+
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> TipePelanggan.dariKetat("VIP"));
+        assertEquals("Tipe pelanggan tidak dikenal: VIP", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test persentase diskon per tipe")
+    void testPersentaseDiskon() {
+        assertEquals(0.10, TipePelanggan.PREMIUM.getPersentaseDiskon(), 0.0001);
+        assertEquals(0.05, TipePelanggan.REGULER.getPersentaseDiskon(), 0.0001);
+        assertEquals(0.02, TipePelanggan.BARU.getPersentaseDiskon(), 0.0001);
+        assertEquals(0.0, TipePelanggan.LAINNYA.getPersentaseDiskon(), 0.0001);
+    }
+}
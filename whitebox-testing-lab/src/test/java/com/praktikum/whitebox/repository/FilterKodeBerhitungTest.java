@@ -0,0 +1,84 @@
+package com.praktikum.whitebox.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test FilterKodeBerhitung - counting Bloom filter kode produk")
+class FilterKodeBerhitungTest {
+
+    @Test
+    @DisplayName("Tidak ada false negative, penghapusan bekerja, dan false positive rendah")
+    void testKeanggotaan() {
+        FilterKodeBerhitung filter = new FilterKodeBerhitung(1_000);
+        assertEquals(16_384, filter.jumlahPenghitung());
+        for (int i = 0; i < 1_000; i++) {
+            filter.tambah("P" + i);
+        }
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(filter.mungkinAda("P" + i));
+        }
+        int falsePositive = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mungkinAda("Q" + i)) {
+                falsePositive++;
+            }
+        }
+        assertTrue(falsePositive < 300, "False positive: " + falsePositive);
+
+        for (int i = 0; i < 1_000; i++) {
+            filter.kurangi("P" + i);
+        }
+        int masihAda = 0;
+        for (int i = 0; i < 1_000; i++) {
+            if (filter.mungkinAda("P" + i)) {
+                masihAda++;
+            }
+        }
+        assertEquals(0, masihAda, "Semua penghitung kembali ke nol");
+    }
+
+    @Test
+    @DisplayName("Penghitung jenuh tidak pernah diturunkan sehingga tidak muncul false negative")
+    void testJenuh() {
+        FilterKodeBerhitung filter = new FilterKodeBerhitung(1);
+        assertEquals(64, filter.jumlahPenghitung());
+        // Filter kecil yang terlalu penuh: banyak penghitung mencapai 15
+        for (int i = 0; i < 200; i++) {
+            filter.tambah("K" + i);
+        }
+        for (int i = 0; i < 200; i += 2) {
+            filter.kurangi("K" + i);
+        }
+        for (int i = 1; i < 200; i += 2) {
+            assertTrue(filter.mungkinAda("K" + i), "K" + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Penambahan dan pengurangan bersamaan tidak kehilangan hitungan")
+    void testKonkuren() throws InterruptedException {
+        FilterKodeBerhitung filter = new FilterKodeBerhitung(4_000);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            int awal = t * 1_000;
+            executor.submit(() -> {
+                for (int i = awal; i < awal + 1_000; i++) {
+                    filter.tambah("K" + i);
+                    filter.tambah("S" + i);
+                    filter.kurangi("S" + i);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 4_000; i++) {
+            assertTrue(filter.mungkinAda("K" + i), "K" + i);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Kategori;
+import com.praktikum.whitebox.model.Produk;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test HierarkiKategori - agregasi produk per subtree kategori")
+class HierarkiKategoriTest {
+
+    private RepositoryProdukInMemory repository;
+    private HierarkiKategori hierarki;
+
+    @BeforeEach
+    void setUp() {
+        repository = new RepositoryProdukInMemory();
+        hierarki = new HierarkiKategori();
+        // ELK -> KOM -> LAP, ELK -> AUD; PKN terpisah
+        hierarki.tambahKategori(new Kategori("ELK", "Elektronik", null));
+        hierarki.tambahKategori(new Kategori("KOM", "Komputer", null, "ELK"));
+        hierarki.tambahKategori(new Kategori("LAP", "Laptop", null, "kom"));
+        hierarki.tambahKategori(new Kategori("AUD", "Audio", null, "ELK"));
+        hierarki.tambahKategori(new Kategori("PKN", "Pakaian", null));
+
+        repository.simpan(new Produk("P001", "Laptop Gaming", "Laptop", 1000, 10, 1));
+        repository.simpan(new Produk("P002", "PC Rakitan", "Komputer", 500, 4, 1));
+        repository.simpan(new Produk("P003", "Speaker", "audio", 100, 20, 1));
+        repository.simpan(new Produk("P004", "Kaos", "Pakaian", 50, 7, 1));
+        hierarki.muat(repository);
+        repository.tambahPendengar(hierarki);
+    }
+
+    @Test
+    @DisplayName("Query dan total subtree")
+    void testSubtree() {
+        assertEquals(Set.of("P001", "P002", "P003"), kode(hierarki.cariProdukSubtree("ELK")));
+        assertEquals(Set.of("P001", "P002"), kode(hierarki.cariProdukSubtree("KOM")));
+        assertEquals(Set.of("P004"), kode(hierarki.cariProdukSubtree("pkn")));
+        assertTrue(hierarki.cariProdukSubtree("XXX").isEmpty());
+
+        assertEquals(34, hierarki.totalStokSubtree("ELK"));
+        assertEquals(14, hierarki.totalStokSubtree("KOM"));
+        assertEquals(10, hierarki.totalStokSubtree("LAP"));
+        assertEquals(0, hierarki.totalStokSubtree("XXX"));
+        assertEquals(10 * 1000 + 4 * 500 + 20 * 100, hierarki.nilaiPersediaanSubtree("ELK"), 0.0001);
+        assertEquals(List.of("KOM", "AUD"), hierarki.getKodeAnak("ELK"));
+    }
+
+    @Test
+    @DisplayName("Perubahan produk di repository ikut memperbarui agregat")
+    void testIkutiPerubahan() {
+        repository.updateStok("P001", 3);
+        assertEquals(27, hierarki.totalStokSubtree("ELK"));
+
+        repository.simpan(new Produk("P003", "Speaker", "Laptop", 100, 20, 1)); // Pindah kategori
+        assertEquals(0, hierarki.totalStokSubtree("AUD"));
+        assertEquals(23, hierarki.totalStokSubtree("LAP"));
+        assertEquals(27, hierarki.totalStokSubtree("ELK"));
+
+        repository.hapus("P002");
+        assertEquals(23, hierarki.totalStokSubtree("KOM"));
+        assertFalse(kode(hierarki.cariProdukSubtree("ELK")).contains("P002"));
+
+        // Kategori yang belum terdaftar menunggu sampai kategorinya ditambahkan
+        repository.simpan(new Produk("P005", "Headphone", "Headset", 200, 5, 1));
+        assertEquals(1, hierarki.getJumlahProdukTanpaKategori());
+        hierarki.tambahKategori(new Kategori("HDS", "Headset", null, "AUD"));
+        assertEquals(0, hierarki.getJumlahProdukTanpaKategori());
+        assertEquals(5, hierarki.totalStokSubtree("AUD"));
+        assertEquals(28, hierarki.totalStokSubtree("ELK"));
+    }
+
+    @Test
+    @DisplayName("Memindahkan subtree memindahkan semua agregatnya")
+    void testPindahkan() {
+        hierarki.pindahkan("KOM", "PKN");
+        assertEquals(20, hierarki.totalStokSubtree("ELK"));
+        assertEquals(21, hierarki.totalStokSubtree("PKN"));
+        assertEquals(Set.of("P001", "P002", "P004"), kode(hierarki.cariProdukSubtree("PKN")));
+        assertEquals(List.of("AUD"), hierarki.getKodeAnak("ELK"));
+
+        hierarki.pindahkan("KOM", null);
+        assertEquals(14, hierarki.totalStokSubtree("KOM"));
+        assertEquals(7, hierarki.totalStokSubtree("PKN"));
+
+        assertThrows(IllegalArgumentException.class, () -> hierarki.pindahkan("ELK", "ELK"));
+        hierarki.pindahkan("KOM", "ELK");
+        assertThrows(IllegalArgumentException.class, () -> hierarki.pindahkan("ELK", "LAP"));
+        assertThrows(IllegalArgumentException.class, () -> hierarki.pindahkan("XXX", null));
+        assertThrows(IllegalArgumentException.class, () -> hierarki.pindahkan("KOM", "XXX"));
+    }
+
+    @Test
+    @DisplayName("Objek kategori milik pemanggil tidak diubah oleh pindahkan")
+    void testPindahkanTidakMengubahKategoriPemanggil() {
+        Kategori aksesoris = new Kategori("AKS", "Aksesoris", null, "ELK");
+        hierarki.tambahKategori(aksesoris);
+        hierarki.pindahkan("AKS", "PKN");
+        assertEquals("ELK", aksesoris.getKodeInduk());
+        assertEquals(List.of("AKS"), hierarki.getKodeAnak("PKN"));
+    }
+
+    @Test
+    @DisplayName("Perubahan produk tidak menunggu kunci hierarki")
+    void testPerubahanTidakMenungguHierarki() throws InterruptedException {
+        CountDownLatch terkunci = new CountDownLatch(1);
+        CountDownLatch lepas = new CountDownLatch(1);
+        Thread pemegang = new Thread(() -> {
+            synchronized (hierarki) {
+                terkunci.countDown();
+                try {
+                    lepas.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        pemegang.start();
+        assertTrue(terkunci.await(5, TimeUnit.SECONDS));
+
+        // Hierarki sedang dikunci (misalnya pindahkan yang panjang), tetapi tulis tetap selesai
+        assertTrue(repository.updateStok("P001", 3));
+        repository.hapus("P004");
+        assertEquals(2, hierarki.getJumlahTertunda());
+
+        lepas.countDown();
+        pemegang.join();
+        assertEquals(27, hierarki.totalStokSubtree("ELK"));
+        assertEquals(0, hierarki.totalStokSubtree("PKN"));
+        assertEquals(0, hierarki.getJumlahTertunda());
+    }
+
+    @Test
+    @DisplayName("Antrean diterapkan otomatis setelah mulai")
+    void testProsesOtomatis() throws InterruptedException {
+        try (HierarkiKategori otomatis = new HierarkiKategori(10)) {
+            otomatis.tambahKategori(new Kategori("ELK", "Elektronik", null));
+            otomatis.diubah(JenisPerubahan.SISIP, "P001", new Produk("P001", "Laptop", "Elektronik", 10, 4, 0));
+            assertEquals(1, otomatis.getJumlahTertunda());
+            otomatis.mulai();
+            long batas = System.currentTimeMillis() + 5_000;
+            while (otomatis.getJumlahTertunda() > 0 && System.currentTimeMillis() < batas) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, otomatis.getJumlahTertunda());
+            assertEquals(4, otomatis.totalStokSubtree("ELK"));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new HierarkiKategori(0));
+    }
+
+    @Test
+    @DisplayName("Validasi penambahan kategori")
+    void testValidasi() {
+        assertThrows(IllegalArgumentException.class, () -> hierarki.tambahKategori(null));
+        assertThrows(IllegalArgumentException.class, () -> hierarki.tambahKategori(new Kategori("ELK", "Lain", null)));
+        assertThrows(IllegalArgumentException.class,
+                () -> hierarki.tambahKategori(new Kategori("BRU", "Baru", null, "XXX")));
+    }
+
+    @Test
+    @DisplayName("Total subtree sama dengan penjumlahan manual pada pohon acak")
+    void testPohonAcak() {
+        HierarkiKategori acakHierarki = new HierarkiKategori();
+        Random acak = new Random(45);
+        int jumlahKategori = 300;
+        int[] indukAcak = new int[jumlahKategori];
+        for (int i = 0; i < jumlahKategori; i++) {
+            // Lima kategori puncak; sisanya berinduk acak pada kategori yang sudah ada
+            indukAcak[i] = i < 5 ? -1 : acak.nextInt(i);
+            acakHierarki.tambahKategori(new Kategori(String.format("K%03d", i), "Kategori " + i, null,
+                    indukAcak[i] < 0 ? null : String.format("K%03d", indukAcak[i])));
+        }
+        long[] stok = new long[jumlahKategori];
+        for (int i = 0; i < 2_000; i++) {
+            int k = acak.nextInt(jumlahKategori);
+            int s = acak.nextInt(100);
+            stok[k] += s;
+            acakHierarki.diubah(JenisPerubahan.SISIP, "P" + i, new Produk("P" + i, "Produk", "Kategori " + k, 10, s, 0));
+        }
+        for (int k = 0; k < jumlahKategori; k += 7) {
+            long harapan = 0;
+            for (int j = 0; j < jumlahKategori; j++) {
+                int c = j;
+                while (c >= 0 && c != k) {
+                    c = indukAcak[c];
+                }
+                if (c == k) {
+                    harapan += stok[j];
+                }
+            }
+            assertEquals(harapan, acakHierarki.totalStokSubtree(String.format("K%03d", k)), "K" + k);
+        }
+    }
+
+    private static Set<String> kode(List<Produk> daftarProduk) {
+        return daftarProduk.stream().map(Produk::getKode).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,306 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.service.ServiceInventaris;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test ReplikaProduk - replikasi primer ke replika baca-saja lewat umpan perubahan")
+class ReplikaProdukTest {
+
+    @TempDir
+    Path direktori;
+
+    private Path file;
+    private RepositoryProdukInMemory primer;
+    private UmpanPerubahanProduk umpan;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = direktori.resolve("perubahan.log");
+        primer = new RepositoryProdukInMemory();
+        umpan = new UmpanPerubahanProduk(file, 8, 10);
+        primer.tambahPendengar(umpan);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        umpan.close();
+    }
+
+    @Test
+    @DisplayName("Konstruktor menolak argumen tidak valid")
+    void testArgumenTidakValid() {
+        assertThrows(IllegalArgumentException.class, () -> new ReplikaProduk(null));
+        assertThrows(IllegalArgumentException.class, () -> new ReplikaProduk(umpan, 0, 10));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new ReplikaProduk(umpan, 10, 0));
+        assertEquals("Interval tarik dan ukuran batch harus positif", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Replika di proses yang sama menerapkan semua jenis perubahan berurutan")
+    void testReplikaDalamProses() {
+        AtomicLong jam = new AtomicLong(1_000);
+        ReplikaProduk replika = new ReplikaProduk(umpan, 10, 3, jam::get);
+        primer.simpan(new Produk("P001", "Laptop", "Elektronik", 1000, 10, 2));
+        primer.simpan(new Produk("P002", "Mouse", "Elektronik", 100, 5, 2));
+        primer.simpan(new Produk("P003", "Meja", "Furnitur", 500, 0, 1));
+        primer.updateStok("P001", 7);
+        primer.simpan(new Produk("P002", "Mouse Nirkabel", "Elektronik", 150, 5, 2));
+        primer.hapus("P003");
+
+        assertEquals(0, replika.tarik()); // Belum tersalur ke umpan
+        umpan.salurkan();
+        assertEquals(6, replika.getKetertinggalan());
+        jam.set(1_250);
+        assertEquals(250, replika.getKetertinggalanMillis());
+
+        assertEquals(6, replika.tarik()); // Beberapa batch berukuran 3
+        assertEquals(6, replika.getUrutanTerapan());
+        assertEquals(0, replika.getKetertinggalan());
+        assertEquals(0, replika.getKetertinggalanMillis());
+
+        assertEquals(7, replika.cariByKode("P001").get().getStok());
+        assertEquals("Mouse Nirkabel", replika.cariByKode("P002").get().getNama());
+        assertTrue(replika.cariByKode("P003").isEmpty());
+        assertEquals(1, replika.cariByNama("nirkabel").size());
+        assertEquals(2, replika.cariByKategori("Elektronik").size());
+        assertEquals(2, replika.cariSemua().size());
+        assertEquals(List.of("P002", "P001"), kode(replika.cariByRentangHarga(0, 2000)));
+        assertEquals("P002", replika.cariStokTerendahRelatif(1).get(0).getKode());
+        assertEquals("P001", replika.cariNilaiPersediaanTertinggi(1).get(0).getKode());
+        assertTrue(replika.cariProdukStokHabis().isEmpty());
+        assertTrue(replika.cariProdukStokMenipis().isEmpty());
+        int[] jumlah = new int[1];
+        replika.telusuriSemua(p -> jumlah[0]++);
+        assertEquals(2, jumlah[0]);
+    }
+
+    @Test
+    @DisplayName("Muat awal menyalin isi primer lalu menerapkan ulang riwayat umpan")
+    void testMuatAwal() throws IOException {
+        RepositoryProdukInMemory primerLama = new RepositoryProdukInMemory();
+        primerLama.simpan(new Produk("P001", "Laptop", "Elektronik", 1000, 10, 2));
+        primerLama.simpan(new Produk("P002", "Mouse", "Elektronik", 100, 5, 2));
+        try (UmpanPerubahanProduk umpanBaru = new UmpanPerubahanProduk(direktori.resolve("baru.log"), 8, 10)) {
+            primerLama.tambahPendengar(umpanBaru);
+            primerLama.simpan(new Produk("P003", "Kabel", "Elektronik", 10, 7, 2));
+            primerLama.updateStok("P001", 8);
+            umpanBaru.salurkan();
+
+            ReplikaProduk replika = new ReplikaProduk(umpanBaru, 10, 16);
+            replika.muatAwal(primerLama);
+            assertEquals(2, replika.getUrutanTerapan());
+            assertEquals(3, replika.cariSemua().size());
+            assertEquals(8, replika.cariByKode("P001").get().getStok());
+            assertNotSame(primerLama.cariByKode("P001").get(), replika.cariByKode("P001").get());
+
+            primerLama.updateStok("P001", 3);
+            primerLama.hapus("P002");
+            umpanBaru.salurkan();
+            assertEquals(2, replika.tarik());
+            assertEquals(3, replika.cariByKode("P001").get().getStok());
+            assertTrue(replika.cariByKode("P002").isEmpty());
+
+            assertThrows(IllegalStateException.class, () -> replika.muatAwal(primerLama));
+            assertThrows(IllegalArgumentException.class, () -> new ReplikaProduk(umpanBaru).muatAwal(null));
+        }
+    }
+
+    @Test
+    @DisplayName("Muat awal tidak kehilangan produk yang entrinya tersalur sebelum terlihat di primer")
+    void testMuatAwalSaatSisipBelumTerpasang() throws IOException {
+        RepositoryProdukInMemory primerLama = new RepositoryProdukInMemory();
+        try (UmpanPerubahanProduk umpanBaru = new UmpanPerubahanProduk(direktori.resolve("sisip.log"), 8, 10)) {
+            // Pendengar dipanggil di dalam compute, sebelum nilainya terpasang: entri sudah
+            // tersalur, tetapi penelusuran primer belum melihat produknya
+            Produk baru = new Produk("P009", "Monitor", "Elektronik", 2000, 4, 1);
+            umpanBaru.diubah(JenisPerubahan.SISIP, "P009", baru);
+            umpanBaru.salurkan();
+
+            ReplikaProduk replika = new ReplikaProduk(umpanBaru, 10, 16);
+            replika.muatAwal(primerLama);
+            primerLama.simpan(baru); // Nilai baru terpasang setelah salinan diambil
+
+            assertEquals(4, replika.cariByKode("P009").orElseThrow().getStok());
+            assertEquals(1, replika.getUrutanTerapan());
+        }
+    }
+
+    @Test
+    @DisplayName("Penarikan otomatis yang gagal dicatat lalu dicoba lagi")
+    void testPenarikanGagalDicatat() throws InterruptedException {
+        AtomicLong sisaGagal = new AtomicLong(3);
+        SumberPerubahan sumberGagal = new SumberPerubahan() {
+            @Override
+            public List<PerubahanProduk> baca(long dariUrutan, int maksimum) {
+                if (sisaGagal.getAndDecrement() > 0) {
+                    throw new IllegalStateException("Sumber belum siap");
+                }
+                return umpan.baca(dariUrutan, maksimum);
+            }
+
+            @Override
+            public long getUrutanTersalur() {
+                return umpan.getUrutanTersalur();
+            }
+        };
+        primer.simpan(new Produk("P001", "Laptop", "Elektronik", 1000, 10, 2));
+        umpan.salurkan();
+
+        try (ReplikaProduk replika = new ReplikaProduk(sumberGagal, 1, 16)) {
+            replika.mulai();
+            long batas = System.currentTimeMillis() + 5_000;
+            while (replika.getUrutanTerapan() < 1 && System.currentTimeMillis() < batas) {
+                Thread.sleep(5);
+            }
+            assertEquals(1, replika.getUrutanTerapan());
+            assertEquals(3, replika.getJumlahGagal());
+            assertEquals("Sumber belum siap", replika.getKesalahanTerakhir().getMessage());
+        }
+    }
+
+    @Test
+    @DisplayName("Operasi tulis pada replika ditolak")
+    void testReplikaBacaSaja() {
+        ReplikaProduk replika = new ReplikaProduk(umpan);
+        Produk produk = new Produk("P001", "Laptop", "Elektronik", 1000, 10, 2);
+        UnsupportedOperationException e = assertThrows(UnsupportedOperationException.class,
+                () -> replika.simpan(produk));
+        assertEquals("Replika hanya bisa dibaca; tulis ke repository primer", e.getMessage());
+        assertThrows(UnsupportedOperationException.class, () -> replika.simpanBatch(List.of(produk)));
+        assertThrows(UnsupportedOperationException.class, () -> replika.updateStok("P001", 1));
+        assertThrows(UnsupportedOperationException.class, () -> replika.hapus("P001"));
+    }
+
+    @Test
+    @DisplayName("Penarikan otomatis membuat replika sama dengan primer setelah beban acak")
+    void testPenarikanOtomatis() throws Exception {
+        umpan.mulai();
+        try (ReplikaProduk replika = new ReplikaProduk(umpan, 5, 64)) {
+            replika.mulai();
+            replika.mulai(); // Tidak membuat thread kedua
+            Random acak = new Random(48);
+            for (int i = 0; i < 2_000; i++) {
+                String kode = String.format("P%03d", acak.nextInt(50));
+                switch (acak.nextInt(4)) {
+                    case 0 -> primer.simpan(new Produk(kode, "Produk " + i, "Kategori", 100 + i, i % 20, 3));
+                    case 1, 2 -> primer.updateStok(kode, acak.nextInt(100));
+                    default -> primer.hapus(kode);
+                }
+            }
+            long batas = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (replika.getUrutanTerapan() < umpan.getUrutanBerikutnya() && System.nanoTime() < batas) {
+                Thread.sleep(5);
+            }
+            assertEquals(umpan.getUrutanBerikutnya(), replika.getUrutanTerapan());
+            assertSamaDenganPrimer(replika);
+        }
+    }
+
+    @Test
+    @DisplayName("Replika di JVM lain mengikuti file umpan, termasuk entri yang belum lengkap")
+    void testPengekorFile() throws IOException {
+        primer.simpan(new Produk("P001", "Laptop", "Elektronik", 1000, 10, 2));
+        primer.simpan(new Produk("P002", "Mouse", "Elektronik", 100, 5, 2));
+        umpan.salurkan();
+
+        try (PengekorFilePerubahan pengekor = new PengekorFilePerubahan(file)) {
+            ReplikaProduk replika = new ReplikaProduk(pengekor, 10, 1);
+            assertEquals(2, pengekor.getUrutanTersalur());
+            assertEquals(2, replika.tarik());
+
+            for (int i = 0; i < 200; i++) {
+                primer.updateStok("P001", i);
+            }
+            primer.hapus("P002");
+            umpan.salurkan();
+            assertEquals(201, replika.getKetertinggalan());
+            assertEquals(201, replika.tarik());
+            assertSamaDenganPrimer(replika);
+
+            // Sisa entri yang sedang ditulis primer (belum lengkap) belum dianggap ada
+            long ukuran = Files.size(file);
+            try (var channel = java.nio.channels.FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 40, 0, 0}), ukuran);
+            }
+            assertEquals(203, pengekor.getUrutanTersalur());
+            assertEquals(0, replika.tarik());
+
+            // Membaca mundur memindai ulang dari awal
+            List<PerubahanProduk> awal = pengekor.baca(0, 2);
+            assertEquals(2, awal.size());
+            assertEquals("P002", awal.get(1).getKode());
+            assertEquals(5, pengekor.baca(198, 10).size());
+            assertThrows(IllegalArgumentException.class, () -> pengekor.baca(-1, 1));
+        }
+    }
+
+    @Test
+    @DisplayName("ServiceInventaris menulis ke primer dan membaca dari replika")
+    void testServicePemisahanBacaTulis() {
+        ReplikaProduk replikaA = new ReplikaProduk(umpan);
+        ReplikaProduk replikaB = new ReplikaProduk(umpan);
+        ServiceInventaris service = new ServiceInventaris(primer);
+        service.setReplikaBaca(List.of(replikaA, replikaB));
+        assertTrue(service.tambahProduk(new Produk("P001", "Laptop", "Elektronik", 1000, 10, 2)));
+        assertTrue(service.keluarStok("P001", 4));
+        assertEquals(6, primer.cariByKode("P001").get().getStok());
+
+        // Replika belum menarik: pencarian lewat replika belum melihat produk baru, pencarian
+        // per kode untuk keputusan stok tetap membaca primer
+        assertTrue(service.cariProdukByKodeReplika("P001").isEmpty());
+        assertEquals(6, service.cariProdukByKode("P001").get().getStok());
+        umpan.salurkan();
+        replikaA.tarik();
+        replikaB.tarik();
+        for (int i = 0; i < 20; i++) {
+            assertEquals(6, service.cariProdukByKodeReplika("P001").get().getStok());
+        }
+        assertEquals(1, service.cariProdukByNama("Laptop").size());
+        assertEquals(1, service.cariProdukByKategori("Elektronik").size());
+        assertEquals(6, service.hitungTotalStok());
+        assertEquals(6000, service.hitungTotalNilaiInventaris(), 0.001);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> service.setReplikaBaca(List.of()));
+        assertEquals("Daftar replika baca tidak boleh kosong", e.getMessage());
+
+        // Kembali membaca dari primer
+        primer.updateStok("P001", 1);
+        assertEquals(6, service.cariProdukByKodeReplika("P001").get().getStok());
+        service.setReplikaBaca(null);
+        assertEquals(1, service.cariProdukByKodeReplika("P001").get().getStok());
+    }
+
+    private void assertSamaDenganPrimer(ReplikaProduk replika) {
+        List<Produk> semuaPrimer = primer.cariSemua();
+        assertEquals(semuaPrimer.size(), replika.cariSemua().size());
+        for (Produk produk : semuaPrimer) {
+            Produk salinan = replika.cariByKode(produk.getKode()).orElseThrow();
+            assertEquals(produk.getNama(), salinan.getNama());
+            assertEquals(produk.getHarga(), salinan.getHarga());
+            assertEquals(produk.getStok(), salinan.getStok());
+        }
+    }
+
+    private static List<String> kode(List<Produk> daftar) {
+        return daftar.stream().map(Produk::getKode).toList();
+    }
+}
@@ -0,0 +1,245 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test RepositoryProdukInMemory")
+class RepositoryProdukInMemoryTest {
+
+    private RepositoryProdukInMemory repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new RepositoryProdukInMemory();
+        repository.simpan(new Produk("P001", "Laptop Gaming", "Elektronik", 15000000, 10, 5));
+        repository.simpan(new Produk("P002", "Mouse Wireless", "Elektronik", 150000, 3, 5));
+        repository.simpan(new Produk("P003", "Kaos Polos", "Pakaian", 50000, 0, 2));
+    }
+
+    @Test
+    @DisplayName("simpan dan cariByKode")
+    void testSimpanDanCariByKode() {
+        Optional<Produk> hasil = repository.cariByKode("P001");
+        assertTrue(hasil.isPresent());
+        assertEquals("Laptop Gaming", hasil.get().getNama());
+
+        assertTrue(repository.cariByKode("P999").isEmpty());
+        assertTrue(repository.cariByKode(null).isEmpty());
+        assertFalse(repository.simpan(null));
+        assertFalse(repository.simpan(new Produk()));
+        assertEquals(3, repository.jumlahProduk());
+    }
+
+    @Test
+    @DisplayName("cariByNama: pencarian parsial tanpa membedakan huruf besar/kecil")
+    void testCariByNama() {
+        List<Produk> hasil = repository.cariByNama("laptop");
+        assertEquals(1, hasil.size());
+        assertEquals("P001", hasil.get(0).getKode());
+        assertTrue(repository.cariByNama(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("cariByKategori")
+    void testCariByKategori() {
+        assertEquals(2, repository.cariByKategori("elektronik").size());
+        assertEquals(1, repository.cariByKategori("Pakaian").size());
+        assertTrue(repository.cariByKategori(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("cariProdukStokMenipis dan cariProdukStokHabis")
+    void testCariStokMenipisDanHabis() {
+        List<Produk> menipis = repository.cariProdukStokMenipis();
+        assertEquals(1, menipis.size());
+        assertEquals("P002", menipis.get(0).getKode());
+
+        List<Produk> habis = repository.cariProdukStokHabis();
+        assertEquals(1, habis.size());
+        assertEquals("P003", habis.get(0).getKode());
+    }
+
+    @Test
+    @DisplayName("updateStok dan hapus")
+    void testUpdateStokDanHapus() {
+        assertTrue(repository.updateStok("P001", 42));
+        assertEquals(42, repository.cariByKode("P001").get().getStok());
+        assertFalse(repository.updateStok("P999", 1));
+        assertFalse(repository.updateStok(null, 1));
+
+        assertTrue(repository.hapus("P003"));
+        assertFalse(repository.hapus("P003"));
+        assertFalse(repository.hapus(null));
+        assertEquals(2, repository.cariSemua().size());
+    }
+
+    @Test
+    @DisplayName("simpanBatch menyimpan semua produk valid dan mengembalikan jumlahnya")
+    void testSimpanBatch() {
+        int tersimpan = repository.simpanBatch(Arrays.asList(
+                new Produk("P004", "Keyboard", "Elektronik", 250000, 7, 2),
+                null,
+                new Produk("P005", "Celana", "Pakaian", 120000, 4, 1)));
+        assertEquals(2, tersimpan);
+        assertEquals(5, repository.jumlahProduk());
+    }
+
+    @Test
+    @DisplayName("telusuriSemua mengunjungi setiap produk tepat sekali")
+    void testTelusuriSemua() {
+        List<String> kode = new ArrayList<>();
+        repository.telusuriSemua(produk -> kode.add(produk.getKode()));
+        kode.sort(null);
+        assertEquals(List.of("P001", "P002", "P003"), kode);
+    }
+
+    @Test
+    @DisplayName("Query rentang harga dan top-N sama dengan atau tanpa indeks terurut")
+    void testRentangDanTopN() {
+        RepositoryProdukInMemory terindeks = new RepositoryProdukInMemory(16, true);
+        repository.simpan(new Produk("P004", "Topi", "Pakaian", 50000, 8, 2));
+        for (Produk produk : repository.cariSemua()) {
+            terindeks.simpan(produk);
+        }
+
+        for (RepositoryProdukInMemory repo : List.of(repository, terindeks)) {
+            assertEquals(List.of("P003", "P004", "P002"), kode(repo.cariByRentangHarga(50000, 150000)));
+            assertEquals(List.of("P002"), kode(repo.cariByRentangHarga(100000, 150000)));
+            assertTrue(repo.cariByRentangHarga(200000, 100000).isEmpty());
+
+            // Selisih stok - stokMinimum: P002 = -2, P003 = -2, P004 = 6, P001 = 5
+            assertEquals(List.of("P002", "P003", "P001"), kode(repo.cariStokTerendahRelatif(3)));
+            assertTrue(repo.cariStokTerendahRelatif(0).isEmpty());
+
+            // Nilai persediaan: P001 = 150 jt, P002 = 450 rb, P004 = 400 rb, P003 = 0
+            assertEquals(List.of("P001", "P002", "P004", "P003"), kode(repo.cariNilaiPersediaanTertinggi(10)));
+            assertEquals(List.of("P001"), kode(repo.cariNilaiPersediaanTertinggi(1)));
+        }
+    }
+
+    @Test
+    @DisplayName("Indeks terurut diperbarui setiap kali produk berubah")
+    void testIndeksMengikutiPerubahan() {
+        RepositoryProdukInMemory terindeks = new RepositoryProdukInMemory(16, true);
+        terindeks.simpan(new Produk("P001", "Laptop Gaming", "Elektronik", 15000000, 10, 5));
+        terindeks.simpan(new Produk("P002", "Mouse Wireless", "Elektronik", 150000, 3, 5));
+
+        terindeks.updateStok("P001", 0);
+        assertEquals(List.of("P001", "P002"), kode(terindeks.cariStokTerendahRelatif(2)));
+        assertEquals(List.of("P002", "P001"), kode(terindeks.cariNilaiPersediaanTertinggi(2)));
+
+        terindeks.simpan(new Produk("P002", "Mouse Wireless", "Elektronik", 20000000, 3, 5));
+        assertEquals(List.of("P002"), kode(terindeks.cariByRentangHarga(16000000, 30000000)));
+        assertTrue(terindeks.cariByRentangHarga(100000, 200000).isEmpty());
+
+        terindeks.hapus("P002");
+        assertTrue(terindeks.cariByRentangHarga(0, Double.MAX_VALUE).stream()
+                .noneMatch(produk -> produk.getKode().equals("P002")));
+        assertEquals(List.of("P001"), kode(terindeks.cariNilaiPersediaanTertinggi(5)));
+    }
+
+    @Test
+    @DisplayName("updateStokMinimum memperbarui indeks dan hanya melapor jika nilainya berubah")
+    void testUpdateStokMinimum() {
+        RepositoryProdukInMemory terindeks = new RepositoryProdukInMemory(16, true);
+        terindeks.simpan(new Produk("P001", "Laptop Gaming", "Elektronik", 15000000, 10, 5));
+        terindeks.simpan(new Produk("P002", "Mouse Wireless", "Elektronik", 150000, 3, 5));
+        List<JenisPerubahan> laporan = new ArrayList<>();
+        terindeks.tambahPendengar((jenis, kode, produk) -> laporan.add(jenis));
+
+        assertTrue(terindeks.updateStokMinimum("P001", 20));
+        assertTrue(terindeks.updateStokMinimum("P001", 20));
+        assertFalse(terindeks.updateStokMinimum("P999", 20));
+        assertFalse(terindeks.updateStokMinimum(null, 20));
+
+        assertEquals(List.of(JenisPerubahan.UBAH), laporan);
+        assertEquals(20, terindeks.cariByKode("P001").get().getStokMinimum());
+        assertEquals(10, terindeks.cariByKode("P001").get().getStok());
+        assertEquals(List.of("P001", "P002"), kode(terindeks.cariStokTerendahRelatif(2)));
+    }
+
+    @Test
+    @DisplayName("Indeks terurut tetap konsisten setelah updateStok bersamaan")
+    void testIndeksKonkuren() throws InterruptedException {
+        RepositoryProdukInMemory terindeks = new RepositoryProdukInMemory(256, true);
+        for (int i = 0; i < 200; i++) {
+            terindeks.simpan(new Produk(String.format("P%03d", i), "Produk " + i, "Umum", 1000 + i, i, 10));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            int awal = t;
+            executor.submit(() -> {
+                for (int n = 0; n < 5_000; n++) {
+                    int i = (awal + n * 7) % 200;
+                    terindeks.updateStok(String.format("P%03d", i), (i * 31 + n) % 50);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        RepositoryProduk tanpaIndeks = new RepositoryProdukInMemory();
+        terindeks.cariSemua().forEach(tanpaIndeks::simpan);
+        assertEquals(kode(tanpaIndeks.cariStokTerendahRelatif(200)), kode(terindeks.cariStokTerendahRelatif(200)));
+        assertEquals(kode(tanpaIndeks.cariNilaiPersediaanTertinggi(200)),
+                kode(terindeks.cariNilaiPersediaanTertinggi(200)));
+        assertEquals(200, terindeks.cariByRentangHarga(0, 5000).size());
+    }
+
+    @Test
+    @DisplayName("Filter kode: kode tersimpan tidak pernah dianggap pasti tidak ada")
+    void testFilterKode() {
+        assertFalse(repository.pastiTidakAda("P999"), "Tanpa filter selalu false");
+
+        RepositoryProdukInMemory berfilter = new RepositoryProdukInMemory(100, false, true);
+        assertTrue(berfilter.pastiTidakAda("P001"));
+        assertFalse(berfilter.pastiTidakAda(null));
+
+        berfilter.simpan(new Produk("P001", "Laptop", "Elektronik", 1000, 1, 1));
+        berfilter.simpan(new Produk("P001", "Laptop Baru", "Elektronik", 1000, 1, 1)); // Ganti, bukan sisip
+        assertFalse(berfilter.pastiTidakAda("P001"));
+        assertTrue(berfilter.hapus("P001"));
+        assertTrue(berfilter.pastiTidakAda("P001"), "Satu hapus menghapus kode yang disimpan dua kali");
+        assertFalse(berfilter.hapus("P001"));
+
+        for (int i = 0; i < 500; i++) {
+            berfilter.simpan(new Produk("K" + i, "Produk " + i, "Umum", 1000, 1, 1));
+        }
+        for (int i = 0; i < 500; i += 2) {
+            berfilter.hapus("K" + i);
+        }
+        for (int i = 1; i < 500; i += 2) {
+            assertFalse(berfilter.pastiTidakAda("K" + i), "K" + i);
+        }
+
+        // Setelah dibangun ulang (ukuran mengikuti isi), kode yang tersisa tetap dikenali
+        berfilter.bangunUlangFilterKode();
+        for (int i = 1; i < 500; i += 2) {
+            assertFalse(berfilter.pastiTidakAda("K" + i), "K" + i);
+        }
+        int pastiTidakAda = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (berfilter.pastiTidakAda("X" + i)) {
+                pastiTidakAda++;
+            }
+        }
+        assertTrue(pastiTidakAda > 900, "Sebagian besar kode baru dijawab tanpa pencarian: " + pastiTidakAda);
+        assertThrows(IllegalStateException.class, () -> repository.bangunUlangFilterKode());
+    }
+
+    private static List<String> kode(List<Produk> daftarProduk) {
+        return daftarProduk.stream().map(Produk::getKode).toList();
+    }
+}
\ No newline at end of file
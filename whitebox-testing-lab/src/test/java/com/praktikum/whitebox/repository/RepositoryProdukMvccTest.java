@@ -0,0 +1,170 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test RepositoryProdukMvcc - snapshot konsisten tanpa mengunci penulis")
+class RepositoryProdukMvccTest {
+
+    private RepositoryProdukMvcc repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new RepositoryProdukMvcc();
+        repository.simpan(new Produk("P001", "Laptop Gaming", "Elektronik", 15000000, 10, 5));
+        repository.simpan(new Produk("P002", "Mouse Wireless", "Elektronik", 150000, 3, 5));
+        repository.simpan(new Produk("P003", "Kaos Polos", "Pakaian", 50000, 0, 2));
+    }
+
+    @Test
+    @DisplayName("Operasi dasar repository pada versi terbaru")
+    void testOperasiDasar() {
+        assertEquals(10, repository.cariByKode("P001").get().getStok());
+        assertTrue(repository.cariByKode("P999").isEmpty());
+        assertTrue(repository.cariByKode(null).isEmpty());
+        assertEquals(1, repository.cariByNama("mouse").size());
+        assertTrue(repository.cariByNama(null).isEmpty());
+        assertEquals(2, repository.cariByKategori("elektronik").size());
+        assertEquals(1, repository.cariProdukStokMenipis().size());
+        assertEquals(1, repository.cariProdukStokHabis().size());
+        assertEquals(3, repository.cariSemua().size());
+
+        assertTrue(repository.updateStok("P001", 7));
+        assertFalse(repository.updateStok("P999", 7));
+        assertFalse(repository.updateStok(null, 7));
+        assertEquals(7, repository.cariByKode("P001").get().getStok());
+
+        assertTrue(repository.hapus("P003"));
+        assertFalse(repository.hapus("P003"));
+        assertFalse(repository.hapus(null));
+        assertFalse(repository.updateStok("P003", 1));
+        assertFalse(repository.simpan(null));
+
+        int[] jumlah = {0};
+        repository.telusuriSemua(p -> jumlah[0]++);
+        assertEquals(2, jumlah[0]);
+    }
+
+    @Test
+    @DisplayName("Produk yang dikembalikan adalah salinan, bukan versi tersimpan")
+    void testSalinan() {
+        Produk produk = repository.cariByKode("P001").get();
+        produk.setStok(999);
+        assertEquals(10, repository.cariByKode("P001").get().getStok());
+    }
+
+    @Test
+    @DisplayName("Snapshot melihat keadaan saat dibuka walaupun ada perubahan setelahnya")
+    void testSnapshotKonsisten() {
+        try (RepositoryProdukMvcc.SnapshotProduk snapshot = repository.bukaSnapshot()) {
+            repository.updateStok("P001", 1);
+            repository.hapus("P003");
+            repository.simpan(new Produk("P004", "Keyboard", "Elektronik", 250000, 4, 1));
+
+            assertEquals(10, snapshot.cariByKode("P001").get().getStok());
+            assertTrue(snapshot.cariByKode("P003").isPresent());
+            assertTrue(snapshot.cariByKode("P004").isEmpty());
+            assertTrue(snapshot.cariByKode(null).isEmpty());
+            assertEquals(3, snapshot.cariSemua().size());
+
+            // Tampilan terbaru tetap melihat perubahan
+            assertEquals(1, repository.cariByKode("P001").get().getStok());
+            assertEquals(3, repository.cariSemua().size());
+        }
+    }
+
+    @Test
+    @DisplayName("updateStokMinimum membuat versi baru dari stok terbaru")
+    void testUpdateStokMinimum() {
+        try (RepositoryProdukMvcc.SnapshotProduk snapshot = repository.bukaSnapshot()) {
+            Produk salinanLama = repository.cariByKode("P001").get();
+            repository.updateStok("P001", 4);
+
+            assertTrue(repository.updateStokMinimum("P001", 8));
+            assertFalse(repository.updateStokMinimum("P999", 8));
+            assertEquals(5, salinanLama.getStokMinimum());
+
+            Produk terbaru = repository.cariByKode("P001").get();
+            assertEquals(8, terbaru.getStokMinimum());
+            assertEquals(4, terbaru.getStok(), "Stok terbaru tidak tertimpa salinan lama");
+            assertEquals(5, snapshot.cariByKode("P001").get().getStokMinimum());
+        }
+    }
+
+    @Test
+    @DisplayName("Snapshot yang sudah ditutup tidak bisa dipakai")
+    void testSnapshotTertutup() {
+        RepositoryProdukMvcc.SnapshotProduk snapshot = repository.bukaSnapshot();
+        snapshot.close();
+        snapshot.close(); // Menutup dua kali tidak error
+        assertThrows(IllegalStateException.class, () -> snapshot.cariByKode("P001"));
+    }
+
+    @Test
+    @DisplayName("Versi lama dibuang setelah tidak ada snapshot yang membutuhkannya")
+    void testPembersihanVersi() {
+        assertEquals(3, repository.jumlahVersiTersimpan());
+
+        RepositoryProdukMvcc.SnapshotProduk snapshot = repository.bukaSnapshot();
+        for (int i = 0; i < 5; i++) {
+            repository.updateStok("P001", i);
+        }
+        repository.hapus("P003");
+        // P001: 5 versi baru + 1 versi yang dilihat snapshot; P003: penanda hapus + versi lama
+        assertEquals(9, repository.jumlahVersiTersimpan());
+
+        snapshot.close();
+        // Hanya versi terbaru P001 dan P002 yang tersisa; penanda hapus P003 ikut dibuang
+        assertEquals(2, repository.jumlahVersiTersimpan());
+
+        // Tanpa snapshot, setiap penulisan langsung memangkas rantai
+        repository.updateStok("P002", 9);
+        assertEquals(2, repository.jumlahVersiTersimpan());
+    }
+
+    @Test
+    @DisplayName("Laporan pada snapshot selalu konsisten saat penulis berjalan bersamaan")
+    void testSnapshotSaatPenulisBerjalan() throws InterruptedException {
+        // Penulis memindahkan 1 unit antara P001 dan P002 bolak-balik dalam dua versi,
+        // sehingga total yang terlihat di titik mana pun selalu 12, 13, atau 14
+        AtomicBoolean berhenti = new AtomicBoolean();
+        Thread penulis = new Thread(() -> {
+            int stok1 = 10;
+            int arah = -1;
+            while (!berhenti.get()) {
+                if (stok1 + arah < 0 || stok1 + arah > 13) {
+                    arah = -arah;
+                }
+                stok1 += arah;
+                repository.updateStok("P001", stok1);
+                repository.updateStok("P002", 13 - stok1);
+            }
+        });
+        penulis.start();
+        try {
+            for (int i = 0; i < 2_000; i++) {
+                try (RepositoryProdukMvcc.SnapshotProduk snapshot = repository.bukaSnapshot()) {
+                    List<Produk> semua = snapshot.cariSemua();
+                    int stok1 = snapshot.cariByKode("P001").get().getStok();
+                    int stok2 = snapshot.cariByKode("P002").get().getStok();
+                    int totalDariList = semua.stream()
+                            .filter(p -> !p.getKode().equals("P003"))
+                            .mapToInt(Produk::getStok).sum();
+                    // Pembacaan berulang dalam satu snapshot selalu sama
+                    assertEquals(stok1 + stok2, totalDariList);
+                    assertTrue(stok1 + stok2 >= 12 && stok1 + stok2 <= 14);
+                }
+            }
+        } finally {
+            berhenti.set(true);
+            penulis.join();
+        }
+    }
+}
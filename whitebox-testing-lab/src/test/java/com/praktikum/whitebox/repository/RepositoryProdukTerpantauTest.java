@@ -0,0 +1,105 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test RepositoryProdukTerpantau - event JFR per panggilan repository")
+class RepositoryProdukTerpantauTest {
+
+    private static final String PANGGILAN = "com.praktikum.whitebox.PanggilanRepository";
+
+    @TempDir
+    Path folder;
+
+    @Test
+    @DisplayName("Konstruktor menolak repository null")
+    void testTujuanNull() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new RepositoryProdukTerpantau(null));
+        assertEquals("Repository tujuan tidak boleh null", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Hasil panggilan sama dengan repository tujuan")
+    void testMeneruskanPanggilan() {
+        RepositoryProdukInMemory tujuan = new RepositoryProdukInMemory(16, true, true);
+        RepositoryProduk repository = new RepositoryProdukTerpantau(tujuan);
+        assertTrue(repository.simpan(new Produk("P001", "Laptop", "Elektronik", 1000, 10, 2)));
+        assertEquals(2, repository.simpanBatch(List.of(
+                new Produk("P002", "Mouse", "Elektronik", 100, 0, 2),
+                new Produk("P003", "Meja", "Furnitur", 500, 1, 2))));
+
+        assertEquals("Laptop", repository.cariByKode("P001").get().getNama());
+        assertEquals(1, repository.cariByNama("mouse").size());
+        assertEquals(2, repository.cariByKategori("Elektronik").size());
+        assertEquals(1, repository.cariProdukStokMenipis().size());
+        assertEquals(1, repository.cariProdukStokHabis().size());
+        assertEquals(3, repository.cariSemua().size());
+        assertEquals(2, repository.cariByRentangHarga(100, 500).size());
+        assertEquals("P002", repository.cariStokTerendahRelatif(1).get(0).getKode());
+        assertEquals("P001", repository.cariNilaiPersediaanTertinggi(1).get(0).getKode());
+        int[] jumlah = new int[1];
+        repository.telusuriSemua(p -> jumlah[0]++);
+        assertEquals(3, jumlah[0]);
+        assertTrue(repository.pastiTidakAda("X999"));
+        assertFalse(repository.pastiTidakAda("P001"));
+
+        assertTrue(repository.updateStok("P001", 7));
+        assertEquals(7, tujuan.cariByKode("P001").get().getStok());
+        assertTrue(repository.hapus("P003"));
+        assertFalse(repository.hapus("P003"));
+    }
+
+    @Test
+    @DisplayName("Setiap panggilan dicatat dengan operasi, kode, dan status berhasil")
+    void testEventDicatat() throws IOException {
+        RepositoryProduk repository = new RepositoryProdukTerpantau(new RepositoryProdukInMemory());
+        List<RecordedEvent> events;
+        try (Recording rekaman = new Recording()) {
+            rekaman.enable(PANGGILAN).withoutThreshold();
+            rekaman.start();
+            repository.simpan(new Produk("P001", "Laptop", "Elektronik", 1000, 10, 2));
+            repository.cariByKode("P001");
+            repository.cariByKode("P404");
+            repository.updateStok("P404", 1);
+            rekaman.stop();
+            Path berkas = folder.resolve("repo.jfr");
+            rekaman.dump(berkas);
+            events = RecordingFile.readAllEvents(berkas).stream()
+                    .filter(e -> e.getEventType().getName().equals(PANGGILAN))
+                    .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                    .collect(Collectors.toList());
+        }
+
+        assertEquals(4, events.size());
+        assertEvent(events.get(0), "simpan", "P001", true);
+        assertEvent(events.get(1), "cariByKode", "P001", true);
+        assertEvent(events.get(2), "cariByKode", "P404", false);
+        assertEvent(events.get(3), "updateStok", "P404", false);
+    }
+
+    @Test
+    @DisplayName("Exception dari repository tujuan diteruskan")
+    void testExceptionDiteruskan() {
+        RepositoryProduk repository = new RepositoryProdukTerpantau(new RepositoryProdukInMemory());
+        assertThrows(NullPointerException.class, () -> repository.telusuriSemua(null));
+    }
+
+    private static void assertEvent(RecordedEvent event, String operasi, String kode, boolean berhasil) {
+        assertEquals(operasi, event.getString("operasi"));
+        assertEquals(kode, event.getString("kode"));
+        assertEquals(berhasil, event.getBoolean("berhasil"));
+    }
+}
@@ -0,0 +1,235 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test RepositoryProdukWriteBehind - penulisan tertunda dan digabung per kode")
+class RepositoryProdukWriteBehindTest {
+
+    /**
+     * Repository tujuan yang menghitung panggilan tulis dan bisa dibuat gagal.
+     */
+    private static final class TujuanTerhitung extends RepositoryProdukInMemory {
+        final AtomicInteger panggilanUpdateStok = new AtomicInteger();
+        final AtomicInteger panggilanSimpanBatch = new AtomicInteger();
+        final AtomicBoolean gagal = new AtomicBoolean();
+
+        @Override
+        public boolean updateStok(String kode, int stokBaru) {
+            if (gagal.get()) {
+                throw new IllegalStateException("Penyimpanan tidak tersedia");
+            }
+            panggilanUpdateStok.incrementAndGet();
+            return super.updateStok(kode, stokBaru);
+        }
+
+        @Override
+        public int simpanBatch(List<Produk> daftarProduk) {
+            if (gagal.get()) {
+                throw new IllegalStateException("Penyimpanan tidak tersedia");
+            }
+            panggilanSimpanBatch.incrementAndGet();
+            return super.simpanBatch(daftarProduk);
+        }
+    }
+
+    private TujuanTerhitung tujuan;
+    private RepositoryProdukWriteBehind repository;
+
+    @BeforeEach
+    void setUp() {
+        tujuan = new TujuanTerhitung();
+        tujuan.simpan(new Produk("P001", "Laptop Gaming", "Elektronik", 15000000, 10, 5));
+        tujuan.simpan(new Produk("P002", "Mouse Wireless", "Elektronik", 150000, 3, 5));
+        repository = new RepositoryProdukWriteBehind(tujuan, 10_000, 1_000, 2);
+    }
+
+    @Test
+    @DisplayName("Perubahan langsung terlihat, tetapi baru sampai ke tujuan saat disalurkan")
+    void testPenulisanTertunda() {
+        assertEquals(10, repository.cariByKode("P001").get().getStok());
+        assertEquals(2, repository.cariSemua().size());
+
+        assertTrue(repository.updateStok("P001", 7));
+        assertFalse(repository.updateStok("P999", 7));
+        assertTrue(repository.simpan(new Produk("P003", "Kaos Polos", "Pakaian", 50000, 0, 2)));
+        assertTrue(repository.hapus("P002"));
+        assertFalse(repository.hapus("P002"));
+
+        assertEquals(7, repository.cariByKode("P001").get().getStok());
+        assertTrue(repository.cariByKode("P002").isEmpty());
+        assertEquals(1, repository.cariProdukStokHabis().size());
+        assertEquals(10, tujuan.cariByKode("P001").get().getStok(), "Tujuan belum berubah");
+        assertTrue(tujuan.cariByKode("P003").isEmpty());
+        assertEquals(3, repository.getJumlahTertunda());
+
+        assertEquals(3, repository.salurkan());
+        assertEquals(0, repository.getJumlahTertunda());
+        assertEquals(7, tujuan.cariByKode("P001").get().getStok());
+        assertTrue(tujuan.cariByKode("P002").isEmpty());
+        assertEquals("Kaos Polos", tujuan.cariByKode("P003").get().getNama());
+        assertNotSame(repository.cariByKode("P003").get(), tujuan.cariByKode("P003").get());
+        assertEquals(3, repository.getJumlahPenulisan());
+        assertEquals(0, repository.salurkan());
+    }
+
+    @Test
+    @DisplayName("Banyak updateStok pada satu kode digabung menjadi satu penulisan stok terakhir")
+    void testPenggabungan() {
+        for (int i = 0; i < 100; i++) {
+            repository.updateStok("P001", i);
+        }
+        repository.simpan(new Produk("P004", "Keyboard", "Elektronik", 250000, 4, 1));
+        repository.updateStok("P004", 9); // Stok setelah simpan tetap dikirim sebagai simpan
+        repository.simpan(new Produk("P005", "Monitor", "Elektronik", 2000000, 4, 1));
+        repository.simpan(new Produk("P006", "Webcam", "Elektronik", 500000, 4, 1));
+        repository.simpan(new Produk("P007", "Hapus", "Elektronik", 500000, 4, 1));
+        repository.hapus("P007"); // Tidak pernah sampai ke tujuan
+
+        repository.salurkan();
+
+        assertEquals(1, tujuan.panggilanUpdateStok.get());
+        assertEquals(99, tujuan.cariByKode("P001").get().getStok());
+        assertEquals(9, tujuan.cariByKode("P004").get().getStok());
+        assertEquals(2, tujuan.panggilanSimpanBatch.get(), "Tiga produk baru dengan ukuran batch 2");
+        assertTrue(tujuan.cariByKode("P007").isEmpty());
+        assertEquals(5, tujuan.jumlahProduk());
+    }
+
+    @Test
+    @DisplayName("Penulisan yang gagal tetap tertunda dan dikirim ulang")
+    void testGagalLaluCobaLagi() {
+        repository.updateStok("P001", 1);
+        repository.simpan(new Produk("P003", "Kaos Polos", "Pakaian", 50000, 0, 2));
+        tujuan.gagal.set(true);
+
+        assertThrows(IllegalStateException.class, () -> repository.salurkan());
+        assertEquals(2, repository.getJumlahTertunda());
+        assertNotNull(repository.getKesalahanTerakhir());
+
+        tujuan.gagal.set(false);
+        repository.updateStok("P001", 2);
+        assertEquals(2, repository.salurkan());
+        assertEquals(2, tujuan.cariByKode("P001").get().getStok());
+        assertTrue(tujuan.cariByKode("P003").isPresent());
+    }
+
+    @Test
+    @DisplayName("Penyaluran berkala dan ambang ukuran, lalu close menyalurkan sisa")
+    void testPenyaluranOtomatisDanClose() throws InterruptedException {
+        RepositoryProdukWriteBehind otomatis = new RepositoryProdukWriteBehind(tujuan, 20, 3, 16);
+        otomatis.mulai();
+        otomatis.mulai(); // Tidak membuat penyalur kedua
+        otomatis.updateStok("P001", 4);
+        long batas = System.currentTimeMillis() + 5_000;
+        while (tujuan.cariByKode("P001").get().getStok() != 4 && System.currentTimeMillis() < batas) {
+            Thread.sleep(5);
+        }
+        assertEquals(4, tujuan.cariByKode("P001").get().getStok(), "Tersalur dalam beberapa interval");
+
+        otomatis.updateStok("P002", 8);
+        otomatis.close();
+        otomatis.close(); // Menutup dua kali tidak error
+        assertEquals(8, tujuan.cariByKode("P002").get().getStok());
+        assertEquals(0, otomatis.getJumlahTertunda());
+        assertThrows(IllegalStateException.class, () -> otomatis.updateStok("P001", 1));
+        assertEquals(4, otomatis.cariByKode("P001").get().getStok(), "Pembacaan tetap bisa");
+    }
+
+    @Test
+    @DisplayName("Penulisan yang berhasil selama close tetap sampai ke tujuan")
+    void testCloseSaatPenulisanBerjalan() throws InterruptedException {
+        for (int t = 0; t < 4; t++) {
+            tujuan.simpan(new Produk("T00" + t, "Produk Thread", "Umum", 1000, 0, 1));
+        }
+        RepositoryProdukWriteBehind konkuren = new RepositoryProdukWriteBehind(tujuan, 1, 8, 16);
+        konkuren.mulai();
+        int[] stokTerakhir = new int[4];
+        Thread[] penulis = new Thread[4];
+        for (int t = 0; t < penulis.length; t++) {
+            int nomor = t;
+            penulis[t] = new Thread(() -> {
+                try {
+                    for (int stok = 1; ; stok++) {
+                        konkuren.updateStok("T00" + nomor, stok);
+                        stokTerakhir[nomor] = stok;
+                    }
+                } catch (IllegalStateException e) {
+                    // Ditolak setelah close
+                }
+            });
+            penulis[t].start();
+        }
+        Thread.sleep(50);
+        konkuren.close();
+        for (Thread thread : penulis) {
+            thread.join();
+        }
+
+        for (int t = 0; t < penulis.length; t++) {
+            assertEquals(stokTerakhir[t], tujuan.cariByKode("T00" + t).get().getStok());
+        }
+        assertEquals(0, konkuren.getJumlahTertunda());
+    }
+
+    @Test
+    @DisplayName("Penyaluran bersamaan dengan penulisan tidak kehilangan perubahan")
+    void testPenyaluranSaatPenulisanBerjalan() throws InterruptedException {
+        AtomicBoolean selesai = new AtomicBoolean();
+        Thread penyalur = new Thread(() -> {
+            while (!selesai.get()) {
+                repository.salurkan();
+            }
+        });
+        penyalur.start();
+        Thread[] penulis = new Thread[4];
+        for (int t = 0; t < penulis.length; t++) {
+            int nomor = t;
+            penulis[t] = new Thread(() -> {
+                for (int i = 0; i < 25_000; i++) {
+                    String kode = "T" + nomor + "-" + i;
+                    repository.simpan(new Produk(kode, "Produk Thread", "Umum", 1000, i, 1));
+                    repository.updateStok(kode, i + 1);
+                    if (i % 3 == 0) {
+                        repository.hapus(kode);
+                    }
+                }
+            });
+            penulis[t].start();
+        }
+        for (Thread thread : penulis) {
+            thread.join();
+        }
+        selesai.set(true);
+        penyalur.join();
+        repository.salurkan();
+
+        assertEquals(0, repository.getJumlahTertunda());
+        List<Produk> tampilan = repository.cariSemua();
+        assertEquals(tampilan.size(), tujuan.cariSemua().size());
+        for (Produk produk : tampilan) {
+            assertEquals(produk.getStok(), tujuan.cariByKode(produk.getKode()).orElseThrow().getStok(),
+                    produk.getKode());
+        }
+    }
+
+    @Test
+    @DisplayName("Validasi konstruktor")
+    void testValidasi() {
+        assertThrows(IllegalArgumentException.class, () -> new RepositoryProdukWriteBehind(null));
+        assertThrows(IllegalArgumentException.class, () -> new RepositoryProdukWriteBehind(tujuan, 0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RepositoryProdukWriteBehind(tujuan, 1, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RepositoryProdukWriteBehind(tujuan, 1, 1, 0));
+        assertFalse(repository.simpan(null));
+        assertFalse(repository.updateStok(null, 1));
+        assertTrue(repository.cariByKode(null).isEmpty());
+    }
+}
@@ -0,0 +1,130 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test RiwayatStok - riwayat level stok terkompresi")
+class RiwayatStokTest {
+
+    @Test
+    @DisplayName("Mencatat perubahan dari repository dan menjawab query titik waktu")
+    void testSebagaiPendengar() {
+        AtomicLong jam = new AtomicLong(1_000);
+        RiwayatStok riwayat = new RiwayatStok(jam::get);
+        RepositoryProdukInMemory repository = new RepositoryProdukInMemory();
+        repository.tambahPendengar(riwayat);
+
+        repository.simpan(new Produk("P001", "Laptop", "Elektronik", 1000, 10, 2));
+        jam.set(2_000);
+        repository.updateStok("P001", 7);
+        jam.set(2_500);
+        repository.updateStok("P001", 7); // Level sama tidak dicatat
+        jam.set(3_000);
+        repository.updateStok("P001", 12);
+        jam.set(4_000);
+        repository.hapus("P001");
+
+        assertEquals(3, riwayat.getJumlahTitik("P001"));
+        assertEquals(OptionalInt.empty(), riwayat.stokPada("P001", 999));
+        assertEquals(OptionalInt.of(10), riwayat.stokPada("P001", 1_000));
+        assertEquals(OptionalInt.of(10), riwayat.stokPada("P001", 1_999));
+        assertEquals(OptionalInt.of(7), riwayat.stokPada("P001", 2_999));
+        assertEquals(OptionalInt.of(12), riwayat.stokPada("P001", 10_000), "Riwayat tetap ada setelah dihapus");
+        assertEquals(OptionalInt.empty(), riwayat.stokPada("P999", 1_000));
+        assertEquals(OptionalInt.empty(), riwayat.stokPada(null, 1_000));
+
+        List<RiwayatStok.TitikStok> titik = riwayat.rentang("P001", 1_500, 3_000);
+        assertEquals(2, titik.size());
+        assertEquals(2_000, titik.get(0).getWaktuMillis());
+        assertEquals(7, titik.get(0).getStok());
+        assertEquals(12, titik.get(1).getStok());
+        assertTrue(riwayat.rentang("P001", 3_000, 1_000).isEmpty());
+        assertTrue(riwayat.rentang("P999", 0, 10_000).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Hasil dekode sama dengan data asli untuk banyak blok, lompatan besar, dan jam mundur")
+    void testSamaDenganDataAsli() {
+        RiwayatStok riwayat = new RiwayatStok();
+        Random acak = new Random(44);
+        List<long[]> asli = new ArrayList<>();
+        long waktu = 1_700_000_000_000L;
+        int stok = 500;
+        for (int i = 0; i < 2_000; i++) {
+            waktu += acak.nextInt(10) == 0 ? acak.nextInt(86_400_000) : acak.nextInt(60_000);
+            int stokBaru = acak.nextInt(50) == 0 ? acak.nextInt(Integer.MAX_VALUE) : Math.max(0, stok + acak.nextInt(21) - 10);
+            if (stokBaru == stok) {
+                continue;
+            }
+            stok = stokBaru;
+            riwayat.catat("P001", waktu, stok);
+            asli.add(new long[]{waktu, stok});
+        }
+        // Jam mundur dicatat pada waktu titik terakhir
+        riwayat.catat("P001", waktu - 5_000, stok + 1);
+        asli.add(new long[]{waktu, stok + 1});
+
+        assertEquals(asli.size(), riwayat.getJumlahTitik("P001"));
+        List<RiwayatStok.TitikStok> semua = riwayat.rentang("P001", Long.MIN_VALUE, Long.MAX_VALUE);
+        assertEquals(asli.size(), semua.size());
+        for (int i = 0; i < asli.size(); i++) {
+            assertEquals(asli.get(i)[0], semua.get(i).getWaktuMillis(), "waktu " + i);
+            assertEquals(asli.get(i)[1], semua.get(i).getStok(), "stok " + i);
+        }
+        for (int i = 0; i < asli.size(); i += 37) {
+            for (long t : new long[]{asli.get(i)[0], asli.get(i)[0] + 1}) {
+                // Level yang berlaku adalah titik terakhir dengan waktu <= t
+                int harapan = -1;
+                for (long[] titik : asli) {
+                    if (titik[0] <= t) {
+                        harapan = (int) titik[1];
+                    }
+                }
+                assertEquals(OptionalInt.of(harapan), riwayat.stokPada("P001", t), "t=" + t);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Pergerakan teratur hanya memakan beberapa byte per titik")
+    void testUkuranTerkompresi() {
+        RiwayatStok riwayat = new RiwayatStok();
+        long waktu = 1_700_000_000_000L;
+        int stok = 10_000;
+        Random acak = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            waktu += 60_000 + acak.nextInt(2_000) - 1_000; // Kira-kira satu pergerakan per menit
+            stok -= 1 + acak.nextInt(5);
+            riwayat.catat("P001", waktu, stok);
+        }
+        double bytePerTitik = (double) riwayat.getUkuranBytes() / riwayat.getJumlahTitik("P001");
+        assertTrue(bytePerTitik <= 3.5, "Byte per titik: " + bytePerTitik);
+    }
+
+    @Test
+    @DisplayName("Retensi membuang blok lama tetapi level terakhir tetap diketahui")
+    void testBuangSebelum() {
+        RiwayatStok riwayat = new RiwayatStok();
+        int jumlah = RiwayatStok.TITIK_PER_BLOK * 3;
+        for (int i = 1; i <= jumlah; i++) {
+            riwayat.catat("P001", i * 1_000L, i);
+        }
+        riwayat.catat("P002", 5L, 1);
+
+        long dibuang = riwayat.buangSebelum(RiwayatStok.TITIK_PER_BLOK * 2 * 1_000L + 1_000);
+        assertEquals(RiwayatStok.TITIK_PER_BLOK * 2L, dibuang);
+        assertEquals(jumlah - dibuang, riwayat.getJumlahTitik("P001"));
+        assertEquals(OptionalInt.empty(), riwayat.stokPada("P001", 1_000));
+        assertEquals(OptionalInt.of(jumlah), riwayat.stokPada("P001", Long.MAX_VALUE));
+        assertEquals(OptionalInt.of(1), riwayat.stokPada("P002", 10), "Blok terakhir selalu dipertahankan");
+    }
+}
@@ -0,0 +1,404 @@
+package com.praktikum.whitebox.repository;
+
+import com.praktikum.whitebox.model.Produk;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test UmpanPerubahanProduk - umpan perubahan terurut dengan file")
+class UmpanPerubahanProdukTest {
+
+    @TempDir
+    Path direktori;
+
+    private Path file;
+    private RepositoryProdukInMemory repository;
+    private UmpanPerubahanProduk umpan;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = direktori.resolve("perubahan.log");
+        repository = new RepositoryProdukInMemory();
+        umpan = new UmpanPerubahanProduk(file, 8, 10);
+        repository.tambahPendengar(umpan);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        umpan.close();
+    }
+
+    @Test
+    @DisplayName("Setiap jenis perubahan tercatat berurutan dengan nomor urut")
+    void testJenisPerubahan() {
+        repository.simpan(new Produk("P001", "Laptop Gaming", "Elektronik", 15000000, 10, 5));
+        repository.simpan(new Produk("P001", "Laptop Gaming Pro", "Elektronik", 17000000, 10, 5));
+        repository.updateStok("P001", 4);
+        repository.hapus("P001");
+        // Operasi yang gagal tidak menghasilkan entri
+        repository.updateStok("P999", 1);
+        repository.hapus("P999");
+
+        assertEquals(4, umpan.getUrutanBerikutnya());
+        assertTrue(umpan.baca(0, 10).isEmpty()); // Belum tersalur
+        assertEquals(4, umpan.salurkan());
+
+        List<PerubahanProduk> daftar = umpan.baca(0, 10);
+        assertEquals(4, daftar.size());
+        for (int i = 0; i < daftar.size(); i++) {
+            assertEquals(i, daftar.get(i).getUrutan());
+            assertEquals("P001", daftar.get(i).getKode());
+        }
+        assertEquals(JenisPerubahan.SISIP, daftar.get(0).getJenis());
+        assertEquals(JenisPerubahan.UBAH, daftar.get(1).getJenis());
+        assertEquals("Laptop Gaming Pro", daftar.get(1).getProduk().getNama());
+        assertEquals(JenisPerubahan.STOK, daftar.get(2).getJenis());
+        assertEquals(4, daftar.get(2).getStok());
+        assertNull(daftar.get(2).getProduk());
+        assertEquals(JenisPerubahan.HAPUS, daftar.get(3).getJenis());
+
+        assertEquals(2, umpan.baca(2, 10).size());
+        assertEquals(1, umpan.baca(1, 1).size());
+        assertTrue(umpan.baca(4, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Entri berisi salinan produk saat perubahan terjadi")
+    void testSalinanProduk() {
+        Produk produk = new Produk("P001", "Laptop Gaming", "Elektronik", 15000000, 10, 5);
+        repository.simpan(produk);
+        produk.setNama("Diubah di luar");
+        umpan.salurkan();
+        assertEquals("Laptop Gaming", umpan.baca(0, 1).get(0).getProduk().getNama());
+    }
+
+    @Test
+    @DisplayName("Entri lama yang sudah tertimpa di ring buffer dibaca dari file")
+    void testBacaDariFile() {
+        for (int i = 0; i < 200; i++) {
+            repository.simpan(new Produk(String.format("P%03d", i), "Produk " + i, "Umum", 1000 + i, i, 1));
+            umpan.salurkan();
+        }
+        List<PerubahanProduk> daftar = umpan.baca(70, 100);
+        assertEquals(100, daftar.size());
+        for (int i = 0; i < 100; i++) {
+            PerubahanProduk perubahan = daftar.get(i);
+            assertEquals(70 + i, perubahan.getUrutan());
+            assertEquals("Produk " + (70 + i), perubahan.getProduk().getNama());
+            assertEquals(1070 + i, perubahan.getProduk().getHarga());
+        }
+    }
+
+    @Test
+    @DisplayName("Penulis tidak menunggu saat ring buffer penuh dan tidak ada entri yang hilang")
+    void testLuapan() {
+        for (int i = 0; i < 100; i++) {
+            repository.simpan(new Produk("P001", "Laptop", "Elektronik", 1000, i, 1));
+        }
+        assertTrue(umpan.getJumlahLuapan() > 0);
+        assertEquals(100, umpan.salurkan());
+        List<PerubahanProduk> daftar = umpan.baca(0, 1000);
+        assertEquals(100, daftar.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, daftar.get(i).getUrutan());
+            assertEquals(i, daftar.get(i).getStok());
+        }
+    }
+
+    /**
+     * Channel file asli yang penulisannya bisa dibuat gagal, misalnya untuk meniru disk penuh.
+     */
+    private static final class ChannelBisaGagal extends FileChannel {
+        private final FileChannel asli;
+        private final AtomicBoolean gagal;
+
+        ChannelBisaGagal(Path lokasi, AtomicBoolean gagal) throws IOException {
+            this.asli = FileChannel.open(lokasi, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            this.gagal = gagal;
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            if (gagal.get()) {
+                throw new IOException("Disk penuh");
+            }
+            return asli.write(src, position);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return asli.read(dst, position);
+        }
+
+        @Override
+        public long size() throws IOException {
+            return asli.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            asli.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            asli.force(metaData);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            asli.close();
+        }
+
+        // Tidak dipakai oleh UmpanPerubahanProduk
+        @Override
+        public int read(ByteBuffer dst) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long position() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @Test
+    @DisplayName("Penyaluran yang gagal tidak menghilangkan entri dan penyalur otomatis tetap berjalan")
+    void testPulihSetelahGagalMenulis() throws IOException, InterruptedException {
+        Path lokasi = direktori.resolve("gagal.log");
+        AtomicBoolean gagal = new AtomicBoolean(true);
+        RepositoryProdukInMemory sumber = new RepositoryProdukInMemory();
+        try (UmpanPerubahanProduk umpanGagal = new UmpanPerubahanProduk(new ChannelBisaGagal(lokasi, gagal), 4, 5, 1_000)) {
+            sumber.tambahPendengar(umpanGagal);
+            for (int i = 0; i < 10; i++) {
+                sumber.simpan(new Produk("P001", "Laptop", "Elektronik", 1000, i, 1));
+            }
+            assertThrows(UncheckedIOException.class, umpanGagal::salurkan);
+            assertEquals(0, umpanGagal.getUrutanTersalur());
+            assertEquals(0, Files.size(lokasi));
+
+            umpanGagal.mulai();
+            long batas = System.currentTimeMillis() + 5_000;
+            while (umpanGagal.getJumlahGagal() < 3 && System.currentTimeMillis() < batas) {
+                Thread.sleep(5);
+            }
+            assertTrue(umpanGagal.getJumlahGagal() >= 3, "Penyalur otomatis terus mencoba");
+            assertInstanceOf(UncheckedIOException.class, umpanGagal.getKesalahanTerakhir());
+
+            gagal.set(false);
+            while (umpanGagal.getUrutanTersalur() < 10 && System.currentTimeMillis() < batas) {
+                Thread.sleep(5);
+            }
+            assertEquals(10, umpanGagal.getUrutanTersalur());
+            List<PerubahanProduk> daftar = umpanGagal.baca(0, 100);
+            for (int i = 0; i < 10; i++) {
+                assertEquals(i, daftar.get(i).getStok());
+            }
+        }
+        try (UmpanPerubahanProduk dibukaUlang = new UmpanPerubahanProduk(lokasi, 4, 10)) {
+            assertEquals(10, dibukaUlang.getUrutanTersalur(), "File tidak berisi sisa penulisan yang gagal");
+        }
+    }
+
+    @Test
+    @DisplayName("Luapan dibatasi: perubahan berikutnya digabung per kode tanpa memblokir penulis")
+    void testBatasLuapan() throws IOException {
+        AtomicBoolean gagal = new AtomicBoolean(true);
+        RepositoryProdukInMemory sumber = new RepositoryProdukInMemory();
+        try (UmpanPerubahanProduk umpanKecil = new UmpanPerubahanProduk(
+                new ChannelBisaGagal(direktori.resolve("kecil.log"), gagal), 4, 10, 4)) {
+            sumber.tambahPendengar(umpanKecil);
+            for (int i = 0; i < 8; i++) {
+                sumber.simpan(new Produk("P00" + i, "Produk", "Umum", 1000, i, 1));
+            }
+            assertEquals(4, umpanKecil.getJumlahLuapan());
+
+            // Batas tercapai dan penyaluran gagal: penulis tetap berhasil, perubahan digabung per kode
+            sumber.simpan(new Produk("P100", "Produk", "Umum", 1000, 1, 1));
+            assertTrue(sumber.updateStok("P100", 7));
+            assertTrue(sumber.updateStok("P000", 50));
+            assertTrue(sumber.hapus("P001"));
+            assertThrows(UncheckedIOException.class, umpanKecil::salurkan);
+            assertEquals(4, umpanKecil.getJumlahTertinggal());
+            assertEquals(8, umpanKecil.getUrutanBerikutnya(), "Perubahan yang digabung belum mengambil nomor urut");
+
+            gagal.set(false);
+            assertEquals(11, umpanKecil.salurkan()); // 8 entri lama + 3 kode yang disusulkan
+            List<PerubahanProduk> daftar = umpanKecil.baca(8, 100);
+            assertEquals(3, daftar.size());
+            for (PerubahanProduk perubahan : daftar) {
+                if (perubahan.getKode().equals("P001")) {
+                    assertEquals(JenisPerubahan.HAPUS, perubahan.getJenis());
+                } else {
+                    assertEquals(JenisPerubahan.UBAH, perubahan.getJenis());
+                    assertEquals(sumber.cariByKode(perubahan.getKode()).get().getStok(), perubahan.getStok());
+                }
+            }
+
+            // Setelah tersusul, perubahan kembali mendapat nomor urut sendiri
+            sumber.updateStok("P002", 9);
+            assertEquals(1, umpanKecil.salurkan());
+            assertEquals(JenisPerubahan.STOK, umpanKecil.baca(11, 1).get(0).getJenis());
+        }
+    }
+
+    @Test
+    @DisplayName("Konsumen melanjutkan dari offset setelah restart")
+    void testLanjutSetelahRestart() throws IOException {
+        repository.simpan(new Produk("P001", "Laptop Gaming", "Elektronik", 15000000, 10, 5));
+        repository.updateStok("P001", 9);
+        repository.updateStok("P001", 8);
+        umpan.close();
+        repository.hapusPendengar(umpan);
+
+        umpan = new UmpanPerubahanProduk(file, 8, 10);
+        repository.tambahPendengar(umpan);
+        assertEquals(3, umpan.getUrutanTersalur());
+        assertEquals(3, umpan.getUrutanBerikutnya());
+
+        repository.hapus("P001");
+        umpan.salurkan();
+        List<PerubahanProduk> daftar = umpan.baca(2, 10);
+        assertEquals(2, daftar.size());
+        assertEquals(8, daftar.get(0).getStok());
+        assertEquals(3, daftar.get(1).getUrutan());
+        assertEquals(JenisPerubahan.HAPUS, daftar.get(1).getJenis());
+    }
+
+    @Test
+    @DisplayName("Entri terakhir yang tidak lengkap dibuang saat file dibuka ulang")
+    void testEntriTerpotong() throws IOException {
+        repository.simpan(new Produk("P001", "Laptop Gaming", "Elektronik", 15000000, 10, 5));
+        repository.updateStok("P001", 9);
+        umpan.close();
+        repository.hapusPendengar(umpan);
+
+        long ukuranUtuh = Files.size(file);
+        Files.write(file, new byte[] {0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+
+        umpan = new UmpanPerubahanProduk(file, 8, 10);
+        assertEquals(2, umpan.getUrutanTersalur());
+        assertEquals(ukuranUtuh, Files.size(file));
+    }
+
+    @Test
+    @DisplayName("Perubahan bersamaan menghasilkan urutan tanpa celah yang konsisten dengan repository")
+    void testKonkuren() throws InterruptedException {
+        for (int p = 0; p < 4; p++) {
+            repository.simpan(new Produk("P00" + p, "Produk " + p, "Umum", 1000, 0, 1));
+        }
+        umpan.mulai();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            String kode = "P00" + t;
+            executor.submit(() -> {
+                for (int i = 1; i <= 2_000; i++) {
+                    repository.updateStok(kode, i);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        umpan.salurkan();
+
+        List<PerubahanProduk> daftar = umpan.baca(0, 100_000);
+        assertEquals(4 + 4 * 2_000, daftar.size());
+        Map<String, Integer> stokTerakhir = new HashMap<>();
+        for (int i = 0; i < daftar.size(); i++) {
+            PerubahanProduk perubahan = daftar.get(i);
+            assertEquals(i, perubahan.getUrutan());
+            Integer sebelumnya = stokTerakhir.put(perubahan.getKode(), perubahan.getStok());
+            // Urutan per kode sama dengan urutan perubahannya
+            assertTrue(sebelumnya == null || perubahan.getStok() == sebelumnya + 1);
+        }
+        for (int p = 0; p < 4; p++) {
+            assertEquals(repository.cariByKode("P00" + p).get().getStok(), stokTerakhir.get("P00" + p));
+        }
+    }
+
+    @Test
+    @DisplayName("Parameter tidak valid dan umpan yang sudah ditutup")
+    void testValidasi() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> umpan.baca(-1, 10));
+        assertThrows(IllegalArgumentException.class, () -> umpan.baca(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new UmpanPerubahanProduk(file, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new UmpanPerubahanProduk(file, 8, 10, 0));
+        assertThrows(IllegalArgumentException.class, () -> repository.tambahPendengar(null));
+
+        umpan.close();
+        umpan.close(); // Menutup dua kali tidak error
+        repository.simpan(new Produk("P001", "Laptop", "Elektronik", 1000, 1, 1)); // Diabaikan
+        assertEquals(0, umpan.getUrutanBerikutnya());
+        assertThrows(IllegalStateException.class, () -> umpan.baca(0, 10));
+    }
+}
@@ -0,0 +1,176 @@
+package com.praktikum.whitebox.service;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import com.praktikum.whitebox.service.DeteksiDuplikatProduk.PasanganDuplikat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test DeteksiDuplikatProduk - MinHash/LSH atas nama produk")
+class DeteksiDuplikatProdukTest {
+
+    private RepositoryProdukInMemory repository;
+    private DeteksiDuplikatProduk deteksi;
+
+    @BeforeEach
+    void setUp() {
+        repository = new RepositoryProdukInMemory();
+        deteksi = new DeteksiDuplikatProduk();
+        repository.tambahPendengar(deteksi);
+    }
+
+    @Test
+    @DisplayName("Konstruktor menolak ambang dan interval tidak valid")
+    void testArgumenTidakValid() {
+        assertThrows(IllegalArgumentException.class, () -> new DeteksiDuplikatProduk(0, 100));
+        assertThrows(IllegalArgumentException.class, () -> new DeteksiDuplikatProduk(1.1, 100));
+        assertThrows(IllegalArgumentException.class, () -> new DeteksiDuplikatProduk(Double.NaN, 100));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new DeteksiDuplikatProduk(0.5, 0));
+        assertEquals("Interval proses harus positif", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Tanda tangan mengabaikan huruf besar dan tanda baca, memperkirakan Jaccard")
+    void testTandaTangan() {
+        int[] a = DeteksiDuplikatProduk.hitungTandaTangan("Laptop ASUS VivoBook 14");
+        assertArrayEquals(a, DeteksiDuplikatProduk.hitungTandaTangan("laptop asus-vivobook, 14!"));
+        assertEquals(1.0, DeteksiDuplikatProduk.kemiripan(a, a));
+        double mirip = DeteksiDuplikatProduk.kemiripan(a,
+                DeteksiDuplikatProduk.hitungTandaTangan("Laptop ASUS Vivobook 14 inch"));
+        double beda = DeteksiDuplikatProduk.kemiripan(a,
+                DeteksiDuplikatProduk.hitungTandaTangan("Kursi Kantor Ergonomis"));
+        assertTrue(mirip > 0.6, "mirip = " + mirip);
+        assertTrue(beda < 0.2, "beda = " + beda);
+        assertNull(DeteksiDuplikatProduk.hitungTandaTangan("  --  "));
+        assertNull(DeteksiDuplikatProduk.hitungTandaTangan(null));
+    }
+
+    @Test
+    @DisplayName("Simpan produk baru menandai pasangan duplikat secara bertahap")
+    void testInkremental() {
+        repository.simpan(new Produk("P001", "Laptop ASUS VivoBook 14", "Elektronik", 7000000, 5, 1));
+        repository.simpan(new Produk("P002", "Kursi Kantor Ergonomis", "Furnitur", 1500000, 5, 1));
+        assertEquals(2, deteksi.getJumlahTertunda());
+        assertEquals(2, deteksi.proses());
+        assertTrue(deteksi.ambilPasanganBaru().isEmpty());
+
+        repository.simpan(new Produk("S-9001", "LAPTOP Asus Vivobook 14\"", "Elektronik", 6900000, 3, 1));
+        repository.updateStok("S-9001", 10); // Perubahan stok tidak masuk antrean
+        assertEquals(1, deteksi.proses());
+        List<PasanganDuplikat> baru = deteksi.ambilPasanganBaru();
+        assertEquals(1, baru.size());
+        assertEquals("P001", baru.get(0).getKodeA());
+        assertEquals("S-9001", baru.get(0).getKodeB());
+        assertTrue(baru.get(0).getKemiripan() >= DeteksiDuplikatProduk.AMBANG_DEFAULT);
+        assertTrue(deteksi.ambilPasanganBaru().isEmpty());
+
+        // Mengubah harga saja tidak menandai ulang pasangan yang sama
+        repository.simpan(new Produk("S-9001", "LAPTOP Asus Vivobook 14\"", "Elektronik", 6800000, 3, 1));
+        deteksi.proses();
+        assertTrue(deteksi.ambilPasanganBaru().isEmpty());
+        assertEquals(List.of(Set.of("P001", "S-9001")), deteksi.getKlaster());
+
+        repository.hapus("S-9001");
+        deteksi.proses();
+        assertTrue(deteksi.getKlaster().isEmpty());
+        assertEquals(2, deteksi.getJumlahTerindeks());
+    }
+
+    @Test
+    @DisplayName("Klaster menggabungkan pasangan yang saling terhubung")
+    void testKlaster() {
+        repository.simpan(new Produk("A01", "Mouse Logitech M185 Wireless", "Elektronik", 150000, 5, 1));
+        repository.simpan(new Produk("B01", "Mouse Logitech M185 Wireless Hitam", "Elektronik", 150000, 5, 1));
+        repository.simpan(new Produk("C01", "Logitech M185 Wireless Mouse", "Elektronik", 150000, 5, 1));
+        repository.simpan(new Produk("D01", "Meja Lipat Kayu Jati", "Furnitur", 500000, 5, 1));
+        repository.simpan(new Produk("E01", "Meja Lipat Kayu Jati Besar", "Furnitur", 600000, 5, 1));
+        repository.simpan(new Produk("F01", "Kabel HDMI 2 Meter", "Elektronik", 50000, 5, 1));
+        deteksi.proses();
+
+        List<Set<String>> klaster = deteksi.getKlaster();
+        assertTrue(klaster.contains(Set.of("D01", "E01")), klaster.toString());
+        assertTrue(klaster.stream().anyMatch(k -> k.containsAll(Set.of("A01", "B01"))), klaster.toString());
+        assertTrue(klaster.stream().noneMatch(k -> k.contains("F01")));
+    }
+
+    @Test
+    @DisplayName("Muat mengindeks isi repository; jumlah perbandingan jauh di bawah n^2")
+    void testMuatMendekatiLinear() {
+        RepositoryProdukInMemory besar = new RepositoryProdukInMemory(20_000);
+        Random acak = new Random(49);
+        String[] kata = {"laptop", "mouse", "kabel", "meja", "kursi", "lampu", "kipas", "rak", "tas", "botol",
+                "hitam", "putih", "merah", "besar", "kecil", "kayu", "besi", "plastik", "pro", "mini"};
+        int n = 10_000;
+        for (int i = 0; i < n; i++) {
+            StringBuilder nama = new StringBuilder();
+            for (int j = 0; j < 4; j++) {
+                nama.append(kata[acak.nextInt(kata.length)]).append(' ');
+            }
+            nama.append(Integer.toString(i, 36)).append(Integer.toString(acak.nextInt(1 << 20), 36));
+            besar.simpan(new Produk(String.format("X%05d", i), nama.toString(), "Umum", 1000, 1, 1));
+        }
+        besar.simpan(new Produk("DUP01", besar.cariByKode("X04321").get().getNama() + " new", "Umum", 1000, 1, 1));
+
+        DeteksiDuplikatProduk d = new DeteksiDuplikatProduk(0.6, 100);
+        assertEquals(n + 1, d.muat(besar));
+        assertTrue(d.getJumlahPerbandingan() < (long) n * 50, "perbandingan = " + d.getJumlahPerbandingan());
+        assertTrue(d.getKlaster().stream().anyMatch(k -> k.equals(Set.of("DUP01", "X04321"))),
+                d.getKlaster().toString());
+    }
+
+    @Test
+    @DisplayName("Hapus dan simpan ulang berulang kali tidak meninggalkan entri basi di ember")
+    void testHapusBerulang() {
+        for (int putaran = 0; putaran < 3; putaran++) {
+            for (int i = 0; i < 500; i++) {
+                repository.simpan(new Produk(String.format("X%03d", i), "Barang Unik " + Integer.toString(i * 7919, 36),
+                        "Umum", 1000, 1, 1));
+            }
+            deteksi.proses();
+            for (int i = 0; i < 500; i++) {
+                repository.hapus(String.format("X%03d", i));
+            }
+            deteksi.proses();
+            assertEquals(0, deteksi.getJumlahTerindeks());
+            assertTrue(deteksi.getKlaster().isEmpty());
+        }
+        deteksi.ambilPasanganBaru();
+
+        repository.simpan(new Produk("P001", "Printer Epson L3210", "Elektronik", 2500000, 5, 1));
+        repository.simpan(new Produk("P002", "Printer Epson L3210 Ink Tank", "Elektronik", 2500000, 5, 1));
+        long sebelum = deteksi.getJumlahPerbandingan();
+        deteksi.proses();
+        assertEquals(1, deteksi.getJumlahPerbandingan() - sebelum); // Hanya P001, tanpa sisa produk terhapus
+        List<PasanganDuplikat> baru = deteksi.ambilPasanganBaru();
+        assertEquals(1, baru.size());
+        assertEquals("P001", baru.get(0).getKodeA());
+        assertEquals(List.of(Set.of("P001", "P002")), deteksi.getKlaster());
+    }
+
+    @Test
+    @DisplayName("Pemrosesan latar belakang mengosongkan antrean")
+    void testLatarBelakang() throws Exception {
+        try (DeteksiDuplikatProduk latar = new DeteksiDuplikatProduk(0.6, 5)) {
+            repository.tambahPendengar(latar);
+            latar.mulai();
+            latar.mulai(); // Tidak membuat thread kedua
+            repository.simpan(new Produk("P001", "Printer Epson L3210", "Elektronik", 2500000, 5, 1));
+            repository.simpan(new Produk("P002", "Printer Epson L3210 Ink Tank", "Elektronik", 2500000, 5, 1));
+            long batas = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (latar.getJumlahTerindeks() < 2 && System.nanoTime() < batas) {
+                Thread.sleep(5);
+            }
+            assertEquals(0, latar.getJumlahTertunda());
+            assertEquals(List.of(Set.of("P001", "P002")), latar.getKlaster());
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.praktikum.whitebox.service;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.RepositoryProduk;
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Test EksporKatalog - ekspor CSV, JSON, dan biner")
+class EksporKatalogTest {
+
+    @TempDir
+    Path folderSementara;
+
+    private RepositoryProdukInMemory repository;
+    private EksporKatalog eksporKatalog;
+
+    @BeforeEach
+    void setUp() {
+        repository = new RepositoryProdukInMemory();
+        repository.simpan(new Produk("P001", "Laptop, 14\"", "Elektronik", 15000000, 10, 5));
+        eksporKatalog = new EksporKatalog(repository);
+    }
+
+    @Test
+    @DisplayName("Ekspor CSV: header, harga tanpa notasi ilmiah, dan kutip untuk koma")
+    void testEksporCsv() throws IOException {
+        Path file = folderSementara.resolve("katalog.csv");
+        assertEquals(1, eksporKatalog.ekspor(file, EksporKatalog.FormatEkspor.CSV));
+
+        List<String> baris = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals("kode,nama,kategori,harga,stok,stokMinimum,aktif", baris.get(0));
+        assertEquals("P001,\"Laptop, 14\"\"\",Elektronik,15000000,10,5,true", baris.get(1));
+    }
+
+    @Test
+    @DisplayName("Ekspor JSON: escape karakter khusus, UTF-8, dan harga desimal")
+    void testEksporJson() throws IOException {
+        Produk produk = new Produk("P002", "Kopi é€😀", "Minuman\\Panas", 19.99, 0, 2);
+        produk.setAktif(false);
+        repository.hapus("P001");
+        repository.simpan(produk);
+        Produk tanpaKategori = new Produk("P003", "Teh\n", null, 0.05, 1, 1);
+        repository.simpan(tanpaKategori);
+
+        Path file = folderSementara.resolve("katalog.json");
+        assertEquals(2, eksporKatalog.ekspor(file, EksporKatalog.FormatEkspor.JSON));
+
+        String isi = Files.readString(file, StandardCharsets.UTF_8);
+        assertTrue(isi.startsWith("[\n{"));
+        assertTrue(isi.endsWith("}\n]\n"));
+        assertTrue(isi.contains("{\"kode\":\"P002\",\"nama\":\"Kopi é€😀\","
+                + "\"kategori\":\"Minuman\\\\Panas\",\"harga\":19.99,\"stok\":0,\"stokMinimum\":2,\"aktif\":false}"));
+        assertTrue(isi.contains("{\"kode\":\"P003\",\"nama\":\"Teh\\n\",\"kategori\":null,\"harga\":0.05,"));
+    }
+
+    @Test
+    @DisplayName("Ekspor biner dapat dibaca kembali")
+    void testEksporBiner() throws IOException {
+        Path file = folderSementara.resolve("katalog.bin");
+        assertEquals(1, eksporKatalog.ekspor(file, EksporKatalog.FormatEkspor.BINER));
+
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        assertEquals(EksporKatalog.MAGIC_BINER, data.getInt());
+        assertEquals(EksporKatalog.VERSI_BINER, data.getInt());
+        assertEquals(1, data.get());
+        assertEquals("P001", bacaTeks(data));
+        assertEquals("Laptop, 14\"", bacaTeks(data));
+        assertEquals("Elektronik", bacaTeks(data));
+        assertEquals(15000000, data.getDouble());
+        assertEquals(10, data.getInt());
+        assertEquals(5, data.getInt());
+        assertEquals(1, data.get());
+        assertEquals(0, data.get());
+        assertEquals(1, data.getLong());
+        assertFalse(data.hasRemaining());
+    }
+
+    @Test
+    @DisplayName("Ekspor banyak produk melewati kapasitas buffer")
+    void testEksporMelebihiBuffer() throws IOException {
+        for (int i = 0; i < 5_000; i++) {
+            repository.simpan(new Produk("K" + (1000 + i), "Produk Nomor " + i, "Umum", 1000 + i, i, 1));
+        }
+        EksporKatalog eksporKecil = new EksporKatalog(repository, 4096);
+        Path file = folderSementara.resolve("besar.csv");
+        assertEquals(5_001, eksporKecil.ekspor(file, EksporKatalog.FormatEkspor.CSV));
+        assertEquals(5_002, Files.readAllLines(file, StandardCharsets.UTF_8).size());
+
+        // Instance yang sama bisa dipakai ulang dan file lama ditimpa
+        assertEquals(5_001, eksporKecil.ekspor(file, EksporKatalog.FormatEkspor.CSV));
+        assertEquals(5_002, Files.readAllLines(file, StandardCharsets.UTF_8).size());
+    }
+
+    @Test
+    @DisplayName("Record yang lebih besar dari buffer ditulis sepotong-sepotong")
+    void testRecordMelebihiBuffer() throws IOException {
+        String namaPanjang = "Kopi \"é€😀\" ".repeat(1_000); // Sekitar 13 ribu karakter, jauh di atas 4 KiB
+        repository.simpan(new Produk("P009", namaPanjang, "Minuman", 25000, 3, 1));
+        EksporKatalog eksporKecil = new EksporKatalog(repository, 4096);
+
+        Path csv = folderSementara.resolve("panjang.csv");
+        assertEquals(2, eksporKecil.ekspor(csv, EksporKatalog.FormatEkspor.CSV));
+        assertTrue(Files.readString(csv, StandardCharsets.UTF_8)
+                .contains("P009,\"" + namaPanjang.replace("\"", "\"\"") + "\",Minuman,25000,3,1,true\n"));
+
+        Path json = folderSementara.resolve("panjang.json");
+        assertEquals(2, eksporKecil.ekspor(json, EksporKatalog.FormatEkspor.JSON));
+        assertTrue(Files.readString(json, StandardCharsets.UTF_8)
+                .contains("\"nama\":\"" + namaPanjang.replace("\"", "\\\"") + "\",\"kategori\":\"Minuman\""));
+
+        Path biner = folderSementara.resolve("panjang.bin");
+        assertEquals(2, eksporKecil.ekspor(biner, EksporKatalog.FormatEkspor.BINER));
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(biner));
+        data.position(8);
+        boolean ditemukan = false;
+        while (data.get() == 1) {
+            String kode = bacaTeks(data);
+            String nama = bacaTeks(data);
+            bacaTeks(data);
+            data.position(data.position() + 8 + 4 + 4 + 1);
+            if (kode.equals("P009")) {
+                assertEquals(namaPanjang, nama);
+                ditemukan = true;
+            }
+        }
+        assertTrue(ditemukan);
+        assertEquals(2, data.getLong());
+    }
+
+    @Test
+    @DisplayName("Harga NaN atau tak hingga tidak menghasilkan JSON yang tidak sah")
+    void testHargaTidakHingga() throws IOException {
+        repository.simpan(new Produk("P010", "Rusak", "Umum", Double.NaN, 1, 1));
+        repository.simpan(new Produk("P011", "Rusak", "Umum", Double.POSITIVE_INFINITY, 1, 1));
+
+        Path json = folderSementara.resolve("harga.json");
+        eksporKatalog.ekspor(json, EksporKatalog.FormatEkspor.JSON);
+        String isi = Files.readString(json, StandardCharsets.UTF_8);
+        assertFalse(isi.contains("NaN") || isi.contains("Infinity"));
+        assertTrue(isi.contains("{\"kode\":\"P010\",\"nama\":\"Rusak\",\"kategori\":\"Umum\",\"harga\":null,"));
+        assertTrue(isi.contains("{\"kode\":\"P011\",\"nama\":\"Rusak\",\"kategori\":\"Umum\",\"harga\":null,"));
+
+        Path csv = folderSementara.resolve("harga.csv");
+        eksporKatalog.ekspor(csv, EksporKatalog.FormatEkspor.CSV);
+        assertTrue(Files.readAllLines(csv, StandardCharsets.UTF_8).contains("P010,Rusak,Umum,,1,1,true"));
+    }
+
+    @Test
+    @DisplayName("Ekspor yang gagal di tengah jalan tidak merusak file hasil ekspor sebelumnya")
+    void testEksporGagalMempertahankanFileLama() throws IOException {
+        Path file = folderSementara.resolve("katalog.csv");
+        eksporKatalog.ekspor(file, EksporKatalog.FormatEkspor.CSV);
+        String isiLama = Files.readString(file, StandardCharsets.UTF_8);
+
+        RepositoryProduk repositoryGagal = mock(RepositoryProduk.class);
+        doAnswer(invocation -> {
+            Consumer<Produk> konsumen = invocation.getArgument(0);
+            konsumen.accept(new Produk("P002", "Mouse", "Elektronik", 150000, 5, 1));
+            throw new IllegalStateException("Koneksi repository terputus");
+        }).when(repositoryGagal).telusuriSemua(any());
+
+        EksporKatalog eksporGagal = new EksporKatalog(repositoryGagal);
+        assertThrows(IllegalStateException.class, () -> eksporGagal.ekspor(file, EksporKatalog.FormatEkspor.CSV));
+        assertEquals(isiLama, Files.readString(file, StandardCharsets.UTF_8));
+        try (Stream<Path> isiFolder = Files.list(folderSementara)) {
+            assertEquals(List.of(file), isiFolder.toList()); // File sementara sudah dibersihkan
+        }
+    }
+
+    @Test
+    @DisplayName("Ukuran buffer terlalu kecil ditolak")
+    void testUkuranBufferTidakValid() {
+        assertThrows(IllegalArgumentException.class, () -> new EksporKatalog(repository, 100));
+    }
+
+    private static String bacaTeks(ByteBuffer data) {
+        int panjang = data.getInt();
+        byte[] teks = new byte[panjang];
+        data.get(teks);
+        return new String(teks, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,134 @@
+package com.praktikum.whitebox.service;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.RepositoryProduk;
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Test ImporProdukMassal - impor CSV dalam batch")
+class ImporProdukMassalTest {
+
+    @TempDir
+    Path folderSementara;
+
+    private RepositoryProdukInMemory repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new RepositoryProdukInMemory();
+        repository.simpan(new Produk("P001", "Laptop Lama", "Elektronik", 9000000, 1, 1));
+    }
+
+    private Path tulisCsv(String isi) throws IOException {
+        Path file = folderSementara.resolve("produk.csv");
+        Files.write(file, isi.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @Test
+    @DisplayName("Impor CSV dengan header, baris valid, dan berbagai penolakan")
+    void testImporCsvCampuran() throws IOException {
+        Path file = tulisCsv("kode,nama,kategori,harga,stok,stokMinimum\r\n" +
+                "P002,Mouse Wireless,Elektronik,150000,10,2\r\n" +
+                "P003, Kaos Polos , Pakaian ,50000,5,1\n" +
+                "\n" +
+                "P001,Laptop Baru,Elektronik,15000000,3,1\n" +   // Sudah ada di repository
+                "P002,Mouse Lagi,Elektronik,150000,1,1\n" +       // Duplikat di dalam file
+                "P1,Nama Valid,Elektronik,1000,1,1\n" +           // Kode terlalu pendek
+                "P004,Nama Valid,Elektronik,abc,1,1\n" +          // Harga bukan angka
+                "P005,Kolom Kurang,Elektronik,1000\n" +
+                "P006,Stok Negatif,Elektronik,1000,-3,1\n" +
+                "P007,Tanpa Newline,Elektronik,1000,2,1");
+
+        HasilImpor hasil = new ImporProdukMassal(repository, 3).imporCsv(file);
+
+        assertEquals(9, hasil.getJumlahBaris());
+        assertEquals(3, hasil.getJumlahDiterima());
+        assertEquals(6, hasil.getJumlahDitolak());
+        assertEquals("Kaos Polos", repository.cariByKode("P003").get().getNama());
+        assertEquals("Laptop Lama", repository.cariByKode("P001").get().getNama());
+        assertTrue(repository.cariByKode("P007").isPresent());
+
+        Map<Long, HasilImpor.AlasanPenolakan> alasanPerBaris = hasil.getDaftarPenolakan().stream()
+                .collect(Collectors.toMap(HasilImpor.Penolakan::getNomorBaris, HasilImpor.Penolakan::getAlasan));
+        assertEquals(HasilImpor.AlasanPenolakan.KODE_DUPLIKAT, alasanPerBaris.get(5L));
+        assertEquals(HasilImpor.AlasanPenolakan.KODE_DUPLIKAT, alasanPerBaris.get(6L));
+        assertEquals(HasilImpor.AlasanPenolakan.DATA_TIDAK_VALID, alasanPerBaris.get(7L));
+        assertEquals(HasilImpor.AlasanPenolakan.FORMAT_TIDAK_VALID, alasanPerBaris.get(8L));
+        assertEquals(HasilImpor.AlasanPenolakan.FORMAT_TIDAK_VALID, alasanPerBaris.get(9L));
+        assertEquals(HasilImpor.AlasanPenolakan.DATA_TIDAK_VALID, alasanPerBaris.get(10L));
+    }
+
+    @Test
+    @DisplayName("Impor dalam jumlah besar melewati batas buffer dan batch paralel")
+    void testImporBanyakBaris() throws IOException {
+        StringBuilder isi = new StringBuilder();
+        int jumlah = 50_000;
+        for (int i = 0; i < jumlah; i++) {
+            isi.append("BR").append(i).append(",Produk Nomor ").append(i).append(",Umum,")
+               .append(1000 + i).append(',').append(i % 50).append(",5\n");
+        }
+        HasilImpor hasil = new ImporProdukMassal(repository).imporCsv(tulisCsv(isi.toString()));
+
+        assertEquals(jumlah, hasil.getJumlahDiterima());
+        assertEquals(0, hasil.getJumlahDitolak());
+        assertEquals(jumlah + 1, repository.jumlahProduk());
+        assertEquals(49, repository.cariByKode("BR49999").get().getStok());
+    }
+
+    @Test
+    @DisplayName("Baris yang gagal disimpan oleh repository dilaporkan per baris")
+    void testGagalSimpan() throws IOException {
+        RepositoryProduk repositoryGagal = mock(RepositoryProduk.class);
+        when(repositoryGagal.cariSemua()).thenReturn(List.of());
+        when(repositoryGagal.simpanBatch(anyList())).thenReturn(0);
+        when(repositoryGagal.cariByKode("P010")).thenReturn(Optional.empty());
+
+        HasilImpor hasil = new ImporProdukMassal(repositoryGagal)
+                .imporCsv(tulisCsv("P010,Produk Gagal,Umum,1000,1,1\n"));
+
+        assertEquals(0, hasil.getJumlahDiterima());
+        assertEquals(1, hasil.getJumlahDitolak());
+        assertEquals(HasilImpor.AlasanPenolakan.GAGAL_SIMPAN, hasil.getDaftarPenolakan().get(0).getAlasan());
+        assertEquals("P010", hasil.getDaftarPenolakan().get(0).getKode());
+    }
+
+    @Test
+    @DisplayName("Kolom berpadding tab dipangkas seperti String.trim")
+    void testKolomBerpaddingTab() throws IOException {
+        HasilImpor hasil = new ImporProdukMassal(repository).imporCsv(tulisCsv(
+                "\tABC1\t,Produk Tab,\tUmum,1000,\t4,1\n" +
+                "ABC1,Produk Duplikat,Umum,1000,1,1\n"));
+
+        assertEquals(1, hasil.getJumlahDiterima());
+        assertEquals(1, hasil.getJumlahDitolak());
+        assertEquals(HasilImpor.AlasanPenolakan.KODE_DUPLIKAT, hasil.getDaftarPenolakan().get(0).getAlasan());
+        Produk produk = repository.cariByKode("ABC1").orElseThrow();
+        assertEquals("Umum", produk.getKategori());
+        assertEquals(4, produk.getStok());
+    }
+
+    @Test
+    @DisplayName("Ukuran batch tidak positif ditolak")
+    void testUkuranBatchTidakValid() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> new ImporProdukMassal(repository, 0));
+        assertEquals("Ukuran batch harus positif", exception.getMessage());
+    }
+}
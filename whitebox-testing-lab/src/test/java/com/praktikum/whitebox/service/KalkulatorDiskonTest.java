@@ -1,5 +1,7 @@
 package com.praktikum.whitebox.service;
 
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.model.TipePelanggan;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -97,6 +99,136 @@ public class KalkulatorDiskonTest {
         assertEquals(expectedHargaAkhir, hargaSetelahDiskon, 0.001);
     }
 
+    // --- Test overload dengan TipePelanggan ---
+
+    @ParameterizedTest
+    @DisplayName("Test overload TipePelanggan memberi hasil sama dengan jalur String")
+    @CsvSource({
+            "1,   'PREMIUM'",
+            "5,   'reguler'",
+            "10,  'Baru'",
+            "50,  'VIP'",
+            "100, 'PREMIUM'"
+    })
+    void testHitungDiskonTipePelangganSamaDenganString(int kuantitas, String tipePelanggan) {
+        double harga = 1000;
+        double diskonString = kalkulatorDiskon.hitungDiskon(harga, kuantitas, tipePelanggan);
+        double diskonEnum = kalkulatorDiskon.hitungDiskon(harga, kuantitas, TipePelanggan.dari(tipePelanggan));
+        assertEquals(diskonString, diskonEnum, 0.001);
+    }
+
+    @Test
+    @DisplayName("Test overload TipePelanggan - tipe null dan LAINNYA tanpa diskon tambahan")
+    void testHitungDiskonTipePelangganNull() {
+        assertEquals(1000, kalkulatorDiskon.hitungDiskon(1000, 10, (TipePelanggan) null), 0.001);
+        assertEquals(1000, kalkulatorDiskon.hitungDiskon(1000, 10, TipePelanggan.LAINNYA), 0.001);
+    }
+
+    @Test
+    @DisplayName("Test hitung harga setelah diskon dengan TipePelanggan")
+    void testHitungHargaSetelahDiskonTipePelanggan() {
+        double hargaSetelahDiskon = kalkulatorDiskon.hitungHargaSetelahDiskon(1000, 10, TipePelanggan.REGULER);
+        assertEquals(8500, hargaSetelahDiskon, 0.001);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> kalkulatorDiskon.hitungHargaSetelahDiskon(0, 10, TipePelanggan.REGULER));
+    }
+
+    // --- Test hitungHargaSetelahDiskonMassal ---
+
+    @Test
+    @DisplayName("Test perhitungan massal identik dengan perhitungan per baris")
+    void testHitungHargaSetelahDiskonMassal() {
+        double[] harga = {100000, 50000, 0, 25000, 10000};
+        int[] kuantitas = {1, 10, 5, 120, -1};
+        TipePelanggan[] tipe = {TipePelanggan.PREMIUM, null, TipePelanggan.BARU, TipePelanggan.REGULER, TipePelanggan.BARU};
+        double[] hasil = new double[6];
+
+        kalkulatorDiskon.hitungHargaSetelahDiskonMassal(harga, kuantitas, tipe, hasil, 5);
+
+        assertEquals(kalkulatorDiskon.hitungHargaSetelahDiskon(100000, 1, TipePelanggan.PREMIUM), hasil[0]);
+        assertEquals(kalkulatorDiskon.hitungHargaSetelahDiskon(50000, 10, (TipePelanggan) null), hasil[1]);
+        assertTrue(Double.isNaN(hasil[2]), "Harga tidak positif menghasilkan NaN");
+        assertEquals(kalkulatorDiskon.hitungHargaSetelahDiskon(25000, 120, TipePelanggan.REGULER), hasil[3]);
+        assertTrue(Double.isNaN(hasil[4]), "Kuantitas tidak positif menghasilkan NaN");
+        assertEquals(0.0, hasil[5], "Baris di luar jumlah tidak disentuh");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> kalkulatorDiskon.hitungHargaSetelahDiskonMassal(harga, kuantitas, tipe, hasil, 6));
+    }
+
+    // --- Test diskon per kategori ---
+
+    @Test
+    @DisplayName("Test diskon kategori memakai tingkat dan batas kategori, lainnya memakai tingkat bawaan")
+    void testHitungDiskonPerKategori() {
+        TabelDiskonKategori tabel = new TabelDiskonKategori();
+        tabel.aturTingkat("Elektronik", new int[]{3, 20}, new double[]{0.02, 0.08}, 0.12);
+        KalkulatorDiskon kalkulator = new KalkulatorDiskon(tabel);
+
+        // Tingkat kategori: 3 unit = 2% + PREMIUM 10% = 12% (tepat batas)
+        assertEquals(360, kalkulator.hitungDiskon(1000, 3, TipePelanggan.PREMIUM, "elektronik"), 0.0001);
+        // 20 unit = 8% + PREMIUM 10% = 18%, dibatasi 12%
+        assertEquals(2400, kalkulator.hitungDiskon(1000, 20, TipePelanggan.PREMIUM, "ELEKTRONIK"), 0.0001);
+        // Di bawah ambang pertama hanya diskon pelanggan
+        assertEquals(50, kalkulator.hitungDiskon(1000, 1, TipePelanggan.REGULER, "Elektronik"), 0.0001);
+
+        // Kategori lain dan kategori null sama dengan perhitungan tanpa kategori
+        assertEquals(kalkulator.hitungDiskon(1000, 20, TipePelanggan.PREMIUM),
+                kalkulator.hitungDiskon(1000, 20, TipePelanggan.PREMIUM, "Pakaian"));
+        assertEquals(kalkulator.hitungDiskon(1000, 120, TipePelanggan.PREMIUM),
+                kalkulator.hitungDiskon(1000, 120, TipePelanggan.PREMIUM, null));
+
+        Produk laptop = new Produk("P001", "Laptop", "Elektronik", 1000, 50, 5);
+        assertEquals(360, kalkulator.hitungDiskon(laptop, 3, TipePelanggan.PREMIUM), 0.0001);
+        assertThrows(IllegalArgumentException.class,
+                () -> kalkulator.hitungDiskon(null, 3, TipePelanggan.PREMIUM));
+        assertThrows(IllegalArgumentException.class,
+                () -> kalkulator.hitungDiskon(0, 3, TipePelanggan.PREMIUM, "Elektronik"));
+        assertThrows(IllegalArgumentException.class, () -> new KalkulatorDiskon(null));
+
+        // Perubahan tabel langsung terlihat
+        tabel.hapus("Elektronik");
+        assertEquals(kalkulator.hitungDiskon(1000, 20, TipePelanggan.PREMIUM),
+                kalkulator.hitungDiskon(laptop, 20, TipePelanggan.PREMIUM));
+    }
+
+    @Test
+    @DisplayName("Test diskon keranjang sama dengan jumlah diskon per baris")
+    void testHitungDiskonKeranjang() {
+        TabelDiskonKategori tabel = new TabelDiskonKategori();
+        tabel.aturTingkat("Makanan", new int[]{12}, new double[]{0.25});
+        KalkulatorDiskon kalkulator = new KalkulatorDiskon(tabel);
+
+        Produk[] produk = {
+                new Produk("P001", "Laptop", "Elektronik", 15000000, 10, 1),
+                new Produk("P002", "Roti", "Makanan", 12000, 100, 1),
+                new Produk("P003", "Kaos", null, 50000, 10, 1)
+        };
+        int[] kuantitas = {1, 24, 60, 99};
+        double[] diskonPerBaris = new double[4];
+
+        double total = kalkulator.hitungDiskonKeranjang(produk, kuantitas, 3, TipePelanggan.REGULER, diskonPerBaris);
+
+        double totalPerBaris = 0;
+        for (int i = 0; i < 3; i++) {
+            double diskon = kalkulator.hitungDiskon(produk[i], kuantitas[i], TipePelanggan.REGULER);
+            assertEquals(diskon, diskonPerBaris[i]);
+            totalPerBaris += diskon;
+        }
+        assertEquals(totalPerBaris, total, 0.0001);
+        // Roti: 25% + REGULER 5% = 30% dari 288000
+        assertEquals(86400, diskonPerBaris[1], 0.0001);
+        assertEquals(0.0, diskonPerBaris[3], "Baris di luar jumlah tidak disentuh");
+
+        assertEquals(0.0, kalkulator.hitungDiskonKeranjang(produk, kuantitas, 0, TipePelanggan.BARU, diskonPerBaris));
+        assertThrows(IllegalArgumentException.class,
+                () -> kalkulator.hitungDiskonKeranjang(produk, kuantitas, 4, TipePelanggan.BARU, diskonPerBaris));
+        kuantitas[1] = 0;
+        assertThrows(IllegalArgumentException.class,
+                () -> kalkulator.hitungDiskonKeranjang(produk, kuantitas, 3, TipePelanggan.BARU, diskonPerBaris));
+    }
+
     // --- Test getKategoriDiskon ---
 
     @ParameterizedTest
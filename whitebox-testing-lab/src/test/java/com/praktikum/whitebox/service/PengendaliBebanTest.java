@@ -0,0 +1,178 @@
+package com.praktikum.whitebox.service;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import com.praktikum.whitebox.service.PengendaliBeban.Jalur;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test PengendaliBeban - admission control AIMD per jalur prioritas")
+class PengendaliBebanTest {
+
+    private static final long CEPAT = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long LAMBAT = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    @DisplayName("Konstruktor menolak konfigurasi tidak valid")
+    void testKonfigurasiTidakValid() {
+        assertThrows(IllegalArgumentException.class, () -> new PengendaliBeban(0, 10, 1, 20));
+        assertThrows(IllegalArgumentException.class, () -> new PengendaliBeban(10, 10, 0, 20));
+        assertThrows(IllegalArgumentException.class, () -> new PengendaliBeban(10, 1, 2, 20));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new PengendaliBeban(10, 30, 1, 20));
+        assertEquals("Batas harus memenuhi 1 <= minimum <= awal <= maksimum", e.getMessage());
+        assertEquals(20, new PengendaliBeban().getBatas(Jalur.TULIS));
+    }
+
+    @Test
+    @DisplayName("Permintaan di atas batas langsung ditolak, per jalur terpisah")
+    void testPenolakanPerJalur() {
+        PengendaliBeban pengendali = new PengendaliBeban(100, 2, 1, 10);
+        assertTrue(pengendali.izinkan(Jalur.BACA));
+        assertTrue(pengendali.izinkan(Jalur.BACA));
+        assertFalse(pengendali.izinkan(Jalur.BACA));
+        assertEquals(1, pengendali.getJumlahDitolak(Jalur.BACA));
+        assertEquals(2, pengendali.getSedangBerjalan(Jalur.BACA));
+
+        // Jalur lain tidak terpengaruh jalur baca yang penuh
+        assertTrue(pengendali.izinkan(Jalur.TULIS));
+        assertTrue(pengendali.izinkan(Jalur.LAPORAN));
+        assertEquals(0, pengendali.getJumlahDitolak(Jalur.TULIS));
+
+        pengendali.selesai(Jalur.BACA, CEPAT);
+        assertTrue(pengendali.izinkan(Jalur.BACA));
+    }
+
+    @Test
+    @DisplayName("Latensi rendah menaikkan batas sedikit demi sedikit sampai maksimum")
+    void testPenambahanAditif() {
+        PengendaliBeban pengendali = new PengendaliBeban(100, 4, 1, 6);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(pengendali.izinkan(Jalur.TULIS));
+            pengendali.selesai(Jalur.TULIS, CEPAT);
+        }
+        assertEquals(4, pengendali.getBatas(Jalur.TULIS)); // 4 + 4 * ~0.24 < 5
+        for (int i = 0; i < 100; i++) {
+            pengendali.izinkan(Jalur.TULIS);
+            pengendali.selesai(Jalur.TULIS, CEPAT);
+        }
+        assertEquals(6, pengendali.getBatas(Jalur.TULIS));
+        assertEquals(0, pengendali.getSedangBerjalan(Jalur.TULIS));
+    }
+
+    @Test
+    @DisplayName("Latensi tinggi memotong batas setengah, sekali per gelombang, tidak di bawah minimum")
+    void testPenurunanMultiplikatif() {
+        PengendaliBeban pengendali = new PengendaliBeban(100, 16, 2, 16);
+        for (int i = 0; i < 16; i++) {
+            assertTrue(pengendali.izinkan(Jalur.TULIS));
+        }
+        for (int i = 0; i < 16; i++) {
+            pengendali.selesai(Jalur.TULIS, LAMBAT);
+        }
+        // Satu gelombang 16 operasi lambat hanya menurunkan sekali
+        assertEquals(8, pengendali.getBatas(Jalur.TULIS));
+
+        for (int i = 0; i < 100; i++) {
+            pengendali.izinkan(Jalur.TULIS);
+            pengendali.selesai(Jalur.TULIS, LAMBAT);
+        }
+        assertEquals(2, pengendali.getBatas(Jalur.TULIS));
+        assertEquals(16, pengendali.getBatas(Jalur.BACA));
+    }
+
+    @Test
+    @DisplayName("Service menolak mutasi saat jalur tulis penuh, baca dan laporan tetap jalan")
+    void testServiceDenganRepositoryLambat() throws Exception {
+        CountDownLatch masukUpdate = new CountDownLatch(1);
+        CountDownLatch lepas = new CountDownLatch(1);
+        RepositoryProdukInMemory repository = new RepositoryProdukInMemory() {
+            @Override
+            public boolean updateStok(String kode, int stokBaru) {
+                masukUpdate.countDown();
+                try {
+                    lepas.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.updateStok(kode, stokBaru);
+            }
+        };
+        repository.simpan(new Produk("P001", "Laptop", "Elektronik", 1000, 10, 2));
+        ServiceInventaris service = new ServiceInventaris(repository);
+        PengendaliBeban pengendali = new PengendaliBeban(100, 1, 1, 1);
+        service.setPengendaliBeban(pengendali);
+        assertSame(pengendali, service.getPengendaliBeban());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<StatusOperasi> tertahan = executor.submit(() -> service.keluarStokStatus("P001", 1));
+            assertTrue(masukUpdate.await(5, TimeUnit.SECONDS));
+
+            assertEquals(StatusOperasi.DITOLAK_BEBAN, service.keluarStokStatus("P001", 1));
+            assertEquals(StatusOperasi.DITOLAK_BEBAN, service.masukStokStatus("P001", 1));
+            assertEquals(StatusOperasi.DITOLAK_BEBAN, service.updateStokStatus("P001", 1));
+            assertEquals(StatusOperasi.DITOLAK_BEBAN, service.hapusProdukStatus("P001"));
+            assertEquals(StatusOperasi.DITOLAK_BEBAN,
+                    service.tambahProdukStatus(new Produk("P002", "Mouse", "Elektronik", 100, 1, 1)));
+            assertFalse(service.keluarStok("P001", 1));
+            assertEquals(6, service.getJumlahStatus(StatusOperasi.DITOLAK_BEBAN));
+
+            assertTrue(service.cariProdukByKode("P001").isPresent());
+            assertEquals(1, service.cariProdukByNama("Laptop").size());
+            assertEquals(1, service.cariProdukByKategori("Elektronik").size());
+            assertEquals(10, service.hitungTotalStok());
+            assertEquals(10000, service.hitungTotalNilaiInventaris(), 0.001);
+            assertTrue(service.getProdukStokMenipis().isEmpty());
+            assertTrue(service.getProdukStokHabis().isEmpty());
+
+            lepas.countDown();
+            assertEquals(StatusOperasi.BERHASIL, tertahan.get(5, TimeUnit.SECONDS));
+        } finally {
+            lepas.countDown();
+            executor.shutdownNow();
+        }
+        assertEquals(0, pengendali.getSedangBerjalan(Jalur.TULIS));
+        assertEquals(StatusOperasi.BERHASIL, service.masukStokStatus("P001", 1));
+        assertEquals(10, repository.cariByKode("P001").get().getStok());
+    }
+
+    @Test
+    @DisplayName("Pencarian dan laporan yang melebihi batas melempar IllegalStateException")
+    void testBacaDitolak() {
+        RepositoryProdukInMemory repository = new RepositoryProdukInMemory();
+        repository.simpan(new Produk("P001", "Laptop", "Elektronik", 5000000, 3, 5));
+        ServiceInventaris service = new ServiceInventaris(repository);
+        PengendaliBeban pengendali = new PengendaliBeban(100, 1, 1, 1);
+        service.setPengendaliBeban(pengendali);
+        assertTrue(pengendali.izinkan(Jalur.BACA));
+        assertTrue(pengendali.izinkan(Jalur.LAPORAN));
+
+        // Penolakan tidak melempar: hasil kosong atau nilai penanda sesuai kontrak metode
+        assertTrue(service.cariProdukByKode("P001").isEmpty());
+        assertTrue(service.cariProdukByNama("Laptop").isEmpty());
+        assertTrue(service.cariProdukByKategori("Elektronik").isEmpty());
+        assertEquals(-1, service.hitungTotalStok());
+        assertTrue(Double.isNaN(service.hitungTotalNilaiInventaris()));
+        assertTrue(service.getProdukStokMenipis().isEmpty());
+        assertTrue(service.getProdukStokHabis().isEmpty());
+        assertEquals(3, pengendali.getJumlahDitolak(Jalur.BACA));
+        assertEquals(4, pengendali.getJumlahDitolak(Jalur.LAPORAN));
+        assertEquals(StatusOperasi.TIDAK_DITEMUKAN, service.keluarStokStatus("P999", 1));
+
+        // Pembacaan internal komponen di atas service tidak melewati pengendali beban
+        assertTrue(service.cariProdukPrimer("P001").isPresent());
+        assertEquals(3, pengendali.getJumlahDitolak(Jalur.BACA));
+
+        service.setPengendaliBeban(null);
+        assertTrue(service.cariProdukByKode("P001").isPresent());
+    }
+}
@@ -0,0 +1,102 @@
+package com.praktikum.whitebox.service;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test PenggabungStok - flat combining keluar/masuk stok pada SKU populer")
+class PenggabungStokTest {
+
+    private RepositoryProdukInMemory repository;
+    private ServiceInventaris service;
+
+    @BeforeEach
+    void setUp() {
+        repository = new RepositoryProdukInMemory();
+        repository.simpan(new Produk("P001", "Laptop", "Elektronik", 1000, 10, 2));
+        Produk nonaktif = new Produk("P002", "Mouse", "Elektronik", 100, 10, 2);
+        nonaktif.setAktif(false);
+        repository.simpan(nonaktif);
+        service = new ServiceInventaris(repository);
+        service.aktifkanPenggabunganStok();
+        service.aktifkanPenggabunganStok(); // Tidak membuat penggabung kedua
+    }
+
+    @Test
+    @DisplayName("Status sama dengan jalur biasa untuk pemanggilan tunggal")
+    void testStatusTunggal() {
+        AtomicInteger dikeluarkan = new AtomicInteger();
+        service.tambahPendengarKeluarStok((kode, jumlah) -> dikeluarkan.addAndGet(jumlah));
+
+        assertEquals(StatusOperasi.BERHASIL, service.keluarStokStatus("P001", 4));
+        assertEquals(StatusOperasi.STOK_TIDAK_CUKUP, service.keluarStokStatus("P001", 7));
+        assertEquals(StatusOperasi.BERHASIL, service.masukStokStatus("P001", 1));
+        assertEquals(7, repository.cariByKode("P001").get().getStok());
+        assertEquals(StatusOperasi.TIDAK_DITEMUKAN, service.keluarStokStatus("P999", 1));
+        assertEquals(StatusOperasi.TIDAK_DITEMUKAN, service.masukStokStatus("P999", 1));
+        assertEquals(StatusOperasi.TIDAK_AKTIF, service.keluarStokStatus("P002", 1));
+        assertEquals(StatusOperasi.TIDAK_AKTIF, service.masukStokStatus("P002", 1));
+        assertEquals(StatusOperasi.JUMLAH_TIDAK_VALID, service.keluarStokStatus("P001", 0));
+        assertEquals(StatusOperasi.KODE_TIDAK_VALID, service.masukStokStatus("P-1", 1));
+        assertEquals(4, dikeluarkan.get(), "Pendengar hanya dipanggil untuk keluar yang berhasil");
+        assertEquals(7, service.getPenggabungStok().getJumlahPermintaan());
+    }
+
+    @Test
+    @DisplayName("Banyak thread pada satu SKU: tidak ada stok hilang, negatif, atau keputusan ganda")
+    void testSatuSkuBanyakThread() throws Exception {
+        repository.updateStok("P001", 5_000);
+        int jumlahThread = 8;
+        int perThread = 2_000;
+        AtomicInteger diterima = new AtomicInteger();
+        AtomicInteger ditolak = new AtomicInteger();
+        AtomicInteger masuk = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(jumlahThread);
+        List<Future<?>> tugas = new ArrayList<>();
+        for (int t = 0; t < jumlahThread; t++) {
+            int nomor = t;
+            tugas.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    if (nomor == 0 && i % 4 == 0) {
+                        assertTrue(service.masukStok("P001", 2));
+                        masuk.addAndGet(2);
+                        continue;
+                    }
+                    StatusOperasi status = service.keluarStokStatus("P001", 1);
+                    if (status == StatusOperasi.BERHASIL) {
+                        diterima.incrementAndGet();
+                    } else {
+                        assertEquals(StatusOperasi.STOK_TIDAK_CUKUP, status);
+                        ditolak.incrementAndGet();
+                    }
+                    assertTrue(repository.cariByKode("P001").get().getStok() >= 0);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : tugas) {
+            f.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int stokAkhir = repository.cariByKode("P001").get().getStok();
+        assertEquals(5_000 + masuk.get() - diterima.get(), stokAkhir);
+        assertEquals(jumlahThread * perThread - perThread / 4, diterima.get() + ditolak.get());
+        assertTrue(ditolak.get() > 0, "Stok habis di tengah jalan sehingga ada yang ditolak");
+        PenggabungStok penggabung = service.getPenggabungStok();
+        assertEquals(jumlahThread * perThread, penggabung.getJumlahPermintaan());
+        assertTrue(penggabung.getJumlahPenulisan() <= penggabung.getJumlahPermintaan());
+    }
+}
@@ -0,0 +1,118 @@
+package com.praktikum.whitebox.service;
+
+import com.praktikum.whitebox.model.TipePelanggan;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test PenghitungHargaBatch - penggabungan permintaan menjadi micro-batch")
+class PenghitungHargaBatchTest {
+
+    private final KalkulatorDiskon kalkulatorDiskon = new KalkulatorDiskon();
+    private PenghitungHargaBatch penghitung;
+
+    @AfterEach
+    void tearDown() {
+        if (penghitung != null) {
+            penghitung.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Hasil sama dengan KalkulatorDiskon untuk banyak pemanggil bersamaan")
+    void testHasilSamaDenganPerhitunganLangsung() throws Exception {
+        penghitung = new PenghitungHargaBatch(kalkulatorDiskon);
+        TipePelanggan[] semuaTipe = TipePelanggan.values();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> tugas = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int benih = t;
+            tugas.add(executor.submit(() -> {
+                for (int i = 1; i <= 500; i++) {
+                    double harga = 1000.0 * (benih + 1) + i;
+                    int kuantitas = (i * 7 + benih) % 150 + 1;
+                    TipePelanggan tipe = semuaTipe[i % semuaTipe.length];
+                    double hasil = penghitung.hitungHargaSetelahDiskon(harga, kuantitas, tipe).get(5, TimeUnit.SECONDS);
+                    assertEquals(kalkulatorDiskon.hitungHargaSetelahDiskon(harga, kuantitas, tipe), hasil);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : tugas) {
+            f.get(20, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertEquals(4_000, penghitung.getJumlahPermintaan());
+    }
+
+    @Test
+    @DisplayName("Permintaan bersamaan digabung menjadi batch yang lebih sedikit")
+    void testPenggabungan() throws Exception {
+        // Jendela tunggu lebar agar semua permintaan pasti masuk sedikit batch
+        penghitung = new PenghitungHargaBatch(kalkulatorDiskon, 64, TimeUnit.MILLISECONDS.toNanos(200));
+        CountDownLatch mulai = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<CompletableFuture<Double>>> hasil = new ArrayList<>();
+        for (int i = 0; i < 128; i++) {
+            hasil.add(executor.submit(() -> {
+                mulai.await();
+                return penghitung.hitungHargaSetelahDiskon(10000, 10, TipePelanggan.PREMIUM);
+            }));
+        }
+        mulai.countDown();
+        for (Future<CompletableFuture<Double>> f : hasil) {
+            assertEquals(80000.0, f.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        assertEquals(128, penghitung.getJumlahPermintaan());
+        assertTrue(penghitung.getJumlahBatch() < 128, "Batch: " + penghitung.getJumlahBatch());
+    }
+
+    @Test
+    @DisplayName("Input tidak valid langsung gagal dengan IllegalArgumentException")
+    void testInputTidakValid() {
+        penghitung = new PenghitungHargaBatch(kalkulatorDiskon);
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> penghitung.hitungHargaSetelahDiskon(0, 1, TipePelanggan.BARU).get());
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+        assertEquals("Harga dan kuantitas harus positif", exception.getCause().getMessage());
+        assertThrows(ExecutionException.class, () -> penghitung.hitungHargaSetelahDiskon(100, -1, null).get());
+    }
+
+    @Test
+    @DisplayName("Permintaan yang mengantre tetap dihitung saat ditutup, permintaan baru ditolak")
+    void testTutup() throws Exception {
+        penghitung = new PenghitungHargaBatch(kalkulatorDiskon, 1024, TimeUnit.SECONDS.toNanos(10));
+        List<CompletableFuture<Double>> hasil = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            hasil.add(penghitung.hitungHargaSetelahDiskon(1000, 1, null));
+        }
+        penghitung.close();
+        penghitung.close(); // Menutup dua kali tidak error
+        for (CompletableFuture<Double> f : hasil) {
+            assertEquals(1000.0, f.get(1, TimeUnit.SECONDS));
+        }
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> penghitung.hitungHargaSetelahDiskon(1000, 1, null).get());
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+    }
+
+    @Test
+    @DisplayName("Konfigurasi tidak valid ditolak")
+    void testKonfigurasiTidakValid() {
+        assertThrows(IllegalArgumentException.class, () -> new PenghitungHargaBatch(kalkulatorDiskon, 0, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new PenghitungHargaBatch(kalkulatorDiskon, 16, -1));
+    }
+}
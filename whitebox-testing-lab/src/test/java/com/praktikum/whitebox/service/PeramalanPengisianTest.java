@@ -0,0 +1,159 @@
+package com.praktikum.whitebox.service;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test PeramalanPengisian - laju permintaan dan saran pesan ulang")
+class PeramalanPengisianTest {
+
+    private static final long JAM = 60L * 60 * 1000;
+    private static final long HARI = PeramalanPengisian.MILLIS_PER_HARI;
+
+    private RepositoryProdukInMemory repository;
+    private AtomicLong jam;
+    private PeramalanPengisian peramalan;
+
+    @BeforeEach
+    void setUp() {
+        repository = new RepositoryProdukInMemory();
+        repository.simpan(new Produk("P001", "Laptop Gaming", "Elektronik", 15000000, 500, 5));
+        repository.simpan(new Produk("P002", "Mouse Wireless", "Elektronik", 150000, 50, 5));
+        jam = new AtomicLong(1_000_000);
+        // tau 7 hari, waktu tunggu 3 hari, periode tinjauan 7 hari, 2 hari pengaman
+        peramalan = new PeramalanPengisian(repository, jam::get, 7 * HARI, 3, 7, 2);
+    }
+
+    /**
+     * Satu unit keluar setiap jam selama beberapa hari: permintaan 24 unit per hari.
+     */
+    private void permintaanStabil(String kode, int jumlahHari) {
+        for (int i = 0; i < jumlahHari * 24; i++) {
+            jam.addAndGet(JAM);
+            peramalan.catatKeluar(kode, 1);
+        }
+    }
+
+    @Test
+    @DisplayName("Laju permintaan stabil terestimasi mendekati nilai sebenarnya")
+    void testLajuStabil() {
+        assertEquals(0, peramalan.getLajuHarian("P001"));
+        permintaanStabil("P001", 42); // 6 x tau
+        double laju = peramalan.getLajuHarian("P001");
+        assertTrue(laju > 23 && laju < 25, "Laju: " + laju);
+        assertEquals(0, peramalan.getLajuHarian("P002"));
+    }
+
+    @Test
+    @DisplayName("Permintaan lama meluruh secara eksponensial")
+    void testPeluruhan() {
+        permintaanStabil("P001", 42);
+        double laju = peramalan.getLajuHarian("P001");
+        jam.addAndGet(14 * HARI); // 2 x tau tanpa permintaan
+        assertEquals(laju * Math.exp(-2), peramalan.getLajuHarian("P001"), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Saran pesan ulang mengikuti laju dan stok terkini")
+    void testSaran() {
+        permintaanStabil("P002", 42);
+        double laju = peramalan.getLajuHarian("P002");
+        int titik = (int) Math.ceil(laju * 5);   // Waktu tunggu + pengaman
+        int sasaran = (int) Math.ceil(laju * 12); // + periode tinjauan
+
+        PeramalanPengisian.SaranPengisian saran = peramalan.saran("P002").get();
+        assertEquals(titik, saran.getTitikPesanUlang());
+        assertEquals(50, saran.getStok());
+        assertTrue(saran.isPerluPesan()); // 50 <= ~120
+        assertEquals(sasaran - 50, saran.getJumlahPesan());
+        assertEquals(List.of("P002"), peramalan.daftarPerluPesan().stream()
+                .map(PeramalanPengisian.SaranPengisian::getKode).toList());
+
+        repository.updateStok("P002", 1000);
+        assertFalse(peramalan.saran("P002").get().isPerluPesan());
+        assertEquals(0, peramalan.saran("P002").get().getJumlahPesan());
+
+        // Produk tanpa permintaan tidak perlu dipesan; produk tidak dikenal tidak ada saran
+        assertFalse(peramalan.saran("P001").get().isPerluPesan());
+        assertTrue(peramalan.saran("P999").isEmpty());
+        assertTrue(peramalan.saran(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("stokMinimum diperbarui otomatis jika diaktifkan")
+    void testOtomatisStokMinimum() {
+        permintaanStabil("P001", 7);
+        assertEquals(5, repository.cariByKode("P001").get().getStokMinimum());
+
+        peramalan.setOtomatisStokMinimum(true);
+        permintaanStabil("P001", 1);
+        int titik = peramalan.saran("P001").get().getTitikPesanUlang();
+        assertEquals(titik, repository.cariByKode("P001").get().getStokMinimum());
+        assertTrue(titik > 5);
+    }
+
+    @Test
+    @DisplayName("Pengeluaran stok lewat ServiceInventaris tercatat otomatis")
+    void testPendengarServiceInventaris() {
+        ServiceInventaris service = new ServiceInventaris(repository);
+        service.tambahPendengarKeluarStok(peramalan::catatKeluar);
+
+        assertTrue(service.keluarStok("P001", 7));
+        assertFalse(service.keluarStok("P001", 10_000)); // Gagal, tidak tercatat
+        assertEquals(7.0 / 7, peramalan.getLajuHarian("P001"), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> service.tambahPendengarKeluarStok(null));
+    }
+
+    @Test
+    @DisplayName("Banyak kode melewati batas satu blok array")
+    void testBanyakKode() {
+        for (int i = 0; i < 3_000; i++) {
+            peramalan.catatKeluar("K" + i, i + 1);
+        }
+        for (int i = 0; i < 3_000; i += 499) {
+            assertEquals((i + 1) / 7.0, peramalan.getLajuHarian("K" + i), 1e-9);
+        }
+        peramalan.catatKeluar("P001", 0);
+        peramalan.catatKeluar(null, 5);
+        assertEquals(0, peramalan.getLajuHarian("P001"));
+        assertEquals(0, peramalan.getLajuHarian(null));
+    }
+
+    @Test
+    @DisplayName("Pencatatan bersamaan tidak kehilangan pembaruan")
+    void testKonkuren() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    peramalan.catatKeluar("P001", 1);
+                    peramalan.catatKeluar("K" + (i % 100), 1);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        // Jam tidak bergerak, jadi tidak ada peluruhan: jumlah terluruh = total unit
+        assertEquals(40_000 / 7.0, peramalan.getLajuHarian("P001"), 1e-6);
+        assertEquals(400 / 7.0, peramalan.getLajuHarian("K42"), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Konfigurasi tidak valid ditolak")
+    void testKonfigurasiTidakValid() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PeramalanPengisian(repository, jam::get, 0, 3, 7, 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PeramalanPengisian(repository, jam::get, HARI, -1, 7, 2));
+    }
+}
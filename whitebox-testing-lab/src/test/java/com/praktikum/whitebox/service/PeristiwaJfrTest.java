@@ -0,0 +1,109 @@
+package com.praktikum.whitebox.service;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.model.TipePelanggan;
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test event JFR untuk mutasi stok dan diskon massal")
+class PeristiwaJfrTest {
+
+    private static final String MUTASI_STOK = "com.praktikum.whitebox.MutasiStok";
+    private static final String DISKON_MASSAL = "com.praktikum.whitebox.DiskonMassal";
+
+    @TempDir
+    Path folder;
+
+    private ServiceInventaris service;
+
+    @BeforeEach
+    void setUp() {
+        RepositoryProdukInMemory repository = new RepositoryProdukInMemory();
+        repository.simpan(new Produk("JFR01", "Laptop", "Elektronik", 1000, 10, 2));
+        service = new ServiceInventaris(repository);
+    }
+
+    @Test
+    @DisplayName("Setiap mutasi stok dicatat dengan jenis, kode, jumlah, hasil, dan durasi")
+    void testMutasiStokDicatat() throws IOException {
+        List<RecordedEvent> events;
+        try (Recording rekaman = new Recording()) {
+            rekaman.enable(MUTASI_STOK).withoutThreshold();
+            rekaman.start();
+            service.keluarStokStatus("JFR01", 3);
+            service.keluarStokStatus("JFR01", 100);
+            service.masukStokStatus("JFR01", 5);
+            service.updateStokStatus("JFR01", 20);
+            service.keluarStokStatus("JFR99", 1);
+            rekaman.stop();
+            events = baca(rekaman, MUTASI_STOK);
+        }
+
+        assertEquals(5, events.size());
+        assertEvent(events.get(0), "KELUAR", "JFR01", 3, "BERHASIL");
+        assertEvent(events.get(1), "KELUAR", "JFR01", 100, "STOK_TIDAK_CUKUP");
+        assertEvent(events.get(2), "MASUK", "JFR01", 5, "BERHASIL");
+        assertEvent(events.get(3), "UPDATE", "JFR01", 20, "BERHASIL");
+        assertEvent(events.get(4), "KELUAR", "JFR99", 1, "TIDAK_DITEMUKAN");
+        assertFalse(events.get(0).getDuration().isNegative());
+    }
+
+    @Test
+    @DisplayName("Event yang tidak diaktifkan tidak dicatat, event lain tetap dicatat")
+    void testAktifPerJenisEvent() throws IOException {
+        KalkulatorDiskon kalkulator = new KalkulatorDiskon();
+        List<RecordedEvent> mutasi;
+        List<RecordedEvent> diskon;
+        try (Recording rekaman = new Recording()) {
+            rekaman.enable(DISKON_MASSAL).withoutThreshold();
+            rekaman.disable(MUTASI_STOK);
+            rekaman.start();
+            service.keluarStokStatus("JFR01", 1);
+            double[] hasil = new double[2];
+            kalkulator.hitungHargaSetelahDiskonMassal(new double[]{100, 200}, new int[]{1, 10},
+                    new TipePelanggan[]{TipePelanggan.REGULER, TipePelanggan.PREMIUM}, hasil, 2);
+            kalkulator.hitungDiskonKeranjang(new Produk[]{new Produk("JFR02", "Mouse", "Elektronik", 50, 5, 1)},
+                    new int[]{2}, 1, TipePelanggan.REGULER, new double[1]);
+            rekaman.stop();
+            mutasi = baca(rekaman, MUTASI_STOK);
+            diskon = baca(rekaman, DISKON_MASSAL);
+        }
+
+        assertTrue(mutasi.isEmpty());
+        assertEquals(2, diskon.size());
+        assertEquals("MASSAL", diskon.get(0).getString("jenis"));
+        assertEquals(2, diskon.get(0).getInt("jumlahBaris"));
+        assertEquals("KERANJANG", diskon.get(1).getString("jenis"));
+        assertEquals(1, diskon.get(1).getInt("jumlahBaris"));
+        assertEquals(9, service.cariProdukByKode("JFR01").get().getStok()); // Operasi tetap jalan
+    }
+
+    private List<RecordedEvent> baca(Recording rekaman, String nama) throws IOException {
+        Path berkas = folder.resolve(nama + ".jfr");
+        rekaman.dump(berkas);
+        return RecordingFile.readAllEvents(berkas).stream()
+                .filter(e -> e.getEventType().getName().equals(nama))
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                .collect(Collectors.toList());
+    }
+
+    private static void assertEvent(RecordedEvent event, String jenis, String kode, int jumlah, String hasil) {
+        assertEquals(jenis, event.getString("jenis"));
+        assertEquals(kode, event.getString("kode"));
+        assertEquals(jumlah, event.getInt("jumlah"));
+        assertEquals(hasil, event.getString("hasil"));
+    }
+}
@@ -0,0 +1,225 @@
+package com.praktikum.whitebox.service;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test ReservasiStok - tahanan stok dengan TTL")
+class ReservasiStokTest {
+
+    private RepositoryProdukInMemory repository;
+    private ServiceInventaris serviceInventaris;
+    private AtomicLong jam;
+    private ReservasiStok reservasiStok;
+
+    @BeforeEach
+    void setUp() {
+        repository = new RepositoryProdukInMemory();
+        repository.simpan(new Produk("P001", "Laptop Gaming", "Elektronik", 15000000, 10, 2));
+        serviceInventaris = new ServiceInventaris(repository);
+        jam = new AtomicLong(1_000_000);
+        reservasiStok = new ReservasiStok(serviceInventaris, jam::get, 100, 8);
+    }
+
+    @Test
+    @DisplayName("Reservasi mengurangi stok tersedia tanpa mengubah stok repository")
+    void testReservasiDanStokTersedia() {
+        Optional<ReservasiStok.Reservasi> reservasi = reservasiStok.reservasi("P001", 4, 5_000);
+        assertTrue(reservasi.isPresent());
+        assertEquals("P001", reservasi.get().getKode());
+        assertEquals(4, reservasi.get().getJumlah());
+        assertEquals(1_005_000, reservasi.get().getKedaluwarsaMillis());
+
+        assertEquals(6, reservasiStok.stokTersedia("P001"));
+        assertEquals(4, reservasiStok.jumlahDitahan("P001"));
+        assertEquals(10, repository.cariByKode("P001").get().getStok());
+
+        // Sisa stok tersedia hanya 6
+        assertTrue(reservasiStok.reservasi("P001", 7, 5_000).isEmpty());
+        assertTrue(reservasiStok.reservasi("P001", 6, 5_000).isPresent());
+        assertEquals(0, reservasiStok.stokTersedia("P001"));
+    }
+
+    @Test
+    @DisplayName("Reservasi ditolak untuk parameter tidak valid, produk tidak ada, atau tidak aktif")
+    void testReservasiDitolak() {
+        assertTrue(reservasiStok.reservasi("P001", 0, 1000).isEmpty());
+        assertTrue(reservasiStok.reservasi("P001", 1, 0).isEmpty());
+        assertTrue(reservasiStok.reservasi("P999", 1, 1000).isEmpty());
+
+        repository.cariByKode("P001").get().setAktif(false);
+        assertTrue(reservasiStok.reservasi("P001", 1, 1000).isEmpty());
+        assertEquals(0, reservasiStok.stokTersedia("P999"));
+        assertEquals(0, reservasiStok.jumlahDitahan("P999"));
+    }
+
+    @Test
+    @DisplayName("Konfirmasi mengeluarkan stok dan melepas tahanan tepat sekali")
+    void testKonfirmasi() {
+        long id = reservasiStok.reservasi("P001", 3, 5_000).get().getId();
+
+        assertEquals(StatusOperasi.BERHASIL, reservasiStok.konfirmasi(id));
+        assertEquals(7, repository.cariByKode("P001").get().getStok());
+        assertEquals(0, reservasiStok.jumlahDitahan("P001"));
+        assertEquals(7, reservasiStok.stokTersedia("P001"));
+
+        assertEquals(StatusOperasi.TIDAK_DITEMUKAN, reservasiStok.konfirmasi(id));
+        assertFalse(reservasiStok.lepas(id));
+    }
+
+    @Test
+    @DisplayName("Konfirmasi setelah TTL habis ditolak meskipun penyapu belum berjalan")
+    void testKonfirmasiKedaluwarsaSebelumDisapu() {
+        long id = reservasiStok.reservasi("P001", 3, 250).get().getId();
+        jam.addAndGet(250);
+
+        assertEquals(StatusOperasi.TIDAK_DITEMUKAN, reservasiStok.konfirmasi(id));
+        assertEquals(10, repository.cariByKode("P001").get().getStok());
+        assertEquals(0, reservasiStok.jumlahDitahan("P001"));
+        assertEquals(0, reservasiStok.jumlahReservasiAktif());
+        jam.addAndGet(1_000);
+        assertEquals(0, reservasiStok.sapu()); // Tahanan tidak dilepas dua kali
+        assertEquals(10, reservasiStok.stokTersedia("P001"));
+    }
+
+    @Test
+    @DisplayName("Lepas mengembalikan stok tersedia")
+    void testLepas() {
+        long id = reservasiStok.reservasi("P001", 5, 5_000).get().getId();
+        assertTrue(reservasiStok.lepas(id));
+        assertEquals(10, reservasiStok.stokTersedia("P001"));
+        assertEquals(0, reservasiStok.jumlahReservasiAktif());
+    }
+
+    @Test
+    @DisplayName("Penyapu timer wheel melepas tahanan kedaluwarsa, termasuk TTL lebih dari satu putaran")
+    void testSapuKedaluwarsa() {
+        long idPendek = reservasiStok.reservasi("P001", 2, 250).get().getId();
+        long idPanjang = reservasiStok.reservasi("P001", 3, 2_000).get().getId(); // > 8 slot x 100 ms
+
+        jam.addAndGet(200);
+        assertEquals(0, reservasiStok.sapu()); // Belum kedaluwarsa
+
+        jam.addAndGet(200);
+        assertEquals(1, reservasiStok.sapu());
+        assertEquals(StatusOperasi.TIDAK_DITEMUKAN, reservasiStok.konfirmasi(idPendek));
+        assertEquals(3, reservasiStok.jumlahDitahan("P001"));
+
+        jam.addAndGet(1_000);
+        assertEquals(0, reservasiStok.sapu()); // Sudah satu putaran, tetapi TTL belum habis
+
+        jam.addAndGet(1_000);
+        assertEquals(1, reservasiStok.sapu());
+        assertFalse(reservasiStok.lepas(idPanjang));
+        assertEquals(10, reservasiStok.stokTersedia("P001"));
+    }
+
+    @Test
+    @DisplayName("Penyapu mengabaikan reservasi yang sudah dikonfirmasi")
+    void testSapuSetelahKonfirmasi() {
+        long id = reservasiStok.reservasi("P001", 2, 150).get().getId();
+        reservasiStok.konfirmasi(id);
+        jam.addAndGet(10_000);
+        assertEquals(0, reservasiStok.sapu());
+        assertEquals(8, reservasiStok.stokTersedia("P001"));
+    }
+
+    @Test
+    @DisplayName("Reservasi bersamaan tidak pernah melebihi stok")
+    void testReservasiKonkuren() throws InterruptedException {
+        repository.updateStok("P001", 1_000);
+        int jumlahThread = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(jumlahThread);
+        CountDownLatch mulai = new CountDownLatch(1);
+        AtomicInteger berhasil = new AtomicInteger();
+        for (int t = 0; t < jumlahThread; t++) {
+            executor.submit(() -> {
+                mulai.await();
+                for (int i = 0; i < 500; i++) {
+                    if (reservasiStok.reservasi("P001", 1, 60_000).isPresent()) {
+                        berhasil.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        mulai.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1_000, berhasil.get());
+        assertEquals(1_000, reservasiStok.jumlahDitahan("P001"));
+        assertEquals(0, reservasiStok.stokTersedia("P001"));
+    }
+
+    @Test
+    @DisplayName("Penyapu otomatis berjalan di latar belakang")
+    void testPenyapuOtomatis() throws InterruptedException {
+        try (ReservasiStok otomatis = new ReservasiStok(serviceInventaris, System::currentTimeMillis, 10, 64)) {
+            otomatis.mulai();
+            otomatis.mulai(); // Pemanggilan kedua diabaikan
+            otomatis.reservasi("P001", 5, 30);
+            long batas = System.currentTimeMillis() + 5_000;
+            while (otomatis.jumlahReservasiAktif() > 0 && System.currentTimeMillis() < batas) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, otomatis.jumlahReservasiAktif());
+            assertEquals(10, otomatis.stokTersedia("P001"));
+        }
+    }
+
+    @Test
+    @DisplayName("Stok yang ditahan tidak bisa dipakai keluarStok biasa")
+    void testTahananMengikatKeluarStok() {
+        ReservasiStok.Reservasi reservasi = reservasiStok.reservasi("P001", 6, 5_000).orElseThrow();
+
+        assertEquals(StatusOperasi.STOK_TIDAK_CUKUP, serviceInventaris.keluarStokStatus("P001", 5));
+        assertEquals(StatusOperasi.BERHASIL, serviceInventaris.keluarStokStatus("P001", 4));
+        assertEquals(StatusOperasi.BERHASIL, reservasiStok.konfirmasi(reservasi.getId()));
+        assertEquals(0, repository.cariByKode("P001").get().getStok());
+
+        // Counter dibuang begitu tahanannya kembali nol
+        assertEquals(0, reservasiStok.jumlahKodeDitahan());
+    }
+
+    @Test
+    @DisplayName("Tahanan juga berlaku saat penggabungan stok aktif, dan dilepas saat close")
+    void testTahananDenganPenggabungStok() {
+        serviceInventaris.aktifkanPenggabunganStok();
+        ReservasiStok.Reservasi pertama = reservasiStok.reservasi("P001", 3, 5_000).orElseThrow();
+        ReservasiStok.Reservasi kedua = reservasiStok.reservasi("P001", 3, 5_000).orElseThrow();
+
+        assertEquals(StatusOperasi.STOK_TIDAK_CUKUP, serviceInventaris.keluarStokStatus("P001", 5));
+        assertEquals(StatusOperasi.BERHASIL, serviceInventaris.keluarStokStatus("P001", 4));
+        // Konfirmasi hanya boleh memakai tahanannya sendiri, bukan tahanan reservasi lain
+        assertEquals(StatusOperasi.BERHASIL, reservasiStok.konfirmasi(pertama.getId()));
+        assertEquals(3, repository.cariByKode("P001").get().getStok());
+        assertEquals(1, reservasiStok.jumlahKodeDitahan());
+
+        reservasiStok.close();
+        assertEquals(StatusOperasi.BERHASIL, serviceInventaris.keluarStokStatus("P001", 3));
+        assertEquals(StatusOperasi.STOK_TIDAK_CUKUP, reservasiStok.konfirmasi(kedua.getId()));
+        assertEquals(0, reservasiStok.jumlahKodeDitahan());
+    }
+
+    @Test
+    @DisplayName("Konfigurasi timer wheel tidak valid ditolak")
+    void testKonfigurasiTidakValid() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ReservasiStok(serviceInventaris, jam::get, 0, 8));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ReservasiStok(serviceInventaris, jam::get, 100, 0));
+    }
+}
@@ -16,6 +16,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -76,6 +77,18 @@ class ServiceInventarisTest {
         verify(repositoryProduk, never()).simpan(any()); // Verifikasi simpan() tidak pernah dipanggil
     }
 
+    @Test
+    @DisplayName("tambahProduk: Kode yang pasti belum ada tidak dicari ke repository")
+    void testTambahProduk_LewatiPencarianJikaPastiTidakAda() {
+        when(repositoryProduk.pastiTidakAda("P001")).thenReturn(true);
+        when(repositoryProduk.simpan(produkValid)).thenReturn(true);
+
+        assertTrue(serviceInventaris.tambahProduk(produkValid));
+
+        verify(repositoryProduk, never()).cariByKode(any());
+        verify(repositoryProduk).simpan(produkValid);
+    }
+
     // === Test hapusProduk ===
 
     @Test
@@ -295,4 +308,94 @@ class ServiceInventarisTest {
         serviceInventaris.getProdukStokHabis();
         verify(repositoryProduk).cariProdukStokHabis();
     }
+
+    // === Test varian *Status dan penghitung status ===
+
+    @Test
+    @DisplayName("tambahProdukStatus: Mengembalikan alasan kegagalan yang tepat")
+    void testTambahProdukStatus() {
+        assertEquals(StatusOperasi.PRODUK_TIDAK_VALID, serviceInventaris.tambahProdukStatus(new Produk()));
+
+        when(repositoryProduk.cariByKode("P001")).thenReturn(Optional.of(produkValid));
+        assertEquals(StatusOperasi.DUPLIKAT, serviceInventaris.tambahProdukStatus(produkValid));
+
+        when(repositoryProduk.cariByKode("P001")).thenReturn(Optional.empty());
+        when(repositoryProduk.simpan(produkValid)).thenReturn(false);
+        assertEquals(StatusOperasi.GAGAL_REPOSITORY, serviceInventaris.tambahProdukStatus(produkValid));
+    }
+
+    @Test
+    @DisplayName("hapusProdukStatus: Mengembalikan alasan kegagalan yang tepat")
+    void testHapusProdukStatus() {
+        assertEquals(StatusOperasi.KODE_TIDAK_VALID, serviceInventaris.hapusProdukStatus("P1"));
+
+        when(repositoryProduk.cariByKode("P001")).thenReturn(Optional.empty());
+        assertEquals(StatusOperasi.TIDAK_DITEMUKAN, serviceInventaris.hapusProdukStatus("P001"));
+
+        when(repositoryProduk.cariByKode("P001")).thenReturn(Optional.of(produkValid));
+        assertEquals(StatusOperasi.MASIH_ADA_STOK, serviceInventaris.hapusProdukStatus("P001"));
+
+        produkValid.setStok(0);
+        when(repositoryProduk.hapus("P001")).thenReturn(false);
+        assertEquals(StatusOperasi.GAGAL_REPOSITORY, serviceInventaris.hapusProdukStatus("P001"));
+    }
+
+    @Test
+    @DisplayName("updateStokStatus: Membedakan kode tidak valid dan stok negatif")
+    void testUpdateStokStatus() {
+        assertEquals(StatusOperasi.KODE_TIDAK_VALID, serviceInventaris.updateStokStatus("P1", 5));
+        assertEquals(StatusOperasi.JUMLAH_TIDAK_VALID, serviceInventaris.updateStokStatus("P001", -1));
+
+        when(repositoryProduk.cariByKode("P001")).thenReturn(Optional.empty());
+        assertEquals(StatusOperasi.TIDAK_DITEMUKAN, serviceInventaris.updateStokStatus("P001", 5));
+
+        when(repositoryProduk.cariByKode("P001")).thenReturn(Optional.of(produkValid));
+        when(repositoryProduk.updateStok("P001", 5)).thenReturn(true);
+        assertEquals(StatusOperasi.BERHASIL, serviceInventaris.updateStokStatus("P001", 5));
+    }
+
+    @Test
+    @DisplayName("keluarStokStatus: Membedakan tidak ditemukan, tidak aktif, dan stok tidak cukup")
+    void testKeluarStokStatus() {
+        assertEquals(StatusOperasi.KODE_TIDAK_VALID, serviceInventaris.keluarStokStatus(null, 1));
+        assertEquals(StatusOperasi.JUMLAH_TIDAK_VALID, serviceInventaris.keluarStokStatus("P001", 0));
+
+        when(repositoryProduk.cariByKode("P001")).thenReturn(Optional.empty());
+        assertEquals(StatusOperasi.TIDAK_DITEMUKAN, serviceInventaris.keluarStokStatus("P001", 1));
+
+        when(repositoryProduk.cariByKode("P001")).thenReturn(Optional.of(produkValid));
+        assertEquals(StatusOperasi.STOK_TIDAK_CUKUP, serviceInventaris.keluarStokStatus("P001", 11));
+
+        produkValid.setAktif(false);
+        assertEquals(StatusOperasi.TIDAK_AKTIF, serviceInventaris.keluarStokStatus("P001", 1));
+        verify(repositoryProduk, never()).updateStok(anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("masukStokStatus: Mengembalikan alasan kegagalan yang tepat")
+    void testMasukStokStatus() {
+        assertEquals(StatusOperasi.KODE_TIDAK_VALID, serviceInventaris.masukStokStatus("P 1", 1));
+        assertEquals(StatusOperasi.JUMLAH_TIDAK_VALID, serviceInventaris.masukStokStatus("P001", -5));
+
+        when(repositoryProduk.cariByKode("P001")).thenReturn(Optional.of(produkValid));
+        when(repositoryProduk.updateStok("P001", 15)).thenReturn(false);
+        assertEquals(StatusOperasi.GAGAL_REPOSITORY, serviceInventaris.masukStokStatus("P001", 5));
+
+        produkValid.setAktif(false);
+        assertEquals(StatusOperasi.TIDAK_AKTIF, serviceInventaris.masukStokStatus("P001", 5));
+    }
+
+    @Test
+    @DisplayName("getJumlahStatus: Menghitung hasil operasi per status")
+    void testGetJumlahStatus() {
+        serviceInventaris.keluarStok("P1", 1);
+        serviceInventaris.masukStok("P1", 1);
+        when(repositoryProduk.cariByKode("P001")).thenReturn(Optional.of(produkValid));
+        when(repositoryProduk.updateStok("P001", 7)).thenReturn(true);
+        serviceInventaris.keluarStok("P001", 3);
+
+        assertEquals(2, serviceInventaris.getJumlahStatus(StatusOperasi.KODE_TIDAK_VALID));
+        assertEquals(1, serviceInventaris.getJumlahStatus(StatusOperasi.BERHASIL));
+        assertEquals(0, serviceInventaris.getJumlahStatus(StatusOperasi.DUPLIKAT));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,219 @@
+package com.praktikum.whitebox.service;
+
+import com.praktikum.whitebox.model.Produk;
+import com.praktikum.whitebox.repository.RepositoryProdukInMemory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test StokMultiGudang - stok per lokasi gudang")
+class StokMultiGudangTest {
+
+    private RepositoryProdukInMemory repository;
+    private ServiceInventaris serviceInventaris;
+    private StokMultiGudang stokMultiGudang;
+
+    @BeforeEach
+    void setUp() {
+        repository = new RepositoryProdukInMemory();
+        repository.simpan(new Produk("P001", "Laptop Gaming", "Elektronik", 15000000, 20, 5));
+        repository.simpan(new Produk("P002", "Mouse Wireless", "Elektronik", 150000, 0, 3));
+        serviceInventaris = new ServiceInventaris(repository);
+        stokMultiGudang = new StokMultiGudang(serviceInventaris, 4);
+    }
+
+    @Test
+    @DisplayName("Stok awal produk ditempatkan di gudang utama")
+    void testStokAwal() {
+        assertEquals(20, stokMultiGudang.getStok("P001", 0));
+        assertEquals(0, stokMultiGudang.getStok("P001", 1));
+        assertEquals(20, stokMultiGudang.getTotalStok("P001"));
+        assertEquals(0, stokMultiGudang.getTotalStok("P999"));
+        assertEquals(4, stokMultiGudang.getJumlahGudang());
+    }
+
+    @Test
+    @DisplayName("Masuk dan keluar stok hanya memengaruhi gudang yang dituju")
+    void testMutasiPerGudang() {
+        assertEquals(StatusOperasi.BERHASIL, stokMultiGudang.masukStok("P001", 2, 7));
+        assertEquals(StatusOperasi.BERHASIL, stokMultiGudang.keluarStok("P001", 2, 4));
+        assertEquals(3, stokMultiGudang.getStok("P001", 2));
+        assertEquals(20, stokMultiGudang.getStok("P001", 0));
+        assertEquals(23, stokMultiGudang.getTotalStok("P001"));
+
+        // Stok gudang 2 hanya 3 walaupun total 23
+        assertEquals(StatusOperasi.STOK_TIDAK_CUKUP, stokMultiGudang.keluarStok("P001", 2, 4));
+        assertEquals(3, stokMultiGudang.getStok("P001", 2));
+    }
+
+    @Test
+    @DisplayName("Status kegagalan dan nomor gudang tidak valid")
+    void testValidasi() {
+        assertEquals(StatusOperasi.KODE_TIDAK_VALID, stokMultiGudang.masukStok("P1", 0, 1));
+        assertEquals(StatusOperasi.JUMLAH_TIDAK_VALID, stokMultiGudang.keluarStok("P001", 0, 0));
+        assertEquals(StatusOperasi.TIDAK_DITEMUKAN, stokMultiGudang.masukStok("P999", 0, 1));
+
+        repository.cariByKode("P002").get().setAktif(false);
+        assertEquals(StatusOperasi.TIDAK_AKTIF, stokMultiGudang.masukStok("P002", 0, 1));
+
+        assertThrows(IllegalArgumentException.class, () -> stokMultiGudang.masukStok("P001", 4, 1));
+        assertThrows(IllegalArgumentException.class, () -> stokMultiGudang.getStok("P001", -1));
+        assertThrows(IllegalArgumentException.class, () -> new StokMultiGudang(serviceInventaris, 0));
+        assertThrows(IllegalArgumentException.class, () -> new StokMultiGudang(serviceInventaris, 4, null));
+    }
+
+    @Test
+    @DisplayName("Stok menipis dievaluasi per gudang dan secara global")
+    void testStokMenipis() {
+        stokMultiGudang.masukStok("P002", 1, 2);   // Gudang 1: 2 <= 3 menipis
+        stokMultiGudang.masukStok("P002", 3, 10);  // Gudang 3: aman
+
+        assertEquals(List.of("P002"), kode(stokMultiGudang.getProdukStokMenipis(1)));
+        assertTrue(stokMultiGudang.getProdukStokMenipis(3).isEmpty());
+        assertTrue(stokMultiGudang.getProdukStokMenipisGlobal().isEmpty()); // Total 12 > 3
+
+        stokMultiGudang.keluarStok("P002", 3, 10);
+        assertEquals(List.of("P002"), kode(stokMultiGudang.getProdukStokMenipisGlobal())); // Total 2
+
+        stokMultiGudang.keluarStok("P002", 1, 2);
+        assertTrue(stokMultiGudang.getProdukStokMenipis(1).isEmpty()); // Habis, bukan menipis
+        assertTrue(stokMultiGudang.getProdukStokMenipisGlobal().isEmpty());
+
+        // Stok minimum khusus gudang
+        assertTrue(stokMultiGudang.setStokMinimumGudang("P001", 0, 25));
+        assertEquals(List.of("P001"), kode(stokMultiGudang.getProdukStokMenipis(0)));
+        assertFalse(stokMultiGudang.setStokMinimumGudang("P001", 0, -1));
+        assertFalse(stokMultiGudang.setStokMinimumGudang("P999", 0, 1));
+    }
+
+    @Test
+    @DisplayName("Stok minimum produk dibaca terkini, bukan dari saat pendaftaran")
+    void testStokMinimumProdukTerkini() {
+        stokMultiGudang.masukStok("P002", 1, 4);   // 4 > 3: aman
+        assertTrue(stokMultiGudang.getProdukStokMenipis(1).isEmpty());
+
+        assertTrue(repository.updateStokMinimum("P002", 8));
+        stokMultiGudang.masukStok("P002", 1, 1);   // 5 <= 8: menipis
+        assertEquals(List.of("P002"), kode(stokMultiGudang.getProdukStokMenipis(1)));
+        assertEquals(List.of("P002"), kode(stokMultiGudang.getProdukStokMenipisGlobal()));
+        assertEquals(8, stokMultiGudang.getProdukStokMenipis(1).get(0).getStokMinimum());
+    }
+
+    @Test
+    @DisplayName("Sinkronisasi meneruskan selisih total lintas gudang ke repository")
+    void testSinkronkanKeRepository() {
+        stokMultiGudang.masukStok("P001", 3, 5);
+        assertEquals(1, stokMultiGudang.sinkronkanKeRepository());
+        assertEquals(25, repository.cariByKode("P001").get().getStok());
+
+        // Tidak ada perubahan baru: tidak ada yang diteruskan
+        assertEquals(0, stokMultiGudang.sinkronkanKeRepository());
+        assertEquals(25, repository.cariByKode("P001").get().getStok());
+
+        stokMultiGudang.keluarStok("P001", 0, 8);
+        assertEquals(1, stokMultiGudang.sinkronkanKeRepository());
+        assertEquals(17, repository.cariByKode("P001").get().getStok());
+    }
+
+    @Test
+    @DisplayName("Sinkronisasi tidak menimpa mutasi lewat ServiceInventaris")
+    void testSinkronkanMempertahankanMutasiService() {
+        assertEquals(20, stokMultiGudang.getTotalStok("P001"));   // Terdaftar dengan stok 20
+        assertTrue(serviceInventaris.keluarStok("P001", 3));     // Repository: 17
+
+        stokMultiGudang.masukStok("P001", 3, 5);
+        assertEquals(17, stokMultiGudang.getStok("P001", 0));    // Keluar 3 diserap gudang utama
+        assertEquals(22, stokMultiGudang.getTotalStok("P001"));
+        assertEquals(1, stokMultiGudang.sinkronkanKeRepository());
+        assertEquals(22, repository.cariByKode("P001").get().getStok());
+    }
+
+    @Test
+    @DisplayName("Mutasi lewat ServiceInventaris diserap ke gudang sebelum operasi gudang")
+    void testSerapMutasiLuar() {
+        stokMultiGudang.masukStok("P001", 2, 5);                 // Gudang 0: 20, gudang 2: 5
+        assertEquals(1, stokMultiGudang.sinkronkanKeRepository());
+
+        assertTrue(serviceInventaris.keluarStok("P001", 23));    // Repository: 2
+        assertEquals(2, stokMultiGudang.getTotalStok("P001"));
+        assertEquals(0, stokMultiGudang.getStok("P001", 0));
+        assertEquals(2, stokMultiGudang.getStok("P001", 2));
+
+        // Stok yang sudah terjual di luar tidak bisa dijual lagi dari gudang
+        assertEquals(StatusOperasi.STOK_TIDAK_CUKUP, stokMultiGudang.keluarStok("P001", 2, 3));
+        assertEquals(StatusOperasi.BERHASIL, stokMultiGudang.keluarStok("P001", 2, 2));
+
+        assertTrue(serviceInventaris.masukStok("P001", 4));      // Masuk dari luar ke gudang utama
+        assertEquals(4, stokMultiGudang.getStok("P001", 0));
+        assertEquals(1, stokMultiGudang.sinkronkanKeRepository());
+        assertEquals(4, repository.cariByKode("P001").get().getStok());
+        assertEquals(0, stokMultiGudang.getJumlahUnitKonflik());
+    }
+
+    @Test
+    @DisplayName("Penjualan ganda sebelum sinkronisasi dicatat sebagai konflik, bukan selisih tertunda")
+    void testSinkronkanPenjualanGanda() {
+        stokMultiGudang.keluarStok("P001", 0, 15);               // Gudang: 5, selisih -15
+        assertTrue(serviceInventaris.keluarStok("P001", 10));    // Repository: 10, total terjual 25 > 20
+
+        assertEquals(1, stokMultiGudang.sinkronkanKeRepository());
+        assertEquals(0, repository.cariByKode("P001").get().getStok());
+        assertEquals(0, stokMultiGudang.getTotalStok("P001"));
+        assertEquals(5, stokMultiGudang.getJumlahUnitKonflik());
+
+        // Tidak ada selisih yang tertinggal untuk sinkronisasi berikutnya
+        assertTrue(serviceInventaris.masukStok("P001", 5));
+        assertEquals(0, stokMultiGudang.sinkronkanKeRepository());
+        assertEquals(5, repository.cariByKode("P001").get().getStok());
+        assertEquals(5, stokMultiGudang.getStok("P001", 0));
+    }
+
+    @Test
+    @DisplayName("Produk yang dihapus dari repository dilepas saat sinkronisasi")
+    void testSinkronkanProdukDihapus() {
+        stokMultiGudang.masukStok("P002", 1, 2);
+        assertEquals(List.of("P002"), kode(stokMultiGudang.getProdukStokMenipis(1)));
+        assertTrue(repository.hapus("P002"));
+
+        assertEquals(0, stokMultiGudang.sinkronkanKeRepository());
+        assertTrue(stokMultiGudang.getProdukStokMenipis(1).isEmpty());
+        assertEquals(0, stokMultiGudang.getTotalStok("P002"));
+    }
+
+    @Test
+    @DisplayName("Keluar stok bersamaan di banyak gudang tidak pernah membuat stok negatif")
+    void testKonkuren() throws InterruptedException {
+        stokMultiGudang = new StokMultiGudang(serviceInventaris, 4, Set.of("P002"));
+        for (int gudang = 0; gudang < 4; gudang++) {
+            stokMultiGudang.masukStok("P002", gudang, 1_000);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            int gudang = t % 4;
+            executor.submit(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    stokMultiGudang.keluarStok("P002", gudang, 1);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        for (int gudang = 0; gudang < 4; gudang++) {
+            assertEquals(0, stokMultiGudang.getStok("P002", gudang));
+        }
+        assertEquals(0, stokMultiGudang.getTotalStok("P002"));
+    }
+
+    private static List<String> kode(List<Produk> daftarProduk) {
+        return daftarProduk.stream().map(Produk::getKode).sorted().toList();
+    }
+}
@@ -0,0 +1,93 @@
+package com.praktikum.whitebox.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test TabelDiskonKategori - tingkat diskon kuantitas per kategori")
+class TabelDiskonKategoriTest {
+
+    private TabelDiskonKategori tabel;
+
+    @BeforeEach
+    void setUp() {
+        tabel = new TabelDiskonKategori();
+    }
+
+    @Test
+    @DisplayName("Validasi aturan tingkat")
+    void testValidasi() {
+        int[] ambang = {5, 10};
+        double[] persen = {0.05, 0.10};
+        assertThrows(IllegalArgumentException.class, () -> tabel.aturTingkat(null, ambang, persen));
+        assertThrows(IllegalArgumentException.class, () -> tabel.aturTingkat("  ", ambang, persen));
+        assertThrows(IllegalArgumentException.class, () -> tabel.aturTingkat("A", null, persen));
+        assertThrows(IllegalArgumentException.class, () -> tabel.aturTingkat("A", new int[]{5}, persen));
+        assertThrows(IllegalArgumentException.class,
+                () -> tabel.aturTingkat("A", new int[]{10, 5}, persen));
+        assertThrows(IllegalArgumentException.class,
+                () -> tabel.aturTingkat("A", new int[]{0, 5}, persen));
+        assertThrows(IllegalArgumentException.class,
+                () -> tabel.aturTingkat("A", ambang, new double[]{0.05, 1.5}));
+        assertThrows(IllegalArgumentException.class,
+                () -> tabel.aturTingkat("A", ambang, new double[]{Double.NaN, 0.1}));
+        assertThrows(IllegalArgumentException.class, () -> tabel.aturTingkat("A", ambang, persen, -0.1));
+        assertEquals(0, tabel.getJumlahKategori());
+    }
+
+    @Test
+    @DisplayName("Pencarian tidak membedakan huruf besar/kecil dan tingkat dipilih dari ambang tertinggi")
+    void testPencarianDanTingkat() {
+        tabel.aturTingkat("Elektronik", new int[]{5, 10, 100}, new double[]{0.01, 0.03, 0.07}, 0.2);
+        TabelDiskonKategori.Isi isi = tabel.isi();
+
+        int id = isi.cariId("eLEKTRONIK");
+        assertTrue(id >= 0);
+        assertTrue(tabel.isTerdaftar("elektronik"));
+        assertFalse(tabel.isTerdaftar("Pakaian"));
+        assertFalse(tabel.isTerdaftar(null));
+        assertEquals(0.0, isi.persentaseKuantitas(id, 4));
+        assertEquals(0.01, isi.persentaseKuantitas(id, 5));
+        assertEquals(0.03, isi.persentaseKuantitas(id, 99));
+        assertEquals(0.07, isi.persentaseKuantitas(id, 1000));
+        assertEquals(0.2, isi.batasMaksimum(id));
+    }
+
+    @Test
+    @DisplayName("Mengganti dan menghapus aturan mempublikasikan versi baru tanpa mengubah versi lama")
+    void testGantiDanHapus() {
+        tabel.aturTingkat("Makanan", new int[]{10}, new double[]{0.10});
+        TabelDiskonKategori.Isi lama = tabel.isi();
+
+        tabel.aturTingkat("MAKANAN", new int[]{10}, new double[]{0.20});
+        assertEquals(1, tabel.getJumlahKategori());
+        TabelDiskonKategori.Isi baru = tabel.isi();
+        assertEquals(0.20, baru.persentaseKuantitas(baru.cariId("makanan"), 10));
+        assertEquals(0.10, lama.persentaseKuantitas(lama.cariId("makanan"), 10));
+
+        assertTrue(tabel.hapus("makanan"));
+        assertFalse(tabel.hapus("makanan"));
+        assertFalse(tabel.hapus(null));
+        assertEquals(0, tabel.getJumlahKategori());
+        assertEquals(-1, tabel.isi().cariId("Makanan"));
+    }
+
+    @Test
+    @DisplayName("Banyak kategori tetap ditemukan dengan tingkatnya masing-masing")
+    void testBanyakKategori() {
+        for (int i = 0; i < 200; i++) {
+            tabel.aturTingkat("Kategori-" + i, new int[]{i + 1}, new double[]{i / 1000.0});
+        }
+        TabelDiskonKategori.Isi isi = tabel.isi();
+        assertEquals(200, isi.jumlahKategori());
+        for (int i = 0; i < 200; i++) {
+            int id = isi.cariId("KATEGORI-" + i);
+            assertTrue(id >= 0, "Kategori-" + i);
+            assertEquals(i / 1000.0, isi.persentaseKuantitas(id, i + 1));
+            assertEquals(0.0, isi.persentaseKuantitas(id, i));
+        }
+        assertEquals(-1, isi.cariId("Kategori-200"));
+    }
+}
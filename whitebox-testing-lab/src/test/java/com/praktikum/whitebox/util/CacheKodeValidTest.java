@@ -0,0 +1,41 @@
+package com.praktikum.whitebox.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test CacheKodeValid - cache kode produk yang sudah divalidasi")
+class CacheKodeValidTest {
+
+    @Test
+    @DisplayName("Hasil cache selalu sama dengan ValidationUtils, termasuk setelah tergusur")
+    void testHasilSamaDenganValidasi() {
+        CacheKodeValid cache = new CacheKodeValid(4);
+        String[] kode = {"P001", "P002", null, "", "P1", "P-001", "  ABC  ", "PROD123456", "PROD1234567"};
+        for (int ulang = 0; ulang < 3; ulang++) {
+            for (String k : kode) {
+                assertEquals(ValidationUtils.isValidKodeProduk(k), cache.isValid(k), String.valueOf(k));
+            }
+            for (int i = 0; i < 100; i++) {
+                String k = "K" + i;
+                assertEquals(ValidationUtils.isValidKodeProduk(k), cache.isValid(k), k);
+            }
+        }
+        // String berbeda dengan isi sama juga dikenali
+        assertTrue(cache.isValid(new String("P001")));
+
+        cache.bersihkan();
+        assertTrue(cache.isValid("P001"));
+        assertFalse(cache.isValid("P-001"));
+    }
+
+    @Test
+    @DisplayName("Kapasitas dibulatkan ke pangkat dua dan harus positif")
+    void testKapasitas() {
+        assertEquals(256, new CacheKodeValid().getKapasitas());
+        assertEquals(8, new CacheKodeValid(5).getKapasitas());
+        assertEquals(1, new CacheKodeValid(1).getKapasitas());
+        assertThrows(IllegalArgumentException.class, () -> new CacheKodeValid(0));
+    }
+}
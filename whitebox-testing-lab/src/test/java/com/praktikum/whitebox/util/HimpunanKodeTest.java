@@ -0,0 +1,51 @@
+package com.praktikum.whitebox.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Test HimpunanKode - himpunan kode produk primitif")
+class HimpunanKodeTest {
+
+    @Test
+    @DisplayName("enkode: kode valid menghasilkan nilai positif yang unik")
+    void testEnkode() {
+        assertTrue(HimpunanKode.enkode("P001") > 0);
+        assertTrue(HimpunanKode.enkode("zzzzzzzzzz") > 0); // Nilai terbesar tetap muat dalam long
+        assertNotEquals(HimpunanKode.enkode("P001"), HimpunanKode.enkode("p001")); // Case-sensitive
+        assertNotEquals(HimpunanKode.enkode("P01"), HimpunanKode.enkode("P001"));
+        assertNotEquals(HimpunanKode.enkode("0"), HimpunanKode.enkode("00"));
+    }
+
+    @Test
+    @DisplayName("enkode: kode yang tidak bisa dikodekan menghasilkan -1")
+    void testEnkodeTidakValid() {
+        assertEquals(-1, HimpunanKode.enkode(null));
+        assertEquals(-1, HimpunanKode.enkode(""));
+        assertEquals(-1, HimpunanKode.enkode("P-001"));
+        assertEquals(-1, HimpunanKode.enkode("ABCDEFGHIJK")); // 11 karakter
+    }
+
+    @Test
+    @DisplayName("tambah dan berisi, termasuk saat tabel membesar")
+    void testTambahDanBerisi() {
+        HimpunanKode himpunan = new HimpunanKode(4);
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(himpunan.tambah(HimpunanKode.enkode("K" + i)));
+        }
+        assertEquals(10_000, himpunan.ukuran());
+        assertFalse(himpunan.tambah(HimpunanKode.enkode("K42"))); // Duplikat
+        assertTrue(himpunan.berisi(HimpunanKode.enkode("K9999")));
+        assertFalse(himpunan.berisi(HimpunanKode.enkode("K10000")));
+        assertFalse(himpunan.berisi(-1));
+    }
+
+    @Test
+    @DisplayName("tambah: nilai tidak positif ditolak")
+    void testTambahTidakPositif() {
+        HimpunanKode himpunan = new HimpunanKode();
+        assertThrows(IllegalArgumentException.class, () -> himpunan.tambah(-1));
+        assertThrows(IllegalArgumentException.class, () -> himpunan.tambah(0));
+    }
+}
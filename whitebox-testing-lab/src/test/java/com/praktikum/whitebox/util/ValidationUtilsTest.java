@@ -32,6 +32,14 @@ class ValidationUtilsTest {
         assertFalse(ValidationUtils.isValidKodeProduk("P-001")); // Invalid characters
     }
 
+    @ParameterizedTest
+    @DisplayName("isValidKodeProduk: Sama dengan trim() + regex untuk kasus tepi")
+    @ValueSource(strings = {"\tP001\n", "ABC", "ABCDEFGHIJ", " AB ", "A B C", "P\u00E9001", "\u0661\u0662\u0663",
+            "P001\u00A0", "\u0000P01\u0000", "  P_01", "zz9"})
+    void testIsValidKodeProduk_SamaDenganRegex(String kode) {
+        assertEquals(kode.trim().matches("^[A-Za-z0-9]{3,10}$"), ValidationUtils.isValidKodeProduk(kode));
+    }
+
     // --- isValidNama ---
     @Test
     @DisplayName("isValidNama: Nama valid")